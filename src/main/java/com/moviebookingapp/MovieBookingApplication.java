@@ -3,14 +3,25 @@ package com.moviebookingapp;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
-@EnableJpaAuditing
 @Slf4j
 public class MovieBookingApplication {
+    private static final int STARTUP_STEPS = 10_000;
 
     public static void main(String[] args) {
-            SpringApplication.run(MovieBookingApplication.class, args);
+        SpringApplication application = new SpringApplication(MovieBookingApplication.class);
+        // Keeps the startup steps for the startup phase metrics and the actuator startup endpoint.
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        ConfigurableApplicationContext context = application.run(args);
+
+        // The fast-startup build boots the application once to record the classes it loads
+        // into the class-data sharing archive, then stops.
+        if (Boolean.getBoolean("moviebooking.startup.training-run")) {
+            log.info("Training run complete, shutting down");
+            System.exit(SpringApplication.exit(context));
+        }
     }
-} 
\ No newline at end of file
+}
@@ -6,27 +6,31 @@ import com.moviebookingapp.domain.User;
 import com.moviebookingapp.repository.MovieRepository;
 import com.moviebookingapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.boot.ApplicationArguments;
-import org.springframework.boot.ApplicationRunner;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Seeds the demo catalogue and the default admin into an empty database. Run by
+ * {@link StartupTasks} once the application is ready rather than during startup.
+ */
 @Component
 @RequiredArgsConstructor
-public class DataSeeder implements ApplicationRunner {
+@Slf4j
+public class DataSeeder {
 
     private final MovieRepository movieRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder encoder;
 
-    @Override
-    public void run(ApplicationArguments args) {
+    public void seed() {
         seedMovies();
         seedAdmin();
     }
 
     private void seedMovies() {
-        if (movieRepository.findAll().isEmpty()) {
+        if (movieRepository.count() == 0) {
+            log.info("Movie catalogue is empty, seeding demo shows");
             movieRepository.save(Movie.builder().movieName("Inception").theatreName("Grand Cinema").totalTickets(100).status("BOOK ASAP").build());
             movieRepository.save(Movie.builder().movieName("Inception").theatreName("Cityplex").totalTickets(120).status("BOOK ASAP").build());
             movieRepository.save(Movie.builder().movieName("Interstellar").theatreName("Grand Cinema").totalTickets(90).status("BOOK ASAP").build());
@@ -0,0 +1,91 @@
+package com.moviebookingapp.bootstrap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes how long the instance took to start as moviebooking.startup.time, one gauge per
+ * phase. The per-step phases need the {@link BufferingApplicationStartup} installed by the
+ * main class; without it only the ready and total times are reported.
+ */
+@Component
+@Slf4j
+public class StartupPhaseMetrics {
+    private static final String METRIC = "moviebooking.startup.time";
+
+    private final MeterRegistry meterRegistry;
+
+    public StartupPhaseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        StartupTimeline timeline = event.getApplicationContext().getApplicationStartup()
+                instanceof BufferingApplicationStartup buffering ? buffering.getBufferedTimeline() : null;
+        Map<String, Duration> phases = phases(timeline, event.getTimeTaken(),
+                ManagementFactory.getRuntimeMXBean().getStartTime());
+        phases.forEach((phase, duration) -> TimeGauge.builder(METRIC, duration::toNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent in each startup phase")
+                .tag("phase", phase)
+                .register(meterRegistry));
+        log.info("Startup phases (ms): {}", phases.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue().toMillis())
+                .toList());
+    }
+
+    static Map<String, Duration> phases(StartupTimeline timeline, Duration ready, long jvmStartMillis) {
+        Map<String, Duration> phases = new LinkedHashMap<>();
+        if (timeline != null) {
+            phases.put("jvm", Duration.ofMillis(Math.max(timeline.getStartTime().toEpochMilli() - jvmStartMillis, 0)));
+            for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+                String phase = phaseOf(event.getStartupStep());
+                if (phase != null) {
+                    phases.merge(phase, event.getDuration(), Duration::plus);
+                }
+            }
+        }
+        if (ready != null) {
+            phases.put("ready", ready);
+        }
+        phases.put("total", Duration.ofMillis(Math.max(System.currentTimeMillis() - jvmStartMillis, 0)));
+        return phases;
+    }
+
+    private static String phaseOf(StartupStep step) {
+        return switch (step.getName()) {
+            case "spring.boot.application.environment-prepared" -> "environment";
+            case "spring.context.refresh" -> "context-refresh";
+            // Configuration class parsing and scanning; an AOT build skips most of it.
+            case "spring.context.beandef-registry.post-process" -> "bean-definitions";
+            case "spring.boot.webserver.create" -> "web-server";
+            case "spring.data.repository.init" -> "repositories";
+            // The entity manager factory is a factory bean, so the Hibernate bootstrap is recorded under its & name.
+            case "spring.beans.instantiate" -> "&entityManagerFactory".equals(beanName(step)) ? "jpa" : null;
+            case "spring.beans.smart-initialize" -> "kafkaAdmin".equals(beanName(step)) ? "kafka-topics" : null;
+            default -> null;
+        };
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.moviebookingapp.bootstrap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the data seeder and then the signup filter warm-up once the application is ready.
+ * By default they run on a background thread so the instance starts taking traffic without
+ * waiting on the database; with background disabled they run on the startup thread and a
+ * failure fails the startup, as before.
+ */
+@Component
+@Slf4j
+public class StartupTasks {
+    private final DataSeeder dataSeeder;
+    private final UserIdentityFilterWarmer filterWarmer;
+    private final boolean background;
+
+    public StartupTasks(DataSeeder dataSeeder,
+                        UserIdentityFilterWarmer filterWarmer,
+                        @Value("${moviebooking.startup.background-tasks:true}") boolean background) {
+        this.dataSeeder = dataSeeder;
+        this.filterWarmer = filterWarmer;
+        this.background = background;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!background) {
+            runAll();
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                runAll();
+            } catch (RuntimeException e) {
+                log.error("Startup tasks failed; the catalogue may be unseeded and the signup filter stays cold", e);
+            }
+        }, "startup-tasks");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void runAll() {
+        long started = System.nanoTime();
+        dataSeeder.seed();
+        filterWarmer.warmUp();
+        log.info("Startup tasks finished in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,39 @@
+package com.moviebookingapp.bootstrap;
+
+import com.moviebookingapp.dto.UserIdentity;
+import com.moviebookingapp.repository.UserRepository;
+import com.moviebookingapp.service.UserIdentityFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Loads existing login ids and emails into the signup filter; {@link StartupTasks} runs it
+ * after the data seeder once the application is up. Until it finishes, signups simply fall
+ * back to the unique constraints and logins skip the unknown-user precheck.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserIdentityFilterWarmer {
+    private final UserRepository userRepository;
+    private final UserIdentityFilter userIdentityFilter;
+
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long started = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+        try (Stream<UserIdentity> identities = userRepository.streamIdentities()) {
+            identities.forEach(identity -> {
+                userIdentityFilter.add(identity.getLoginId(), identity.getEmail());
+                loaded.incrementAndGet();
+            });
+        }
+        userIdentityFilter.markWarm();
+        log.info("Signup filter warmed with {} users in {} ms", loaded.get(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
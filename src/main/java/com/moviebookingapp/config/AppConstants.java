@@ -4,6 +4,8 @@ public final class AppConstants {
     public static final String KAFKA_TOPIC_TICKETS = "moviebooking.tickets";
     public static final String KAFKA_TOPIC_LOGS = "app-logs";
     public static final String KAFKA_TOPIC_STATUS = "moviebooking.status";
+    public static final String KAFKA_TOPIC_INVALIDATION = "moviebooking.invalidation";
+    public static final String KAFKA_TOPIC_USERS = "moviebooking.users";
     public static final String MOVIES_COLLECTION = "movies";
     public static final String TICKETS_COLLECTION = "tickets";
     public static final String USERS_COLLECTION = "users";
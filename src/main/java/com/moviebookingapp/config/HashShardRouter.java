@@ -0,0 +1,83 @@
+package com.moviebookingapp.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Places theatres by rendezvous hashing of their normalised name, with optional explicit
+ * placements for theatres that need to live on a particular shard.
+ *
+ * Every shard scores the theatre and the highest score wins, so adding a shard only moves the
+ * theatres it now wins (about one in the new shard count) and removing one only moves its own.
+ * Those theatres' rows have to be copied before the new layout goes live, or pinned to their
+ * old shard with an explicit placement.
+ */
+public class HashShardRouter implements ShardRouter {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int shardCount;
+    private final Map<String, Integer> placements = new HashMap<>();
+
+    public HashShardRouter(int shardCount, Map<String, Integer> placements) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+        placements.forEach((theatre, shard) -> {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Theatre " + theatre + " placed on unknown shard " + shard);
+            }
+            this.placements.put(normalise(theatre), shard);
+        });
+    }
+
+    @Override
+    public int shardFor(String theatreName) {
+        String key = normalise(theatreName);
+        Integer placed = placements.get(key);
+        if (placed != null) {
+            return placed;
+        }
+        long hash = hash(key);
+        int best = 0;
+        long bestScore = score(hash, 0);
+        for (int shard = 1; shard < shardCount; shard++) {
+            long score = score(hash, shard);
+            if (Long.compareUnsigned(score, bestScore) > 0) {
+                best = shard;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int shardCount() {
+        return shardCount;
+    }
+
+    private static String normalise(String theatreName) {
+        return theatreName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // FNV-1a over the UTF-8 bytes: fixed by the key alone, unlike anything JVM- or run-dependent.
+    private static long hash(String key) {
+        long hash = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finaliser, so neighbouring shard numbers give unrelated scores.
+    private static long score(long hash, int shard) {
+        long z = hash + (shard + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
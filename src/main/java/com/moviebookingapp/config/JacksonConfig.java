@@ -0,0 +1,19 @@
+package com.moviebookingapp.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+@Configuration
+public class JacksonConfig {
+
+    // Picked up by Boot's ObjectMapper; replaces reflective accessor calls with generated lambdas.
+    // A native image cannot define classes at runtime, so there the plain accessors stay.
+    @Bean
+    public Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("blackbird-disabled") : new BlackbirdModule();
+    }
+}
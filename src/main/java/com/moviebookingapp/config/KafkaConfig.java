@@ -1,5 +1,6 @@
 package com.moviebookingapp.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -9,8 +10,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,18 +24,49 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${moviebooking.kafka.producer.linger:PT0.005S}")
+    private Duration linger;
+
+    @Value("${moviebooking.kafka.producer.batch-size:64KB}")
+    private DataSize batchSize;
+
+    @Value("${moviebooking.kafka.producer.compression:lz4}")
+    private String compression;
+
+    @Value("${moviebooking.kafka.producer.buffer-memory:32MB}")
+    private DataSize bufferMemory;
+
+    @Value("${moviebooking.kafka.producer.max-block:PT5S}")
+    private Duration maxBlock;
+
+    @Value("${moviebooking.kafka.producer.delivery-timeout:PT2M}")
+    private Duration deliveryTimeout;
+
+    // Events are small and bursty, so a few milliseconds of linger turns a burst of bookings
+    // into one compressed batch per partition. Idempotence keeps the retries from duplicating.
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, String> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) batchSize.toBytes());
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        configProps.put(ProducerConfig.BUFFER_MEMORY_CONFIG, bufferMemory.toBytes());
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlock.toMillis());
+        configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) deliveryTimeout.toMillis());
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(configProps);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, String> kafkaTemplate(ProducerFactory<String, String> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     @Bean
@@ -43,4 +78,14 @@ public class KafkaConfig {
     public NewTopic statusTopic() {
         return TopicBuilder.name(AppConstants.KAFKA_TOPIC_STATUS).partitions(1).replicas(1).build();
     }
-} 
\ No newline at end of file
+
+    @Bean
+    public NewTopic invalidationTopic() {
+        return TopicBuilder.name(AppConstants.KAFKA_TOPIC_INVALIDATION).partitions(1).replicas(1).compact().build();
+    }
+
+    @Bean
+    public NewTopic usersTopic() {
+        return TopicBuilder.name(AppConstants.KAFKA_TOPIC_USERS).partitions(1).replicas(1).compact().build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.moviebookingapp.config;
+
+import com.moviebookingapp.domain.InventorySnapshot;
+import com.moviebookingapp.domain.LedgerEvent;
+import com.moviebookingapp.domain.LedgerEventType;
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.RollupGranularity;
+import com.moviebookingapp.domain.RollupScope;
+import com.moviebookingapp.domain.SalesRollup;
+import com.moviebookingapp.domain.SalesRollupCheckpoint;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.domain.User;
+import com.moviebookingapp.dto.ShowStatusDTO;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative). The AOT pass already covers
+ * beans, controller payloads and repositories; these cover what Hibernate, Kafka, Logback and
+ * Jackson reach only by name or reflection.
+ */
+class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    static final List<Class<?>> ENTITIES = List.of(Movie.class, Ticket.class, User.class,
+            LedgerEvent.class, InventorySnapshot.class, SalesRollup.class, SalesRollupCheckpoint.class);
+
+    // Created by class name from application.yml / application.conf.
+    static final List<String> HIBERNATE_TYPES = List.of(
+            "org.hibernate.dialect.MySQL8Dialect",
+            "org.hibernate.dialect.H2Dialect",
+            "org.hibernate.cache.jcache.internal.JCacheRegionFactory",
+            "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+
+    // Instantiated and configured through setters by Joran from logback-spring.xml.
+    static final List<String> LOGBACK_TYPES = List.of(
+            "ch.qos.logback.core.ConsoleAppender",
+            "ch.qos.logback.core.rolling.RollingFileAppender",
+            "ch.qos.logback.core.rolling.TimeBasedRollingPolicy",
+            "ch.qos.logback.core.rolling.SizeAndTimeBasedFNATP",
+            "ch.qos.logback.classic.encoder.PatternLayoutEncoder",
+            "net.logstash.logback.encoder.LogstashEncoder",
+            "ch.qos.logback.classic.AsyncAppender",
+            "com.moviebookingapp.logging.SpoolingKafkaAppender");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Hibernate builds, hydrates and dirty-checks entities through their fields and constructors.
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+        }
+        for (Class<?> enumType : List.of(LedgerEventType.class, RollupScope.class, RollupGranularity.class)) {
+            hints.reflection().registerType(enumType, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        for (String type : HIBERNATE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        // Caffeine reads the second-level cache regions from application.conf on top of its reference.conf.
+        hints.resources().registerPattern("application.conf");
+        hints.resources().registerPattern("reference.conf");
+
+        // Producer and consumer factories instantiate the configured (de)serializers reflectively.
+        hints.reflection().registerType(StringSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(StringDeserializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        for (String type : LOGBACK_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("logback-spring.xml");
+
+        // Written by Jackson through SSE emitters rather than as a controller return type.
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), ShowStatusDTO.class);
+    }
+}
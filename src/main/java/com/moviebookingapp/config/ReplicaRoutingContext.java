@@ -0,0 +1,69 @@
+package com.moviebookingapp.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-request read-your-writes state. Once a request has written to the primary, or a client
+ * has recently written, read-only transactions on that thread are kept on the primary too.
+ */
+public final class ReplicaRoutingContext {
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static void begin(boolean primaryPinned, Runnable onFirstWrite) {
+        CURRENT.set(new State(primaryPinned, onFirstWrite));
+    }
+
+    public static boolean isPrimaryPinned() {
+        State state = CURRENT.get();
+        return state != null && state.primaryPinned;
+    }
+
+    public static void recordWrite() {
+        State state = CURRENT.get();
+        if (state == null || state.wrote) {
+            return;
+        }
+        state.wrote = true;
+        state.primaryPinned = true;
+        state.onFirstWrite.run();
+    }
+
+    /**
+     * Wraps a task so it runs with the calling thread's state, letting work handed to another
+     * thread still read from the primary and still mark the client as a recent writer.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        State captured = CURRENT.get();
+        return () -> {
+            State previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.get();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    private static final class State {
+        private boolean primaryPinned;
+        private boolean wrote;
+        private final Runnable onFirstWrite;
+
+        private State(boolean primaryPinned, Runnable onFirstWrite) {
+            this.primaryPinned = primaryPinned;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.moviebookingapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions declared by application code to the replica
+ * and everything else to the primary. Spring Data's implicit per-call read-only transactions
+ * stay on the primary: they are usually the read half of a read-modify-write flow that has no
+ * enclosing transaction, and reading a lagging replica there would be unsafe.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final String SPRING_DATA_PREFIX = "org.springframework.data.";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReplicaRoutingContext.recordWrite();
+            }
+            return PRIMARY;
+        }
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName != null && transactionName.startsWith(SPRING_DATA_PREFIX)) {
+            return PRIMARY;
+        }
+        return ReplicaRoutingContext.isPrimaryPinned() ? PRIMARY : REPLICA;
+    }
+}
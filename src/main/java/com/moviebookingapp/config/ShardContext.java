@@ -0,0 +1,35 @@
+package com.moviebookingapp.config;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's next connection should come from. Unset means the home
+ * shard (0), which also holds the data that is not scoped to a theatre, such as users.
+ */
+public final class ShardContext {
+    public static final int HOME_SHARD = 0;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? HOME_SHARD : shard;
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
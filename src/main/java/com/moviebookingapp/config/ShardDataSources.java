@@ -0,0 +1,33 @@
+package com.moviebookingapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * The connection pools of all shards, indexed by shard number.
+ */
+public class ShardDataSources implements AutoCloseable {
+    private final List<HikariDataSource> shards;
+
+    public ShardDataSources(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    public HikariDataSource get(int shard) {
+        return shards.get(shard);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public List<HikariDataSource> all() {
+        return shards;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,12 @@
+package com.moviebookingapp.config;
+
+/**
+ * Maps a theatre to the shard holding its movies and tickets. Declare a bean of this type
+ * to replace the default hash-based placement.
+ */
+public interface ShardRouter {
+
+    int shardFor(String theatreName);
+
+    int shardCount();
+}
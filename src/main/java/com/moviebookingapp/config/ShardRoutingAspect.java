@@ -0,0 +1,230 @@
+package com.moviebookingapp.config;
+
+import com.moviebookingapp.domain.TheatreScoped;
+import com.moviebookingapp.repository.ShardKey;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+/**
+ * Routes movie, ticket and ledger repository calls to the shard owning the theatre they concern.
+ * The theatre comes from a {@link ShardKey} parameter or a {@link TheatreScoped} argument.
+ * Calls without one run on every shard in parallel and their results are merged: lists are
+ * concatenated, counts summed, optionals resolved to the single match.
+ *
+ * A transaction is pinned to the first shard it routes to; a keyed call for another shard
+ * inside the same transaction is rejected rather than silently run on the wrong database.
+ * Calls spread over several shards run on their own connections, so they are rejected inside
+ * a read-write transaction, whose changes they would neither see nor roll back with.
+ *
+ * Ids are only unique across shards when each shard numbers its rows apart (see
+ * {@link ShardingConfig}); an id lookup that matches on several shards fails instead of
+ * returning whichever shard answered first.
+ */
+@Aspect
+@Order(0)
+@Slf4j
+public class ShardRoutingAspect {
+    private static final String TRANSACTION_SHARD = ShardRoutingAspect.class.getName() + ".shard";
+
+    private final ShardRouter router;
+    private final ExecutorService fanOutExecutor;
+
+    public ShardRoutingAspect(ShardRouter router, ExecutorService fanOutExecutor) {
+        this.router = router;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    @Around("(target(com.moviebookingapp.repository.MovieRepository) "
+            + "|| target(com.moviebookingapp.repository.TicketRepository) "
+            + "|| target(com.moviebookingapp.repository.LedgerEventRepository) "
+            + "|| target(com.moviebookingapp.repository.InventorySnapshotRepository)) "
+            + "&& (execution(* org.springframework.data.repository.Repository+.*(..)) "
+            + "|| execution(* com.moviebookingapp.repository.MovieNaturalIdRepository+.*(..)))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object[] args = joinPoint.getArgs();
+
+        String theatre = theatreOf(method, args);
+        if (theatre != null) {
+            return onShard(router.shardFor(theatre), joinPoint, args);
+        }
+
+        Map<Integer, List<TheatreScoped>> batches = batchesOf(args);
+        if (batches != null) {
+            if (batches.size() == 1) {
+                return onShard(batches.keySet().iterator().next(), joinPoint, args);
+            }
+            return perShardBatches(joinPoint, args, batches);
+        }
+
+        return fanOut(joinPoint, method);
+    }
+
+    private String theatreOf(Method method, Object[] args) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof ShardKey && args[i] instanceof String theatre) {
+                    return theatre;
+                }
+            }
+        }
+        for (Object arg : args) {
+            if (arg instanceof TheatreScoped scoped && scoped.getTheatreName() != null) {
+                return scoped.getTheatreName();
+            }
+        }
+        return null;
+    }
+
+    private Map<Integer, List<TheatreScoped>> batchesOf(Object[] args) {
+        if (args.length != 1 || !(args[0] instanceof Iterable<?> items)) {
+            return null;
+        }
+        Map<Integer, List<TheatreScoped>> batches = new LinkedHashMap<>();
+        for (Object item : items) {
+            if (!(item instanceof TheatreScoped scoped) || scoped.getTheatreName() == null) {
+                return null;
+            }
+            batches.computeIfAbsent(router.shardFor(scoped.getTheatreName()), k -> new ArrayList<>()).add(scoped);
+        }
+        return batches.isEmpty() ? null : batches;
+    }
+
+    private Object onShard(int shard, ProceedingJoinPoint joinPoint, Object[] args) throws Throwable {
+        pinTransaction(shard);
+        try {
+            return ShardContext.callOn(shard, () -> proceed(joinPoint, args));
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object perShardBatches(ProceedingJoinPoint joinPoint, Object[] args,
+                                   Map<Integer, List<TheatreScoped>> batches) throws Throwable {
+        log.debug("Splitting {} across {} shards", joinPoint.getSignature().toShortString(), batches.size());
+        requireNoTransaction(joinPoint);
+        List<CompletableFuture<Object>> calls = new ArrayList<>();
+        batches.forEach((shard, batch) -> calls.add(CompletableFuture.supplyAsync(
+                () -> ShardContext.callOn(shard, () -> proceed(joinPoint, new Object[]{batch})), fanOutExecutor)));
+        return merge(((MethodSignature) joinPoint.getSignature()).getReturnType(), await(calls));
+    }
+
+    private Object fanOut(ProceedingJoinPoint joinPoint, Method method) throws Throwable {
+        Class<?> returnType = method.getReturnType();
+        if (Stream.class.isAssignableFrom(returnType)) {
+            throw new IllegalArgumentException("Streaming tickets across shards requires a theatre");
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            requireNoTransaction(joinPoint);
+        }
+        log.debug("Fanning out {} to {} shards", joinPoint.getSignature().toShortString(), router.shardCount());
+        Object[] args = joinPoint.getArgs();
+        List<CompletableFuture<Object>> calls = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int target = shard;
+            calls.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.callOn(target, () -> proceed(joinPoint, args)), fanOutExecutor));
+        }
+        return merge(returnType, await(calls));
+    }
+
+    private Object merge(Class<?> returnType, List<Object> results) {
+        if (Collection.class.isAssignableFrom(returnType)) {
+            List<Object> merged = new ArrayList<>();
+            results.forEach(result -> merged.addAll((Collection<?>) result));
+            return merged;
+        }
+        if (returnType == Optional.class) {
+            List<Optional<?>> found = results.stream().<Optional<?>>map(Optional.class::cast)
+                    .filter(Optional::isPresent).toList();
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException("Lookup matched rows on " + found.size() + " shards", 1,
+                        found.size());
+            }
+            return found.isEmpty() ? Optional.empty() : found.get(0);
+        }
+        if (returnType == long.class || returnType == Long.class) {
+            return results.stream().mapToLong(result -> result == null ? 0 : ((Number) result).longValue()).sum();
+        }
+        if (returnType == int.class || returnType == Integer.class) {
+            return results.stream().mapToInt(result -> result == null ? 0 : ((Number) result).intValue()).sum();
+        }
+        if (returnType == boolean.class || returnType == Boolean.class) {
+            return results.stream().anyMatch(Boolean.TRUE::equals);
+        }
+        if (returnType == void.class) {
+            return null;
+        }
+        if (results.stream().filter(result -> result != null).count() > 1) {
+            throw new IllegalStateException("Cannot merge " + returnType.getSimpleName() + " results from several shards");
+        }
+        return results.stream().filter(result -> result != null).findFirst().orElse(null);
+    }
+
+    private List<Object> await(List<CompletableFuture<Object>> calls) throws Throwable {
+        try {
+            return CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new))
+                    .thenApply(done -> calls.stream().map(CompletableFuture::join).toList())
+                    .join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof CompletionException nested && nested.getCause() != null ? nested.getCause() : cause;
+        }
+    }
+
+    private void pinTransaction(int shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Integer pinned = (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_SHARD);
+        if (pinned == null) {
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SHARD, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SHARD);
+                }
+            });
+        } else if (pinned != shard) {
+            throw new IllegalStateException("Transaction on shard " + pinned + " cannot use shard " + shard);
+        }
+    }
+
+    private void requireNoTransaction(ProceedingJoinPoint joinPoint) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(joinPoint.getSignature().toShortString()
+                    + " spans several shards and cannot join the current transaction");
+        }
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, Object[] args) {
+        try {
+            return joinPoint.proceed(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.moviebookingapp.config;
+
+import com.moviebookingapp.domain.Movie;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hibernate only manages the schema of the connection it boots with, which is the home
+ * shard. This applies the same ddl-auto mode to every other shard with a short-lived
+ * EntityManagerFactory before the application starts serving.
+ */
+@Slf4j
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+    private final EntityManagerFactoryBuilder builder;
+    private final List<? extends DataSource> shards;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(EntityManagerFactoryBuilder builder, List<? extends DataSource> shards, String ddlAuto) {
+        this.builder = builder;
+        this.shards = shards;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if ("none".equals(ddlAuto)) {
+            return;
+        }
+        // Dropping on close would undo the work as soon as the throwaway factory is closed.
+        String mode = "create-drop".equals(ddlAuto) ? "create" : ddlAuto;
+        for (int shard = 1; shard < shards.size(); shard++) {
+            log.info("Applying schema mode: {} to shard: {}", mode, shard);
+            LocalContainerEntityManagerFactoryBean factory = builder.dataSource(shards.get(shard))
+                    .packages(Movie.class)
+                    .persistenceUnit("shard-" + shard)
+                    .properties(Map.of(
+                            "hibernate.hbm2ddl.auto", mode,
+                            "hibernate.cache.use_second_level_cache", "false",
+                            "hibernate.generate_statistics", "false",
+                            "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                            "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()))
+                    .build();
+            factory.afterPropertiesSet();
+            factory.destroy();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.moviebookingapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enabled by moviebooking.sharding.enabled. Movies and tickets are spread over the configured
+ * shards by theatre; users stay on the home shard. Not combinable with replica routing.
+ *
+ * On MySQL every shard connection gets an interleaved auto-increment sequence so ids stay
+ * unique across shards. Other databases (H2 included) number each shard from 1, so the same id
+ * names different rows on different shards: keyed calls are unaffected, an unkeyed findById
+ * fails when it matches on several shards, and an unkeyed deleteById removes the row on every
+ * shard. Start such shards with disjoint identity ranges before relying on id-only access.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "moviebooking.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+@Slf4j
+public class ShardingConfig {
+
+    @Bean
+    public ShardDataSources shardDataSources(ShardingProperties properties,
+                                                   @Value("${spring.datasource.username:}") String defaultUsername,
+                                                   @Value("${spring.datasource.password:}") String defaultPassword,
+                                                   @Value("${moviebooking.datasource.replica.url:}") String replicaUrl) {
+        if (properties.urls().isEmpty()) {
+            throw new IllegalStateException("moviebooking.sharding.urls must list at least one shard");
+        }
+        if (!replicaUrl.isEmpty()) {
+            throw new IllegalStateException("Sharding cannot be combined with moviebooking.datasource.replica.url");
+        }
+        int count = properties.urls().size();
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < count; shard++) {
+            String url = properties.urls().get(shard);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(properties.username() != null ? properties.username() : defaultUsername)
+                    .password(properties.password() != null ? properties.password() : defaultPassword)
+                    .build();
+            dataSource.setPoolName("shard-" + shard);
+            if (url.startsWith("jdbc:mysql:")) {
+                dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + count
+                        + ", auto_increment_offset = " + (shard + 1));
+            } else if (count > 1) {
+                log.warn("Shard {} is not MySQL; its ids are not interleaved with the other shards", shard);
+            }
+            shards.add(dataSource);
+        }
+        log.info("Configured {} shards", count);
+        return new ShardDataSources(shards);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ShardRouter shardRouter(ShardingProperties properties) {
+        return new HashShardRouter(properties.urls().size(), properties.theatres());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            targets.put(shard, shardDataSources.get(shard));
+        }
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(shardDataSources.get(ShardContext.HOME_SHARD));
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService shardFanOutExecutor(ShardingProperties properties) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(properties.fanOutThreadsOrDefault(), r -> {
+            Thread thread = new Thread(r, "shard-fan-out-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public ShardRoutingAspect shardRoutingAspect(ShardRouter shardRouter, ExecutorService shardFanOutExecutor) {
+        return new ShardRoutingAspect(shardRouter, shardFanOutExecutor);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(EntityManagerFactoryBuilder builder,
+                                                         ShardDataSources shardDataSources,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(builder, shardDataSources.all(), ddlAuto);
+    }
+}
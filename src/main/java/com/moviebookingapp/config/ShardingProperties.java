@@ -0,0 +1,28 @@
+package com.moviebookingapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * moviebooking.sharding.*: one JDBC url per shard (index 0 is the home shard), shared
+ * credentials, optional theatre-to-shard placements and the fan-out pool size.
+ */
+@ConfigurationProperties(prefix = "moviebooking.sharding")
+public record ShardingProperties(boolean enabled,
+                                 List<String> urls,
+                                 String username,
+                                 String password,
+                                 Map<String, Integer> theatres,
+                                 Integer fanOutThreads) {
+
+    public ShardingProperties {
+        urls = urls == null ? List.of() : List.copyOf(urls);
+        theatres = theatres == null ? Map.of() : Map.copyOf(theatres);
+    }
+
+    public int fanOutThreadsOrDefault() {
+        return fanOutThreads != null ? fanOutThreads : Math.max(2, urls.size() * 2);
+    }
+}
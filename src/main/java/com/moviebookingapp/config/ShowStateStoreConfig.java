@@ -0,0 +1,28 @@
+package com.moviebookingapp.config;
+
+import com.moviebookingapp.store.ShowStateStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Enabled by setting moviebooking.state-store.directory. The in-memory show availability is
+ * then restored from that directory on start instead of being reloaded show by show from the
+ * database; changes made by other nodes while this one was down arrive through the compacted
+ * invalidation topic, which is read from the beginning on start.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "moviebooking.state-store", name = "directory")
+public class ShowStateStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShowStateStore showStateStore(@Value("${moviebooking.state-store.directory}") Path directory,
+                                         @Value("${moviebooking.state-store.checkpoint-interval:10000}") int checkpointInterval,
+                                         @Value("${moviebooking.state-store.max-batch:512}") int maxBatch) throws IOException {
+        return ShowStateStore.open(directory, checkpointInterval, maxBatch);
+    }
+}
@@ -0,0 +1,51 @@
+package com.moviebookingapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Async requests keep the container's default timeout. A handler that streams for minutes (the ticket export)
+ * marks its request with {@link #useExportTimeout} and only that request gets {@code moviebooking.export.timeout}.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+    private static final String EXPORT_TIMEOUT_ATTRIBUTE = WebAsyncConfig.class.getName() + ".exportTimeout";
+
+    private final Duration exportTimeout;
+
+    public WebAsyncConfig(@Value("${moviebooking.export.timeout:PT1H}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    public static void useExportTimeout(HttpServletRequest request) {
+        request.setAttribute(EXPORT_TIMEOUT_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(exportTimeoutInterceptor());
+    }
+
+    // Runs before the async request is started, which is the last point its timeout can still change.
+    CallableProcessingInterceptor exportTimeoutInterceptor() {
+        return new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(EXPORT_TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+                    asyncRequest.setTimeout(exportTimeout.toMillis());
+                }
+            }
+        };
+    }
+}
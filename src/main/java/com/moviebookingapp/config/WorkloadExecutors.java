@@ -0,0 +1,109 @@
+package com.moviebookingapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executors for the async controller variants, one per workload class. Each pool has
+ * its own threads, queue and timeout: when a pool is saturated its requests are refused
+ * straight away instead of queueing behind, or taking threads from, the other workloads.
+ */
+@Slf4j
+public class WorkloadExecutors implements DisposableBean {
+
+    public enum Workload {
+        BOOKING, CATALOGUE, AUTH;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<Workload, Pool> pools = new EnumMap<>(Workload.class);
+
+    public WorkloadExecutors(WorkloadProperties properties, MeterRegistry meterRegistry) {
+        pools.put(Workload.BOOKING, new Pool(Workload.BOOKING, properties.booking(), meterRegistry));
+        pools.put(Workload.CATALOGUE, new Pool(Workload.CATALOGUE, properties.catalogue(), meterRegistry));
+        pools.put(Workload.AUTH, new Pool(Workload.AUTH, properties.auth(), meterRegistry));
+    }
+
+    /**
+     * Runs the task on the workload's pool with the caller's read-your-writes state. The future
+     * fails with {@link RejectedExecutionException} when the pool is full and with
+     * {@link TimeoutException} when the task outlives the workload's timeout; a timed out task
+     * is not interrupted and may still complete.
+     */
+    public <T> CompletableFuture<T> supply(Workload workload, Supplier<T> task) {
+        Pool pool = pools.get(workload);
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(ReplicaRoutingContext.propagate(task), pool.executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Refusing {} request, executor saturated", workload.tag());
+            pool.rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Too many " + workload.tag() + " requests, try again"));
+        }
+        return future.orTimeout(pool.timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> {
+                    if (error instanceof TimeoutException) {
+                        log.warn("{} request timed out after {}", workload.tag(), pool.timeout);
+                        pool.timedOut.increment();
+                    }
+                });
+    }
+
+    public Duration timeout(Workload workload) {
+        return pools.get(workload).timeout;
+    }
+
+    @Override
+    public void destroy() {
+        pools.values().forEach(pool -> pool.executor.shutdownNow());
+    }
+
+    private static final class Pool {
+        private final ThreadPoolExecutor executor;
+        private final Duration timeout;
+        private final Counter rejected;
+        private final Counter timedOut;
+
+        private Pool(Workload workload, WorkloadProperties.Pool settings, MeterRegistry meterRegistry) {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(settings.threads(), settings.threads(), 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(settings.queueCapacity()), r -> {
+                        Thread thread = new Thread(r, workload.tag() + "-worker-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.AbortPolicy());
+            this.timeout = settings.timeout();
+            Tags tags = Tags.of("workload", workload.tag());
+            new ExecutorServiceMetrics(executor, "moviebooking.workload", tags).bindTo(meterRegistry);
+            this.rejected = Counter.builder("moviebooking.workload.rejected")
+                    .description("Async requests refused because the workload's executor was full")
+                    .tags(tags)
+                    .register(meterRegistry);
+            this.timedOut = Counter.builder("moviebooking.workload.timeouts")
+                    .description("Async requests that did not complete within the workload's timeout")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+    }
+}
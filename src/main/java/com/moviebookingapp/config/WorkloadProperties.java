@@ -0,0 +1,31 @@
+package com.moviebookingapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * moviebooking.workloads.*: pool size, queue capacity and timeout of the executor serving each
+ * class of async request, so a burst in one class cannot starve the others.
+ */
+@ConfigurationProperties(prefix = "moviebooking.workloads")
+public record WorkloadProperties(Pool booking, Pool catalogue, Pool auth) {
+
+    public WorkloadProperties {
+        booking = Pool.orDefault(booking, new Pool(16, 256, Duration.ofSeconds(10)));
+        catalogue = Pool.orDefault(catalogue, new Pool(8, 512, Duration.ofSeconds(2)));
+        auth = Pool.orDefault(auth, new Pool(4, 128, Duration.ofSeconds(5)));
+    }
+
+    public record Pool(Integer threads, Integer queueCapacity, Duration timeout) {
+
+        static Pool orDefault(Pool pool, Pool defaults) {
+            if (pool == null) {
+                return defaults;
+            }
+            return new Pool(pool.threads != null ? pool.threads : defaults.threads,
+                    pool.queueCapacity != null ? pool.queueCapacity : defaults.queueCapacity,
+                    pool.timeout != null ? pool.timeout : defaults.timeout);
+        }
+    }
+}
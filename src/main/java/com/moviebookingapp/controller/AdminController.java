@@ -1,22 +1,44 @@
 package com.moviebookingapp.controller;
 
-import com.moviebookingapp.domain.Movie;
-import com.moviebookingapp.service.MovieService;
+import com.moviebookingapp.config.WebAsyncConfig;
+import com.moviebookingapp.domain.RollupGranularity;
 import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.dto.SalesReportDTO;
+import com.moviebookingapp.service.LedgerReplayService;
+import com.moviebookingapp.service.SalesAnalyticsService;
+import com.moviebookingapp.service.ShowAvailabilityService;
+import com.moviebookingapp.service.TicketExportService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1.0/moviebooking")
 @RequiredArgsConstructor
 @Slf4j
 public class AdminController {
-    private final MovieService movieService;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ShowAvailabilityService showAvailabilityService;
+    private final TicketExportService ticketExportService;
+    private final LedgerReplayService ledgerReplayService;
+    private final SalesAnalyticsService salesAnalyticsService;
 
     @GetMapping("/{moviename}/booked/{theatre}")
     public ResponseEntity<BookedInfoDTO> booked(@PathVariable("moviename") String moviename,
@@ -24,20 +46,10 @@ public class AdminController {
         log.info("Admin request for booked info - movie: {}, theatre: {}", moviename, theatre);
 
         try {
-            int booked = movieService.bookedCount(moviename, theatre);
-            log.debug("Booked count for movie: {} at theatre: {} is {}", moviename, theatre, booked);
-
-            Movie movie = movieService.searchMovies(moviename).stream()
-                    .filter(m -> m.getTheatreName().equalsIgnoreCase(theatre))
-                    .findFirst().orElseThrow(() -> new IllegalArgumentException("Movie not found"));
-
-            int remaining = movie.getTotalTickets() - booked;
-            String status = remaining <= 0 ? "SOLD OUT" : "BOOK ASAP";
-
-            BookedInfoDTO bookedInfo = new BookedInfoDTO(booked, Math.max(remaining, 0), status);
+            BookedInfoDTO bookedInfo = showAvailabilityService.getAvailability(moviename, theatre);
 
             log.info("Booked info retrieved successfully - movie: {}, theatre: {}, booked: {}, remaining: {}, status: {}",
-                    moviename, theatre, booked, remaining, status);
+                    moviename, theatre, bookedInfo.getBooked(), bookedInfo.getRemaining(), bookedInfo.getStatus());
 
             return ResponseEntity.ok(bookedInfo);
         } catch (Exception e) {
@@ -46,4 +58,92 @@ public class AdminController {
             throw e;
         }
     }
+
+    @GetMapping("/{moviename}/booked")
+    public ResponseEntity<Map<String, BookedInfoDTO>> bookedAllTheatres(@PathVariable("moviename") String moviename) {
+        log.info("Admin request for booked info across theatres - movie: {}", moviename);
+
+        try {
+            Map<String, BookedInfoDTO> bookedInfo = showAvailabilityService.getAvailabilityByTheatre(moviename);
+            if (bookedInfo.isEmpty()) {
+                throw new IllegalArgumentException("Movie not found");
+            }
+
+            log.info("Booked info retrieved successfully - movie: {}, theatres: {}", moviename, bookedInfo.size());
+            return ResponseEntity.ok(bookedInfo);
+        } catch (Exception e) {
+            log.error("Error retrieving booked info for movie: {}, error: {}", moviename, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    @GetMapping("/ledger/audit")
+    public ResponseEntity<Map<String, String>> auditLedger() {
+        log.info("Admin request for ledger audit");
+        Map<String, String> mismatches = new LinkedHashMap<>();
+        ledgerReplayService.audit().forEach((show, problem) -> mismatches.put(show.toString(), problem));
+        log.info("Ledger audit completed - mismatches: {}", mismatches.size());
+        return ResponseEntity.ok(mismatches);
+    }
+
+    @PostMapping("/ledger/snapshots")
+    public ResponseEntity<Map<String, Integer>> rebuildLedgerSnapshots() {
+        log.info("Admin request to rebuild ledger snapshots");
+        int written = ledgerReplayService.rebuildSnapshots();
+        log.info("Ledger snapshots rebuilt - written: {}", written);
+        return ResponseEntity.ok(Map.of("written", written));
+    }
+
+    @GetMapping("/analytics/sales")
+    public ResponseEntity<SalesReportDTO> sales(
+            @RequestParam(value = "moviename", required = false) String moviename,
+            @RequestParam(value = "theatre", required = false) String theatre,
+            @RequestParam(value = "granularity", defaultValue = "hour") String granularity,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        log.info("Sales report request - movie: {}, theatre: {}, granularity: {}, from: {}, to: {}",
+                moviename, theatre, granularity, from, to);
+
+        SalesReportDTO report = salesAnalyticsService.report(moviename, theatre, RollupGranularity.parse(granularity),
+                from, to);
+
+        log.info("Sales report retrieved - movie: {}, theatre: {}, buckets: {}, tickets: {}",
+                moviename, theatre, report.buckets().size(), report.totalTickets());
+        return ResponseEntity.ok(report);
+    }
+
+    @GetMapping("/tickets/export")
+    public ResponseEntity<StreamingResponseBody> exportTickets(
+            @RequestParam(value = "moviename", required = false) String moviename,
+            @RequestParam(value = "theatre", required = false) String theatre,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletRequest request) {
+        log.info("Ticket export request - movie: {}, theatre: {}, from: {}, to: {}, gzip: {}",
+                moviename, theatre, from, to, gzip);
+
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        WebAsyncConfig.useExportTimeout(request);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                ticketExportService.exportNdjson(moviename, theatre, from, to, compressed);
+                compressed.finish();
+            } else {
+                ticketExportService.exportNdjson(moviename, theatre, from, to, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets.ndjson\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
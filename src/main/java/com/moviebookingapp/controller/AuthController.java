@@ -1,10 +1,15 @@
 package com.moviebookingapp.controller;
 
+import com.moviebookingapp.config.WorkloadExecutors;
+import com.moviebookingapp.config.WorkloadExecutors.Workload;
 import com.moviebookingapp.domain.User;
 import com.moviebookingapp.dto.LoginRequestDTO;
 import com.moviebookingapp.dto.PasswordResetDTO;
+import com.moviebookingapp.dto.UserDTO;
 import com.moviebookingapp.dto.UserRegistrationDTO;
+import com.moviebookingapp.service.LoginThrottle;
 import com.moviebookingapp.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1.0/moviebooking")
@@ -20,9 +26,11 @@ import java.util.Map;
 @Slf4j
 public class AuthController {
     private final UserService userService;
+    private final LoginThrottle loginThrottle;
+    private final WorkloadExecutors workloadExecutors;
 
     @PostMapping("/register")
-    public ResponseEntity<User> register(@Valid @RequestBody UserRegistrationDTO request) {
+    public ResponseEntity<UserDTO> register(@Valid @RequestBody UserRegistrationDTO request) {
         log.info("User registration request received for loginId: {}", request.getLoginId());
         log.debug("Registration details - firstName: {}, lastName: {}, email: {}",
                  request.getFirstName(), request.getLastName(), request.getEmail());
@@ -42,7 +50,7 @@ public class AuthController {
 
             log.info("User registration successful for loginId: {}, userId: {}",
                     request.getLoginId(), user.getId());
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(UserDTO.from(user));
         } catch (Exception e) {
             log.error("User registration failed for loginId: {}, error: {}",
                      request.getLoginId(), e.getMessage(), e);
@@ -51,8 +59,10 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@Valid @RequestBody LoginRequestDTO request) {
+    public ResponseEntity<Map<String, String>> login(@Valid @RequestBody LoginRequestDTO request,
+                                                     HttpServletRequest servletRequest) {
         log.info("Login attempt for loginId: {}", request.getLoginId());
+        loginThrottle.acquire(request.getLoginId(), servletRequest.getRemoteAddr());
 
         try {
             boolean authenticated = userService.login(request.getLoginId(), request.getPassword());
@@ -61,6 +71,7 @@ public class AuthController {
                 return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Invalid credentials"));
             }
 
+            loginThrottle.onSuccess(request.getLoginId());
             log.info("Login successful for loginId: {}", request.getLoginId());
             // Generate and return token
             return ResponseEntity.ok(Collections.singletonMap("token", "dummy-token-" + request.getLoginId()));
@@ -71,12 +82,38 @@ public class AuthController {
         }
     }
 
+    /**
+     * Same as {@link #login} but checks the password on the auth executor, so slow password
+     * hashing under a burst of logins holds neither servlet threads nor other workloads' threads.
+     */
+    @PostMapping("/login/async")
+    public CompletableFuture<ResponseEntity<Map<String, String>>> loginAsync(@Valid @RequestBody LoginRequestDTO request,
+                                                                            HttpServletRequest servletRequest) {
+        log.info("Async login attempt for loginId: {}", request.getLoginId());
+        loginThrottle.acquire(request.getLoginId(), servletRequest.getRemoteAddr());
+
+        return workloadExecutors.supply(Workload.AUTH, () -> userService.login(request.getLoginId(), request.getPassword()))
+                .thenApply(authenticated -> {
+                    if (!authenticated) {
+                        log.warn("Login failed for loginId: {} - Invalid credentials", request.getLoginId());
+                        return ResponseEntity.badRequest().body(Collections.singletonMap("error", "Invalid credentials"));
+                    }
+                    loginThrottle.onSuccess(request.getLoginId());
+                    log.info("Login successful for loginId: {}", request.getLoginId());
+                    return ResponseEntity.ok(Collections.singletonMap("token", "dummy-token-" + request.getLoginId()));
+                });
+    }
+
+    // Checks the current password, so it is limited like a login attempt.
     @PutMapping("/forgot")
-    public ResponseEntity<Void> resetPassword(@Valid @RequestBody PasswordResetDTO request) {
+    public ResponseEntity<Void> resetPassword(@Valid @RequestBody PasswordResetDTO request,
+                                              HttpServletRequest servletRequest) {
         log.info("Password reset request received for loginId: {}", request.getLoginId());
+        loginThrottle.acquire(request.getLoginId(), servletRequest.getRemoteAddr());
 
         try {
             userService.resetPassword(request.getLoginId(), request.getPassword(), request.getPassword(), request.getConfirmPassword());
+            loginThrottle.onSuccess(request.getLoginId());
             log.info("Password reset successful for loginId: {}", request.getLoginId());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
@@ -1,14 +1,24 @@
 package com.moviebookingapp.controller;
 
+import com.moviebookingapp.config.WorkloadExecutors;
+import com.moviebookingapp.config.WorkloadExecutors.Workload;
 import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.dto.MovieDTO;
+import com.moviebookingapp.service.CatalogueVersion;
 import com.moviebookingapp.service.MovieService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/v1.0/moviebooking")
@@ -16,31 +26,70 @@ import java.util.List;
 @Slf4j
 public class MovieController {
     private final MovieService movieService;
+    private final WorkloadExecutors workloadExecutors;
+    private final CatalogueVersion catalogueVersion;
+    private volatile List<MovieDTO> lastCatalogue;
 
     @GetMapping("/all")
-    public ResponseEntity<List<Movie>> getAllMovies() {
+    public ResponseEntity<List<MovieDTO>> getAllMovies(WebRequest webRequest) {
         log.info("Request to get all movies");
+        if (notModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         
         try {
             List<Movie> movies = movieService.getAllMovies();
             log.info("Retrieved {} movies successfully", movies.size());
             log.debug("Movies retrieved: {}", movies.stream().map(Movie::getMovieName).toList());
-            return ResponseEntity.ok(movies);
+            return ResponseEntity.ok(toDTOs(movies));
         } catch (Exception e) {
             log.error("Error retrieving all movies: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    /**
+     * Same as {@link #getAllMovies} but served from the catalogue executor. When that executor is
+     * saturated or too slow, the last catalogue it served is returned marked stale; with nothing
+     * served yet the request fails with 503.
+     */
+    @GetMapping("/all/async")
+    public CompletableFuture<ResponseEntity<List<MovieDTO>>> getAllMoviesAsync() {
+        log.info("Async request to get all movies");
+        
+        return workloadExecutors.supply(Workload.CATALOGUE, () -> toDTOs(movieService.getAllMovies()))
+                .thenApply(movies -> {
+                    lastCatalogue = movies;
+                    log.info("Retrieved {} movies successfully", movies.size());
+                    return ResponseEntity.ok(movies);
+                })
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    List<MovieDTO> stale = lastCatalogue;
+                    if (stale == null || !(cause instanceof TimeoutException || cause instanceof RejectedExecutionException)) {
+                        throw error instanceof CompletionException completion ? completion : new CompletionException(cause);
+                    }
+                    log.warn("Serving last known catalogue of {} movies: {}", stale.size(), cause.getMessage());
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.WARNING, "110 - \"Response is Stale\"")
+                            .body(stale);
+                });
+    }
+
     @GetMapping("/movies/search/{moviename}")
-    public ResponseEntity<List<Movie>> searchMovies(@PathVariable("moviename") String moviename) {
+    public ResponseEntity<List<MovieDTO>> searchMovies(@PathVariable("moviename") String moviename,
+                                                       WebRequest webRequest) {
         log.info("Search request for movies with name: {}", moviename);
+        if (notModified(webRequest)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         
         try {
             List<Movie> movies = movieService.searchMovies(moviename);
             log.info("Found {} movies matching search term: {}", movies.size(), moviename);
             log.debug("Search results: {}", movies.stream().map(Movie::getMovieName).toList());
-            return ResponseEntity.ok(movies);
+            return ResponseEntity.ok(toDTOs(movies));
         } catch (Exception e) {
             log.error("Error searching movies with term '{}': {}", moviename, e.getMessage(), e);
             throw e;
@@ -48,7 +97,7 @@ public class MovieController {
     }
 
     @PostMapping("/movies/add")
-    public ResponseEntity<Movie> addMovie(@RequestBody Movie movie) {
+    public ResponseEntity<MovieDTO> addMovie(@RequestBody Movie movie) {
         log.info("Request to add new movie: {} at theatre: {}", movie.getMovieName(), movie.getTheatreName());
         log.debug("Movie details - totalTickets: {}, status: {}", movie.getTotalTickets(), movie.getStatus());
         
@@ -56,7 +105,7 @@ public class MovieController {
             Movie savedMovie = movieService.addMovie(movie);
             log.info("Movie added successfully - id: {}, name: {}, theatre: {}", 
                     savedMovie.getId(), savedMovie.getMovieName(), savedMovie.getTheatreName());
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedMovie);
+            return ResponseEntity.status(HttpStatus.CREATED).body(MovieDTO.from(savedMovie));
         } catch (Exception e) {
             log.error("Error adding movie '{}': {}", movie.getMovieName(), e.getMessage(), e);
             throw e;
@@ -64,7 +113,7 @@ public class MovieController {
     }
 
     @PatchMapping("/{moviename}/theatres/{theatre}/tickets")
-    public ResponseEntity<Movie> updateTickets(@PathVariable("moviename") String moviename,
+    public ResponseEntity<MovieDTO> updateTickets(@PathVariable("moviename") String moviename,
                                              @PathVariable("theatre") String theatre,
                                              @RequestParam("total") int total) {
         log.info("Request to update tickets for movie: {} at theatre: {} to total: {}", 
@@ -74,7 +123,7 @@ public class MovieController {
             Movie updatedMovie = movieService.updateTotalTickets(moviename, theatre, total);
             log.info("Tickets updated successfully for movie: {} at theatre: {}, new total: {}", 
                     moviename, theatre, updatedMovie.getTotalTickets());
-            return ResponseEntity.ok(updatedMovie);
+            return ResponseEntity.ok(MovieDTO.from(updatedMovie));
         } catch (Exception e) {
             log.error("Error updating tickets for movie '{}' at theatre '{}': {}", 
                      moviename, theatre, e.getMessage(), e);
@@ -112,4 +161,19 @@ public class MovieController {
             throw e;
         }
     }
-} 
\ No newline at end of file
+
+    // Validators are read before the catalogue is loaded, so a change racing the load only costs
+    // the client one more full response. Also sets the ETag, the only validator, on the response.
+    private boolean notModified(WebRequest webRequest) {
+        CatalogueVersion.Stamp stamp = catalogueVersion.current();
+        if (webRequest.checkNotModified(stamp.etag())) {
+            log.debug("Catalogue unchanged at version: {}, answering 304", stamp.version());
+            return true;
+        }
+        return false;
+    }
+
+    private static List<MovieDTO> toDTOs(List<Movie> movies) {
+        return movies.stream().map(MovieDTO::from).toList();
+    }
+}
@@ -0,0 +1,26 @@
+package com.moviebookingapp.controller;
+
+import com.moviebookingapp.messaging.ShowStatusBroadcaster;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1.0/moviebooking")
+@RequiredArgsConstructor
+@Slf4j
+public class ShowStatusController {
+    private final ShowStatusBroadcaster showStatusBroadcaster;
+
+    @GetMapping(value = "/{moviename}/status/{theatre}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@PathVariable("moviename") String moviename,
+                                   @PathVariable("theatre") String theatre) {
+        log.info("Status stream subscription - movie: {}, theatre: {}", moviename, theatre);
+        return showStatusBroadcaster.subscribe(moviename, theatre);
+    }
+}
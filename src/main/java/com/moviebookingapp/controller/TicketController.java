@@ -1,7 +1,14 @@
 package com.moviebookingapp.controller;
 
+import com.moviebookingapp.config.WorkloadExecutors;
+import com.moviebookingapp.config.WorkloadExecutors.Workload;
 import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.BestSeatsRequestDTO;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.dto.CancelRequestDTO;
+import com.moviebookingapp.dto.TicketDTO;
 import com.moviebookingapp.dto.TicketRequestDTO;
+import com.moviebookingapp.service.BookingPipeline;
 import com.moviebookingapp.service.MovieService;
 import com.moviebookingapp.service.TicketService;
 import jakarta.validation.Valid;
@@ -11,6 +18,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/v1.0/moviebooking")
 @RequiredArgsConstructor
@@ -19,9 +28,11 @@ public class TicketController {
 
     private final TicketService ticketService;
     private final MovieService movieService;
+    private final BookingPipeline bookingPipeline;
+    private final WorkloadExecutors workloadExecutors;
 
     @PostMapping("/{moviename}/add")
-    public ResponseEntity<Ticket> add(@PathVariable("moviename") String moviename,
+    public ResponseEntity<TicketDTO> add(@PathVariable("moviename") String moviename,
                                       @Valid @RequestBody TicketRequestDTO request) {
         log.info("Ticket booking request for movie: {} at theatre: {} by user: {}", 
                 moviename, request.getTheatreName(), request.getUserLoginId());
@@ -37,11 +48,11 @@ public class TicketController {
                     .userLoginId(request.getUserLoginId())
                     .build();
             
-            Ticket savedTicket = ticketService.bookTicket(ticket);
+            Ticket savedTicket = bookingPipeline.book(ticket);
             log.info("Ticket booked successfully - id: {}, movie: {}, theatre: {}, user: {}, tickets: {}", 
                     savedTicket.getId(), moviename, request.getTheatreName(), 
                     request.getUserLoginId(), request.getNumberOfTickets());
-            return ResponseEntity.ok(savedTicket);
+            return ResponseEntity.ok(TicketDTO.from(savedTicket));
         } catch (Exception e) {
             log.error("Ticket booking failed for movie: {} at theatre: {} by user: {}, error: {}", 
                      moviename, request.getTheatreName(), request.getUserLoginId(), e.getMessage(), e);
@@ -49,6 +60,57 @@ public class TicketController {
         }
     }
 
+    /**
+     * Same as {@link #add} but books on the booking executor, releasing the servlet thread while
+     * the booking runs. Answers 503 when the executor is saturated or the booking times out.
+     */
+    @PostMapping("/{moviename}/add/async")
+    public CompletableFuture<ResponseEntity<TicketDTO>> addAsync(@PathVariable("moviename") String moviename,
+                                                              @Valid @RequestBody TicketRequestDTO request) {
+        log.info("Async ticket booking request - movie: {}, theatre: {}, user: {}", 
+                moviename, request.getTheatreName(), request.getUserLoginId());
+        
+        Ticket ticket = Ticket.builder()
+                .movieName(moviename)
+                .theatreName(request.getTheatreName())
+                .numberOfTickets(request.getNumberOfTickets())
+                .seatNumbers(request.getSeatNumbers())
+                .userLoginId(request.getUserLoginId())
+                .build();
+        return workloadExecutors.supply(Workload.BOOKING, () -> bookingPipeline.book(ticket))
+                .thenApply(savedTicket -> {
+                    log.info("Ticket booked successfully - id: {}, movie: {}, theatre: {}, user: {}", 
+                            savedTicket.getId(), moviename, request.getTheatreName(), request.getUserLoginId());
+                    return ResponseEntity.ok(TicketDTO.from(savedTicket));
+                });
+    }
+
+    @PostMapping("/{moviename}/add/best")
+    public ResponseEntity<TicketDTO> addBest(@PathVariable("moviename") String moviename,
+                                          @Valid @RequestBody BestSeatsRequestDTO request) {
+        log.info("Best-seat booking request for movie: {} at theatre: {} by user: {}, tickets: {}", 
+                moviename, request.getTheatreName(), request.getUserLoginId(), request.getNumberOfTickets());
+        
+        Ticket savedTicket = ticketService.bookBestSeats(moviename, request.getTheatreName(),
+                request.getNumberOfTickets(), request.getUserLoginId());
+        log.info("Best seats booked - id: {}, movie: {}, theatre: {}, seats: {}", 
+                savedTicket.getId(), moviename, request.getTheatreName(), savedTicket.getSeatNumbers());
+        return ResponseEntity.ok(TicketDTO.from(savedTicket));
+    }
+
+    @PostMapping("/tickets/{ticketId}/cancel")
+    public ResponseEntity<BookedInfoDTO> cancel(@PathVariable("ticketId") Long ticketId,
+                                                @Valid @RequestBody CancelRequestDTO request) {
+        log.info("Cancellation request for ticket: {} by user: {}, seats: {}", 
+                ticketId, request.getUserLoginId(), request.getSeatNumbers());
+        
+        BookedInfoDTO availability = ticketService.cancelTicket(ticketId, request.getUserLoginId(),
+                request.getSeatNumbers());
+        log.info("Ticket: {} cancelled, show now has {} remaining - status: {}", 
+                ticketId, availability.getRemaining(), availability.getStatus());
+        return ResponseEntity.ok(availability);
+    }
+
     @PutMapping("/{moviename}/update/{ticket}")
     public ResponseEntity<String> updateStatus(@PathVariable("moviename") String moviename,
                                                @PathVariable("ticket") String theatreName) {
@@ -0,0 +1,46 @@
+package com.moviebookingapp.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A show's inventory after applying its ledger up to and including {@code sequence}. The
+ * snapshot at sequence 0 is the show's baseline: tickets booked before the ledger existed.
+ * A null capacity means no capacity change has been recorded yet.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "inventory_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_snapshot_show_sequence", columnNames = {"movie_name", "theatre_name", "sequence_no"})
+})
+public class InventorySnapshot implements TheatreScoped {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "movie_name", nullable = false, updatable = false)
+    private String movieName;
+
+    @Column(name = "theatre_name", nullable = false, updatable = false)
+    private String theatreName;
+
+    @Column(name = "sequence_no", nullable = false, updatable = false)
+    private long sequence;
+
+    @Column(name = "capacity", updatable = false)
+    private Integer capacity;
+
+    @Column(name = "booked", nullable = false, updatable = false)
+    private int booked;
+
+    @Column(name = "taken_at", nullable = false, updatable = false)
+    private Instant takenAt;
+}
@@ -0,0 +1,51 @@
+package com.moviebookingapp.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One immutable entry of a show's booking ledger. Sequence numbers are contiguous per show
+ * and are only assigned while the show's movie row is locked, so they also give the order in
+ * which the changes were committed. For BOOKED and CANCELLED the quantity is a number of
+ * tickets; for CAPACITY_CHANGED it is the new total.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "ledger_events", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_show_sequence", columnNames = {"movie_name", "theatre_name", "sequence_no"})
+})
+public class LedgerEvent implements TheatreScoped {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "movie_name", nullable = false, updatable = false)
+    private String movieName;
+
+    @Column(name = "theatre_name", nullable = false, updatable = false)
+    private String theatreName;
+
+    @Column(name = "sequence_no", nullable = false, updatable = false)
+    private long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false, length = 20)
+    private LedgerEventType type;
+
+    @Column(name = "quantity", nullable = false, updatable = false)
+    private int quantity;
+
+    @Column(name = "user_login_id", updatable = false)
+    private String userLoginId;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private Instant recordedAt;
+}
@@ -0,0 +1,7 @@
+package com.moviebookingapp.domain;
+
+public enum LedgerEventType {
+    BOOKED,
+    CANCELLED,
+    CAPACITY_CHANGED
+}
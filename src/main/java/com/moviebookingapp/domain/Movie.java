@@ -7,6 +7,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Data
 @NoArgsConstructor
@@ -16,15 +20,19 @@ import lombok.NoArgsConstructor;
 @Table(name = "movies", uniqueConstraints = {
         @UniqueConstraint(name = "uk_movie_theatre", columnNames = {"movie_name", "theatre_name"})
 })
-public class Movie {
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "movies")
+@NaturalIdCache(region = "movie-natural-ids")
+public class Movie implements TheatreScoped {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @NotBlank
     @Column(name = "movie_name", nullable = false)
     private String movieName;
 
+    @NaturalId
     @NotBlank
     @Column(name = "theatre_name", nullable = false)
     private String theatreName;
@@ -35,4 +43,9 @@ public class Movie {
 
     @Column(name = "status")
     private String status; // SOLD OUT / BOOK ASAP
+
+    // A copy served from the second-level cache can be older than the row; saving it must fail, not overwrite.
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
 }
@@ -0,0 +1,37 @@
+package com.moviebookingapp.domain;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Width of a sales rollup bucket. Buckets are aligned to UTC.
+ */
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public Instant bucketOf(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Duration length() {
+        return unit.getDuration();
+    }
+
+    public static RollupGranularity parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularity must be one of minute, hour or day");
+        }
+    }
+}
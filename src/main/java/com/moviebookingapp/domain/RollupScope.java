@@ -0,0 +1,11 @@
+package com.moviebookingapp.domain;
+
+/**
+ * What a sales rollup row aggregates over: one show, every show of a theatre, or every
+ * theatre showing a movie.
+ */
+public enum RollupScope {
+    SHOW,
+    THEATRE,
+    MOVIE
+}
@@ -0,0 +1,54 @@
+package com.moviebookingapp.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Tickets sold in one time bucket for one show, theatre or movie. Names are stored lower-cased,
+ * with {@link #ANY} in the dimension a scope does not use, so every lookup is a single probe of
+ * the unique key.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "sales_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sales_rollup_bucket",
+                columnNames = {"scope", "granularity", "movie_key", "theatre_key", "bucket_start"})
+})
+public class SalesRollup {
+    public static final String ANY = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope", nullable = false, updatable = false, length = 16)
+    private RollupScope scope;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, updatable = false, length = 16)
+    private RollupGranularity granularity;
+
+    @Column(name = "movie_key", nullable = false, updatable = false)
+    private String movieKey;
+
+    @Column(name = "theatre_key", nullable = false, updatable = false)
+    private String theatreKey;
+
+    @Column(name = "bucket_start", nullable = false, updatable = false)
+    private Instant bucketStart;
+
+    @Column(name = "tickets", nullable = false)
+    private long tickets;
+
+    @Column(name = "bookings", nullable = false)
+    private long bookings;
+}
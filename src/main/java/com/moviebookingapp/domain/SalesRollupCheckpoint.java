@@ -0,0 +1,25 @@
+package com.moviebookingapp.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last ticket event offset folded into the sales rollups for one partition of the tickets
+ * topic. Written in the same transaction as the rollups, so a redelivered event is recognised
+ * and not counted twice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "sales_rollup_checkpoints")
+public class SalesRollupCheckpoint {
+    @Id
+    @Column(name = "partition_no")
+    private Integer partition;
+
+    @Column(name = "last_offset", nullable = false)
+    private long lastOffset;
+}
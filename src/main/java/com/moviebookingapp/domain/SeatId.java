@@ -0,0 +1,119 @@
+package com.moviebookingapp.domain;
+
+/**
+ * Packs a seat's row and column into a single int so seat sets can be kept as primitive
+ * arrays and bitmaps instead of boxed strings. The row index sits in the high 16 bits and the
+ * column index in the low 16 bits, both zero-based.
+ *
+ * Labels are a row in letters (A..Z, then AA, AB, ...) followed by a one-based seat number:
+ * {@code A1} is row 0, column 0 and {@code AB12} is row 27, column 11. Seat labels have always
+ * been free text for clients, so {@link #map} also reads other shapes instead of rejecting them.
+ */
+public final class SeatId {
+    public static final int MAX_ROWS = 1 << 16;
+    public static final int MAX_COLUMNS = 1 << 16;
+    /** What {@link #map} answers for a label with no row and seat reading. */
+    public static final int UNMAPPED = -1;
+
+    private SeatId() {}
+
+    public static int of(int row, int column) {
+        if (row < 0 || row >= MAX_ROWS || column < 0 || column >= MAX_COLUMNS) {
+            throw new IllegalArgumentException("Seat out of range: row " + row + ", column " + column);
+        }
+        return row << 16 | column;
+    }
+
+    public static int row(int seatId) {
+        return seatId >>> 16;
+    }
+
+    public static int column(int seatId) {
+        return seatId & 0xFFFF;
+    }
+
+    public static int parse(String label) {
+        if (label == null) {
+            throw new IllegalArgumentException("Invalid seat number: null");
+        }
+        int length = label.length();
+        int i = 0;
+        int row = 0;
+        while (i < length && isLetter(label.charAt(i))) {
+            row = row * 26 + (Character.toUpperCase(label.charAt(i)) - 'A' + 1);
+            i++;
+            if (row > MAX_ROWS) {
+                throw new IllegalArgumentException("Invalid seat number: " + label);
+            }
+        }
+        int digitsStart = i;
+        int number = 0;
+        while (i < length && label.charAt(i) >= '0' && label.charAt(i) <= '9') {
+            number = number * 10 + (label.charAt(i) - '0');
+            i++;
+            if (number > MAX_COLUMNS) {
+                throw new IllegalArgumentException("Invalid seat number: " + label);
+            }
+        }
+        if (row == 0 || i == digitsStart || i != length || number == 0) {
+            throw new IllegalArgumentException("Invalid seat number: " + label);
+        }
+        return of(row - 1, number - 1);
+    }
+
+    /**
+     * Lenient {@link #parse}: also reads a row number followed by seat letters, so {@code 12B} is
+     * row 12, seat 2 (the same seat as {@code L2}), and answers {@link #UNMAPPED} rather than
+     * throwing for anything else.
+     */
+    public static int map(String label) {
+        if (label == null) {
+            return UNMAPPED;
+        }
+        int length = label.length();
+        if (length > 0 && isLetter(label.charAt(0))) {
+            try {
+                return parse(label);
+            } catch (IllegalArgumentException e) {
+                return UNMAPPED;
+            }
+        }
+        int i = 0;
+        int row = 0;
+        while (i < length && label.charAt(i) >= '0' && label.charAt(i) <= '9') {
+            row = row * 10 + (label.charAt(i) - '0');
+            i++;
+            if (row > MAX_ROWS) {
+                return UNMAPPED;
+            }
+        }
+        int lettersStart = i;
+        int column = 0;
+        while (i < length && isLetter(label.charAt(i))) {
+            column = column * 26 + (Character.toUpperCase(label.charAt(i)) - 'A' + 1);
+            i++;
+            if (column > MAX_COLUMNS) {
+                return UNMAPPED;
+            }
+        }
+        if (row == 0 || i == lettersStart || i != length) {
+            return UNMAPPED;
+        }
+        return of(row - 1, column - 1);
+    }
+
+    public static String label(int seatId) {
+        StringBuilder letters = new StringBuilder(4);
+        int row = row(seatId) + 1;
+        while (row > 0) {
+            row--;
+            letters.append((char) ('A' + row % 26));
+            row /= 26;
+        }
+        return letters.reverse().append(column(seatId) + 1).toString();
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+}
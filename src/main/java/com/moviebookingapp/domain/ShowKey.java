@@ -0,0 +1,23 @@
+package com.moviebookingapp.domain;
+
+import java.util.Locale;
+
+/**
+ * Identifies a single show (a movie playing at a theatre) for in-memory lookups.
+ * Names are normalised so that keys built from URLs and from stored entities match.
+ */
+public record ShowKey(String movieName, String theatreName) {
+
+    public static ShowKey of(String movieName, String theatreName) {
+        return new ShowKey(normalise(movieName), normalise(theatreName));
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return movieName + "|" + theatreName;
+    }
+}
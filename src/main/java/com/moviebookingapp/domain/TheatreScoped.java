@@ -0,0 +1,8 @@
+package com.moviebookingapp.domain;
+
+/**
+ * Entities whose rows belong to a single theatre, and therefore to a single shard.
+ */
+public interface TheatreScoped {
+    String getTheatreName();
+}
@@ -21,7 +21,7 @@ import java.util.List;
 @Entity
 @Table(name = "tickets")
 @EntityListeners(AuditingEntityListener.class)
-public class Ticket {
+public class Ticket implements TheatreScoped {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
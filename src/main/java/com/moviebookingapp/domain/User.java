@@ -8,12 +8,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.NaturalId;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.Instant;
 
+// Not in the second-level cache: a password reset on one node must take effect on every node at once.
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +44,7 @@ public class User {
     @Column(name = "email", nullable = false)
     private String email;
 
+    @NaturalId
     @NotBlank
     @Column(name = "login_id", nullable = false)
     private String loginId;
@@ -0,0 +1,23 @@
+package com.moviebookingapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BestSeatsRequestDTO {
+    @NotBlank(message = "Theatre name is required")
+    private String theatreName;
+
+    @Positive(message = "Number of tickets must be positive")
+    private int numberOfTickets;
+
+    @NotBlank(message = "User login ID is required")
+    private String userLoginId;
+}
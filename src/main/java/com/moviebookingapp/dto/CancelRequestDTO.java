@@ -0,0 +1,21 @@
+package com.moviebookingapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CancelRequestDTO {
+    @NotBlank(message = "User login ID is required")
+    private String userLoginId;
+
+    // Seats to give back; null or empty cancels the whole ticket.
+    private List<String> seatNumbers;
+}
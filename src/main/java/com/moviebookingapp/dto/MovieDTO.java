@@ -0,0 +1,11 @@
+package com.moviebookingapp.dto;
+
+import com.moviebookingapp.domain.Movie;
+
+public record MovieDTO(Long id, String movieName, String theatreName, int totalTickets, String status) {
+
+    public static MovieDTO from(Movie movie) {
+        return new MovieDTO(movie.getId(), movie.getMovieName(), movie.getTheatreName(),
+                movie.getTotalTickets(), movie.getStatus());
+    }
+}
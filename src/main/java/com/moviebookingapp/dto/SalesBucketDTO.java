@@ -0,0 +1,10 @@
+package com.moviebookingapp.dto;
+
+import java.time.Instant;
+
+/**
+ * Tickets sold in the bucket starting at {@code start}; bookings counts the booking events
+ * (single or batched) that sold them.
+ */
+public record SalesBucketDTO(Instant start, long tickets, long bookings) {
+}
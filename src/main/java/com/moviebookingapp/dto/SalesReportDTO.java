@@ -0,0 +1,15 @@
+package com.moviebookingapp.dto;
+
+import com.moviebookingapp.domain.RollupGranularity;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Sales over [from, to) for a show, a theatre or a movie, one entry per bucket including empty
+ * ones. A null movie or theatre name means all of them.
+ */
+public record SalesReportDTO(String movieName, String theatreName, RollupGranularity granularity,
+                             Instant from, Instant to, long totalTickets, long totalBookings,
+                             List<SalesBucketDTO> buckets) {
+}
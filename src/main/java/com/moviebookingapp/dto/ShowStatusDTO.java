@@ -0,0 +1,15 @@
+package com.moviebookingapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowStatusDTO {
+    private String movieName;
+    private String theatreName;
+    private String status;
+    private Integer remaining;
+}
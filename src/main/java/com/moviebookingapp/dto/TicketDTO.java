@@ -0,0 +1,21 @@
+package com.moviebookingapp.dto;
+
+import com.moviebookingapp.domain.Ticket;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Booked ticket as returned to clients. Seats are copied out of the entity's collection when
+ * the DTO is built, so serialization never touches a Hibernate collection.
+ */
+public record TicketDTO(Long id, String movieName, String theatreName, int numberOfTickets,
+                        List<String> seatNumbers, String userLoginId, Instant bookedAt) {
+
+    public static TicketDTO from(Ticket ticket) {
+        return new TicketDTO(ticket.getId(), ticket.getMovieName(), ticket.getTheatreName(),
+                ticket.getNumberOfTickets(),
+                ticket.getSeatNumbers() == null ? List.of() : List.copyOf(ticket.getSeatNumbers()),
+                ticket.getUserLoginId(), ticket.getBookedAt());
+    }
+}
@@ -0,0 +1,17 @@
+package com.moviebookingapp.dto;
+
+import java.time.Instant;
+
+/**
+ * Flat projection used by the ticket export: one row per seat, ordered by ticket id,
+ * so the stream never puts entities or lazy collections into the persistence context.
+ */
+public interface TicketExportRow {
+    Long getId();
+    String getMovieName();
+    String getTheatreName();
+    int getNumberOfTickets();
+    String getUserLoginId();
+    Instant getBookedAt();
+    String getSeatNumber();
+}
@@ -0,0 +1,15 @@
+package com.moviebookingapp.dto;
+
+import com.moviebookingapp.domain.User;
+
+import java.time.Instant;
+
+/** Public view of a user; never carries the password hash. */
+public record UserDTO(Long id, String firstName, String lastName, String email, String loginId,
+                      String contactNumber, Instant createdAt) {
+
+    public static UserDTO from(User user) {
+        return new UserDTO(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getLoginId(), user.getContactNumber(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,7 @@
+package com.moviebookingapp.dto;
+
+public interface UserIdentity {
+    String getLoginId();
+
+    String getEmail();
+}
@@ -0,0 +1,18 @@
+package com.moviebookingapp.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is refused by the throttle before any credentials are checked.
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public LoginThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -19,6 +20,8 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestControllerAdvice
 @Slf4j
@@ -89,6 +92,36 @@ public class RestExceptionHandler {
         return build(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI(), null);
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiError> handleThrottled(LoginThrottledException ex, jakarta.servlet.http.HttpServletRequest request) {
+        log.warn("Request throttled - path: {}, method: {}, retryAfter: {}", 
+                request.getRequestURI(), request.getMethod(), ex.getRetryAfter());
+        ResponseEntity<ApiError> response = build(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request.getRequestURI(), null);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ApiError> handleOverloaded(RejectedExecutionException ex, jakarta.servlet.http.HttpServletRequest request) {
+        log.warn("Request shed under load - path: {}, method: {}, error: {}", 
+                request.getRequestURI(), request.getMethod(), ex.getMessage());
+        ResponseEntity<ApiError> response = build(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request.getRequestURI(), null);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<ApiError> handleTimeout(TimeoutException ex, jakarta.servlet.http.HttpServletRequest request) {
+        log.warn("Request timed out - path: {}, method: {}", request.getRequestURI(), request.getMethod());
+        ResponseEntity<ApiError> response = build(HttpStatus.SERVICE_UNAVAILABLE, "Request did not complete in time",
+                request.getRequestURI(), null);
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response.getBody());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiError> handleIllegal(IllegalArgumentException ex, jakarta.servlet.http.HttpServletRequest request) {
         log.warn("Illegal argument error - path: {}, method: {}, error: {}", 
@@ -0,0 +1,78 @@
+package com.moviebookingapp.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the state of the {@link SpoolingKafkaAppender}s configured in logback, which are
+ * created before the application context and so cannot register meters themselves.
+ */
+@Component
+public class LogShippingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        spoolingAppenders().forEach((name, appender) -> {
+            Gauge.builder("moviebooking.logs.spool.used", appender, SpoolingKafkaAppender::spoolUsedBytes)
+                    .description("Bytes of log events in the spool not yet shipped")
+                    .baseUnit("bytes")
+                    .tag("appender", name)
+                    .register(registry);
+            Gauge.builder("moviebooking.logs.spool.capacity", appender, SpoolingKafkaAppender::spoolCapacityBytes)
+                    .description("Size of the log spool")
+                    .baseUnit("bytes")
+                    .tag("appender", name)
+                    .register(registry);
+            TimeGauge.builder("moviebooking.logs.ship.lag", appender, TimeUnit.MILLISECONDS,
+                            SpoolingKafkaAppender::shippingLagMillis)
+                    .description("Age of the oldest log event not yet shipped")
+                    .tag("appender", name)
+                    .register(registry);
+            FunctionCounter.builder("moviebooking.logs.shipped", appender, SpoolingKafkaAppender::shipped)
+                    .description("Log events acknowledged by the broker")
+                    .tag("appender", name)
+                    .register(registry);
+            FunctionCounter.builder("moviebooking.logs.dropped", appender, SpoolingKafkaAppender::ringDropped)
+                    .description("Log events dropped before reaching the spool")
+                    .tag("appender", name)
+                    .tag("reason", "ring-full")
+                    .register(registry);
+            FunctionCounter.builder("moviebooking.logs.dropped", appender, SpoolingKafkaAppender::spoolDropped)
+                    .description("Log events dropped before reaching the spool")
+                    .tag("appender", name)
+                    .tag("reason", "spool-full")
+                    .register(registry);
+        });
+    }
+
+    static Map<String, SpoolingKafkaAppender> spoolingAppenders() {
+        Map<String, SpoolingKafkaAppender> appenders = new LinkedHashMap<>();
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext context)) {
+            return appenders;
+        }
+        for (Logger logger : context.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof SpoolingKafkaAppender appender) {
+                    appenders.putIfAbsent(appender.getName(), appender);
+                }
+            }
+        }
+        return appenders;
+    }
+}
@@ -0,0 +1,181 @@
+package com.moviebookingapp.logging;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size circular log spool in a memory-mapped file, written by one thread and shipped by
+ * another. Offsets only grow; the header keeps the shipped (head) and written (tail) offsets so
+ * unshipped events survive a restart. When the shipper falls a whole spool behind, new events
+ * are refused rather than overwriting unshipped ones.
+ *
+ * Layout: long head, long tail, then the ring of records, each int payload length, long
+ * timestamp (epoch millis), payload. A record never straddles the end of the ring; a length of
+ * -1 (or fewer than four bytes left) sends the reader back to the start.
+ */
+final class LogSpool implements AutoCloseable {
+    private static final int HEADER_BYTES = 2 * Long.BYTES;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int WRAP = -1;
+
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    record Batch(List<byte[]> payloads, long end) {
+        boolean isEmpty() {
+            return payloads.isEmpty();
+        }
+    }
+
+    private LogSpool(FileChannel channel, FileLock lock, MappedByteBuffer buffer, int capacity) {
+        this.channel = channel;
+        this.lock = lock;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        long storedHead = buffer.getLong(0);
+        long storedTail = buffer.getLong(Long.BYTES);
+        if (storedHead >= 0 && storedHead <= storedTail && storedTail - storedHead <= capacity) {
+            head.set(storedHead);
+            tail.set(storedTail);
+        } else {
+            buffer.putLong(0, 0);
+            buffer.putLong(Long.BYTES, 0);
+        }
+    }
+
+    /**
+     * Maps the spool, keeping what is in it when the file already has the requested size.
+     * Fails if another appender holds the file.
+     */
+    static LogSpool open(Path file, int capacity) throws IOException {
+        if (capacity <= RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("Spool size is too small");
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new IOException("Spool file is in use: " + file);
+            }
+            long size = HEADER_BYTES + (long) capacity;
+            if (channel.size() != size) {
+                channel.truncate(0);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new LogSpool(channel, lock, buffer, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writer thread only. False when the record does not fit next to the unshipped ones.
+     */
+    boolean append(long timestamp, byte[] payload) {
+        int size = RECORD_HEADER_BYTES + payload.length;
+        if (size > capacity) {
+            return false;
+        }
+        long offset = tail.get();
+        int position = (int) (offset % capacity);
+        int room = capacity - position;
+        long needed = size <= room ? size : room + (long) size;
+        if (offset + needed - head.get() > capacity) {
+            return false;
+        }
+        if (size > room) {
+            if (room >= Integer.BYTES) {
+                buffer.putInt(HEADER_BYTES + position, WRAP);
+            }
+            offset += room;
+            position = 0;
+        }
+        buffer.putInt(HEADER_BYTES + position, payload.length);
+        buffer.putLong(HEADER_BYTES + position + Integer.BYTES, timestamp);
+        buffer.put(HEADER_BYTES + position + RECORD_HEADER_BYTES, payload);
+        offset += size;
+        buffer.putLong(Long.BYTES, offset);
+        tail.set(offset);
+        return true;
+    }
+
+    /**
+     * Shipper thread only. The oldest unshipped records, at most maxRecords of them.
+     */
+    Batch read(int maxRecords) {
+        long offset = head.get();
+        long end = tail.get();
+        List<byte[]> payloads = new ArrayList<>();
+        while (offset < end && payloads.size() < maxRecords) {
+            int position = (int) (offset % capacity);
+            int room = capacity - position;
+            int length = room < Integer.BYTES ? WRAP : buffer.getInt(HEADER_BYTES + position);
+            if (length == WRAP) {
+                offset += room;
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(HEADER_BYTES + position + RECORD_HEADER_BYTES, payload);
+            payloads.add(payload);
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return new Batch(payloads, offset);
+    }
+
+    /**
+     * Shipper thread only. Frees the space of a batch once the broker has it.
+     */
+    void commit(Batch batch) {
+        buffer.putLong(0, batch.end());
+        head.set(batch.end());
+    }
+
+    long usedBytes() {
+        return tail.get() - head.get();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Timestamp of the oldest unshipped record, or -1 when everything has been shipped.
+     */
+    long oldestTimestamp() {
+        long offset = head.get();
+        long end = tail.get();
+        while (offset < end) {
+            int position = (int) (offset % capacity);
+            int room = capacity - position;
+            if (room >= Integer.BYTES && buffer.getInt(HEADER_BYTES + position) != WRAP) {
+                return buffer.getLong(HEADER_BYTES + position + Integer.BYTES);
+            }
+            offset += room;
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        lock.release();
+        channel.close();
+    }
+}
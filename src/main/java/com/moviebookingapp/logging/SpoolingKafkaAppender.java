@@ -0,0 +1,242 @@
+package com.moviebookingapp.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.FileSize;
+import com.moviebookingapp.config.AppConstants;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ships log events to Kafka without putting the broker on the logging thread's path. Logging
+ * threads only offer the event to a bounded lock-free ring (dropping it when the ring is full);
+ * a writer thread encodes events into a memory-mapped {@link LogSpool}, and a shipper thread
+ * sends the spool to the topic in batches, freeing each batch once the broker has acknowledged
+ * it. A broker outage therefore costs at most the spool file on disk, never heap or latency.
+ *
+ * Configured from logback-spring.xml; producerConfig entries are key=value pairs.
+ */
+public class SpoolingKafkaAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private Encoder<ILoggingEvent> encoder;
+    private String topic = AppConstants.KAFKA_TOPIC_LOGS;
+    private String spoolFile = "logs/moviebooking-app.spool";
+    private FileSize spoolSize = FileSize.valueOf("64MB");
+    private int ringCapacity = 8192;
+    private int batchSize = 500;
+    private Duration shipInterval = Duration.buildByMilliseconds(200);
+    private final Map<String, Object> producerConfig = new HashMap<>();
+
+    private final AtomicLong ringDropped = new AtomicLong();
+    private final AtomicLong spoolDropped = new AtomicLong();
+    private final AtomicLong shipped = new AtomicLong();
+
+    private LogRing<ILoggingEvent> ring;
+    private LogSpool spool;
+    private Producer<byte[], byte[]> producer;
+    private Thread writer;
+    private Thread shipper;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "]");
+            return;
+        }
+        try {
+            spool = LogSpool.open(Path.of(spoolFile), (int) Math.min(spoolSize.getSize(), Integer.MAX_VALUE - 16));
+        } catch (IOException | RuntimeException e) {
+            addError("Could not open log spool " + spoolFile, e);
+            return;
+        }
+        ring = new LogRing<>(Integer.highestOneBit(Math.max(ringCapacity, 2)));
+        producer = createProducer();
+        running = true;
+        writer = daemon(this::writeLoop, "log-spool-writer");
+        shipper = daemon(this::shipLoop, "log-spool-shipper");
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (!ring.offer(event)) {
+            ringDropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        shipper.interrupt();
+        try {
+            writer.join(1000);
+            shipper.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        producer.close(java.time.Duration.ofSeconds(1));
+        try {
+            spool.close();
+        } catch (IOException e) {
+            addError("Could not close log spool " + spoolFile, e);
+        }
+    }
+
+    protected Producer<byte[], byte[]> createProducer() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 50);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000);
+        config.putAll(producerConfig);
+        return new KafkaProducer<>(config, new ByteArraySerializer(), new ByteArraySerializer());
+    }
+
+    // Drains the ring into the spool; once stopped it empties the ring before exiting.
+    private void writeLoop() {
+        while (true) {
+            ILoggingEvent event = ring.poll();
+            if (event == null) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                continue;
+            }
+            try {
+                if (!spool.append(event.getTimeStamp(), encoder.encode(event))) {
+                    spoolDropped.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                addError("Could not spool log event", e);
+            }
+        }
+    }
+
+    // At least once: a batch stays in the spool until every record of it is acknowledged.
+    private void shipLoop() {
+        long backoff = 0;
+        while (running) {
+            try {
+                LogSpool.Batch batch = spool.read(batchSize);
+                if (batch.isEmpty()) {
+                    Thread.sleep(shipInterval.getMilliseconds());
+                    continue;
+                }
+                List<Future<RecordMetadata>> sends = new ArrayList<>(batch.payloads().size());
+                for (byte[] payload : batch.payloads()) {
+                    sends.add(producer.send(new ProducerRecord<>(topic, payload)));
+                }
+                for (Future<RecordMetadata> send : sends) {
+                    send.get();
+                }
+                spool.commit(batch);
+                shipped.addAndGet(batch.payloads().size());
+                backoff = 0;
+            } catch (InterruptedException | InterruptException e) {
+                return;
+            } catch (Exception e) {
+                backoff = backoff == 0 ? shipInterval.getMilliseconds() : Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                addWarn("Shipping logs to " + topic + " failed, retrying in " + backoff + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    long ringDropped() {
+        return ringDropped.get();
+    }
+
+    long spoolDropped() {
+        return spoolDropped.get();
+    }
+
+    long shipped() {
+        return shipped.get();
+    }
+
+    long spoolUsedBytes() {
+        return isStarted() ? spool.usedBytes() : 0;
+    }
+
+    long spoolCapacityBytes() {
+        return isStarted() ? spool.capacity() : 0;
+    }
+
+    long shippingLagMillis() {
+        long oldest = isStarted() ? spool.oldestTimestamp() : -1;
+        return oldest < 0 ? 0 : Math.max(System.currentTimeMillis() - oldest, 0);
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public void setSpoolFile(String spoolFile) {
+        this.spoolFile = spoolFile;
+    }
+
+    public void setSpoolSize(FileSize spoolSize) {
+        this.spoolSize = spoolSize;
+    }
+
+    public void setRingCapacity(int ringCapacity) {
+        this.ringCapacity = ringCapacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setShipInterval(Duration shipInterval) {
+        this.shipInterval = shipInterval;
+    }
+
+    public void addProducerConfig(String keyValue) {
+        int separator = keyValue.indexOf('=');
+        if (separator <= 0) {
+            addWarn("Ignoring producerConfig without key=value: " + keyValue);
+            return;
+        }
+        producerConfig.put(keyValue.substring(0, separator).trim(), keyValue.substring(separator + 1).trim());
+    }
+}
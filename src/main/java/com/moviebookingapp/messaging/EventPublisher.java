@@ -0,0 +1,248 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.store.SpillBuffer;
+import com.moviebookingapp.store.SpillBuffer.SpilledEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front door for booking, status and show-change events. Sends go through the tuned producer (which does the
+ * batching and compression) but at most max-pending of them may be unacknowledged at once, so a
+ * slow broker cannot pile up unbounded work behind the afterCommit hooks that publish.
+ *
+ * Without a spill directory a caller waits up to max-block for room and the event is dropped
+ * (and counted) after that. With one, events that find no room, or that the broker rejects, are
+ * appended to a {@link SpillBuffer} and re-published in order by a background drainer, at least
+ * once. A rejected event lands behind the events sent while it was in flight. The drainer only
+ * discards a segment once every event in it is acknowledged; on a failure it stops and retries
+ * the whole segment later, so earlier events of that segment may be delivered twice but none is
+ * overtaken. Disk writes for rejected events run on their own thread, never the producer's
+ * callback thread. Publishing never throws.
+ */
+@Component
+@Slf4j
+public class EventPublisher implements DisposableBean {
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxPending;
+    private final Semaphore permits;
+    private final Duration maxBlock;
+    private final SpillBuffer spillBuffer;
+    private final ScheduledExecutorService drainer;
+    private final ExecutorService spillWriter;
+    private final Counter droppedCounter;
+    private final Counter replayedCounter;
+
+    @Autowired
+    public EventPublisher(KafkaTemplate<String, String> kafkaTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${moviebooking.kafka.producer.max-pending:10000}") int maxPending,
+                          @Value("${moviebooking.kafka.producer.max-block:PT5S}") Duration maxBlock,
+                          @Value("${moviebooking.kafka.spill.directory:}") String spillDirectory,
+                          @Value("${moviebooking.kafka.spill.segment-size:8MB}") DataSize segmentSize,
+                          @Value("${moviebooking.kafka.spill.drain-interval:PT1S}") Duration drainInterval) throws IOException {
+        this(kafkaTemplate, meterRegistry, maxPending, maxBlock,
+                spillDirectory.isBlank() ? null : SpillBuffer.open(Path.of(spillDirectory), segmentSize.toBytes()),
+                drainInterval);
+    }
+
+    EventPublisher(KafkaTemplate<String, String> kafkaTemplate, MeterRegistry meterRegistry, int maxPending,
+                   Duration maxBlock, SpillBuffer spillBuffer, Duration drainInterval) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Maximum pending sends must be positive");
+        }
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxPending = maxPending;
+        this.permits = new Semaphore(maxPending);
+        this.maxBlock = maxBlock;
+        this.spillBuffer = spillBuffer;
+        this.droppedCounter = Counter.builder("moviebooking.kafka.dropped")
+                .description("Events given up on because the producer had no room and no spill buffer is configured")
+                .register(meterRegistry);
+        this.replayedCounter = Counter.builder("moviebooking.kafka.spill.replayed")
+                .description("Spilled events handed back to the producer")
+                .register(meterRegistry);
+        Gauge.builder("moviebooking.kafka.pending", this, EventPublisher::pending)
+                .description("Sends waiting for a broker acknowledgement")
+                .register(meterRegistry);
+
+        if (spillBuffer == null) {
+            this.drainer = null;
+            this.spillWriter = null;
+            return;
+        }
+        Gauge.builder("moviebooking.kafka.spill.pending", spillBuffer, SpillBuffer::pending)
+                .description("Events waiting in the disk spill buffer")
+                .register(meterRegistry);
+        this.drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kafka-spill-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.spillWriter = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "kafka-spill-write");
+            thread.setDaemon(true);
+            return thread;
+        });
+        drainer.scheduleWithFixedDelay(this::drain, drainInterval.toMillis(), drainInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void publish(String topic, String value) {
+        publish(topic, null, value);
+    }
+
+    public void publish(String topic, String key, String value) {
+        SpilledEvent event = new SpilledEvent(topic, key, value);
+        if (spillBuffer != null) {
+            // Once anything is spilled new events queue behind it, so a topic keeps its order.
+            if (spillBuffer.pending() > 0 || !permits.tryAcquire()) {
+                spill(event, "backlog");
+                return;
+            }
+        } else if (!awaitPermit()) {
+            log.error("Dropping event for topic: {} - {} sends still unacknowledged after {}",
+                    topic, pending(), maxBlock);
+            droppedCounter.increment();
+            return;
+        }
+        send(event, true);
+    }
+
+    private boolean awaitPermit() {
+        try {
+            return permits.tryAcquire(maxBlock.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // The caller holds a permit; the send's completion gives it back. Replays are not spilled
+    // again on failure: their segment is still on disk and the drain retries it.
+    private CompletableFuture<SendResult<String, String>> send(SpilledEvent event, boolean spillOnFailure) {
+        long started = System.nanoTime();
+        CompletableFuture<SendResult<String, String>> future;
+        try {
+            future = kafkaTemplate.send(event.topic(), event.key(), event.value());
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((result, error) -> {
+            permits.release();
+            sendTimer(event.topic(), error == null ? "success" : "failure")
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (error == null || !spillOnFailure) {
+                return;
+            }
+            if (spillBuffer != null) {
+                log.warn("Send to topic: {} failed, spilling to disk - {}", event.topic(), error.getMessage());
+                spillLater(event);
+            } else {
+                log.error("Send to topic: {} failed, event lost - {}", event.topic(), error.getMessage());
+            }
+        });
+    }
+
+    private void spillLater(SpilledEvent event) {
+        try {
+            spillWriter.execute(() -> spill(event, "failure"));
+        } catch (RejectedExecutionException e) {
+            log.error("Could not spill event for topic: {} during shutdown, event lost", event.topic());
+            droppedCounter.increment();
+        }
+    }
+
+    private void spill(SpilledEvent event, String reason) {
+        try {
+            spillBuffer.append(event);
+            spillCounter(reason).increment();
+        } catch (IOException e) {
+            log.error("Could not spill event for topic: {}, event lost - {}", event.topic(), e.getMessage());
+            droppedCounter.increment();
+        }
+    }
+
+    void drain() {
+        try {
+            SpillBuffer.Segment segment;
+            while ((segment = spillBuffer.oldest()) != null) {
+                List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>();
+                for (SpilledEvent event : segment.events()) {
+                    permits.acquire();
+                    sends.add(send(event, false));
+                }
+                try {
+                    CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get();
+                } catch (ExecutionException e) {
+                    log.warn("Re-publishing spilled events failed, keeping the segment for the next drain - {}",
+                            e.getCause().getMessage());
+                    return;
+                }
+                spillBuffer.complete(segment);
+                replayedCounter.increment(segment.events().size());
+                log.info("Re-published {} spilled events", segment.events().size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.error("Draining the spill buffer failed, retrying later - {}", e.getMessage());
+        }
+    }
+
+    int pending() {
+        return maxPending - permits.availablePermits();
+    }
+
+    private Timer sendTimer(String topic, String outcome) {
+        return Timer.builder("moviebooking.kafka.send")
+                .description("Time from handing an event to the producer until the broker acknowledged or refused it")
+                .tag("topic", topic)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter spillCounter(String reason) {
+        return Counter.builder("moviebooking.kafka.spilled")
+                .description("Events written to the disk spill buffer instead of the producer")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() throws IOException, InterruptedException {
+        if (drainer == null) {
+            return;
+        }
+        drainer.shutdownNow();
+        drainer.awaitTermination(5, TimeUnit.SECONDS);
+        spillWriter.shutdown();
+        spillWriter.awaitTermination(5, TimeUnit.SECONDS);
+        spillBuffer.close();
+    }
+}
@@ -0,0 +1,11 @@
+package com.moviebookingapp.messaging;
+
+/**
+ * A message whose payload cannot be parsed. Retrying cannot fix it, so it goes straight to the
+ * dead-letter topic.
+ */
+class MalformedMessageException extends RuntimeException {
+    MalformedMessageException(String message) {
+        super(message);
+    }
+}
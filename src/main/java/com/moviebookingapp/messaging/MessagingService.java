@@ -1,27 +1,170 @@
 package com.moviebookingapp.messaging;
 
 import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.dto.ShowStatusDTO;
 import com.moviebookingapp.service.MovieService;
+import com.moviebookingapp.service.SalesAnalyticsService;
+import com.moviebookingapp.service.SalesAnalyticsService.TicketSale;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class MessagingService {
     private final MovieService movieService;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final EventPublisher eventPublisher;
+    private final ShowStatusBroadcaster showStatusBroadcaster;
+    private final MeterRegistry meterRegistry;
+    private final SalesAnalyticsService salesAnalyticsService;
 
+    // A failing show (e.g. deleted since the booking) moves to retry topics with growing delays
+    // and finally to moviebooking.tickets-dlt, so it never holds up other shows' updates.
+    @RetryableTopic(attempts = "${moviebooking.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${moviebooking.kafka.retry.initial-delay:1000}",
+                    multiplierExpression = "${moviebooking.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${moviebooking.kafka.retry.max-delay:30000}"),
+            exclude = MalformedMessageException.class,
+            traversingCauses = "true",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            kafkaTemplate = "kafkaTemplate")
     @KafkaListener(topics = AppConstants.KAFKA_TOPIC_TICKETS, groupId = "moviebooking-admin")
-    public void onTicketBooked(String payload) {
-        // payload format: movie|theatre|count
+    public void onTicketBooked(ConsumerRecord<String, String> record) {
+        if (!AppConstants.KAFKA_TOPIC_TICKETS.equals(record.topic())) {
+            counter("moviebooking.kafka.retries", "Ticket events redelivered from a retry topic", record.topic())
+                    .increment();
+        }
+        TicketEvent event = TicketEvent.parse(record.value());
+        if (event.type() != TicketEventType.BOOKED) {
+            // The cancellation published the show's new status itself.
+            log.debug("Skipping availability update for ticket event: {}", record.value());
+            return;
+        }
+        BookedInfoDTO availability = movieService.computeAndUpdateAvailability(event.movieName(), event.theatreName());
+        eventPublisher.publish(AppConstants.KAFKA_TOPIC_STATUS, event.movieName() + "|" + event.theatreName()
+                + "|" + availability.getStatus() + "|" + availability.getRemaining());
+    }
+
+    @DltHandler
+    public void onTicketBookedDeadLetter(ConsumerRecord<String, String> record) {
+        log.error("Ticket event dead-lettered after {} - payload: {}, reason: {}",
+                header(record, KafkaHeaders.ORIGINAL_TOPIC), record.value(),
+                header(record, KafkaHeaders.EXCEPTION_MESSAGE));
+        counter("moviebooking.kafka.dead-letters", "Ticket events given up on and parked in the dead-letter topic",
+                record.topic()).increment();
+    }
+
+    // Rollups get their own consumer group and offsets: a retried availability update must not
+    // count a sale twice, and a slow rollup write must not hold up status updates. Sales are
+    // bucketed on the booking time carried in the event; the record timestamp, which is the
+    // replay time for an event re-sent from the spill buffer, only stands in for older events.
+    // Cancellations carry the same booking time and take their seats back out of that bucket.
+    @KafkaListener(topics = AppConstants.KAFKA_TOPIC_TICKETS, groupId = "moviebooking-analytics", batch = "true")
+    public void onTicketsBookedForAnalytics(List<ConsumerRecord<String, String>> records) {
+        List<TicketSale> sales = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                TicketEvent event = TicketEvent.parse(record.value());
+                Instant bookedAt = event.bookedAt() != null ? event.bookedAt() : Instant.ofEpochMilli(record.timestamp());
+                int tickets = event.type() == TicketEventType.BOOKED ? event.count() : -event.count();
+                int bookings = switch (event.type()) {
+                    case BOOKED -> 1;
+                    case CANCELLED -> -1;
+                    case SEATS_RELEASED -> 0;
+                };
+                sales.add(new TicketSale(record.partition(), record.offset(), event.movieName(), event.theatreName(),
+                        tickets, bookings, bookedAt));
+            } catch (MalformedMessageException e) {
+                log.warn("Leaving malformed ticket event out of the sales rollups: {}", record.value());
+            }
+        }
+        if (!sales.isEmpty()) {
+            salesAnalyticsService.record(sales);
+        }
+    }
+
+    // Every instance needs every status change for its own SSE subscribers, so each one
+    // joins with a unique group id instead of sharing partitions with the other nodes.
+    @KafkaListener(topics = AppConstants.KAFKA_TOPIC_STATUS,
+            groupId = "#{'moviebooking-status-' + T(java.util.UUID).randomUUID()}")
+    public void onStatusChanged(String payload) {
+        // payload format: movie|theatre|status[|remaining]
         String[] parts = payload.split("\\|");
-        if (parts.length >= 2) {
-            String movieName = parts[0];
-            String theatreName = parts[1];
-            String status = movieService.computeAndUpdateStatus(movieName, theatreName);
-            kafkaTemplate.send(AppConstants.KAFKA_TOPIC_STATUS, movieName + "|" + theatreName + "|" + status);
+        if (parts.length < 3) {
+            log.warn("Ignoring malformed status message: {}", payload);
+            return;
+        }
+        Integer remaining = null;
+        if (parts.length >= 4) {
+            try {
+                remaining = Integer.valueOf(parts[3]);
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed remaining count in status message: {}", payload);
+            }
+        }
+        showStatusBroadcaster.publish(new ShowStatusDTO(parts[0], parts[1], parts[2], remaining));
+    }
+
+    private Counter counter(String name, String description, String topic) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? "unknown" : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    // payload format: movie|theatre|count[|bookedAtEpochMillis[|type]]; the time may be empty when a
+    // cancelled ticket predates booking times, and messages without a type are bookings.
+    private record TicketEvent(String movieName, String theatreName, int count, Instant bookedAt, TicketEventType type) {
+        static TicketEvent parse(String payload) {
+            String[] parts = payload == null ? new String[0] : payload.split("\\|", -1);
+            if (parts.length < 3 || parts.length > 5 || parts[0].isBlank() || parts[1].isBlank()) {
+                throw new MalformedMessageException("Malformed ticket event: " + payload);
+            }
+            int count;
+            try {
+                count = Integer.parseInt(parts[2]);
+            } catch (NumberFormatException e) {
+                throw new MalformedMessageException("Bad ticket count in ticket event: " + payload);
+            }
+            if (count < 0) {
+                throw new MalformedMessageException("Negative ticket count in ticket event: " + payload);
+            }
+            Instant bookedAt;
+            try {
+                bookedAt = parts.length >= 4 && !parts[3].isEmpty() ? Instant.ofEpochMilli(Long.parseLong(parts[3])) : null;
+            } catch (NumberFormatException e) {
+                throw new MalformedMessageException("Bad booking time in ticket event: " + payload);
+            }
+            try {
+                TicketEventType type = parts.length == 5 ? TicketEventType.valueOf(parts[4]) : TicketEventType.BOOKED;
+                return new TicketEvent(parts[0], parts[1], count, bookedAt, type);
+            } catch (IllegalArgumentException e) {
+                throw new MalformedMessageException("Unknown type in ticket event: " + payload);
+            }
         }
     }
-} 
\ No newline at end of file
+}
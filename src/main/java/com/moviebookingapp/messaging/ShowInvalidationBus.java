@@ -0,0 +1,197 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.domain.ShowKey;
+import com.moviebookingapp.service.ShowCache;
+import com.moviebookingapp.service.ShowChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps node-local show caches coherent across instances. Local changes are stamped with a
+ * hybrid logical clock and published to a compacted topic keyed by show; every node applies
+ * other nodes' messages to its {@link ShowCache}s unless it has already seen a newer stamp
+ * for that show, so reordered or replayed messages cannot bring back stale values.
+ *
+ * Changes carrying values go out at once. Bare invalidations, which every booking causes, wait
+ * up to coalesce-window and all those for one show leave as a single message stamped when it
+ * is sent, so a busy show costs other nodes one reload per window rather than one per booking.
+ * Sends go through the {@link EventPublisher}, sharing its pending bound and spill buffer.
+ *
+ * Payload format: version|origin|movie|theatre|totalTickets|booked ("-" for unknown values).
+ */
+@Component
+@Slf4j
+public class ShowInvalidationBus implements DisposableBean {
+    private static final String UNKNOWN = "-";
+
+    private final EventPublisher eventPublisher;
+    private final ObjectProvider<ShowCache> caches;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<ShowKey, Long> lastApplied = new ConcurrentHashMap<>();
+    private final Map<ShowKey, ShowChangedEvent> pendingInvalidations = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private final Counter appliedCounter;
+    private final Counter staleCounter;
+    private final Counter coalescedCounter;
+
+    public ShowInvalidationBus(EventPublisher eventPublisher,
+                               ObjectProvider<ShowCache> caches,
+                               MeterRegistry meterRegistry,
+                               @Value("${moviebooking.invalidation.coalesce-window:PT0.1S}") Duration coalesceWindow) {
+        this.eventPublisher = eventPublisher;
+        this.caches = caches;
+        this.appliedCounter = Counter.builder("moviebooking.invalidation.applied")
+                .description("Remote show changes applied to local caches")
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("moviebooking.invalidation.stale")
+                .description("Remote show changes ignored because a newer version was already applied")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("moviebooking.invalidation.coalesced")
+                .description("Local invalidations folded into one already waiting to be published")
+                .register(meterRegistry);
+
+        if (coalesceWindow.isZero()) {
+            this.flusher = null;
+            return;
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "invalidation-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, coalesceWindow.toMillis(), coalesceWindow.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener
+    public void onShowChanged(ShowChangedEvent event) {
+        ShowKey key = ShowKey.of(event.movieName(), event.theatreName());
+        // Stamped now as well, so remote changes older than this one stop applying straight away.
+        lastApplied.merge(key, nextVersion(), Math::max);
+        if (flusher == null || event.hasValues()) {
+            send(key, event);
+        } else if (pendingInvalidations.putIfAbsent(key, event) != null) {
+            coalescedCounter.increment();
+        }
+    }
+
+    void flush() {
+        for (ShowKey key : pendingInvalidations.keySet()) {
+            ShowChangedEvent event = pendingInvalidations.remove(key);
+            if (event != null) {
+                send(key, event);
+            }
+        }
+    }
+
+    private void send(ShowKey key, ShowChangedEvent event) {
+        long version = nextVersion();
+        lastApplied.merge(key, version, Math::max);
+
+        String payload = version + "|" + nodeId + "|" + event.movieName() + "|" + event.theatreName() + "|"
+                + (event.hasValues() ? event.totalTickets() + "|" + event.booked() : UNKNOWN + "|" + UNKNOWN);
+        log.debug("Publishing show change for: {} at version: {}", key, version);
+        eventPublisher.publish(AppConstants.KAFKA_TOPIC_INVALIDATION, key.toString(), payload);
+    }
+
+    // Each node must see every change, so the group id is unique per instance. Reading the
+    // compacted topic from the start brings state restored from disk up to date on restart.
+    @KafkaListener(topics = AppConstants.KAFKA_TOPIC_INVALIDATION,
+            groupId = "#{'moviebooking-invalidation-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=${moviebooking.invalidation.offset-reset:earliest}")
+    public void onRemoteChange(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 6) {
+            log.warn("Ignoring malformed invalidation message: {}", payload);
+            return;
+        }
+        if (nodeId.equals(parts[1])) {
+            return;
+        }
+
+        long version;
+        boolean hasValues = !UNKNOWN.equals(parts[4]) && !UNKNOWN.equals(parts[5]);
+        int totalTickets = 0;
+        int booked = 0;
+        try {
+            version = Long.parseLong(parts[0]);
+            if (hasValues) {
+                totalTickets = Integer.parseInt(parts[4]);
+                booked = Integer.parseInt(parts[5]);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalidation message with bad numbers: {}", payload);
+            return;
+        }
+        observe(version);
+
+        String movieName = parts[2];
+        String theatreName = parts[3];
+        ShowKey key = ShowKey.of(movieName, theatreName);
+        if (!advance(key, version)) {
+            log.debug("Ignoring stale change for: {} at version: {}", key, version);
+            staleCounter.increment();
+            return;
+        }
+
+        if (hasValues) {
+            int total = totalTickets;
+            int bookedCount = booked;
+            caches.forEach(cache -> cache.refresh(movieName, theatreName, total, bookedCount));
+        } else {
+            caches.forEach(cache -> cache.invalidate(movieName, theatreName));
+        }
+        appliedCounter.increment();
+        log.debug("Applied remote change for: {} at version: {}", key, version);
+    }
+
+    private boolean advance(ShowKey key, long version) {
+        boolean[] advanced = new boolean[1];
+        lastApplied.compute(key, (k, current) -> {
+            if (current != null && current >= version) {
+                return current;
+            }
+            advanced[0] = true;
+            return version;
+        });
+        return advanced[0];
+    }
+
+    // Wall-clock milliseconds in the high bits, a logical counter in the low 16 bits.
+    private long nextVersion() {
+        long physical = System.currentTimeMillis() << 16;
+        return clock.updateAndGet(previous -> Math.max(previous + 1, physical));
+    }
+
+    private void observe(long remoteVersion) {
+        clock.accumulateAndGet(remoteVersion, Math::max);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+}
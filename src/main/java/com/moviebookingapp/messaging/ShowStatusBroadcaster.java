@@ -0,0 +1,197 @@
+package com.moviebookingapp.messaging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moviebookingapp.domain.ShowKey;
+import com.moviebookingapp.dto.ShowStatusDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans show status changes out to Server-Sent Events subscribers. Every subscriber gets a
+ * small bounded buffer; a subscriber that cannot keep up and overflows it is disconnected
+ * rather than allowed to grow memory. Sends are performed by a shared, small worker pool.
+ * The last status of each show, replayed to new subscribers, is kept for at most max-shows
+ * shows and dropped once nobody has published or subscribed to it for idle-expiry.
+ */
+@Component
+@Slf4j
+public class ShowStatusBroadcaster implements DisposableBean {
+    private static final String EVENT_NAME = "status";
+
+    private final Map<ShowKey, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Cache<ShowKey, ShowStatusDTO> lastKnown;
+    private final AtomicInteger activeSubscribers = new AtomicInteger();
+    private final Executor executor;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final Counter droppedCounter;
+    private final Counter deliveredCounter;
+
+    @Autowired
+    public ShowStatusBroadcaster(MeterRegistry meterRegistry,
+                                 @Value("${moviebooking.sse.buffer-size:16}") int bufferSize,
+                                 @Value("${moviebooking.sse.timeout:PT30M}") Duration timeout,
+                                 @Value("${moviebooking.sse.sender-threads:4}") int senderThreads,
+                                 @Value("${moviebooking.sse.max-shows:10000}") long maxShows,
+                                 @Value("${moviebooking.sse.idle-expiry:PT1H}") Duration idleExpiry) {
+        this(meterRegistry, bufferSize, timeout, Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread thread = new Thread(r, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        }), maxShows, idleExpiry);
+    }
+
+    ShowStatusBroadcaster(MeterRegistry meterRegistry, int bufferSize, Duration timeout, Executor executor,
+                          long maxShows, Duration idleExpiry) {
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(maxShows)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = executor;
+        this.droppedCounter = Counter.builder("moviebooking.sse.dropped")
+                .description("Subscribers disconnected because their buffer overflowed")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("moviebooking.sse.delivered")
+                .description("Status events delivered to subscribers")
+                .register(meterRegistry);
+        meterRegistry.gauge("moviebooking.sse.subscribers", activeSubscribers);
+    }
+
+    public SseEmitter subscribe(String movieName, String theatreName) {
+        return subscribe(movieName, theatreName, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(String movieName, String theatreName, SseEmitter emitter) {
+        ShowKey key = ShowKey.of(movieName, theatreName);
+        Subscriber subscriber = new Subscriber(key, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.compute(key, (k, set) -> {
+            Set<Subscriber> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+            target.add(subscriber);
+            return target;
+        });
+        activeSubscribers.incrementAndGet();
+        log.debug("SSE subscriber added for show: {}, active: {}", key, activeSubscribers.get());
+
+        ShowStatusDTO current = lastKnown.getIfPresent(key);
+        if (current != null) {
+            enqueue(subscriber, current);
+        }
+        return emitter;
+    }
+
+    public void publish(ShowStatusDTO event) {
+        ShowKey key = ShowKey.of(event.getMovieName(), event.getTheatreName());
+        lastKnown.put(key, event);
+
+        Set<Subscriber> showSubscribers = subscribers.get(key);
+        if (showSubscribers == null || showSubscribers.isEmpty()) {
+            return;
+        }
+        log.debug("Broadcasting status for show: {} to {} subscribers", key, showSubscribers.size());
+        for (Subscriber subscriber : showSubscribers) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    public int subscriberCount() {
+        return activeSubscribers.get();
+    }
+
+    long lastKnownShows() {
+        lastKnown.cleanUp();
+        return lastKnown.estimatedSize();
+    }
+
+    private void enqueue(Subscriber subscriber, ShowStatusDTO event) {
+        if (!subscriber.buffer.offer(event)) {
+            log.warn("Dropping slow SSE subscriber for show: {}", subscriber.key);
+            droppedCounter.increment();
+            remove(subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            ShowStatusDTO event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME).data(event));
+                    deliveredCounter.increment();
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("SSE subscriber for show: {} went away: {}", subscriber.key, e.getMessage());
+                    remove(subscriber);
+                    subscriber.buffer.clear();
+                    return;
+                }
+            }
+            subscriber.scheduled.set(false);
+        } while (!subscriber.buffer.isEmpty() && subscriber.scheduled.compareAndSet(false, true));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.key, (k, set) -> {
+            if (set.remove(subscriber)) {
+                activeSubscribers.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        subscribers.clear();
+        lastKnown.invalidateAll();
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private record Subscriber(ShowKey key, SseEmitter emitter, Queue<ShowStatusDTO> buffer, AtomicBoolean scheduled) {
+        Subscriber(ShowKey key, SseEmitter emitter, Queue<ShowStatusDTO> buffer) {
+            this(key, emitter, buffer, new AtomicBoolean());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
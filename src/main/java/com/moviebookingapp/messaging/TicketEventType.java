@@ -0,0 +1,12 @@
+package com.moviebookingapp.messaging;
+
+/**
+ * What a message on the tickets topic records. Messages without a type are bookings.
+ */
+public enum TicketEventType {
+    BOOKED,
+    /** The whole ticket was cancelled. */
+    CANCELLED,
+    /** Some of the ticket's seats were released; the booking itself stands. */
+    SEATS_RELEASED
+}
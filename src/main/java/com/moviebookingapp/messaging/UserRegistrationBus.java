@@ -0,0 +1,51 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.service.UserIdentityFilter;
+import com.moviebookingapp.service.UserRegisteredEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares registrations between nodes. Signup skips the uniqueness lookups on a negative
+ * {@link UserIdentityFilter} answer, so every node's filter has to learn about users registered
+ * elsewhere.
+ *
+ * Messages are keyed by login id and carry the email. Adding an identity twice is harmless, so
+ * a node also applies its own messages. They go through the {@link EventPublisher}, so a send the
+ * broker refuses is spilled and retried (or at least counted) rather than silently lost; login
+ * still checks the database on a filter miss for registrations that never arrive.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRegistrationBus {
+    private final EventPublisher eventPublisher;
+    private final UserIdentityFilter userIdentityFilter;
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        log.debug("Publishing registration for loginId: {}", event.loginId());
+        eventPublisher.publish(AppConstants.KAFKA_TOPIC_USERS, event.loginId(), event.email());
+    }
+
+    // Each node must see every registration, so the group id is unique per instance. A fresh
+    // group has no committed offset; reading the compacted topic from the start replays every
+    // registration made before this node joined.
+    @KafkaListener(topics = AppConstants.KAFKA_TOPIC_USERS,
+            groupId = "#{'moviebooking-users-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=${moviebooking.signup.offset-reset:earliest}")
+    public void onRemoteRegistration(@Header(KafkaHeaders.RECEIVED_KEY) String loginId, String email) {
+        if (loginId == null || email == null) {
+            log.warn("Ignoring malformed registration message - loginId: {}, email: {}", loginId, email);
+            return;
+        }
+        userIdentityFilter.add(loginId, email);
+        log.debug("Applied registration for loginId: {}", loginId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+    Optional<InventorySnapshot> findFirstByMovieNameAndTheatreNameOrderBySequenceDesc(String movieName,
+                                                                                     @ShardKey String theatreName);
+
+    Optional<InventorySnapshot> findByMovieNameAndTheatreNameAndSequence(String movieName,
+                                                                        @ShardKey String theatreName,
+                                                                        long sequence);
+}
@@ -0,0 +1,35 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.LedgerEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface LedgerEventRepository extends JpaRepository<LedgerEvent, Long> {
+
+    @Query("select coalesce(max(e.sequence), 0) from LedgerEvent e where e.movieName = :movieName and e.theatreName = :theatreName")
+    long lastSequence(@Param("movieName") String movieName, @ShardKey @Param("theatreName") String theatreName);
+
+    @Query("select e from LedgerEvent e where e.movieName = :movieName and e.theatreName = :theatreName "
+            + "and e.sequence > :after order by e.sequence")
+    List<LedgerEvent> findTail(@Param("movieName") String movieName,
+                               @ShardKey @Param("theatreName") String theatreName,
+                               @Param("after") long after);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from LedgerEvent e where e.movieName = :movieName and e.theatreName = :theatreName "
+            + "order by e.sequence")
+    Stream<LedgerEvent> streamForShow(@Param("movieName") String movieName, @ShardKey @Param("theatreName") String theatreName);
+
+    @Query("select distinct e.movieName, e.theatreName from LedgerEvent e")
+    List<Object[]> findShows();
+}
@@ -0,0 +1,45 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.service.ShowCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Keeps this node's second-level cache entries for movies in line with changes made on
+ * other nodes. Hibernate already handles local writes; a remote change evicts the cached
+ * entity so the next lookup reloads it by id.
+ *
+ * The id is looked up on the show's shard rather than remembered from earlier lookups, so
+ * entities cached by any query are evicted. A show that no longer exists may still be named
+ * by cached natural-id resolutions, so its disappearance clears the movie regions.
+ */
+@Component
+@Slf4j
+public class MovieEntityCache implements ShowCache {
+    private final EntityManagerFactory entityManagerFactory;
+    private final MovieRepository movieRepository;
+
+    public MovieEntityCache(EntityManagerFactory entityManagerFactory, MovieRepository movieRepository) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.movieRepository = movieRepository;
+    }
+
+    @Override
+    public void invalidate(String movieName, String theatreName) {
+        Optional<Long> id = movieRepository.findIdByMovieNameAndTheatreName(movieName, theatreName);
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        if (id.isPresent()) {
+            log.debug("Evicting cached movie: {} at theatre: {}, id: {}", movieName, theatreName, id.get());
+            cache.evictEntityData(Movie.class, id.get());
+        } else {
+            log.debug("Movie: {} at theatre: {} is gone, evicting all cached movies", movieName, theatreName);
+            cache.evictEntityData(Movie.class);
+            cache.evictNaturalIdData(Movie.class);
+        }
+    }
+}
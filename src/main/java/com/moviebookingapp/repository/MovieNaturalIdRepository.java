@@ -0,0 +1,9 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.Movie;
+
+import java.util.Optional;
+
+public interface MovieNaturalIdRepository {
+    Optional<Movie> findByMovieNameAndTheatreName(String movieName, @ShardKey String theatreName);
+}
@@ -0,0 +1,30 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.Movie;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Resolves movies through Hibernate's natural-id API so repeated lookups are answered from
+ * the second-level cache instead of a query.
+ */
+public class MovieNaturalIdRepositoryImpl implements MovieNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Movie> findByMovieNameAndTheatreName(String movieName, String theatreName) {
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(Movie.class)
+                .using("movieName", movieName)
+                .using("theatreName", theatreName)
+                .loadOptional();
+    }
+}
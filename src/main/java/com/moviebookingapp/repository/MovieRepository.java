@@ -1,13 +1,27 @@
 package com.moviebookingapp.repository;
 
 import com.moviebookingapp.domain.Movie;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, MovieNaturalIdRepository {
     List<Movie> findByMovieNameContainingIgnoreCase(String movieName);
-    Optional<Movie> findByMovieNameAndTheatreName(String movieName, String theatreName);
-    long deleteByMovieNameAndTheatreName(String movieName, String theatreName);
+    List<Movie> findByMovieNameIgnoreCase(String movieName);
+    long deleteByMovieNameAndTheatreName(String movieName, @ShardKey String theatreName);
+
+    @Query("select m.id from Movie m where m.movieName = :movieName and m.theatreName = :theatreName")
+    Optional<Long> findIdByMovieNameAndTheatreName(@Param("movieName") String movieName,
+                                                   @ShardKey @Param("theatreName") String theatreName);
+
+    // Serialises changes to one show's inventory; must be called inside a transaction.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Movie m where m.movieName = :movieName and m.theatreName = :theatreName")
+    Optional<Movie> lockByMovieNameAndTheatreName(@Param("movieName") String movieName,
+                                                  @ShardKey @Param("theatreName") String theatreName);
 } 
\ No newline at end of file
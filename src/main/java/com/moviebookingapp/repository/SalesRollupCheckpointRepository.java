@@ -0,0 +1,14 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.SalesRollupCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Optional;
+
+public interface SalesRollupCheckpointRepository extends JpaRepository<SalesRollupCheckpoint, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SalesRollupCheckpoint> findByPartition(Integer partition);
+}
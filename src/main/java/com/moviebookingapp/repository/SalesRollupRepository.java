@@ -0,0 +1,50 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.RollupGranularity;
+import com.moviebookingapp.domain.RollupScope;
+import com.moviebookingapp.domain.SalesRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    // Adds in the database rather than read-modify-write, and creates the bucket in the same statement, so
+    // consumers on other nodes adding to the same theatre or movie bucket neither lose counts nor collide on
+    // the unique key. Naming the table keeps Hibernate from clearing every second-level cache region.
+    // Clearing keeps rows already loaded in the persistence context from hiding the new totals.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "sales_rollups"))
+    @Query(value = "insert into sales_rollups (scope, granularity, movie_key, theatre_key, bucket_start, tickets, bookings) "
+            + "values (:scope, :granularity, :movieKey, :theatreKey, :bucketStart, :tickets, :bookings) "
+            + "on duplicate key update tickets = tickets + values(tickets), bookings = bookings + values(bookings)",
+            nativeQuery = true)
+    int add(@Param("scope") String scope,
+            @Param("granularity") String granularity,
+            @Param("movieKey") String movieKey,
+            @Param("theatreKey") String theatreKey,
+            @Param("bucketStart") Instant bucketStart,
+            @Param("tickets") long tickets,
+            @Param("bookings") long bookings);
+
+    @Query("select r from SalesRollup r where r.scope = :scope and r.granularity = :granularity "
+            + "and r.movieKey = :movieKey and r.theatreKey = :theatreKey "
+            + "and r.bucketStart >= :from and r.bucketStart < :to order by r.bucketStart")
+    List<SalesRollup> findSeries(@Param("scope") RollupScope scope,
+                                 @Param("granularity") RollupGranularity granularity,
+                                 @Param("movieKey") String movieKey,
+                                 @Param("theatreKey") String theatreKey,
+                                 @Param("from") Instant from,
+                                 @Param("to") Instant to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from SalesRollup r where r.granularity = :granularity and r.bucketStart < :before")
+    int deleteExpired(@Param("granularity") RollupGranularity granularity, @Param("before") Instant before);
+}
@@ -0,0 +1,15 @@
+package com.moviebookingapp.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the repository method parameter holding the theatre name used to pick a shard.
+ * A null value means the call is not scoped to a theatre and runs on every shard.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShardKey {
+}
@@ -1,12 +1,58 @@
 package com.moviebookingapp.repository;
 
 import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.TicketExportRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
+    // Ticket ids are only unique within a shard; these find the theatre (and so the shard) of one.
+    @Query("select t.theatreName from Ticket t where t.id = :id")
+    List<String> findTheatreNamesById(@Param("id") Long id);
+
+    @Query("select t.theatreName from Ticket t where t.id = :id and t.userLoginId = :userLoginId")
+    List<String> findTheatreNamesByIdAndUserLoginId(@Param("id") Long id, @Param("userLoginId") String userLoginId);
+
+    Optional<Ticket> findByIdAndTheatreName(Long id, @ShardKey String theatreName);
+
     @Query("select coalesce(sum(t.numberOfTickets), 0) from Ticket t where t.movieName = :movieName and t.theatreName = :theatreName")
-    Long totalBookedForMovieAndTheatre(@Param("movieName") String movieName, @Param("theatreName") String theatreName);
-} 
\ No newline at end of file
+    Long totalBookedForMovieAndTheatre(@Param("movieName") String movieName, @ShardKey @Param("theatreName") String theatreName);
+
+    @Query("select t.theatreName, coalesce(sum(t.numberOfTickets), 0) from Ticket t where lower(t.movieName) = lower(:movieName) group by t.theatreName")
+    List<Object[]> totalBookedByTheatreForMovie(@Param("movieName") String movieName);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select t.id as id, t.movieName as movieName, t.theatreName as theatreName, "
+            + "t.numberOfTickets as numberOfTickets, t.userLoginId as userLoginId, t.bookedAt as bookedAt, s as seatNumber "
+            + "from Ticket t left join t.seatNumbers s "
+            + "where (:movieName is null or t.movieName = :movieName) "
+            + "and (:theatreName is null or t.theatreName = :theatreName) "
+            + "and (:from is null or t.bookedAt >= :from) "
+            + "and (:to is null or t.bookedAt < :to) "
+            + "order by t.id")
+    Stream<TicketExportRow> streamForExport(@Param("movieName") String movieName,
+                                            @ShardKey @Param("theatreName") String theatreName,
+                                            @Param("from") Instant from,
+                                            @Param("to") Instant to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from Ticket t join t.seatNumbers s where t.movieName = :movieName and t.theatreName = :theatreName")
+    Stream<String> streamSeatNumbers(@Param("movieName") String movieName, @ShardKey @Param("theatreName") String theatreName);
+}
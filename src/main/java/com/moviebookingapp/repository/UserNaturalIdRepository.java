@@ -0,0 +1,9 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+    Optional<User> findByLoginId(String loginId);
+}
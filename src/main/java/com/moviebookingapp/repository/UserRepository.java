@@ -1,11 +1,23 @@
 package com.moviebookingapp.repository;
 
 import com.moviebookingapp.domain.User;
+import com.moviebookingapp.dto.UserIdentity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByLoginId(String loginId);
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
     Optional<User> findByEmail(String email);
-} 
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.loginId as loginId, u.email as email from User u")
+    Stream<UserIdentity> streamIdentities();
+}
@@ -0,0 +1,183 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.InventorySnapshot;
+import com.moviebookingapp.domain.LedgerEvent;
+import com.moviebookingapp.domain.LedgerEventType;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.repository.InventorySnapshotRepository;
+import com.moviebookingapp.repository.LedgerEventRepository;
+import com.moviebookingapp.repository.MovieRepository;
+import com.moviebookingapp.repository.TicketRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only booking ledger per show. Current inventory is the latest snapshot plus the
+ * events recorded after it; a new snapshot is written every {@code snapshotInterval} events so
+ * that tail stays short however long the show has been selling.
+ *
+ * Appends lock the show's movie row, which makes per-show sequence numbers contiguous and
+ * commit-ordered. The first append for a show also writes its baseline snapshot from the
+ * tickets booked before the ledger existed, so callers append before changing the tickets the
+ * event records.
+ */
+@Service
+@Slf4j
+public class BookingLedger {
+    private final LedgerEventRepository ledgerEventRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final MovieRepository movieRepository;
+    private final TicketRepository ticketRepository;
+    private final int snapshotInterval;
+    private final Clock clock;
+
+    @Autowired
+    public BookingLedger(LedgerEventRepository ledgerEventRepository,
+                         InventorySnapshotRepository snapshotRepository,
+                         MovieRepository movieRepository,
+                         TicketRepository ticketRepository,
+                         @Value("${moviebooking.ledger.snapshot-interval:100}") int snapshotInterval) {
+        this(ledgerEventRepository, snapshotRepository, movieRepository, ticketRepository, snapshotInterval,
+                Clock.systemUTC());
+    }
+
+    BookingLedger(LedgerEventRepository ledgerEventRepository, InventorySnapshotRepository snapshotRepository,
+                  MovieRepository movieRepository, TicketRepository ticketRepository, int snapshotInterval,
+                  Clock clock) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.movieRepository = movieRepository;
+        this.ticketRepository = ticketRepository;
+        this.snapshotInterval = snapshotInterval;
+        this.clock = clock;
+    }
+
+    /** For pure reads; may be served by a lagging replica. */
+    @Transactional(readOnly = true)
+    public ShowInventory inventory(String movieName, String theatreName) {
+        return load(movieName, theatreName);
+    }
+
+    /**
+     * Always read on the primary. For callers that save or cache what they read, which may run from
+     * listeners and after-commit hooks where no read-your-writes pin applies.
+     */
+    @Transactional
+    public ShowInventory currentInventory(String movieName, String theatreName) {
+        return load(movieName, theatreName);
+    }
+
+    private ShowInventory load(String movieName, String theatreName) {
+        Optional<InventorySnapshot> snapshot =
+                snapshotRepository.findFirstByMovieNameAndTheatreNameOrderBySequenceDesc(movieName, theatreName);
+        if (snapshot.isEmpty()) {
+            // Nothing has been appended yet, so the tickets table is still the whole story.
+            log.debug("No ledger for show: {}/{}, using ticket totals", movieName, theatreName);
+            return new ShowInventory(0, null, legacyBooked(movieName, theatreName));
+        }
+        ShowInventory inventory = ShowInventory.of(snapshot.get());
+        List<LedgerEvent> tail = ledgerEventRepository.findTail(movieName, theatreName, inventory.sequence());
+        for (LedgerEvent event : tail) {
+            inventory = inventory.apply(event);
+        }
+        log.debug("Inventory for show: {}/{} from snapshot at {} plus {} events",
+                movieName, theatreName, snapshot.get().getSequence(), tail.size());
+        return inventory;
+    }
+
+    @Transactional
+    public LedgerEvent recordBooked(String movieName, String theatreName, int tickets, String userLoginId) {
+        return append(movieName, theatreName, List.of(new Entry(LedgerEventType.BOOKED, tickets, userLoginId)));
+    }
+
+    /** Appends one BOOKED event per ticket under a single lock; returns the last of them. */
+    @Transactional
+    public LedgerEvent recordBookings(String movieName, String theatreName, List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            throw new IllegalArgumentException("No bookings to record");
+        }
+        List<Entry> entries = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            entries.add(new Entry(LedgerEventType.BOOKED, ticket.getNumberOfTickets(), ticket.getUserLoginId()));
+        }
+        return append(movieName, theatreName, entries);
+    }
+
+    @Transactional
+    public LedgerEvent recordCancelled(String movieName, String theatreName, int tickets, String userLoginId) {
+        return append(movieName, theatreName, List.of(new Entry(LedgerEventType.CANCELLED, tickets, userLoginId)));
+    }
+
+    @Transactional
+    public LedgerEvent recordCapacityChanged(String movieName, String theatreName, int capacity) {
+        return append(movieName, theatreName, List.of(new Entry(LedgerEventType.CAPACITY_CHANGED, capacity, null)));
+    }
+
+    private LedgerEvent append(String movieName, String theatreName, List<Entry> entries) {
+        movieRepository.lockByMovieNameAndTheatreName(movieName, theatreName)
+                .orElseThrow(() -> new IllegalArgumentException("Movie not found"));
+
+        long last = ledgerEventRepository.lastSequence(movieName, theatreName);
+        if (last == 0 && snapshotRepository.findByMovieNameAndTheatreNameAndSequence(movieName, theatreName, 0).isEmpty()) {
+            int baseline = legacyBooked(movieName, theatreName);
+            log.info("Starting ledger for show: {}/{} with baseline booked: {}", movieName, theatreName, baseline);
+            snapshotRepository.save(snapshot(movieName, theatreName, new ShowInventory(0, null, baseline)));
+        }
+
+        List<LedgerEvent> events = new ArrayList<>(entries.size());
+        long sequence = last;
+        for (Entry entry : entries) {
+            events.add(LedgerEvent.builder()
+                    .movieName(movieName)
+                    .theatreName(theatreName)
+                    .sequence(++sequence)
+                    .type(entry.type())
+                    .quantity(entry.quantity())
+                    .userLoginId(entry.userLoginId())
+                    .recordedAt(clock.instant())
+                    .build());
+        }
+        ledgerEventRepository.saveAll(events);
+        LedgerEvent event = events.get(events.size() - 1);
+        log.debug("Appended {} events for show: {}/{} up to sequence: {}", events.size(), movieName, theatreName,
+                event.getSequence());
+
+        if (event.getSequence() / snapshotInterval > last / snapshotInterval) {
+            ShowInventory inventory = inventory(movieName, theatreName);
+            snapshotRepository.save(snapshot(movieName, theatreName, inventory));
+            log.info("Snapshot taken for show: {}/{} at sequence: {}, booked: {}",
+                    movieName, theatreName, inventory.sequence(), inventory.booked());
+        }
+        return event;
+    }
+
+    InventorySnapshot snapshot(String movieName, String theatreName, ShowInventory inventory) {
+        return InventorySnapshot.builder()
+                .movieName(movieName)
+                .theatreName(theatreName)
+                .sequence(inventory.sequence())
+                .capacity(inventory.capacity())
+                .booked(inventory.booked())
+                .takenAt(clock.instant())
+                .build();
+    }
+
+    private int legacyBooked(String movieName, String theatreName) {
+        Long total = ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName);
+        return total == null ? 0 : total.intValue();
+    }
+
+    private record Entry(LedgerEventType type, int quantity, String userLoginId) {
+    }
+}
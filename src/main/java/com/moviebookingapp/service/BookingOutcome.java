@@ -0,0 +1,22 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Ticket;
+
+/**
+ * Result of one booking within a batch: the saved ticket, or the reason it was refused. Other
+ * bookings in the same batch are unaffected by a refusal.
+ */
+public record BookingOutcome(Ticket ticket, RuntimeException error) {
+
+    static BookingOutcome booked(Ticket ticket) {
+        return new BookingOutcome(ticket, null);
+    }
+
+    static BookingOutcome refused(RuntimeException error) {
+        return new BookingOutcome(null, error);
+    }
+
+    public boolean isBooked() {
+        return error == null;
+    }
+}
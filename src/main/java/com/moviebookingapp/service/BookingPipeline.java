@@ -0,0 +1,256 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Ticket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional booking engine that turns many small booking transactions on a hot show into a few
+ * large ones. Requests are queued per show in a bounded ring buffer; a single writer per show
+ * drains its queue, lingering a few milliseconds for more requests to arrive, and books the
+ * whole batch in one transaction through {@link TicketService#bookBatch}. Each caller's future
+ * completes once that transaction has committed.
+ *
+ * Disabled by default, in which case every request is booked on the caller's thread as before.
+ */
+@Component
+@Slf4j
+public class BookingPipeline implements DisposableBean {
+    private final TicketService ticketService;
+    private final boolean enabled;
+    private final int queueCapacity;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final Duration timeout;
+    private final Executor writers;
+    private final Map<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+    private final Counter rejectedCounter;
+    private final DistributionSummary batchSizes;
+
+    @Autowired
+    public BookingPipeline(TicketService ticketService,
+                           MeterRegistry meterRegistry,
+                           @Value("${moviebooking.booking.pipeline.enabled:false}") boolean enabled,
+                           @Value("${moviebooking.booking.pipeline.queue-capacity:1024}") int queueCapacity,
+                           @Value("${moviebooking.booking.pipeline.max-batch:256}") int maxBatch,
+                           @Value("${moviebooking.booking.pipeline.linger:PT0.002S}") Duration linger,
+                           @Value("${moviebooking.booking.pipeline.timeout:PT5S}") Duration timeout,
+                           @Value("${moviebooking.booking.pipeline.writer-threads:4}") int writerThreads) {
+        this(ticketService, meterRegistry, enabled, queueCapacity, maxBatch, linger, timeout,
+                Executors.newFixedThreadPool(writerThreads, r -> {
+                    Thread thread = new Thread(r, "booking-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    BookingPipeline(TicketService ticketService, MeterRegistry meterRegistry, boolean enabled, int queueCapacity,
+                    int maxBatch, Duration linger, Duration timeout, Executor writers) {
+        if (queueCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Booking queue capacity and batch size must be positive");
+        }
+        this.ticketService = ticketService;
+        this.enabled = enabled;
+        this.queueCapacity = queueCapacity;
+        this.maxBatch = maxBatch;
+        this.lingerNanos = linger.toNanos();
+        this.timeout = timeout;
+        this.writers = writers;
+        this.rejectedCounter = Counter.builder("moviebooking.booking.rejected")
+                .description("Bookings refused because the show's queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("moviebooking.booking.batch.size")
+                .description("Bookings committed per transaction by the booking pipeline")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<Ticket> submit(Ticket ticket) {
+        if (!enabled) {
+            try {
+                return CompletableFuture.completedFuture(ticketService.bookTicket(ticket));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        Lane lane = lanes.computeIfAbsent(new LaneKey(ticket.getMovieName(), ticket.getTheatreName()),
+                key -> new Lane(key, new ArrayBlockingQueue<>(queueCapacity)));
+        Request request = new Request(ticket, new CompletableFuture<>());
+        if (!lane.queue.offer(request)) {
+            log.warn("Booking queue full for show: {}/{}", ticket.getMovieName(), ticket.getTheatreName());
+            rejectedCounter.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many bookings for this show, try again"));
+        }
+        schedule(lane);
+        return request.future;
+    }
+
+    /**
+     * Books and waits for the outcome. A request still queued when the timeout passes is
+     * withdrawn and refused; one already being written is waited for, so the caller never gets
+     * a timeout for a booking that went through.
+     */
+    public Ticket book(Ticket ticket) {
+        CompletableFuture<Ticket> future = submit(ticket);
+        try {
+            try {
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                Lane lane = lanes.get(new LaneKey(ticket.getMovieName(), ticket.getTheatreName()));
+                if (lane != null && lane.queue.removeIf(r -> r.future == future)) {
+                    log.warn("Booking timed out in queue for show: {}/{}", ticket.getMovieName(), ticket.getTheatreName());
+                    throw new RejectedExecutionException("Booking timed out, try again");
+                }
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Booking failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while booking");
+        }
+    }
+
+    private void schedule(Lane lane) {
+        if (lane.scheduled.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(lane));
+            } catch (RejectedExecutionException e) {
+                lane.scheduled.set(false);
+                failQueued(lane, e);
+            }
+        }
+    }
+
+    private void drain(Lane lane) {
+        try {
+            List<Request> batch = new ArrayList<>(Math.min(maxBatch, queueCapacity));
+            while (collect(lane, batch)) {
+                write(lane, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failQueued(lane, new RejectedExecutionException("Booking pipeline is shutting down"));
+            return;
+        } finally {
+            lane.scheduled.set(false);
+        }
+        // A request queued after the last poll but before the flag was cleared needs a writer too.
+        if (!lane.queue.isEmpty()) {
+            schedule(lane);
+        }
+    }
+
+    // Takes what is queued, then lingers briefly so requests arriving together share a commit.
+    private boolean collect(Lane lane, List<Request> batch) throws InterruptedException {
+        lane.queue.drainTo(batch, maxBatch);
+        if (batch.isEmpty()) {
+            return false;
+        }
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatch) {
+            long wait = deadline - System.nanoTime();
+            if (wait <= 0) {
+                break;
+            }
+            Request next = lane.queue.poll(wait, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+            lane.queue.drainTo(batch, maxBatch - batch.size());
+        }
+        return true;
+    }
+
+    private void write(Lane lane, List<Request> batch) {
+        List<Ticket> tickets = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            tickets.add(request.ticket);
+        }
+        batchSizes.record(batch.size());
+        try {
+            List<BookingOutcome> outcomes = ticketService.bookBatch(lane.key.movieName(), lane.key.theatreName(), tickets);
+            for (int i = 0; i < batch.size(); i++) {
+                BookingOutcome outcome = outcomes.get(i);
+                if (outcome.isBooked()) {
+                    batch.get(i).future.complete(outcome.ticket());
+                } else {
+                    batch.get(i).future.completeExceptionally(outcome.error());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Booking batch of {} failed for show: {}/{}, error: {}", batch.size(),
+                    lane.key.movieName(), lane.key.theatreName(), e.getMessage(), e);
+            for (Request request : batch) {
+                request.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void failQueued(Lane lane, RuntimeException error) {
+        Request request;
+        while ((request = lane.queue.poll()) != null) {
+            request.future.completeExceptionally(error);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (writers instanceof ExecutorService service) {
+            service.shutdown();
+            try {
+                if (!service.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    service.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                service.shutdownNow();
+            }
+        }
+        RejectedExecutionException shutdown = new RejectedExecutionException("Booking pipeline is shutting down");
+        lanes.values().forEach(lane -> failQueued(lane, shutdown));
+    }
+
+    private record LaneKey(String movieName, String theatreName) {
+    }
+
+    private record Lane(LaneKey key, BlockingQueue<Request> queue, AtomicBoolean scheduled) {
+        Lane(LaneKey key, BlockingQueue<Request> queue) {
+            this(key, queue, new AtomicBoolean());
+        }
+    }
+
+    private record Request(Ticket ticket, CompletableFuture<Ticket> future) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.moviebookingapp.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of the movie catalogue as served by this node, advanced on every local show change
+ * and every change another node reports. Catalogue reads use it as a validator, so polling
+ * clients whose copy is current get a 304 without the catalogue being loaded.
+ *
+ * ETags carry a per-process epoch: another node, or this one after a restart, never confirms
+ * a version it did not hand out. A change made inside a transaction advances the version
+ * again once the transaction completes, so a read racing the commit cannot pin old data to
+ * the new version.
+ *
+ * There is deliberately no Last-Modified: If-Modified-Since only resolves to the second, so
+ * a change within the same second as a client's copy would still be answered with a 304.
+ */
+@Component
+@Slf4j
+public class CatalogueVersion implements ShowCache {
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicReference<Stamp> current = new AtomicReference<>(new Stamp(epoch, 0));
+
+    public Stamp current() {
+        return current.get();
+    }
+
+    @EventListener
+    public void onShowChanged(ShowChangedEvent event) {
+        changed();
+    }
+
+    @Override
+    public void invalidate(String movieName, String theatreName) {
+        changed();
+    }
+
+    private void changed() {
+        advance();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // afterCompletion, unlike afterCommit, still runs when registered from another afterCommit hook.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    advance();
+                }
+            });
+        }
+    }
+
+    private void advance() {
+        Stamp stamp = current.updateAndGet(previous -> new Stamp(epoch, previous.version() + 1));
+        log.debug("Catalogue version advanced to: {}", stamp.version());
+    }
+
+    public record Stamp(String epoch, long version) {
+
+        public String etag() {
+            return "\"" + epoch + "-" + version + "\"";
+        }
+    }
+}
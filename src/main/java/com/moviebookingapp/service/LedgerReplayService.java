@@ -0,0 +1,161 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.InventorySnapshot;
+import com.moviebookingapp.domain.LedgerEvent;
+import com.moviebookingapp.repository.InventorySnapshotRepository;
+import com.moviebookingapp.repository.LedgerEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Full replays of the booking ledger for audit and recovery. Each show's events are folded
+ * strictly in sequence order from its baseline, ignoring later snapshots; different shows are
+ * independent and are replayed in parallel on a small dedicated pool.
+ */
+@Service
+@Slf4j
+public class LedgerReplayService implements DisposableBean {
+    private final LedgerEventRepository ledgerEventRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final BookingLedger bookingLedger;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate readWrite;
+    private final ExecutorService executor;
+
+    @Autowired
+    public LedgerReplayService(LedgerEventRepository ledgerEventRepository,
+                               InventorySnapshotRepository snapshotRepository,
+                               BookingLedger bookingLedger,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${moviebooking.ledger.replay-threads:4}") int replayThreads) {
+        this.ledgerEventRepository = ledgerEventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.bookingLedger = bookingLedger;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readWrite = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(replayThreads, r -> {
+            Thread thread = new Thread(r, "ledger-replay-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ShowInventory replay(String movieName, String theatreName) {
+        return readOnly.execute(status -> {
+            ShowInventory inventory = snapshotRepository
+                    .findByMovieNameAndTheatreNameAndSequence(movieName, theatreName, 0)
+                    .map(ShowInventory::of)
+                    .orElse(ShowInventory.EMPTY);
+            try (Stream<LedgerEvent> events = ledgerEventRepository.streamForShow(movieName, theatreName)) {
+                for (LedgerEvent event : (Iterable<LedgerEvent>) events::iterator) {
+                    inventory = inventory.apply(event);
+                }
+            }
+            return inventory;
+        });
+    }
+
+    public Map<Show, ShowInventory> replayAll() {
+        List<Object[]> shows = ledgerEventRepository.findShows();
+        log.info("Replaying ledger for {} shows", shows.size());
+        long started = System.nanoTime();
+
+        Map<Show, CompletableFuture<ShowInventory>> futures = new LinkedHashMap<>();
+        for (Object[] show : shows) {
+            String movieName = (String) show[0];
+            String theatreName = (String) show[1];
+            futures.put(new Show(movieName, theatreName),
+                    CompletableFuture.supplyAsync(() -> replay(movieName, theatreName), executor));
+        }
+
+        Map<Show, ShowInventory> result = new LinkedHashMap<>();
+        try {
+            futures.forEach((key, future) -> result.put(key, future.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+        log.info("Replayed ledger for {} shows in {} ms", result.size(), (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Replays every show and reports those whose snapshot-plus-tail inventory disagrees with the
+     * full replay.
+     */
+    public Map<Show, String> audit() {
+        Map<Show, String> mismatches = new LinkedHashMap<>();
+        replayAll().forEach((key, replayed) -> {
+            ShowInventory current = bookingLedger.inventory(key.movieName(), key.theatreName());
+            if (!current.equals(replayed)) {
+                log.warn("Ledger mismatch for show: {} - current: {}, replayed: {}", key, current, replayed);
+                mismatches.put(key, "current " + current + " but replayed " + replayed);
+            }
+        });
+        log.info("Ledger audit finished with {} mismatches", mismatches.size());
+        return mismatches;
+    }
+
+    /**
+     * Writes a snapshot at the end of every show's ledger from a full replay, so that later reads
+     * start from a verified state. Shows already snapshotted at their last sequence are skipped.
+     */
+    public int rebuildSnapshots() {
+        int written = 0;
+        for (Map.Entry<Show, ShowInventory> entry : replayAll().entrySet()) {
+            Show key = entry.getKey();
+            ShowInventory inventory = entry.getValue();
+            try {
+                Boolean saved = readWrite.execute(status -> {
+                    if (snapshotRepository.findByMovieNameAndTheatreNameAndSequence(
+                            key.movieName(), key.theatreName(), inventory.sequence()).isPresent()) {
+                        return false;
+                    }
+                    InventorySnapshot snapshot = bookingLedger.snapshot(key.movieName(), key.theatreName(), inventory);
+                    snapshotRepository.saveAndFlush(snapshot);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(saved)) {
+                    written++;
+                }
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent append snapshotted the same sequence first; both describe the same state.
+                log.debug("Snapshot for show: {} at sequence: {} already written", key, inventory.sequence());
+            }
+        }
+        log.info("Rebuilt {} ledger snapshots", written);
+        return written;
+    }
+
+    public record Show(String movieName, String theatreName) {
+        @Override
+        public String toString() {
+            return movieName + "|" + theatreName;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
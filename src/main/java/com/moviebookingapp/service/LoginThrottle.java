@@ -0,0 +1,138 @@
+package com.moviebookingapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moviebookingapp.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding-window limits on login attempts per client address and per login id, checked before
+ * any lookup or password hashing. A successful login clears the login id's window, so in
+ * practice that limit counts consecutive failures. Windows for idle keys are evicted.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+    private final Cache<String, SlidingWindow> byAddress;
+    private final Cache<String, SlidingWindow> byLoginId;
+    private final long windowMillis;
+    private final int maxPerAddress;
+    private final int maxPerLoginId;
+    private final Clock clock;
+    private final Counter addressBlocked;
+    private final Counter loginIdBlocked;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${moviebooking.login-throttle.window:PT5M}") Duration window,
+                         @Value("${moviebooking.login-throttle.max-attempts-per-address:100}") int maxPerAddress,
+                         @Value("${moviebooking.login-throttle.max-attempts-per-login-id:10}") int maxPerLoginId,
+                         @Value("${moviebooking.login-throttle.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this(meterRegistry, window, maxPerAddress, maxPerLoginId, maxTrackedKeys, Clock.systemUTC());
+    }
+
+    LoginThrottle(MeterRegistry meterRegistry, Duration window, int maxPerAddress, int maxPerLoginId,
+                  long maxTrackedKeys, Clock clock) {
+        this.windowMillis = window.toMillis();
+        this.maxPerAddress = maxPerAddress;
+        this.maxPerLoginId = maxPerLoginId;
+        this.clock = clock;
+        // A window can only affect decisions until the end of the following one.
+        this.byAddress = Caffeine.newBuilder()
+                .expireAfterAccess(window.multipliedBy(2))
+                .maximumSize(maxTrackedKeys)
+                .build();
+        this.byLoginId = Caffeine.newBuilder()
+                .expireAfterAccess(window.multipliedBy(2))
+                .maximumSize(maxTrackedKeys)
+                .build();
+        this.addressBlocked = Counter.builder("moviebooking.login.throttled")
+                .description("Login attempts refused by the throttle")
+                .tag("limit", "address")
+                .register(meterRegistry);
+        this.loginIdBlocked = Counter.builder("moviebooking.login.throttled")
+                .description("Login attempts refused by the throttle")
+                .tag("limit", "login-id")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts an attempt against both limits, or throws {@link LoginThrottledException} without
+     * counting it if either is exhausted.
+     */
+    public void acquire(String loginId, String clientAddress) {
+        long now = clock.millis();
+        if (!byAddress.get(clientAddress, k -> new SlidingWindow()).tryAcquire(now, windowMillis, maxPerAddress)) {
+            log.warn("Login throttled for address: {}", clientAddress);
+            addressBlocked.increment();
+            throw new LoginThrottledException("Too many login attempts", retryAfter(now));
+        }
+        if (!byLoginId.get(normalise(loginId), k -> new SlidingWindow()).tryAcquire(now, windowMillis, maxPerLoginId)) {
+            log.warn("Login throttled for loginId: {}", loginId);
+            loginIdBlocked.increment();
+            throw new LoginThrottledException("Too many login attempts", retryAfter(now));
+        }
+    }
+
+    public void onSuccess(String loginId) {
+        byLoginId.invalidate(normalise(loginId));
+    }
+
+    private Duration retryAfter(long now) {
+        return Duration.ofMillis(windowMillis - now % windowMillis);
+    }
+
+    private static String normalise(String loginId) {
+        return loginId.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Sliding-window counter: the current fixed window's count plus the previous window's count
+     * weighted by how much of it still overlaps the sliding window. Window index, previous count
+     * and current count are packed into one long so that updates are a single CAS.
+     */
+    static final class SlidingWindow {
+        private static final long COUNT_MASK = 0xFFFF;
+
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(long now, long windowMillis, int limit) {
+            long window = (now / windowMillis) & 0xFFFFFFFFL;
+            double elapsed = (double) (now % windowMillis) / windowMillis;
+            while (true) {
+                long current = state.get();
+                long rolled = roll(current, window);
+                long previousCount = (rolled >>> 16) & COUNT_MASK;
+                long currentCount = rolled & COUNT_MASK;
+                if (previousCount * (1 - elapsed) + currentCount + 1 > limit) {
+                    return false;
+                }
+                long next = (rolled & ~COUNT_MASK) | Math.min(currentCount + 1, COUNT_MASK);
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        private static long roll(long state, long window) {
+            long stored = state >>> 32;
+            if (stored == window) {
+                return state;
+            }
+            if (((stored + 1) & 0xFFFFFFFFL) == window) {
+                return (window << 32) | ((state & COUNT_MASK) << 16);
+            }
+            return window << 32;
+        }
+    }
+}
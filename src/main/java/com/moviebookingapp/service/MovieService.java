@@ -1,22 +1,32 @@
 package com.moviebookingapp.service;
 
+import com.moviebookingapp.config.ReplicaRoutingContext;
 import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.repository.MovieEntityCache;
 import com.moviebookingapp.repository.MovieRepository;
-import com.moviebookingapp.repository.TicketRepository;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MovieService {
     private final MovieRepository movieRepository;
-    private final TicketRepository ticketRepository;
+    private final ShowAvailabilityService showAvailabilityService;
+    private final ShowComputationCoalescer coalescer;
+    private final BookingLedger bookingLedger;
+    private final MovieEntityCache movieEntityCache;
 
+    @Transactional(readOnly = true)
     public List<Movie> getAllMovies() {
         log.debug("Retrieving all movies from database");
         List<Movie> movies = movieRepository.findAll();
@@ -24,6 +34,7 @@ public class MovieService {
         return movies;
     }
 
+    @Transactional(readOnly = true)
     public List<Movie> searchMovies(String name) {
         log.debug("Searching movies with name containing: {}", name);
         List<Movie> movies = movieRepository.findByMovieNameContainingIgnoreCase(name);
@@ -31,11 +42,16 @@ public class MovieService {
         return movies;
     }
 
+    @Transactional
     public Movie addMovie(Movie movie) {
         log.debug("Adding new movie: {} at theatre: {}", movie.getMovieName(), movie.getTheatreName());
         log.debug("Movie details - totalTickets: {}, status: {}", movie.getTotalTickets(), movie.getStatus());
         
         Movie savedMovie = movieRepository.save(movie);
+        bookingLedger.recordCapacityChanged(savedMovie.getMovieName(), savedMovie.getTheatreName(),
+                savedMovie.getTotalTickets());
+        TransactionHooks.afterCommit(() ->
+                showAvailabilityService.evict(savedMovie.getMovieName(), savedMovie.getTheatreName()));
         log.info("Movie added successfully - id: {}, name: {}, theatre: {}", 
                 savedMovie.getId(), savedMovie.getMovieName(), savedMovie.getTheatreName());
         return savedMovie;
@@ -43,19 +59,38 @@ public class MovieService {
 
     public void deleteMovieById(Long id) {
         log.debug("Deleting movie with id: {}", id);
+        Optional<Movie> movie = movieRepository.findById(id);
         movieRepository.deleteById(id);
+        movie.ifPresent(m -> showAvailabilityService.evict(m.getMovieName(), m.getTheatreName()));
         log.info("Movie deleted successfully - id: {}", id);
     }
 
+    @Transactional(readOnly = true)
     public int bookedCount(String movieName, String theatreName) {
+        // A caller pinned to the primary must not be handed a count a replica-routed run read.
+        String operation = ReplicaRoutingContext.isPrimaryPinned() ? "booked-count-primary" : "booked-count";
+        return coalescer.execute(operation, movieName, theatreName,
+                () -> loadBookedCount(movieName, theatreName, bookingLedger::inventory));
+    }
+
+    private int loadBookedCount(String movieName, String theatreName,
+                                BiFunction<String, String, ShowInventory> ledgerRead) {
         log.debug("Calculating booked count for movie: {} at theatre: {}", movieName, theatreName);
-        Long total = ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName);
-        int bookedCount = total == null ? 0 : total.intValue();
+        int bookedCount = ledgerRead.apply(movieName, theatreName).booked();
         log.debug("Booked count for movie: {} at theatre: {} is {}", movieName, theatreName, bookedCount);
         return bookedCount;
     }
 
     public String computeAndUpdateStatus(String movieName, String theatreName) {
+        return computeAndUpdateAvailability(movieName, theatreName).getStatus();
+    }
+
+    public BookedInfoDTO computeAndUpdateAvailability(String movieName, String theatreName) {
+        return coalescer.execute("availability", movieName, theatreName,
+                () -> recomputeAvailability(movieName, theatreName, true));
+    }
+
+    private BookedInfoDTO recomputeAvailability(String movieName, String theatreName, boolean retryIfStale) {
         log.debug("Computing and updating status for movie: {} at theatre: {}", movieName, theatreName);
         
         Movie movie = movieRepository.findByMovieNameAndTheatreName(movieName, theatreName)
@@ -64,7 +99,8 @@ public class MovieService {
                     return new IllegalArgumentException("Movie not found");
                 });
         
-        int booked = bookedCount(movieName, theatreName);
+        // The count is saved as the status, so it must not come from a lagging replica.
+        int booked = loadBookedCount(movieName, theatreName, bookingLedger::currentInventory);
         int remaining = movie.getTotalTickets() - booked;
         String status = remaining <= 0 ? "SOLD OUT" : "BOOK ASAP";
         
@@ -72,12 +108,24 @@ public class MovieService {
                 movie.getTotalTickets(), booked, remaining, status);
         
         movie.setStatus(status);
-        movieRepository.save(movie);
+        try {
+            movieRepository.save(movie);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if (!retryIfStale) {
+                throw e;
+            }
+            // The cached copy predates a change made elsewhere; drop it and work from the current row.
+            log.info("Movie: {} at theatre: {} changed since it was cached, recomputing", movieName, theatreName);
+            movieEntityCache.invalidate(movieName, theatreName);
+            return recomputeAvailability(movieName, theatreName, false);
+        }
+        showAvailabilityService.update(movie, booked);
         
         log.info("Status updated for movie: {} at theatre: {} - new status: {}", movieName, theatreName, status);
-        return status;
+        return new BookedInfoDTO(booked, Math.max(remaining, 0), status);
     }
 
+    @Transactional
     public Movie updateTotalTickets(String movieName, String theatreName, int total) {
         log.debug("Updating total tickets for movie: {} at theatre: {} to: {}", movieName, theatreName, total);
         
@@ -86,7 +134,7 @@ public class MovieService {
             throw new IllegalArgumentException("Total tickets must be non-negative");
         }
         
-        Movie movie = movieRepository.findByMovieNameAndTheatreName(movieName, theatreName)
+        Movie movie = movieRepository.lockByMovieNameAndTheatreName(movieName, theatreName)
                 .orElseThrow(() -> {
                     log.warn("Movie not found for ticket update - name: {}, theatre: {}", movieName, theatreName);
                     return new IllegalArgumentException("Movie not found");
@@ -95,11 +143,14 @@ public class MovieService {
         log.debug("Current movie details - totalTickets: {}, status: {}", movie.getTotalTickets(), movie.getStatus());
         
         movie.setTotalTickets(total);
-        int booked = bookedCount(movieName, theatreName);
+        // Read inside this locked transaction rather than sharing another caller's run.
+        int booked = loadBookedCount(movieName, theatreName, bookingLedger::currentInventory);
         int remaining = movie.getTotalTickets() - booked;
         movie.setStatus(remaining <= 0 ? "SOLD OUT" : "BOOK ASAP");
         
         Movie updatedMovie = movieRepository.save(movie);
+        bookingLedger.recordCapacityChanged(movieName, theatreName, total);
+        TransactionHooks.afterCommit(() -> showAvailabilityService.update(updatedMovie, booked));
         log.info("Total tickets updated for movie: {} at theatre: {} - new total: {}, new status: {}", 
                 movieName, theatreName, total, updatedMovie.getStatus());
         
@@ -115,6 +166,7 @@ public class MovieService {
             log.warn("No movie found to delete - name: {}, theatre: {}", movieName, theatreName);
             throw new IllegalArgumentException("Movie not found with name: " + movieName + " and theatre: " + theatreName);
         }
+        showAvailabilityService.evict(movieName, theatreName);
         
         log.info("Movie deleted successfully - name: {}, theatre: {}, deletedCount: {}", 
                 movieName, theatreName, deletedCount);
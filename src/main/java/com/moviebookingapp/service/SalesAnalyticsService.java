@@ -0,0 +1,200 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.RollupGranularity;
+import com.moviebookingapp.domain.RollupScope;
+import com.moviebookingapp.domain.SalesRollup;
+import com.moviebookingapp.domain.SalesRollupCheckpoint;
+import com.moviebookingapp.dto.SalesBucketDTO;
+import com.moviebookingapp.dto.SalesReportDTO;
+import com.moviebookingapp.repository.SalesRollupCheckpointRepository;
+import com.moviebookingapp.repository.SalesRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ticket sales per show, theatre and movie in minute, hour and day buckets, maintained
+ * incrementally from the ticket event stream so reports read a bounded number of rollup rows
+ * instead of grouping the ticket table. A batch of events becomes one delta per bucket, added
+ * in place, in the same transaction as the per-partition checkpoint that makes redelivery
+ * harmless. Cancellations subtract from the buckets of the bookings they cancel. Minute and
+ * hour buckets are purged after their retention; day buckets are kept.
+ */
+@Service
+@Slf4j
+public class SalesAnalyticsService {
+    private static final int DEFAULT_BUCKETS = 24;
+
+    private final SalesRollupRepository rollupRepository;
+    private final SalesRollupCheckpointRepository checkpointRepository;
+    private final int maxBuckets;
+    private final Map<RollupGranularity, Duration> retention;
+    private final Duration purgeInterval;
+    private final Clock clock;
+    private volatile Instant nextPurge = Instant.MIN;
+
+    /**
+     * One ticket event: where it sits in the topic, the tickets and bookings it adds (negative for
+     * a cancellation), and when the booking was made.
+     */
+    public record TicketSale(int partition, long offset, String movieName, String theatreName, int tickets,
+                             int bookings, Instant bookedAt) {
+    }
+
+    @Autowired
+    public SalesAnalyticsService(SalesRollupRepository rollupRepository,
+                                 SalesRollupCheckpointRepository checkpointRepository,
+                                 @Value("${moviebooking.analytics.max-buckets:1500}") int maxBuckets,
+                                 @Value("${moviebooking.analytics.retention.minute:P7D}") Duration minuteRetention,
+                                 @Value("${moviebooking.analytics.retention.hour:P90D}") Duration hourRetention,
+                                 @Value("${moviebooking.analytics.purge-interval:PT1H}") Duration purgeInterval) {
+        this(rollupRepository, checkpointRepository, maxBuckets,
+                Map.of(RollupGranularity.MINUTE, minuteRetention, RollupGranularity.HOUR, hourRetention),
+                purgeInterval, Clock.systemUTC());
+    }
+
+    SalesAnalyticsService(SalesRollupRepository rollupRepository,
+                          SalesRollupCheckpointRepository checkpointRepository,
+                          int maxBuckets, Map<RollupGranularity, Duration> retention, Duration purgeInterval,
+                          Clock clock) {
+        if (maxBuckets <= 0) {
+            throw new IllegalArgumentException("Maximum buckets per report must be positive");
+        }
+        this.rollupRepository = rollupRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.maxBuckets = maxBuckets;
+        this.retention = retention;
+        this.purgeInterval = purgeInterval;
+        this.clock = clock;
+    }
+
+    /**
+     * Folds a batch of ticket events into the rollups. Returns how many were new; events at or
+     * before their partition's checkpoint have been counted already and are skipped.
+     */
+    @Transactional
+    public int record(List<TicketSale> sales) {
+        Map<Integer, SalesRollupCheckpoint> checkpoints = new HashMap<>();
+        Map<BucketKey, long[]> deltas = new LinkedHashMap<>();
+        int applied = 0;
+        for (TicketSale sale : sales) {
+            SalesRollupCheckpoint checkpoint = checkpoints.computeIfAbsent(sale.partition(),
+                    partition -> checkpointRepository.findByPartition(partition)
+                            .orElseGet(() -> new SalesRollupCheckpoint(partition, -1)));
+            if (sale.offset() <= checkpoint.getLastOffset()) {
+                log.debug("Skipping ticket event already in the rollups - partition: {}, offset: {}",
+                        sale.partition(), sale.offset());
+                continue;
+            }
+            checkpoint.setLastOffset(sale.offset());
+            applied++;
+
+            String movieKey = key(sale.movieName());
+            String theatreKey = key(sale.theatreName());
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Instant bucket = granularity.bucketOf(sale.bookedAt());
+                add(deltas, new BucketKey(RollupScope.SHOW, granularity, movieKey, theatreKey, bucket), sale);
+                add(deltas, new BucketKey(RollupScope.THEATRE, granularity, SalesRollup.ANY, theatreKey, bucket), sale);
+                add(deltas, new BucketKey(RollupScope.MOVIE, granularity, movieKey, SalesRollup.ANY, bucket), sale);
+            }
+        }
+
+        deltas.forEach((key, delta) -> rollupRepository.add(key.scope().name(), key.granularity().name(),
+                key.movieKey(), key.theatreKey(), key.bucketStart(), delta[0], delta[1]));
+        checkpointRepository.saveAll(checkpoints.values());
+        purgeExpired();
+
+        log.debug("Sales rollups updated - events: {}, applied: {}, buckets: {}", sales.size(), applied, deltas.size());
+        return applied;
+    }
+
+    /**
+     * Sales for a show (movie and theatre), a theatre or a movie. Without bounds the report
+     * covers the last {@value #DEFAULT_BUCKETS} buckets up to and including the current one.
+     */
+    @Transactional(readOnly = true)
+    public SalesReportDTO report(String movieName, String theatreName, RollupGranularity granularity,
+                                 Instant from, Instant to) {
+        boolean byMovie = movieName != null && !movieName.isBlank();
+        boolean byTheatre = theatreName != null && !theatreName.isBlank();
+        if (!byMovie && !byTheatre) {
+            throw new IllegalArgumentException("Give a movie name, a theatre or both");
+        }
+        RollupScope scope = byMovie && byTheatre ? RollupScope.SHOW : byMovie ? RollupScope.MOVIE : RollupScope.THEATRE;
+
+        Duration length = granularity.length();
+        Instant end = to != null ? to : granularity.bucketOf(clock.instant()).plus(length);
+        Instant start = granularity.bucketOf(from != null ? from : end.minus(length.multipliedBy(DEFAULT_BUCKETS)));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        long buckets = (Duration.between(start, end).toMillis() + length.toMillis() - 1) / length.toMillis();
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException("Report would have " + buckets + " " + granularity.name().toLowerCase(Locale.ROOT)
+                    + " buckets, at most " + maxBuckets + " are allowed");
+        }
+
+        Map<Instant, SalesRollup> rows = rollupRepository.findSeries(scope, granularity,
+                        byMovie ? key(movieName) : SalesRollup.ANY, byTheatre ? key(theatreName) : SalesRollup.ANY,
+                        start, end).stream()
+                .collect(Collectors.toMap(SalesRollup::getBucketStart, Function.identity()));
+
+        List<SalesBucketDTO> series = new ArrayList<>((int) buckets);
+        long totalTickets = 0;
+        long totalBookings = 0;
+        for (Instant bucket = start; bucket.isBefore(end); bucket = bucket.plus(length)) {
+            SalesRollup row = rows.get(bucket);
+            long tickets = row == null ? 0 : row.getTickets();
+            long bookings = row == null ? 0 : row.getBookings();
+            series.add(new SalesBucketDTO(bucket, tickets, bookings));
+            totalTickets += tickets;
+            totalBookings += bookings;
+        }
+        log.debug("Sales report - scope: {}, granularity: {}, buckets: {}, rows: {}", scope, granularity, buckets, rows.size());
+        return new SalesReportDTO(byMovie ? movieName : null, byTheatre ? theatreName : null, granularity,
+                start, end, totalTickets, totalBookings, series);
+    }
+
+    // Runs inside a recording transaction at most once per purge interval (per node).
+    private void purgeExpired() {
+        Instant now = clock.instant();
+        if (now.isBefore(nextPurge)) {
+            return;
+        }
+        nextPurge = now.plus(purgeInterval);
+        retention.forEach((granularity, keep) -> {
+            int deleted = rollupRepository.deleteExpired(granularity, granularity.bucketOf(now.minus(keep)));
+            if (deleted > 0) {
+                log.info("Purged {} expired {} sales rollups", deleted, granularity.name().toLowerCase(Locale.ROOT));
+            }
+        });
+    }
+
+    private static void add(Map<BucketKey, long[]> deltas, BucketKey key, TicketSale sale) {
+        long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+        delta[0] += sale.tickets();
+        delta[1] += sale.bookings();
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record BucketKey(RollupScope scope, RollupGranularity granularity, String movieKey, String theatreKey,
+                             Instant bucketStart) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.moviebookingapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.SeatId;
+import com.moviebookingapp.domain.ShowKey;
+import com.moviebookingapp.repository.TicketRepository;
+import com.moviebookingapp.store.SeatMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Node-local {@link SeatMap}s for recently booked shows. Each map is stamped with the ledger
+ * sequence it reflects; when the show's ledger has moved past that (a booking on another node,
+ * a capacity change, a rolled back booking here) the map is rebuilt from the booked tickets.
+ */
+@Service
+@Slf4j
+public class SeatMapRegistry {
+    private final TicketRepository ticketRepository;
+    private final int seatsPerRow;
+    private final Cache<ShowKey, SeatMap> seatMaps;
+    private final Counter loadCounter;
+
+    public SeatMapRegistry(TicketRepository ticketRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${moviebooking.seats.seats-per-row:20}") int seatsPerRow,
+                           @Value("${moviebooking.seats.max-shows:10000}") long maxShows,
+                           @Value("${moviebooking.seats.idle-expiry:PT1H}") Duration idleExpiry) {
+        if (seatsPerRow <= 0 || seatsPerRow > SeatId.MAX_COLUMNS) {
+            throw new IllegalArgumentException("Seats per row must be between 1 and " + SeatId.MAX_COLUMNS);
+        }
+        this.ticketRepository = ticketRepository;
+        this.seatsPerRow = seatsPerRow;
+        this.seatMaps = Caffeine.newBuilder()
+                .maximumSize(maxShows)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        this.loadCounter = Counter.builder("moviebooking.seatmap.loads")
+                .description("Seat maps built from booked tickets")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the show's seat map as of {@code inventory}. Callers must hold the show's movie row
+     * lock so no other booking for the show can commit while they use it.
+     */
+    @Transactional(readOnly = true)
+    public SeatMap seatMap(Movie movie, ShowInventory inventory) {
+        ShowKey key = ShowKey.of(movie.getMovieName(), movie.getTheatreName());
+        SeatMap seatMap = seatMaps.getIfPresent(key);
+        if (seatMap != null && seatMap.version() == inventory.sequence()
+                && (long) seatMap.rows() * seatMap.seatsPerRow() >= movie.getTotalTickets()) {
+            return seatMap;
+        }
+        seatMap = load(movie, inventory.sequence());
+        seatMaps.put(key, seatMap);
+        return seatMap;
+    }
+
+    public void evict(String movieName, String theatreName) {
+        seatMaps.invalidate(ShowKey.of(movieName, theatreName));
+    }
+
+    private SeatMap load(Movie movie, long sequence) {
+        SeatMap seatMap = SeatMap.forCapacity(movie.getTotalTickets(), seatsPerRow);
+        int[] skipped = new int[1];
+        try (Stream<String> seats = ticketRepository.streamSeatNumbers(movie.getMovieName(), movie.getTheatreName())) {
+            seats.forEach(label -> {
+                int seatId = SeatId.map(label);
+                if (seatId == SeatId.UNMAPPED) {
+                    skipped[0]++;
+                } else {
+                    seatMap.tryTake(seatId);
+                }
+            });
+        }
+        seatMap.advanceTo(sequence);
+        loadCounter.increment();
+        if (skipped[0] > 0) {
+            log.warn("Ignored {} booked seats with no row and seat reading in show: {}/{}", skipped[0],
+                    movie.getMovieName(), movie.getTheatreName());
+        }
+        log.debug("Loaded seat map for show: {}/{} - {} rows of {}, {} taken, at sequence: {}",
+                movie.getMovieName(), movie.getTheatreName(), seatMap.rows(), seatsPerRow, seatMap.takenCount(), sequence);
+        return seatMap;
+    }
+}
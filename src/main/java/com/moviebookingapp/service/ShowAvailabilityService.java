@@ -0,0 +1,178 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.ShowKey;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.store.ShowState;
+import com.moviebookingapp.store.ShowStateStore;
+import com.moviebookingapp.repository.MovieRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a per-show availability snapshot (capacity and booked count) in memory so the
+ * admin booked view is a hash lookup instead of an aggregate plus a catalogue scan.
+ * Bookings adjust the snapshot incrementally; every authoritative recompute of the
+ * status overwrites it, which also corrects any drift from racing first loads.
+ * With a {@link ShowStateStore} configured, every change is also logged to disk and the
+ * snapshots survive a restart.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShowAvailabilityService implements ShowCache {
+    private final MovieRepository movieRepository;
+    private final BookingLedger bookingLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ShowStateStore> stateStores;
+
+    private final Map<ShowKey, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Map<String, List<ShowKey>> theatresByMovie = new ConcurrentHashMap<>();
+    private ShowStateStore stateStore;
+
+    @PostConstruct
+    void restore() {
+        stateStore = stateStores.getIfAvailable();
+        if (stateStore == null) {
+            return;
+        }
+        stateStore.recoveredState().forEach((key, state) ->
+                snapshots.put(key, new Snapshot(state.theatreName(), state.totalTickets(), state.booked())));
+        log.info("Restored availability snapshots for {} shows from the state store", snapshots.size());
+    }
+
+    public BookedInfoDTO getAvailability(String movieName, String theatreName) {
+        ShowKey key = ShowKey.of(movieName, theatreName);
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null) {
+            log.debug("Availability snapshot miss for show: {}", key);
+            Movie movie = movieRepository.findByMovieNameAndTheatreName(movieName, theatreName)
+                    .orElseThrow(() -> {
+                        log.warn("Movie not found for availability - name: {}, theatre: {}", movieName, theatreName);
+                        return new IllegalArgumentException("Movie not found");
+                    });
+            int booked = bookingLedger.currentInventory(movie.getMovieName(), movie.getTheatreName()).booked();
+            snapshot = snapshots.computeIfAbsent(key, k -> persist(k, Snapshot.of(movie, booked)));
+        }
+        return snapshot.toBookedInfo();
+    }
+
+    public Map<String, BookedInfoDTO> getAvailabilityByTheatre(String movieName) {
+        String movieKey = movieName.trim().toLowerCase(Locale.ROOT);
+        List<ShowKey> keys = theatresByMovie.get(movieKey);
+        if (keys != null) {
+            Map<String, BookedInfoDTO> result = new LinkedHashMap<>();
+            boolean complete = true;
+            for (ShowKey key : keys) {
+                Snapshot snapshot = snapshots.get(key);
+                if (snapshot == null) {
+                    complete = false;
+                    break;
+                }
+                result.put(snapshot.theatreName(), snapshot.toBookedInfo());
+            }
+            if (complete) {
+                return result;
+            }
+        }
+
+        log.debug("Loading availability for all theatres of movie: {}", movieName);
+        List<Movie> movies = movieRepository.findByMovieNameIgnoreCase(movieName);
+
+        Map<String, BookedInfoDTO> result = new LinkedHashMap<>();
+        for (Movie movie : movies) {
+            Snapshot snapshot = snapshots.computeIfAbsent(ShowKey.of(movie.getMovieName(), movie.getTheatreName()),
+                    k -> persist(k, Snapshot.of(movie, bookingLedger.currentInventory(movie.getMovieName(), movie.getTheatreName()).booked())));
+            result.put(movie.getTheatreName(), snapshot.toBookedInfo());
+        }
+        theatresByMovie.put(movieKey, movies.stream()
+                .map(m -> ShowKey.of(m.getMovieName(), m.getTheatreName()))
+                .toList());
+        log.info("Loaded availability for {} theatres of movie: {}", result.size(), movieName);
+        return result;
+    }
+
+    public void recordBooking(String movieName, String theatreName, int tickets) {
+        adjustBooked(movieName, theatreName, tickets);
+    }
+
+    public void recordCancellation(String movieName, String theatreName, int tickets) {
+        adjustBooked(movieName, theatreName, -tickets);
+    }
+
+    private void adjustBooked(String movieName, String theatreName, int delta) {
+        snapshots.computeIfPresent(ShowKey.of(movieName, theatreName),
+                (k, snapshot) -> persist(k, snapshot.withBooked(Math.max(snapshot.booked() + delta, 0))));
+        // Other nodes cannot apply the change safely on top of their own copy, so they reload;
+        // the bus sends one invalidation per show and window, not one per booking.
+        eventPublisher.publishEvent(ShowChangedEvent.invalidated(movieName, theatreName));
+    }
+
+    public void update(Movie movie, int booked) {
+        snapshots.compute(ShowKey.of(movie.getMovieName(), movie.getTheatreName()),
+                (k, previous) -> persist(k, Snapshot.of(movie, booked)));
+        eventPublisher.publishEvent(new ShowChangedEvent(movie.getMovieName(), movie.getTheatreName(),
+                movie.getTotalTickets(), booked));
+    }
+
+    public void evict(String movieName, String theatreName) {
+        invalidate(movieName, theatreName);
+        eventPublisher.publishEvent(ShowChangedEvent.invalidated(movieName, theatreName));
+    }
+
+    @Override
+    public void invalidate(String movieName, String theatreName) {
+        snapshots.computeIfPresent(ShowKey.of(movieName, theatreName), (k, previous) -> {
+            if (stateStore != null) {
+                stateStore.remove(k).exceptionally(e -> logPersistFailure(k, e));
+            }
+            return null;
+        });
+        theatresByMovie.remove(movieName.trim().toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void refresh(String movieName, String theatreName, int totalTickets, int booked) {
+        snapshots.compute(ShowKey.of(movieName, theatreName),
+                (k, previous) -> persist(k, new Snapshot(theatreName, totalTickets, booked)));
+    }
+
+    // Called inside the map's compute functions so the log sees each show's changes in map order.
+    private Snapshot persist(ShowKey key, Snapshot snapshot) {
+        if (stateStore != null) {
+            stateStore.put(key, new ShowState(snapshot.theatreName(), snapshot.totalTickets(), snapshot.booked()))
+                    .exceptionally(e -> logPersistFailure(key, e));
+        }
+        return snapshot;
+    }
+
+    private Long logPersistFailure(ShowKey key, Throwable e) {
+        log.warn("Could not persist availability for show: {} - {}", key, e.getMessage());
+        return null;
+    }
+
+    private record Snapshot(String theatreName, int totalTickets, int booked) {
+        static Snapshot of(Movie movie, int booked) {
+            return new Snapshot(movie.getTheatreName(), movie.getTotalTickets(), booked);
+        }
+
+        Snapshot withBooked(int newBooked) {
+            return new Snapshot(theatreName, totalTickets, newBooked);
+        }
+
+        BookedInfoDTO toBookedInfo() {
+            int remaining = totalTickets - booked;
+            return new BookedInfoDTO(booked, Math.max(remaining, 0), remaining <= 0 ? "SOLD OUT" : "BOOK ASAP");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.moviebookingapp.service;
+
+/**
+ * A node-local cache holding per-show data. Implementations are told about changes made
+ * on other nodes; they must not publish further change events from these callbacks.
+ */
+public interface ShowCache {
+
+    void invalidate(String movieName, String theatreName);
+
+    default void refresh(String movieName, String theatreName, int totalTickets, int booked) {
+        invalidate(movieName, theatreName);
+    }
+}
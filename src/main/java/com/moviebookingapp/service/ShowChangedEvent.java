@@ -0,0 +1,17 @@
+package com.moviebookingapp.service;
+
+/**
+ * Published whenever a node changes what it knows about a show. When the new capacity and
+ * booked count are known they are carried along so other nodes can update in place;
+ * otherwise both are null and other nodes simply drop their copy.
+ */
+public record ShowChangedEvent(String movieName, String theatreName, Integer totalTickets, Integer booked) {
+
+    public static ShowChangedEvent invalidated(String movieName, String theatreName) {
+        return new ShowChangedEvent(movieName, theatreName, null, null);
+    }
+
+    public boolean hasValues() {
+        return totalTickets != null && booked != null;
+    }
+}
@@ -0,0 +1,130 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.ShowKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of per-show computations. A caller only shares the result of a run
+ * that started after it arrived, so it never sees state older than its own call: callers that
+ * arrive while a run is in progress queue behind it and share one follow-up run (or its
+ * exception). Runs for the same operation and show are therefore serialised, and nothing is
+ * cached once a run completes.
+ */
+@Component
+@Slf4j
+public class ShowComputationCoalescer {
+    private final Map<CallKey, Flight> flights = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ShowComputationCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String movieName, String theatreName, Supplier<T> computation) {
+        CallKey key = new CallKey(operation, ShowKey.of(movieName, theatreName));
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        Admission admission = admit(key, mine);
+
+        if (admission.shared() != null) {
+            log.debug("Joining next {} for show: {}", operation, key.show());
+            counter(operation, "coalesced").increment();
+            return (T) join(admission.shared());
+        }
+
+        if (admission.predecessor() != null) {
+            // The running call may have read state from before we arrived; wait it out, then run.
+            admission.predecessor().handle((result, error) -> null).join();
+            start(key, mine);
+        }
+        counter(operation, "executed").increment();
+        try {
+            T result = computation.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            finish(key, mine);
+        }
+    }
+
+    private Admission admit(CallKey key, CompletableFuture<Object> mine) {
+        Admission[] admission = new Admission[1];
+        flights.compute(key, (k, flight) -> {
+            Flight current = flight == null ? new Flight() : flight;
+            if (current.next != null) {
+                admission[0] = new Admission(current.next, null);
+            } else if (current.running == null) {
+                current.running = mine;
+                admission[0] = new Admission(null, null);
+            } else {
+                current.next = mine;
+                admission[0] = new Admission(null, current.running);
+            }
+            return current;
+        });
+        return admission[0];
+    }
+
+    private void start(CallKey key, CompletableFuture<Object> mine) {
+        flights.computeIfPresent(key, (k, flight) -> {
+            flight.running = mine;
+            flight.next = null;
+            return flight;
+        });
+    }
+
+    private void finish(CallKey key, CompletableFuture<Object> mine) {
+        flights.computeIfPresent(key, (k, flight) -> {
+            if (flight.running == mine) {
+                flight.running = null;
+            }
+            return flight.running == null && flight.next == null ? null : flight;
+        });
+    }
+
+    private Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Counter counter(String operation, String result) {
+        return Counter.builder("moviebooking.show.computations")
+                .description("Per-show computations, executed or coalesced into an in-flight call")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CallKey(String operation, ShowKey show) {
+    }
+
+    private record Admission(CompletableFuture<Object> shared, CompletableFuture<Object> predecessor) {
+    }
+
+    // Only read and written inside the map's compute functions, which lock the entry.
+    private static final class Flight {
+        private CompletableFuture<Object> running;
+        private CompletableFuture<Object> next;
+    }
+}
@@ -0,0 +1,28 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.InventorySnapshot;
+import com.moviebookingapp.domain.LedgerEvent;
+
+/**
+ * A show's inventory as of ledger {@code sequence}. Capacity is null until a capacity change
+ * has been recorded for the show.
+ */
+public record ShowInventory(long sequence, Integer capacity, int booked) {
+    public static final ShowInventory EMPTY = new ShowInventory(0, null, 0);
+
+    public static ShowInventory of(InventorySnapshot snapshot) {
+        return new ShowInventory(snapshot.getSequence(), snapshot.getCapacity(), snapshot.getBooked());
+    }
+
+    public ShowInventory apply(LedgerEvent event) {
+        if (event.getSequence() != sequence + 1) {
+            throw new IllegalStateException("Ledger gap for show " + event.getMovieName() + "/" + event.getTheatreName()
+                    + ": expected sequence " + (sequence + 1) + " but found " + event.getSequence());
+        }
+        return switch (event.getType()) {
+            case BOOKED -> new ShowInventory(event.getSequence(), capacity, booked + event.getQuantity());
+            case CANCELLED -> new ShowInventory(event.getSequence(), capacity, booked - event.getQuantity());
+            case CAPACITY_CHANGED -> new ShowInventory(event.getSequence(), event.getQuantity(), booked);
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.moviebookingapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviebookingapp.dto.TicketExportRow;
+import com.moviebookingapp.repository.TicketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketExportService {
+    private static final int FLUSH_EVERY = 500;
+
+    private final TicketRepository ticketRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes every matching ticket as one JSON object per line. Rows are pulled from a
+     * forward-only cursor and written as they arrive, so memory stays constant regardless
+     * of how many tickets match. Returns the number of tickets written.
+     */
+    @Transactional(readOnly = true)
+    public long exportNdjson(String movieName, String theatreName, Instant from, Instant to, OutputStream out) throws IOException {
+        log.debug("Starting ticket export - movie: {}, theatre: {}, from: {}, to: {}", movieName, theatreName, from, to);
+
+        if (from != null && to != null && !from.isBefore(to)) {
+            log.warn("Invalid export range - from: {}, to: {}", from, to);
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        long written = 0;
+        try (Stream<TicketExportRow> rows = ticketRepository.streamForExport(movieName, theatreName, from, to);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<TicketExportRow> it = rows.iterator();
+            TicketExportRow current = null;
+            List<String> seats = new ArrayList<>();
+            while (it.hasNext()) {
+                TicketExportRow row = it.next();
+                if (current != null && !current.getId().equals(row.getId())) {
+                    writeTicket(generator, current, seats);
+                    seats.clear();
+                    if (++written % FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                current = row;
+                if (row.getSeatNumber() != null) {
+                    seats.add(row.getSeatNumber());
+                }
+            }
+            if (current != null) {
+                writeTicket(generator, current, seats);
+                written++;
+            }
+            generator.flush();
+        }
+
+        log.info("Ticket export finished - movie: {}, theatre: {}, tickets: {}", movieName, theatreName, written);
+        return written;
+    }
+
+    private void writeTicket(JsonGenerator generator, TicketExportRow row, List<String> seats) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getId());
+        generator.writeStringField("movieName", row.getMovieName());
+        generator.writeStringField("theatreName", row.getTheatreName());
+        generator.writeNumberField("numberOfTickets", row.getNumberOfTickets());
+        generator.writeArrayFieldStart("seatNumbers");
+        for (String seat : seats) {
+            generator.writeString(seat);
+        }
+        generator.writeEndArray();
+        generator.writeStringField("userLoginId", row.getUserLoginId());
+        generator.writeStringField("bookedAt", row.getBookedAt() == null ? null : row.getBookedAt().toString());
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -1,16 +1,30 @@
 package com.moviebookingapp.service;
 
 import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.domain.LedgerEvent;
 import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.SeatId;
 import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.messaging.EventPublisher;
+import com.moviebookingapp.messaging.TicketEventType;
 import com.moviebookingapp.repository.MovieRepository;
 import com.moviebookingapp.repository.TicketRepository;
+import com.moviebookingapp.store.SeatMap;
+import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -18,8 +32,13 @@ import java.util.HashSet;
 public class TicketService {
     private final TicketRepository ticketRepository;
     private final MovieRepository movieRepository;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final EventPublisher eventPublisher;
+    private final ShowAvailabilityService showAvailabilityService;
+    private final BookingLedger bookingLedger;
+    private final SeatMapRegistry seatMapRegistry;
+    private final PlatformTransactionManager transactionManager;
 
+    @Transactional
     public Ticket bookTicket(Ticket ticket) {
         log.debug("Starting ticket booking process for movie: {} at theatre: {} by user: {}", 
                 ticket.getMovieName(), ticket.getTheatreName(), ticket.getUserLoginId());
@@ -28,51 +47,340 @@ public class TicketService {
         
         try {
             log.debug("Validating ticket data");
-            validateTicket(ticket);
+            int[] seatIds = validateTicket(ticket);
             
-            log.debug("Finding movie: {} at theatre: {}", ticket.getMovieName(), ticket.getTheatreName());
-            Movie movie = movieRepository.findByMovieNameAndTheatreName(ticket.getMovieName(), ticket.getTheatreName())
-                    .orElseThrow(() -> {
-                        log.warn("Movie/Theatre not found for ticket booking - movie: {}, theatre: {}", 
-                                ticket.getMovieName(), ticket.getTheatreName());
-                        return new IllegalArgumentException("Movie/Theatre not found");
-                    });
+            Movie movie = lockShow(ticket.getMovieName(), ticket.getTheatreName());
+            ShowInventory inventory = checkAvailability(movie, ticket.getNumberOfTickets());
             
-            log.debug("Calculating already booked tickets for movie: {} at theatre: {}", 
-                    ticket.getMovieName(), ticket.getTheatreName());
-            Long alreadyBookedLong = ticketRepository.totalBookedForMovieAndTheatre(ticket.getMovieName(), ticket.getTheatreName());
-            int alreadyBooked = alreadyBookedLong == null ? 0 : alreadyBookedLong.intValue();
-            
-            log.debug("Ticket availability check - totalTickets: {}, alreadyBooked: {}, requested: {}, available: {}", 
-                    movie.getTotalTickets(), alreadyBooked, ticket.getNumberOfTickets(), 
-                    movie.getTotalTickets() - alreadyBooked);
-            
-            if (alreadyBooked + ticket.getNumberOfTickets() > movie.getTotalTickets()) {
-                log.warn("Insufficient tickets available - requested: {}, available: {}", 
-                        ticket.getNumberOfTickets(), movie.getTotalTickets() - alreadyBooked);
-                throw new IllegalArgumentException("Not enough tickets available");
+            SeatMap seatMap = seatMapRegistry.seatMap(movie, inventory);
+            reserveSeats(seatMap, seatIds);
+            return confirm(ticket, seatMap);
+        } catch (Exception e) {
+            log.error("Ticket booking failed for movie: {} at theatre: {} by user: {}, error: {}", 
+                     ticket.getMovieName(), ticket.getTheatreName(), ticket.getUserLoginId(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Books a batch of requests for one show in a single transaction: one lock, one inventory
+     * read and one ledger append for all of them. Each request is checked against the seats and
+     * capacity left by the ones before it; a refused request does not fail the others.
+     */
+    @Transactional
+    public List<BookingOutcome> bookBatch(String movieName, String theatreName, List<Ticket> tickets) {
+        log.debug("Starting batch booking of {} requests for movie: {} at theatre: {}", tickets.size(), movieName, theatreName);
+        
+        Movie movie = lockShow(movieName, theatreName);
+        ShowInventory inventory = bookingLedger.inventory(movieName, theatreName);
+        SeatMap seatMap = seatMapRegistry.seatMap(movie, inventory);
+        
+        List<BookingOutcome> outcomes = new ArrayList<>(tickets.size());
+        List<Ticket> accepted = new ArrayList<>(tickets.size());
+        int booked = inventory.booked();
+        int seats = 0;
+        for (Ticket ticket : tickets) {
+            try {
+                int[] seatIds = validateTicket(ticket);
+                if (booked + ticket.getNumberOfTickets() > movie.getTotalTickets()) {
+                    log.warn("Insufficient tickets available - requested: {}, available: {}", 
+                            ticket.getNumberOfTickets(), movie.getTotalTickets() - booked);
+                    throw new IllegalArgumentException("Not enough tickets available");
+                }
+                reserveSeats(seatMap, seatIds);
+                booked += ticket.getNumberOfTickets();
+                seats += ticket.getNumberOfTickets();
+                accepted.add(ticket);
+                outcomes.add(BookingOutcome.booked(ticket));
+            } catch (IllegalArgumentException e) {
+                outcomes.add(BookingOutcome.refused(e));
+            }
+        }
+        if (accepted.isEmpty()) {
+            log.debug("No bookings accepted in batch for movie: {} at theatre: {}", movieName, theatreName);
+            return outcomes;
+        }
+        
+        TransactionHooks.afterRollback(() -> seatMapRegistry.evict(movieName, theatreName));
+        LedgerEvent last = bookingLedger.recordBookings(movieName, theatreName, accepted);
+        ticketRepository.saveAll(accepted);
+        seatMap.advanceTo(last.getSequence());
+        
+        int total = seats;
+        TransactionHooks.afterCommit(() -> {
+            showAvailabilityService.recordBooking(movieName, theatreName, total);
+            log.debug("Sending {} ticket booking messages to Kafka", accepted.size());
+            // One message per ticket, as for single bookings, so consumers count bookings the same way.
+            accepted.forEach(this::publishBooked);
+        });
+        
+        log.info("Batch booked - movie: {}, theatre: {}, accepted: {} of {}, tickets: {}", 
+                movieName, theatreName, accepted.size(), tickets.size(), total);
+        return outcomes;
+    }
+
+    /**
+     * Books {@code count} adjacent seats picked by the seat map instead of by the client, so a
+     * group never races other bookings for specific seats.
+     */
+    @Transactional
+    public Ticket bookBestSeats(String movieName, String theatreName, int count, String userLoginId) {
+        log.debug("Starting best-seat booking for movie: {} at theatre: {} by user: {}, seats: {}",
+                movieName, theatreName, userLoginId, count);
+        
+        try {
+            if (count <= 0) {
+                log.warn("Invalid number of tickets: {}", count);
+                throw new IllegalArgumentException("Number of tickets must be positive");
             }
             
-            log.debug("Saving ticket to database");
-            Ticket saved = ticketRepository.save(ticket);
-            
-            log.debug("Sending ticket booking message to Kafka");
-            String kafkaMessage = ticket.getMovieName() + "|" + ticket.getTheatreName() + "|" + ticket.getNumberOfTickets();
-            kafkaTemplate.send(AppConstants.KAFKA_TOPIC_TICKETS, kafkaMessage);
+            Movie movie = lockShow(movieName, theatreName);
+            ShowInventory inventory = checkAvailability(movie, count);
             
-            log.info("Ticket booked successfully - id: {}, movie: {}, theatre: {}, user: {}, tickets: {}", 
-                    saved.getId(), ticket.getMovieName(), ticket.getTheatreName(), 
-                    ticket.getUserLoginId(), ticket.getNumberOfTickets());
+            SeatMap seatMap = seatMapRegistry.seatMap(movie, inventory);
+            int[] seatIds = seatMap.takeBest(count);
+            if (seatIds.length == 0) {
+                log.warn("No {} adjacent seats free for movie: {} at theatre: {}", count, movieName, theatreName);
+                throw new IllegalArgumentException("No " + count + " adjacent seats available");
+            }
             
-            return saved;
+            List<String> seatNumbers = new ArrayList<>(seatIds.length);
+            for (int seatId : seatIds) {
+                seatNumbers.add(SeatId.label(seatId));
+            }
+            log.debug("Picked seats: {} for movie: {} at theatre: {}", seatNumbers, movieName, theatreName);
+            Ticket ticket = Ticket.builder()
+                    .movieName(movie.getMovieName())
+                    .theatreName(movie.getTheatreName())
+                    .numberOfTickets(count)
+                    .seatNumbers(seatNumbers)
+                    .userLoginId(userLoginId)
+                    .build();
+            return confirm(ticket, seatMap);
         } catch (Exception e) {
-            log.error("Ticket booking failed for movie: {} at theatre: {} by user: {}, error: {}", 
-                     ticket.getMovieName(), ticket.getTheatreName(), ticket.getUserLoginId(), e.getMessage(), e);
+            log.error("Best-seat booking failed for movie: {} at theatre: {} by user: {}, error: {}", 
+                     movieName, theatreName, userLoginId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Gives back a whole ticket, or some of its seats, and returns the show's availability after
+     * the cancellation. The count is adjusted from the ledger rather than re-aggregated, and a
+     * show that was sold out goes back on sale through the status topic.
+     */
+    public BookedInfoDTO cancelTicket(Long ticketId, String userLoginId, List<String> seatNumbers) {
+        log.debug("Starting cancellation of ticket: {} by user: {}, seats: {}", ticketId, userLoginId, seatNumbers);
+        
+        try {
+            // Looked up before the transaction starts: without a theatre it runs on every shard.
+            String theatreName = theatreOf(ticketId, userLoginId);
+            return new TransactionTemplate(transactionManager).execute(status ->
+                    cancel(ticketId, theatreName, userLoginId, seatNumbers));
+        } catch (Exception e) {
+            log.error("Cancellation failed for ticket: {} by user: {}, error: {}", ticketId, userLoginId, e.getMessage(), e);
             throw e;
         }
     }
 
-    private void validateTicket(Ticket ticket) {
+    private BookedInfoDTO cancel(Long ticketId, String theatreName, String userLoginId, List<String> seatNumbers) {
+        // Loaded by theatre so it comes from, and pins this transaction to, the ticket's shard.
+        Ticket ticket = ticketRepository.findByIdAndTheatreName(ticketId, theatreName)
+                .orElseThrow(() -> {
+                    log.warn("Ticket not found for cancellation - id: {}", ticketId);
+                    return new EntityNotFoundException("Ticket not found");
+                });
+        if (!ticket.getUserLoginId().equals(userLoginId)) {
+            log.warn("User: {} tried to cancel ticket: {} of user: {}", userLoginId, ticketId, ticket.getUserLoginId());
+            throw new IllegalArgumentException("Ticket does not belong to user");
+        }
+        
+        Movie movie = lockShow(ticket.getMovieName(), ticket.getTheatreName());
+        ShowInventory inventory = bookingLedger.inventory(movie.getMovieName(), movie.getTheatreName());
+        SeatMap seatMap = seatMapRegistry.seatMap(movie, inventory);
+        
+        List<String> cancelled = seatsToCancel(ticket, seatNumbers);
+        int count = cancelled.size();
+        boolean wholeTicket = count == ticket.getSeatNumbers().size();
+        Instant bookedAt = ticket.getBookedAt();
+        TransactionHooks.afterRollback(() -> seatMapRegistry.evict(movie.getMovieName(), movie.getTheatreName()));
+        LedgerEvent event = bookingLedger.recordCancelled(movie.getMovieName(), movie.getTheatreName(), count,
+                userLoginId);
+        if (wholeTicket) {
+            log.debug("Cancelling whole ticket: {}", ticketId);
+            ticketRepository.delete(ticket);
+        } else {
+            log.debug("Cancelling seats: {} of ticket: {}", cancelled, ticketId);
+            ticket.getSeatNumbers().removeAll(cancelled);
+            ticket.setNumberOfTickets(ticket.getNumberOfTickets() - count);
+            ticketRepository.save(ticket);
+        }
+        releaseSeats(seatMap, cancelled);
+        seatMap.advanceTo(event.getSequence());
+        
+        int booked = Math.max(inventory.booked() - count, 0);
+        int remaining = movie.getTotalTickets() - booked;
+        String status = remaining <= 0 ? "SOLD OUT" : "BOOK ASAP";
+        if (!status.equals(movie.getStatus())) {
+            log.info("Status for movie: {} at theatre: {} changes from: {} to: {}",
+                    movie.getMovieName(), movie.getTheatreName(), movie.getStatus(), status);
+            movie.setStatus(status);
+        }
+        
+        TransactionHooks.afterCommit(() -> {
+            showAvailabilityService.recordCancellation(movie.getMovieName(), movie.getTheatreName(), count);
+            log.debug("Sending status message to Kafka after cancellation");
+            eventPublisher.publish(AppConstants.KAFKA_TOPIC_STATUS, movie.getMovieName() + "|" + movie.getTheatreName()
+                    + "|" + status + "|" + Math.max(remaining, 0));
+            publishCancelled(movie.getMovieName(), movie.getTheatreName(), count, bookedAt, wholeTicket);
+        });
+        
+        log.info("Ticket cancelled - id: {}, movie: {}, theatre: {}, user: {}, seats: {}", 
+                ticketId, movie.getMovieName(), movie.getTheatreName(), userLoginId, cancelled);
+        return new BookedInfoDTO(booked, Math.max(remaining, 0), status);
+    }
+
+    // Every shard numbers its own tickets, so an id can exist on several; the owner tells them apart.
+    private String theatreOf(Long ticketId, String userLoginId) {
+        List<String> theatres = ticketRepository.findTheatreNamesById(ticketId);
+        if (theatres.size() > 1) {
+            theatres = ticketRepository.findTheatreNamesByIdAndUserLoginId(ticketId, userLoginId);
+            if (theatres.isEmpty()) {
+                log.warn("User: {} tried to cancel ticket: {} of another user", userLoginId, ticketId);
+                throw new IllegalArgumentException("Ticket does not belong to user");
+            }
+            if (theatres.size() > 1) {
+                log.warn("Ticket: {} of user: {} exists in theatres: {}", ticketId, userLoginId, theatres);
+                throw new IllegalArgumentException("Ticket id is ambiguous across theatres");
+            }
+        }
+        if (theatres.isEmpty()) {
+            log.warn("Ticket not found for cancellation - id: {}", ticketId);
+            throw new EntityNotFoundException("Ticket not found");
+        }
+        return theatres.get(0);
+    }
+
+    // The ticket's own labels for the requested seats, or all of them when none are requested.
+    private List<String> seatsToCancel(Ticket ticket, List<String> seatNumbers) {
+        if (seatNumbers == null || seatNumbers.isEmpty()) {
+            return new ArrayList<>(ticket.getSeatNumbers());
+        }
+        int[] requested = mapSeats(seatNumbers);
+        List<String> cancelled = new ArrayList<>(requested.length);
+        for (int i = 0; i < requested.length; i++) {
+            String match = null;
+            for (String label : ticket.getSeatNumbers()) {
+                if (sameSeat(label, seatNumbers.get(i), requested[i])) {
+                    match = label;
+                    break;
+                }
+            }
+            if (match == null) {
+                log.warn("Seat: {} is not on ticket: {}", seatNumbers.get(i), ticket.getId());
+                throw new IllegalArgumentException("Seat " + seatNumbers.get(i) + " is not on this ticket");
+            }
+            if (cancelled.contains(match)) {
+                log.warn("Duplicate seat numbers in cancellation: {}", seatNumbers);
+                throw new IllegalArgumentException("Duplicate seat numbers are not allowed");
+            }
+            cancelled.add(match);
+        }
+        return cancelled;
+    }
+
+    private void releaseSeats(SeatMap seatMap, List<String> labels) {
+        for (String label : labels) {
+            int seatId = SeatId.map(label);
+            if (seatId == SeatId.UNMAPPED) {
+                log.debug("Skipping seat the seat map never held: {}", label);
+                continue;
+            }
+            seatMap.release(seatId);
+        }
+    }
+
+    private static boolean sameSeat(String label, String requested, int requestedId) {
+        return requestedId == SeatId.UNMAPPED ? label.equals(requested) : SeatId.map(label) == requestedId;
+    }
+
+    private Movie lockShow(String movieName, String theatreName) {
+        log.debug("Finding movie: {} at theatre: {}", movieName, theatreName);
+        // Locking the show's row serialises bookings for it until this transaction commits.
+        return movieRepository.lockByMovieNameAndTheatreName(movieName, theatreName)
+                .orElseThrow(() -> {
+                    log.warn("Movie/Theatre not found for ticket booking - movie: {}, theatre: {}", 
+                            movieName, theatreName);
+                    return new IllegalArgumentException("Movie/Theatre not found");
+                });
+    }
+
+    private ShowInventory checkAvailability(Movie movie, int requested) {
+        log.debug("Calculating already booked tickets for movie: {} at theatre: {}", 
+                movie.getMovieName(), movie.getTheatreName());
+        ShowInventory inventory = bookingLedger.inventory(movie.getMovieName(), movie.getTheatreName());
+        int alreadyBooked = inventory.booked();
+        
+        log.debug("Ticket availability check - totalTickets: {}, alreadyBooked: {}, requested: {}, available: {}", 
+                movie.getTotalTickets(), alreadyBooked, requested, movie.getTotalTickets() - alreadyBooked);
+        
+        if (alreadyBooked + requested > movie.getTotalTickets()) {
+            log.warn("Insufficient tickets available - requested: {}, available: {}", 
+                    requested, movie.getTotalTickets() - alreadyBooked);
+            throw new IllegalArgumentException("Not enough tickets available");
+        }
+        return inventory;
+    }
+
+    // Seats are already taken in the map; persists the ticket and publishes it once committed.
+    private Ticket confirm(Ticket ticket, SeatMap seatMap) {
+        // The map is ahead of the database until commit; a rollback makes it rebuild instead.
+        TransactionHooks.afterRollback(() -> seatMapRegistry.evict(ticket.getMovieName(), ticket.getTheatreName()));
+        
+        // The ledger goes first: its first append takes the show's baseline from the tickets table.
+        LedgerEvent event = bookingLedger.recordBooked(ticket.getMovieName(), ticket.getTheatreName(),
+                ticket.getNumberOfTickets(), ticket.getUserLoginId());
+        log.debug("Saving ticket to database");
+        Ticket saved = ticketRepository.save(ticket);
+        seatMap.advanceTo(event.getSequence());
+        
+        TransactionHooks.afterCommit(() -> {
+            showAvailabilityService.recordBooking(ticket.getMovieName(), ticket.getTheatreName(), ticket.getNumberOfTickets());
+            log.debug("Sending ticket booking message to Kafka");
+            publishBooked(ticket);
+        });
+        
+        log.info("Ticket booked successfully - id: {}, movie: {}, theatre: {}, user: {}, tickets: {}", 
+                saved.getId(), ticket.getMovieName(), ticket.getTheatreName(), 
+                ticket.getUserLoginId(), ticket.getNumberOfTickets());
+        
+        return saved;
+    }
+
+    // The booking time travels in the payload: a spilled event is re-sent, and timestamped, much later.
+    private void publishBooked(Ticket ticket) {
+        String kafkaMessage = ticket.getMovieName() + "|" + ticket.getTheatreName() + "|" + ticket.getNumberOfTickets()
+                + (ticket.getBookedAt() == null ? "" : "|" + ticket.getBookedAt().toEpochMilli());
+        eventPublisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, kafkaMessage);
+    }
+
+    // Carries the original booking time, so sales analytics take the seats back out of the bucket they were sold in.
+    private void publishCancelled(String movieName, String theatreName, int count, Instant bookedAt, boolean wholeTicket) {
+        String kafkaMessage = movieName + "|" + theatreName + "|" + count + "|" + (bookedAt == null ? "" : bookedAt.toEpochMilli())
+                + "|" + (wholeTicket ? TicketEventType.CANCELLED : TicketEventType.SEATS_RELEASED);
+        eventPublisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, kafkaMessage);
+    }
+
+    // Labels with no seat reading are accepted as before but cannot be checked against the map.
+    private void reserveSeats(SeatMap seatMap, int[] seatIds) {
+        int conflict = seatMap.tryTakeAll(Arrays.stream(seatIds).filter(id -> id != SeatId.UNMAPPED).toArray());
+        if (conflict >= 0) {
+            log.warn("Seat already booked: {}", SeatId.label(conflict));
+            throw new IllegalArgumentException("Seat " + SeatId.label(conflict) + " is already booked");
+        }
+    }
+
+    private int[] validateTicket(Ticket ticket) {
         log.debug("Validating ticket - numberOfTickets: {}, seatNumbers: {}", 
                 ticket.getNumberOfTickets(), ticket.getSeatNumbers());
         
@@ -92,11 +400,39 @@ public class TicketService {
             throw new IllegalArgumentException("Number of seat numbers must match number of tickets");
         }
         
-        if (new HashSet<>(ticket.getSeatNumbers()).size() != ticket.getSeatNumbers().size()) {
+        int[] seatIds = mapSeats(ticket.getSeatNumbers());
+        if (hasDuplicates(ticket.getSeatNumbers(), seatIds)) {
             log.warn("Duplicate seat numbers detected: {}", ticket.getSeatNumbers());
             throw new IllegalArgumentException("Duplicate seat numbers are not allowed");
         }
         
         log.debug("Ticket validation passed successfully");
+        return seatIds;
+    }
+
+    private int[] mapSeats(List<String> seatNumbers) {
+        int[] seatIds = new int[seatNumbers.size()];
+        for (int i = 0; i < seatIds.length; i++) {
+            seatIds[i] = SeatId.map(seatNumbers.get(i));
+        }
+        return seatIds;
+    }
+
+    // Mapped seats are the same seat when their ids match; unmapped labels only when their text does.
+    private static boolean hasDuplicates(List<String> seatNumbers, int[] seatIds) {
+        int[] sorted = seatIds.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != SeatId.UNMAPPED && sorted[i] == sorted[i - 1]) {
+                return true;
+            }
+        }
+        Set<String> unmapped = new HashSet<>();
+        for (int i = 0; i < seatIds.length; i++) {
+            if (seatIds[i] == SeatId.UNMAPPED && !unmapped.add(seatNumbers.get(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 }
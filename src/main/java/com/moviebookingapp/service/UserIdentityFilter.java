@@ -0,0 +1,91 @@
+package com.moviebookingapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Compact membership sets over every registered login id and email. A negative answer means
+ * the value is definitely not taken, so signup can skip the lookup and rely on the unique
+ * constraints; a positive answer only means it might be.
+ */
+@Component
+public class UserIdentityFilter {
+    private final BloomFilter loginIds;
+    private final BloomFilter emails;
+    private final Counter definitelyNew;
+    private final Counter maybeTaken;
+    private final Counter unknownLogins;
+    private volatile boolean warm;
+
+    @Autowired
+    public UserIdentityFilter(MeterRegistry meterRegistry,
+                              @Value("${moviebooking.signup.expected-users:1000000}") long expectedUsers,
+                              @Value("${moviebooking.signup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.loginIds = BloomFilter.create(expectedUsers, falsePositiveRate);
+        this.emails = BloomFilter.create(expectedUsers, falsePositiveRate);
+        this.definitelyNew = Counter.builder("moviebooking.signup.precheck")
+                .description("Signup uniqueness prechecks answered by the membership filter")
+                .tag("result", "definitely-new")
+                .register(meterRegistry);
+        this.maybeTaken = Counter.builder("moviebooking.signup.precheck")
+                .description("Signup uniqueness prechecks answered by the membership filter")
+                .tag("result", "maybe-taken")
+                .register(meterRegistry);
+        this.unknownLogins = Counter.builder("moviebooking.login.unknown")
+                .description("Login attempts rejected because the login id is definitely not registered")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called once every existing user has been added. Before that, negative answers only mean
+     * "not added yet", so {@link #mightBeRegistered} answers true for everything.
+     */
+    public void markWarm() {
+        warm = true;
+    }
+
+    public void add(String loginId, String email) {
+        addLoginId(loginId);
+        addEmail(email);
+    }
+
+    public void addLoginId(String loginId) {
+        loginIds.put(normalise(loginId));
+    }
+
+    public void addEmail(String email) {
+        emails.put(normalise(email));
+    }
+
+    public boolean mightHaveLoginId(String loginId) {
+        return record(loginIds.mightContain(normalise(loginId)));
+    }
+
+    public boolean mightHaveEmail(String email) {
+        return record(emails.mightContain(normalise(email)));
+    }
+
+    public boolean mightBeRegistered(String loginId) {
+        if (!warm || loginIds.mightContain(normalise(loginId))) {
+            return true;
+        }
+        unknownLogins.increment();
+        return false;
+    }
+
+    private boolean record(boolean mightContain) {
+        (mightContain ? maybeTaken : definitelyNew).increment();
+        return mightContain;
+    }
+
+    // Lower-cased so that values differing only in case, which the database collation may
+    // treat as equal, are always checked against the database.
+    private static String normalise(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,8 @@
+package com.moviebookingapp.service;
+
+/**
+ * Published after a user has been saved, so other nodes can add the new identity to their
+ * {@link UserIdentityFilter}.
+ */
+public record UserRegisteredEvent(String loginId, String email) {
+}
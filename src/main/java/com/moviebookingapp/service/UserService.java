@@ -7,18 +7,29 @@ import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
+    private static final String PASSWORD_HASH = "passwordHash";
+    private static final String LOGIN_ID_TAKEN = "Login Id must be unique";
+    private static final String EMAIL_TAKEN = "Email must be unique";
+
     private final UserRepository userRepository;
     private final Validator validator;
+    private final UserIdentityFilter userIdentityFilter;
+    private final ApplicationEventPublisher eventPublisher;
     private PasswordEncoder passwordEncoder;
 
     @Autowired
@@ -34,39 +45,73 @@ public class UserService {
             throw new IllegalArgumentException("Password and Confirm Password must match");
         }
         
-        log.debug("Encoding password for user: {}", user.getLoginId());
-        user.setPasswordHash(passwordEncoder.encode(rawPassword));
-        
+        // Everything except the hash is validated (and uniqueness checked) before paying for BCrypt.
         log.debug("Validating user data for loginId: {}", user.getLoginId());
-        var violations = validator.validate(user);
+        var violations = validator.validate(user).stream()
+                .filter(v -> !PASSWORD_HASH.equals(String.valueOf(v.getPropertyPath())))
+                .collect(Collectors.toSet());
         if (!violations.isEmpty()) {
             log.warn("Validation failed for user registration - loginId: {}, violations: {}", 
                     user.getLoginId(), violations);
             throw new jakarta.validation.ConstraintViolationException(violations);
         }
         
-        log.debug("Checking if loginId already exists: {}", user.getLoginId());
-        if (userRepository.findByLoginId(user.getLoginId()).isPresent()) {
-            log.warn("LoginId already exists: {}", user.getLoginId());
-            throw new IllegalArgumentException("Login Id must be unique");
+        if (userIdentityFilter.mightHaveLoginId(user.getLoginId())) {
+            log.debug("Checking if loginId already exists: {}", user.getLoginId());
+            if (userRepository.findByLoginId(user.getLoginId()).isPresent()) {
+                log.warn("LoginId already exists: {}", user.getLoginId());
+                throw new IllegalArgumentException(LOGIN_ID_TAKEN);
+            }
         }
         
-        log.debug("Checking if email already exists: {}", user.getEmail());
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
-            log.warn("Email already exists: {}", user.getEmail());
-            throw new IllegalArgumentException("Email must be unique");
+        if (userIdentityFilter.mightHaveEmail(user.getEmail())) {
+            log.debug("Checking if email already exists: {}", user.getEmail());
+            if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+                log.warn("Email already exists: {}", user.getEmail());
+                throw new IllegalArgumentException(EMAIL_TAKEN);
+            }
         }
         
+        log.debug("Encoding password for user: {}", user.getLoginId());
+        user.setPasswordHash(passwordEncoder.encode(rawPassword));
+        
         log.debug("Saving user to database: {}", user.getLoginId());
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Definitely-new answers skip the lookups, and concurrent signups can race past
+            // them, so the unique constraints are the final word on duplicates. A conflict the
+            // filter did not know about means it missed a registration, so it learns it here.
+            String reason = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+            if (reason.contains("uk_user_login")) {
+                log.warn("LoginId already exists (constraint): {}", user.getLoginId());
+                userIdentityFilter.addLoginId(user.getLoginId());
+                throw new IllegalArgumentException(LOGIN_ID_TAKEN);
+            }
+            if (reason.contains("uk_user_email")) {
+                log.warn("Email already exists (constraint): {}", user.getEmail());
+                userIdentityFilter.addEmail(user.getEmail());
+                throw new IllegalArgumentException(EMAIL_TAKEN);
+            }
+            throw e;
+        }
+        userIdentityFilter.add(savedUser.getLoginId(), savedUser.getEmail());
+        eventPublisher.publishEvent(new UserRegisteredEvent(savedUser.getLoginId(), savedUser.getEmail()));
         log.info("User registered successfully - loginId: {}, userId: {}", user.getLoginId(), savedUser.getId());
         
         return savedUser;
     }
 
+    @Transactional(readOnly = true)
     public boolean login(String loginId, String rawPassword) {
         log.debug("Attempting login for loginId: {}", loginId);
         
+        if (!userIdentityFilter.mightBeRegistered(loginId)) {
+            log.warn("Login failed - user not registered: {}", loginId);
+            return false;
+        }
+        
         Optional<User> userOpt = userRepository.findByLoginId(loginId);
         if (userOpt.isEmpty()) {
             log.warn("Login failed - user not found: {}", loginId);
@@ -0,0 +1,322 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.domain.SeatId;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seat occupancy for one show as a bitmap in a direct buffer: one bit per seat, each row
+ * starting on a fresh 64-bit word. A stadium-sized show costs a few hundred kilobytes outside
+ * the heap and nothing for the garbage collector to trace, where a set of seat label strings
+ * would cost megabytes on it.
+ *
+ * Single-seat operations are lock-free compare-and-set on the word holding the seat.
+ * {@link #tryTakeAll} is all-or-nothing: on a conflict it releases whatever it had taken.
+ *
+ * Seats beyond the layout (labels from before seats were validated, rows past the current
+ * capacity) are held in a small on-heap set instead, so they still book and conflict but are
+ * never offered by {@link #takeBest}.
+ *
+ * Every row also has a segment tree over its words recording the longest free run, the free
+ * run at its start and the free run at its end, so {@link #takeBest} finds contiguous seats in
+ * logarithmic time per row instead of scanning them. Tree updates follow each bit change under
+ * a per-row lock stripe.
+ */
+public final class SeatMap {
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int NONE = -1;
+    private static final int[] NO_SEATS = new int[0];
+    private static final int LOCK_STRIPES = 64;
+    // Ints per tree node: free run at the start, free run at the end, longest free run.
+    private static final int NODE_INTS = 3;
+    private static final int PREFIX = 0;
+    private static final int SUFFIX = 1;
+    private static final int BEST = 2;
+
+    private final int rows;
+    private final int seatsPerRow;
+    private final int wordsPerRow;
+    private final int leavesPerRow;
+    private final ByteBuffer bitmap;
+    private final IntBuffer runs;
+    private final Object[] rowLocks = new Object[LOCK_STRIPES];
+    private final Set<Integer> outsideLayout = ConcurrentHashMap.newKeySet();
+    private volatile long version;
+
+    public SeatMap(int rows, int seatsPerRow) {
+        if (rows < 0 || rows > SeatId.MAX_ROWS || seatsPerRow <= 0 || seatsPerRow > SeatId.MAX_COLUMNS) {
+            throw new IllegalArgumentException("Invalid seat layout: " + rows + " x " + seatsPerRow);
+        }
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.wordsPerRow = (seatsPerRow + Long.SIZE - 1) / Long.SIZE;
+        // Tree leaves are the row's words, padded to a power of two.
+        this.leavesPerRow = Integer.highestOneBit(wordsPerRow * 2 - 1);
+        // Atomic access through the view handle needs 8-byte aligned offsets.
+        this.bitmap = ByteBuffer.allocateDirect(rows * wordsPerRow * Long.BYTES + Long.BYTES - 1)
+                .alignedSlice(Long.BYTES)
+                .order(ByteOrder.nativeOrder());
+        this.runs = ByteBuffer.allocateDirect(rows * 2 * leavesPerRow * NODE_INTS * Integer.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            rowLocks[i] = new Object();
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int word = 0; word < leavesPerRow; word++) {
+                writeLeaf(row, word);
+            }
+            for (int node = leavesPerRow - 1; node >= 1; node--) {
+                combine(row, node);
+            }
+        }
+    }
+
+    public static SeatMap forCapacity(int capacity, int seatsPerRow) {
+        return new SeatMap((capacity + seatsPerRow - 1) / seatsPerRow, seatsPerRow);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int seatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public long offHeapBytes() {
+        return bitmap.capacity() + (long) runs.capacity() * Integer.BYTES;
+    }
+
+    public boolean contains(int seatId) {
+        return SeatId.row(seatId) < rows && SeatId.column(seatId) < seatsPerRow;
+    }
+
+    public boolean isTaken(int seatId) {
+        if (!contains(seatId)) {
+            return outsideLayout.contains(seatId);
+        }
+        return (word(offset(seatId)) & mask(seatId)) != 0;
+    }
+
+    public boolean tryTake(int seatId) {
+        if (!contains(seatId)) {
+            return outsideLayout.add(seatId);
+        }
+        long mask = mask(seatId);
+        int offset = offset(seatId);
+        long current;
+        do {
+            current = word(offset);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!WORDS.compareAndSet(bitmap, offset, current, current | mask));
+        reindex(seatId);
+        return true;
+    }
+
+    public boolean release(int seatId) {
+        if (!contains(seatId)) {
+            return outsideLayout.remove(seatId);
+        }
+        long mask = mask(seatId);
+        int offset = offset(seatId);
+        long current;
+        do {
+            current = word(offset);
+            if ((current & mask) == 0) {
+                return false;
+            }
+        } while (!WORDS.compareAndSet(bitmap, offset, current, current & ~mask));
+        reindex(seatId);
+        return true;
+    }
+
+    /**
+     * Takes every seat or none of them.
+     *
+     * @return -1 when all seats were taken, otherwise the first seat that was already occupied
+     */
+    public int tryTakeAll(int[] seatIds) {
+        for (int i = 0; i < seatIds.length; i++) {
+            if (!tryTake(seatIds[i])) {
+                for (int j = 0; j < i; j++) {
+                    release(seatIds[j]);
+                }
+                return seatIds[i];
+            }
+        }
+        return NONE;
+    }
+
+    public void releaseAll(int[] seatIds) {
+        for (int seatId : seatIds) {
+            release(seatId);
+        }
+    }
+
+    /**
+     * Takes {@code count} adjacent seats in the best row that has them: rows nearest the middle
+     * of the house first, breaking ties towards the back, and the first fitting run within it.
+     *
+     * @return the seats taken, in order, or an empty array when no row has enough adjacent seats
+     */
+    public int[] takeBest(int count) {
+        if (count <= 0 || count > seatsPerRow) {
+            return NO_SEATS;
+        }
+        // Walk outwards from the centre of the house; distances are doubled to stay in ints.
+        int back = rows / 2;
+        int front = back - 1;
+        while (back < rows || front >= 0) {
+            boolean takeBack = front < 0 || (back < rows && 2 * back - (rows - 1) <= (rows - 1) - 2 * front);
+            int row = takeBack ? back++ : front--;
+            int[] seats = takeInRow(row, count);
+            if (seats.length > 0) {
+                return seats;
+            }
+        }
+        return NO_SEATS;
+    }
+
+    public int longestFreeRun(int row) {
+        synchronized (lock(row)) {
+            return node(row, 1, BEST);
+        }
+    }
+
+    public int takenCount() {
+        int count = outsideLayout.size();
+        for (int offset = 0; offset < bitmap.capacity(); offset += Long.BYTES) {
+            count += Long.bitCount(word(offset));
+        }
+        return count;
+    }
+
+    /** The booking ledger sequence this occupancy reflects. */
+    public long version() {
+        return version;
+    }
+
+    public void advanceTo(long version) {
+        this.version = version;
+    }
+
+    private int[] takeInRow(int row, int count) {
+        synchronized (lock(row)) {
+            if (node(row, 1, BEST) < count) {
+                return NO_SEATS;
+            }
+            int start = findRun(row, count);
+            int[] seats = new int[count];
+            for (int i = 0; i < count; i++) {
+                seats[i] = SeatId.of(row, start + i);
+            }
+            // A concurrent single-seat take may not have reached the index yet; that row is skipped.
+            return tryTakeAll(seats) == NONE ? seats : NO_SEATS;
+        }
+    }
+
+    // Leftmost column starting a free run of at least count seats; the root must have one.
+    private int findRun(int row, int count) {
+        int node = 1;
+        int width = leavesPerRow * Long.SIZE;
+        int start = 0;
+        while (node < leavesPerRow) {
+            int left = node * 2;
+            int half = width / 2;
+            if (node(row, left, BEST) >= count) {
+                node = left;
+            } else if (node(row, left, SUFFIX) + node(row, left + 1, PREFIX) >= count) {
+                return start + half - node(row, left, SUFFIX);
+            } else {
+                node = left + 1;
+                start += half;
+            }
+            width = half;
+        }
+        long free = freeBits(row, node - leavesPerRow);
+        long fits = free;
+        for (int i = 1; i < count; i++) {
+            fits &= free >>> i;
+        }
+        return start + Long.numberOfTrailingZeros(fits);
+    }
+
+    private void reindex(int seatId) {
+        int row = SeatId.row(seatId);
+        synchronized (lock(row)) {
+            int leaf = SeatId.column(seatId) / Long.SIZE;
+            writeLeaf(row, leaf);
+            for (int node = (leavesPerRow + leaf) / 2; node >= 1; node /= 2) {
+                combine(row, node);
+            }
+        }
+    }
+
+    private void writeLeaf(int row, int leaf) {
+        long free = freeBits(row, leaf);
+        int node = leavesPerRow + leaf;
+        setNode(row, node, PREFIX, Long.numberOfTrailingZeros(~free));
+        setNode(row, node, SUFFIX, Long.numberOfLeadingZeros(~free));
+        int best = 0;
+        for (long run = free; run != 0; run &= run >>> 1) {
+            best++;
+        }
+        setNode(row, node, BEST, best);
+    }
+
+    private void combine(int row, int node) {
+        int left = node * 2;
+        int right = left + 1;
+        int childWidth = (leavesPerRow * Long.SIZE) >> (32 - Integer.numberOfLeadingZeros(node));
+        int leftPrefix = node(row, left, PREFIX);
+        int rightSuffix = node(row, right, SUFFIX);
+        setNode(row, node, PREFIX, leftPrefix == childWidth ? childWidth + node(row, right, PREFIX) : leftPrefix);
+        setNode(row, node, SUFFIX, rightSuffix == childWidth ? childWidth + node(row, left, SUFFIX) : rightSuffix);
+        setNode(row, node, BEST, Math.max(Math.max(node(row, left, BEST), node(row, right, BEST)),
+                node(row, left, SUFFIX) + node(row, right, PREFIX)));
+    }
+
+    // Free seats of one word of a row as set bits; padding past the row's last seat counts as taken.
+    private long freeBits(int row, int leaf) {
+        if (leaf >= wordsPerRow) {
+            return 0L;
+        }
+        long valid = leaf == wordsPerRow - 1 && seatsPerRow % Long.SIZE != 0
+                ? (1L << (seatsPerRow % Long.SIZE)) - 1
+                : -1L;
+        return ~word((row * wordsPerRow + leaf) * Long.BYTES) & valid;
+    }
+
+    private int node(int row, int node, int field) {
+        return runs.get(((row * 2 * leavesPerRow) + node) * NODE_INTS + field);
+    }
+
+    private void setNode(int row, int node, int field, int value) {
+        runs.put(((row * 2 * leavesPerRow) + node) * NODE_INTS + field, value);
+    }
+
+    private Object lock(int row) {
+        return rowLocks[row & (LOCK_STRIPES - 1)];
+    }
+
+    private long word(int offset) {
+        return (long) WORDS.getVolatile(bitmap, offset);
+    }
+
+    private int offset(int seatId) {
+        return (SeatId.row(seatId) * wordsPerRow + SeatId.column(seatId) / Long.SIZE) * Long.BYTES;
+    }
+
+    private static long mask(int seatId) {
+        return 1L << (SeatId.column(seatId) & 63);
+    }
+}
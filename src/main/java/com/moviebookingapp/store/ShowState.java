@@ -0,0 +1,7 @@
+package com.moviebookingapp.store;
+
+/**
+ * The persisted availability of one show: display theatre name, capacity and booked count.
+ */
+public record ShowState(String theatreName, int totalTickets, int booked) {
+}
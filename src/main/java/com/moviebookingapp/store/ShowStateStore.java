@@ -0,0 +1,284 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.domain.ShowKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Durable copy of the per-show availability state: a memory-mapped snapshot plus an append-only
+ * write-ahead log. Changes are queued and written by a single thread that batches whatever has
+ * queued up into one write and one fsync (group commit); a change's future completes once it is
+ * on disk. Every {@code checkpointInterval} records the state is snapshotted and the log is
+ * started afresh.
+ *
+ * Opening the store maps the snapshot, replays the log records after it and stops at the first
+ * torn or corrupt record, which can only be a write that was never acknowledged.
+ */
+@Slf4j
+public class ShowStateStore implements AutoCloseable {
+    static final String SNAPSHOT = "snapshot.dat";
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int checkpointInterval;
+    private final int maxBatch;
+    private final Map<ShowKey, ShowState> state = new ConcurrentHashMap<>();
+    private final Map<ShowKey, ShowState> recovered;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong syncs = new AtomicLong();
+    private final Thread writer;
+
+    private volatile boolean accepting = true;
+    private volatile boolean halted;
+    private volatile IOException failure;
+
+    // Owned by the writer thread once it has started.
+    private FileChannel segment;
+    private long lastSequence;
+    private long sinceCheckpoint;
+
+    private ShowStateStore(Path directory, int checkpointInterval, int maxBatch) throws IOException {
+        this.directory = directory;
+        this.checkpointInterval = checkpointInterval;
+        this.maxBatch = maxBatch;
+        long started = System.nanoTime();
+
+        Files.createDirectories(directory);
+        SnapshotFile.Contents snapshot = SnapshotFile.read(directory.resolve(SNAPSHOT));
+        state.putAll(snapshot.states());
+        lastSequence = snapshot.sequence();
+        int replayed = 0;
+        for (Path path : segments()) {
+            int applied = replay(path);
+            if (applied < 0) {
+                replayed += -applied - 1;
+                break;
+            }
+            replayed += applied;
+        }
+        checkpoint();
+        this.recovered = Map.copyOf(state);
+        log.info("Show state store opened at {} - shows: {}, snapshot sequence: {}, replayed records: {}, in {} ms",
+                directory, state.size(), snapshot.sequence(), replayed, (System.nanoTime() - started) / 1_000_000);
+
+        this.writer = new Thread(this::writeLoop, "show-state-wal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static ShowStateStore open(Path directory, int checkpointInterval, int maxBatch) throws IOException {
+        if (checkpointInterval <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval and batch size must be positive");
+        }
+        return new ShowStateStore(directory, checkpointInterval, maxBatch);
+    }
+
+    /**
+     * The state found on disk when the store was opened.
+     */
+    public Map<ShowKey, ShowState> recoveredState() {
+        return recovered;
+    }
+
+    public CompletableFuture<Long> put(ShowKey key, ShowState showState) {
+        return enqueue(new Pending(key, showState, new CompletableFuture<>()));
+    }
+
+    public CompletableFuture<Long> remove(ShowKey key) {
+        return enqueue(new Pending(key, null, new CompletableFuture<>()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        accepting = false;
+        joinWriter();
+        if (failure == null) {
+            // Leave a snapshot covering everything so the next start has nothing to replay.
+            checkpoint();
+        }
+        segment.close();
+        log.info("Show state store closed at {} - sequence: {}", directory, lastSequence);
+    }
+
+    /**
+     * Stops the writer as a crash would: queued changes are dropped and no checkpoint is taken.
+     */
+    void halt() throws IOException {
+        accepting = false;
+        halted = true;
+        joinWriter();
+        segment.close();
+    }
+
+    long syncCount() {
+        return syncs.get();
+    }
+
+    private CompletableFuture<Long> enqueue(Pending pending) {
+        if (failure != null) {
+            pending.done().completeExceptionally(new IllegalStateException("Show state log failed", failure));
+        } else if (!accepting) {
+            pending.done().completeExceptionally(new IllegalStateException("Show state store is closed"));
+        } else {
+            queue.add(pending);
+        }
+        return pending.done();
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (!halted && (accepting || !queue.isEmpty())) {
+            try {
+                Pending first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                log.error("Show state log write failed, further changes will not be persisted", e);
+                failure = e;
+                batch.forEach(p -> p.done().completeExceptionally(e));
+                queue.forEach(p -> p.done().completeExceptionally(e));
+                queue.clear();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+        queue.forEach(p -> p.done().completeExceptionally(new IllegalStateException("Show state store is closed")));
+        queue.clear();
+    }
+
+    private void writeBatch(List<Pending> batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * 64);
+        List<WalRecord> records = new ArrayList<>(batch.size());
+        long sequence = lastSequence;
+        for (Pending pending : batch) {
+            WalRecord record = new WalRecord(++sequence, pending.key(), pending.state());
+            bytes.writeBytes(record.encode());
+            records.add(record);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        segment.force(false);
+        syncs.incrementAndGet();
+
+        records.forEach(this::apply);
+        lastSequence = sequence;
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).done().complete(records.get(i).sequence());
+        }
+        log.debug("Wrote {} show state records up to sequence: {}", batch.size(), sequence);
+
+        sinceCheckpoint += batch.size();
+        if (sinceCheckpoint >= checkpointInterval) {
+            checkpoint();
+        }
+    }
+
+    private void apply(WalRecord record) {
+        if (record.isRemove()) {
+            state.remove(record.key());
+        } else {
+            state.put(record.key(), record.state());
+        }
+    }
+
+    /**
+     * Applies the segment's records after the current sequence. Returns the number applied, or
+     * minus one more than that if the segment ended in a torn or corrupt record.
+     */
+    private int replay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int applied = 0;
+            while (buffer.hasRemaining()) {
+                WalRecord record = WalRecord.decode(buffer);
+                if (record == null || record.sequence() > lastSequence + 1) {
+                    log.warn("Discarding {} bytes of unreadable show state log after sequence {} in {}",
+                            buffer.remaining(), lastSequence, path.getFileName());
+                    return -applied - 1;
+                }
+                if (record.sequence() == lastSequence + 1) {
+                    apply(record);
+                    lastSequence = record.sequence();
+                    applied++;
+                }
+            }
+            return applied;
+        }
+    }
+
+    private void checkpoint() throws IOException {
+        SnapshotFile.write(directory.resolve(SNAPSHOT), lastSequence, state);
+        Path next = directory.resolve(segmentName(lastSequence + 1));
+        FileChannel previous = segment;
+        segment = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        if (previous != null) {
+            previous.close();
+        }
+        for (Path path : segments()) {
+            if (!path.equals(next)) {
+                Files.deleteIfExists(path);
+            }
+        }
+        SnapshotFile.syncDirectory(directory);
+        sinceCheckpoint = 0;
+        log.debug("Show state checkpoint at sequence: {}, shows: {}", lastSequence, state.size());
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void joinWriter() {
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Zero-padded so that lexical order is sequence order.
+    private static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    private record Pending(ShowKey key, ShowState state, CompletableFuture<Long> done) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.domain.ShowKey;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Point-in-time copy of every show's state, read and written through a memory mapping. A new
+ * snapshot is written to a temporary file, forced to disk and then renamed over the old one,
+ * so a crash leaves either the previous or the new snapshot, never a mix.
+ *
+ * Layout: int magic, int version, long sequence, int entry count, int body length, int body
+ * CRC32, then the entries.
+ */
+@Slf4j
+final class SnapshotFile {
+    private static final int MAGIC = 0x53484f57; // "SHOW"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES + Long.BYTES;
+
+    private SnapshotFile() {}
+
+    record Contents(long sequence, Map<ShowKey, ShowState> states) {
+        static final Contents EMPTY = new Contents(0, Map.of());
+    }
+
+    static void write(Path file, long sequence, Map<ShowKey, ShowState> states) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(states.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (Map.Entry<ShowKey, ShowState> entry : states.entrySet()) {
+                writeString(out, entry.getKey().movieName());
+                writeString(out, entry.getKey().theatreName());
+                writeString(out, entry.getValue().theatreName());
+                out.writeInt(entry.getValue().totalTickets());
+                out.writeInt(entry.getValue().booked());
+            }
+        }
+        byte[] body = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + body.length);
+            mapped.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(sequence)
+                    .putInt(states.size())
+                    .putInt(body.length)
+                    .putInt((int) crc.getValue())
+                    .put(body);
+            mapped.force();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(file.getParent());
+    }
+
+    /**
+     * Maps and validates the snapshot. A missing file yields an empty snapshot; a damaged one is
+     * logged and also treated as empty, since every log record after it carries complete state.
+     */
+    static Contents read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Contents.EMPTY;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                log.warn("Ignoring truncated state snapshot: {}", file);
+                return Contents.EMPTY;
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+                log.warn("Ignoring state snapshot with unknown format: {}", file);
+                return Contents.EMPTY;
+            }
+            long sequence = mapped.getLong();
+            int count = mapped.getInt();
+            int bodyLength = mapped.getInt();
+            int expectedCrc = mapped.getInt();
+            if (bodyLength < 0 || mapped.remaining() < bodyLength) {
+                log.warn("Ignoring truncated state snapshot: {}", file);
+                return Contents.EMPTY;
+            }
+            ByteBuffer body = mapped.slice(mapped.position(), bodyLength);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                log.warn("Ignoring state snapshot with bad checksum: {}", file);
+                return Contents.EMPTY;
+            }
+
+            Map<ShowKey, ShowState> states = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+            for (int i = 0; i < count; i++) {
+                ShowKey key = new ShowKey(readString(body), readString(body));
+                states.put(key, new ShowState(readString(body), body.getInt(), body.getInt()));
+            }
+            return new Contents(sequence, states);
+        }
+    }
+
+    static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Not every platform can sync a directory; the rename is still atomic.
+            log.debug("Could not sync directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,221 @@
+package com.moviebookingapp.store;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local disk buffer for events the Kafka producer could not take. Events are appended (and
+ * synced) to the active segment; the drainer takes the oldest segment, sealing the active one if
+ * it has to, and deletes it once every event in it has been handed back to the producer. A crash
+ * in between replays the whole segment on the next drain, so delivery is at least once.
+ *
+ * On disk: int payload length, int CRC32 of the payload, payload. A torn or corrupt record ends
+ * its segment.
+ */
+@Slf4j
+public class SpillBuffer implements AutoCloseable {
+    private static final String SEGMENT_PREFIX = "spill-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final AtomicLong pending = new AtomicLong();
+
+    private FileChannel active;
+    private long activeIndex;
+    private long activeEvents;
+
+    public record SpilledEvent(String topic, String key, String value) {
+    }
+
+    public record Segment(Path path, List<SpilledEvent> events) {
+    }
+
+    private SpillBuffer(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        for (Path segment : segments) {
+            pending.addAndGet(read(segment).size());
+        }
+        activeIndex = segments.isEmpty() ? 0 : index(segments.get(segments.size() - 1)) + 1;
+        openActive();
+        if (pending.get() > 0) {
+            log.info("Spill buffer opened at {} with {} events left from a previous run", directory, pending.get());
+        }
+    }
+
+    public static SpillBuffer open(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive");
+        }
+        return new SpillBuffer(directory, segmentBytes);
+    }
+
+    /**
+     * Events spilled and not yet drained.
+     */
+    public long pending() {
+        return pending.get();
+    }
+
+    public synchronized void append(SpilledEvent event) throws IOException {
+        ByteBuffer record = encode(event);
+        while (record.hasRemaining()) {
+            active.write(record);
+        }
+        active.force(false);
+        activeEvents++;
+        pending.incrementAndGet();
+        if (active.size() >= segmentBytes) {
+            rotate();
+        }
+    }
+
+    /**
+     * The oldest segment holding events, or null if nothing is spilled. The active segment is
+     * sealed first when it is the only one left, so appends never race the drain.
+     */
+    public synchronized Segment oldest() throws IOException {
+        List<Path> sealed = segments().stream().filter(path -> index(path) != activeIndex).toList();
+        if (sealed.isEmpty()) {
+            if (activeEvents == 0) {
+                return null;
+            }
+            rotate();
+            sealed = segments().stream().filter(path -> index(path) != activeIndex).toList();
+        }
+        Path oldest = sealed.get(0);
+        return new Segment(oldest, read(oldest));
+    }
+
+    /**
+     * Forgets a segment returned by {@link #oldest()} once its events have been re-published.
+     */
+    public synchronized void complete(Segment segment) throws IOException {
+        Files.deleteIfExists(segment.path());
+        pending.addAndGet(-segment.events().size());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.close();
+        if (activeEvents == 0) {
+            Files.deleteIfExists(segmentPath(activeIndex));
+        }
+    }
+
+    private void rotate() throws IOException {
+        active.close();
+        activeIndex++;
+        openActive();
+    }
+
+    private void openActive() throws IOException {
+        active = FileChannel.open(segmentPath(activeIndex), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        activeEvents = 0;
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%020d", index) + SEGMENT_SUFFIX);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long index(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static ByteBuffer encode(SpilledEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, event.topic());
+            writeString(out, event.key());
+            writeString(out, event.value());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(crc(payload));
+        buffer.put(payload);
+        return buffer.flip();
+    }
+
+    static List<SpilledEvent> read(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<SpilledEvent> events = new ArrayList<>();
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            if (length < 0 || buffer.remaining() < length) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (crc(payload) != crc) {
+                break;
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                events.add(new SpilledEvent(readString(in), readString(in), readString(in)));
+            }
+        }
+        return events;
+    }
+
+    // Length-prefixed so values are not limited to writeUTF's 64 KB; -1 stands for null.
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
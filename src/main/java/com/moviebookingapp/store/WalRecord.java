@@ -0,0 +1,97 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.domain.ShowKey;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * One write-ahead log entry. Every PUT carries the complete state of its show, so replaying any
+ * suffix of the log onto any earlier state yields correct values for the shows it mentions.
+ *
+ * On disk: int payload length, int CRC32 of (sequence, payload), long sequence, payload.
+ */
+record WalRecord(long sequence, ShowKey key, ShowState state) {
+    static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    boolean isRemove() {
+        return state == null;
+    }
+
+    byte[] encode() {
+        byte[] payload = payload();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(crc(sequence, payload));
+        buffer.putLong(sequence);
+        buffer.put(payload);
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the record at the buffer's position, or returns null (leaving the position
+     * unchanged) if the remaining bytes hold only part of a record or fail the checksum.
+     */
+    static WalRecord decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int crc = buffer.getInt();
+        long sequence = buffer.getLong();
+        if (length < 0 || buffer.remaining() < length) {
+            buffer.position(start);
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(payload);
+        if (crc(sequence, payload) != crc) {
+            buffer.position(start);
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new java.io.ByteArrayInputStream(payload))) {
+            byte type = in.readByte();
+            ShowKey key = new ShowKey(in.readUTF(), in.readUTF());
+            if (type == REMOVE) {
+                return new WalRecord(sequence, key, null);
+            }
+            return new WalRecord(sequence, key, new ShowState(in.readUTF(), in.readInt(), in.readInt()));
+        } catch (IOException e) {
+            buffer.position(start);
+            return null;
+        }
+    }
+
+    private byte[] payload() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(isRemove() ? REMOVE : PUT);
+            out.writeUTF(key.movieName());
+            out.writeUTF(key.theatreName());
+            if (!isRemove()) {
+                out.writeUTF(state.theatreName());
+                out.writeInt(state.totalTickets());
+                out.writeInt(state.booked());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static int crc(long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
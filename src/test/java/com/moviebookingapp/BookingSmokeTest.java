@@ -0,0 +1,20 @@
+package com.moviebookingapp;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EmbeddedKafka(partitions = 1)
+class BookingSmokeTest extends BookingSmokeTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Override
+    protected String baseUrl() {
+        return "http://localhost:" + port;
+    }
+}
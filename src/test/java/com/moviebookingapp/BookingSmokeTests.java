@@ -0,0 +1,78 @@
+package com.moviebookingapp;
+
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Black-box checks of the main journeys over HTTP: registration and login, catalogue search
+ * and booking. {@link BookingSmokeTest} runs them against the application on the JVM and
+ * {@link NativeBookingSmokeIT} against the native binary.
+ */
+abstract class BookingSmokeTests {
+    private static final String PASSWORD = "Smoke@1234";
+
+    protected abstract String baseUrl();
+
+    @Test
+    void registeredUserCanLogIn() {
+        String loginId = register();
+
+        api().body(Map.of("loginId", loginId, "password", PASSWORD))
+                .post("/login")
+                .then().statusCode(200).body("token", notNullValue());
+    }
+
+    @Test
+    void searchFindsTheSeededShows() {
+        awaitCatalogue();
+
+        api().get("/movies/search/Inception")
+                .then().statusCode(200).body("theatreName", hasItems("Grand Cinema", "Cityplex"));
+    }
+
+    @Test
+    void registeredUserCanBookSeats() {
+        String loginId = register();
+        awaitCatalogue();
+
+        api().body(Map.of("theatreName", "Cityplex", "numberOfTickets", 2,
+                        "seatNumbers", List.of("A1", "A2"), "userLoginId", loginId))
+                .post("/Inception/add")
+                .then().statusCode(200)
+                .body("id", notNullValue())
+                .body("userLoginId", equalTo(loginId))
+                .body("seatNumbers", hasItems("A1", "A2"));
+    }
+
+    private String register() {
+        String loginId = "smoke" + UUID.randomUUID().toString().substring(0, 8);
+        api().body(Map.of("firstName", "Smoke", "lastName", "Test", "email", loginId + "@example.com",
+                        "loginId", loginId, "password", PASSWORD, "confirmPassword", PASSWORD,
+                        "contactNumber", "9876543210"))
+                .post("/register")
+                .then().statusCode(200).body("loginId", equalTo(loginId));
+        return loginId;
+    }
+
+    // Seeding runs after startup, possibly in the background.
+    private void awaitCatalogue() {
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() ->
+                api().get("/movies/search/Inception").then().statusCode(200).body("size()", equalTo(2)));
+    }
+
+    private RequestSpecification api() {
+        return given().baseUri(baseUrl()).basePath("/api/v1.0/moviebooking").contentType(ContentType.JSON);
+    }
+}
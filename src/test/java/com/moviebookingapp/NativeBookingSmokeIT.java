@@ -0,0 +1,27 @@
+package com.moviebookingapp;
+
+import org.junit.jupiter.api.BeforeAll;
+
+import java.time.Duration;
+
+import static io.restassured.RestAssured.given;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * The smoke journeys against an already running binary, started by the native profile before
+ * the integration-test phase (see pom.xml).
+ */
+class NativeBookingSmokeIT extends BookingSmokeTests {
+    private static final String BASE_URL = System.getProperty("smoke.base-url", "http://localhost:18080");
+
+    @BeforeAll
+    static void awaitStartup() {
+        await().atMost(Duration.ofSeconds(60)).ignoreExceptions().untilAsserted(() ->
+                given().baseUri(BASE_URL).get("/actuator/health").then().statusCode(200));
+    }
+
+    @Override
+    protected String baseUrl() {
+        return BASE_URL;
+    }
+}
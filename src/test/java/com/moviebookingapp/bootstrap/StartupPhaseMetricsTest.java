@@ -0,0 +1,56 @@
+package com.moviebookingapp.bootstrap;
+
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.ApplicationStartup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StartupPhaseMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StartupPhaseMetrics metrics = new StartupPhaseMetrics(meterRegistry);
+
+    @Test
+    void phases_GroupsRecordedStepsByPhase() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        startup.start("spring.context.refresh").end();
+        startup.start("spring.beans.instantiate").tag("beanName", "&entityManagerFactory").end();
+        startup.start("spring.beans.instantiate").tag("beanName", "movieService").end();
+        startup.start("spring.data.repository.init").end();
+        startup.start("spring.data.repository.init").end();
+
+        Map<String, Duration> phases = StartupPhaseMetrics.phases(startup.getBufferedTimeline(),
+                Duration.ofSeconds(3), System.currentTimeMillis() - 5_000);
+
+        assertEquals(List.of("jvm", "context-refresh", "jpa", "repositories", "ready", "total"),
+                List.copyOf(phases.keySet()));
+        assertEquals(Duration.ofSeconds(3), phases.get("ready"));
+        assertTrue(phases.get("total").toMillis() >= 5_000);
+    }
+
+    @Test
+    void onReady_WithoutBufferedStartupReportsReadyAndTotalOnly() {
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        when(context.getApplicationStartup()).thenReturn(ApplicationStartup.DEFAULT);
+
+        metrics.onReady(new ApplicationReadyEvent(new SpringApplication(), new String[0], context, Duration.ofSeconds(2)));
+
+        TimeGauge ready = meterRegistry.get("moviebooking.startup.time").tag("phase", "ready").timeGauge();
+        assertEquals(2_000.0, ready.value(TimeUnit.MILLISECONDS), 0.001);
+        assertNotNull(meterRegistry.find("moviebooking.startup.time").tag("phase", "total").timeGauge());
+        assertNull(meterRegistry.find("moviebooking.startup.time").tag("phase", "jpa").timeGauge());
+    }
+}
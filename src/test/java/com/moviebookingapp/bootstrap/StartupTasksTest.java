@@ -0,0 +1,48 @@
+package com.moviebookingapp.bootstrap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupTasksTest {
+
+    @Mock
+    private DataSeeder dataSeeder;
+
+    @Mock
+    private UserIdentityFilterWarmer filterWarmer;
+
+    @Test
+    void onReady_InForegroundSeedsBeforeWarmingAndPropagatesFailures() {
+        new StartupTasks(dataSeeder, filterWarmer, false).onReady();
+
+        InOrder order = inOrder(dataSeeder, filterWarmer);
+        order.verify(dataSeeder).seed();
+        order.verify(filterWarmer).warmUp();
+
+        doThrow(new IllegalStateException("database down")).when(dataSeeder).seed();
+        assertThrows(IllegalStateException.class, () -> new StartupTasks(dataSeeder, filterWarmer, false).onReady());
+    }
+
+    @Test
+    void onReady_InBackgroundRunsOffTheCallingThread() {
+        Thread caller = Thread.currentThread();
+        Thread[] runner = new Thread[1];
+        doAnswer(invocation -> {
+            runner[0] = Thread.currentThread();
+            return null;
+        }).when(dataSeeder).seed();
+
+        new StartupTasks(dataSeeder, filterWarmer, true).onReady();
+
+        verify(filterWarmer, timeout(5_000)).warmUp();
+        assertNotSame(caller, runner[0]);
+        assertEquals("startup-tasks", runner[0].getName());
+    }
+}
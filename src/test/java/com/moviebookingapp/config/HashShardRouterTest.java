@@ -0,0 +1,57 @@
+package com.moviebookingapp.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashShardRouterTest {
+
+    @Test
+    void shardFor_IsStableAndIgnoresCase() {
+        HashShardRouter router = new HashShardRouter(4, Map.of());
+
+        int shard = router.shardFor("Grand Cinema");
+
+        assertEquals(shard, router.shardFor(" grand cinema "));
+        assertTrue(shard >= 0 && shard < 4);
+    }
+
+    @Test
+    void shardFor_AddingAShardOnlyMovesTheatresOntoIt() {
+        HashShardRouter three = new HashShardRouter(3, Map.of());
+        HashShardRouter four = new HashShardRouter(4, Map.of());
+
+        int moved = 0;
+        int[] perShard = new int[4];
+        for (int i = 0; i < 1000; i++) {
+            String theatre = "Theatre " + i;
+            int before = three.shardFor(theatre);
+            int after = four.shardFor(theatre);
+            perShard[after]++;
+            if (after != before) {
+                assertEquals(3, after, theatre + " moved between existing shards");
+                moved++;
+            }
+        }
+
+        assertTrue(moved > 150 && moved < 350, "moved " + moved);
+        for (int count : perShard) {
+            assertTrue(count > 150, "uneven spread " + Arrays.toString(perShard));
+        }
+    }
+
+    @Test
+    void shardFor_HonoursExplicitPlacement() {
+        HashShardRouter router = new HashShardRouter(3, Map.of("PVR", 2));
+
+        assertEquals(2, router.shardFor("pvr"));
+    }
+
+    @Test
+    void constructor_RejectsPlacementOnUnknownShard() {
+        assertThrows(IllegalArgumentException.class, () -> new HashShardRouter(2, Map.of("PVR", 2)));
+    }
+}
@@ -0,0 +1,56 @@
+package com.moviebookingapp.config;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.domain.User;
+import com.moviebookingapp.dto.ShowStatusDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeRuntimeHintsTest() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_EntitiesAreReflectivelyAccessible() {
+        for (Class<?> entity : List.of(Movie.class, Ticket.class, User.class)) {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(entity)
+                    .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                    .test(hints), entity.getSimpleName());
+        }
+    }
+
+    @Test
+    void registerHints_ClassesReachedByNameExistAndAreRegistered() throws ClassNotFoundException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        for (String type : concat(NativeRuntimeHints.HIBERNATE_TYPES, NativeRuntimeHints.LOGBACK_TYPES)) {
+            // A renamed class would otherwise only show up as a failure in the native binary.
+            Class.forName(type, false, classLoader);
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+                    .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints), type);
+        }
+    }
+
+    @Test
+    void registerHints_ConfigurationResourcesAreIncluded() {
+        assertTrue(RuntimeHintsPredicates.resource().forResource("application.conf").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("logback-spring.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ShowStatusDTO.class).test(hints));
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+}
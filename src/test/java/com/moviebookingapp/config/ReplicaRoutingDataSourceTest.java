@@ -0,0 +1,152 @@
+package com.moviebookingapp.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T10:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+        DataSource routing = ReplicaDataSourceConfig.routingDataSource(primary, replica);
+        jdbcTemplate = new JdbcTemplate(routing);
+        transactionManager = new DataSourceTransactionManager(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        template.execute("DELETE FROM node");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private String nodeIn(boolean readOnly, String transactionName) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        template.setName(transactionName);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void readOnlyServiceTransaction_GoesToReplica() {
+        assertEquals("replica", nodeIn(true, "com.moviebookingapp.service.MovieService.getAllMovies"));
+    }
+
+    @Test
+    void readWriteTransaction_GoesToPrimary() {
+        assertEquals("primary", nodeIn(false, "com.moviebookingapp.service.TicketService.bookTicket"));
+    }
+
+    @Test
+    void implicitRepositoryTransaction_StaysOnPrimary() {
+        assertEquals("primary", nodeIn(true,
+                "org.springframework.data.jpa.repository.support.SimpleJpaRepository.findAll"));
+    }
+
+    @Test
+    void noTransaction_GoesToPrimary() {
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    @Test
+    void writeInRequest_PinsLaterReadsToPrimary() {
+        AtomicReference<Boolean> written = new AtomicReference<>(false);
+        ReplicaRoutingContext.begin(false, () -> written.set(true));
+
+        assertEquals("replica", nodeIn(true, "com.moviebookingapp.service.UserService.login"));
+        nodeIn(false, "com.moviebookingapp.service.TicketService.bookTicket");
+
+        assertTrue(written.get());
+        assertEquals("primary", nodeIn(true, "com.moviebookingapp.service.MovieService.getAllMovies"));
+    }
+
+    @Test
+    void filter_SetsCookieAfterWrite() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                nodeIn(false, "com.moviebookingapp.service.TicketService.bookTicket");
+            }
+        });
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1.0/moviebooking/Inception/add"), response, chain);
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(String.valueOf(NOW.plusSeconds(5).toEpochMilli()), cookie.getValue());
+        assertFalse(ReplicaRoutingContext.isPrimaryPinned());
+    }
+
+    @Test
+    void filter_RecentWriteCookie_ReadsFromPrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        AtomicReference<String> node = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                node.set(nodeIn(true, "com.moviebookingapp.service.MovieService.getAllMovies"));
+            }
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1.0/moviebooking/all");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(NOW.plusSeconds(2).toEpochMilli())));
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals("primary", node.get());
+    }
+
+    @Test
+    void filter_ExpiredCookie_ReadsFromReplica() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        AtomicReference<String> node = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse res) {
+                node.set(nodeIn(true, "com.moviebookingapp.service.MovieService.getAllMovies"));
+            }
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1.0/moviebooking/all");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, String.valueOf(NOW.minusSeconds(1).toEpochMilli())));
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals("replica", node.get());
+    }
+}
@@ -0,0 +1,178 @@
+package com.moviebookingapp.config;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.repository.MovieEntityCache;
+import com.moviebookingapp.repository.MovieRepository;
+import com.moviebookingapp.repository.TicketRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "moviebooking.sharding.enabled=true",
+        "moviebooking.sharding.urls[0]=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "moviebooking.sharding.urls[1]=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "moviebooking.sharding.urls[2]=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "moviebooking.sharding.theatres[PVR]=0",
+        "moviebooking.sharding.theatres[IMAX]=1",
+        "moviebooking.sharding.theatres[Cityplex]=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({ShardingConfig.class, MovieEntityCache.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardRoutingIntegrationTest {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shardDataSources.get(shard));
+            jdbc.execute("DELETE FROM ticket_seats");
+            jdbc.execute("DELETE FROM tickets");
+            jdbc.execute("DELETE FROM movies");
+        }
+    }
+
+    private Movie movie(String theatre) {
+        return Movie.builder().movieName("Inception").theatreName(theatre).totalTickets(100).status("BOOK ASAP").build();
+    }
+
+    private Ticket ticket(String theatre, int count) {
+        List<String> seats = count == 1 ? List.of("A1") : List.of("A1", "A2");
+        return Ticket.builder().movieName("Inception").theatreName(theatre).numberOfTickets(count)
+                .seatNumbers(seats).userLoginId("john").build();
+    }
+
+    private int rows(int shard, String table) {
+        return new JdbcTemplate(shardDataSources.get(shard)).queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    @Test
+    void save_PlacesEachTheatreOnItsShard() {
+        movieRepository.save(movie("PVR"));
+        movieRepository.save(movie("IMAX"));
+        movieRepository.save(movie("Cityplex"));
+
+        assertEquals(1, rows(0, "movies"));
+        assertEquals(1, rows(1, "movies"));
+        assertEquals(1, rows(2, "movies"));
+    }
+
+    @Test
+    void findAll_FansOutAndMerges() {
+        movieRepository.saveAll(List.of(movie("PVR"), movie("IMAX"), movie("Cityplex")));
+
+        assertEquals(3, movieRepository.findAll().size());
+        assertEquals(3, movieRepository.findByMovieNameIgnoreCase("inception").size());
+        assertEquals(3L, movieRepository.count());
+        assertEquals(1, rows(1, "movies"));
+    }
+
+    @Test
+    void keyedLookups_ReadOnlyTheirShard() {
+        movieRepository.save(movie("IMAX"));
+        ticketRepository.save(ticket("IMAX", 2));
+        ticketRepository.save(ticket("PVR", 1));
+
+        assertTrue(movieRepository.findByMovieNameAndTheatreName("Inception", "IMAX").isPresent());
+        assertTrue(movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").isEmpty());
+        assertEquals(2L, ticketRepository.totalBookedForMovieAndTheatre("Inception", "IMAX"));
+        assertEquals(1, rows(0, "tickets"));
+        assertEquals(1, rows(1, "tickets"));
+    }
+
+    @Test
+    void groupedQuery_MergesRowsFromAllShards() {
+        ticketRepository.save(ticket("IMAX", 2));
+        ticketRepository.save(ticket("Cityplex", 1));
+
+        assertEquals(2, ticketRepository.totalBookedByTheatreForMovie("Inception").size());
+    }
+
+    @Test
+    void deleteByKey_OnlyTouchesItsShard() {
+        movieRepository.saveAll(List.of(movie("PVR"), movie("IMAX")));
+
+        Long deleted = new TransactionTemplate(transactionManager)
+                .execute(status -> movieRepository.deleteByMovieNameAndTheatreName("Inception", "IMAX"));
+
+        assertEquals(1L, deleted);
+
+        assertEquals(1, rows(0, "movies"));
+        assertEquals(0, rows(1, "movies"));
+    }
+
+    @Test
+    void streamWithoutTheatre_IsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ticketRepository.streamForExport(null, null, null, null));
+    }
+
+    @Test
+    void transaction_CannotSpanShards() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        assertThrows(IllegalStateException.class, () -> template.executeWithoutResult(status -> {
+            movieRepository.findByMovieNameAndTheatreName("Inception", "PVR");
+            movieRepository.findByMovieNameAndTheatreName("Inception", "IMAX");
+        }));
+    }
+
+    @Test
+    void fanOut_IsRejectedInsideAReadWriteTransaction() {
+        movieRepository.save(movie("IMAX"));
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        assertThrows(IllegalStateException.class,
+                () -> template.executeWithoutResult(status -> movieRepository.findAll()));
+
+        template.setReadOnly(true);
+        assertEquals(1, template.execute(status -> movieRepository.findAll()).size());
+    }
+
+    @Test
+    void findById_MatchingOnSeveralShards_IsRejected() {
+        // H2 shards do not interleave their ids, so each one starts its own movies at the same id.
+        Long pvr = movieRepository.save(movie("PVR")).getId();
+        Long imax = movieRepository.save(movie("IMAX")).getId();
+        assertEquals(pvr, imax);
+
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> movieRepository.findById(pvr));
+    }
+}
@@ -0,0 +1,41 @@
+package com.moviebookingapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebAsyncConfigTest {
+
+    private final CallableProcessingInterceptor interceptor =
+            new WebAsyncConfig(Duration.ofMinutes(30)).exportTimeoutInterceptor();
+
+    private MockHttpServletRequest startAsync(MockHttpServletRequest request) throws Exception {
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncRequest =
+                new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+        interceptor.beforeConcurrentHandling(asyncRequest, () -> null);
+        asyncRequest.startAsync();
+        return request;
+    }
+
+    @Test
+    void exportRequest_GetsTheExportTimeout() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        WebAsyncConfig.useExportTimeout(request);
+
+        assertEquals(Duration.ofMinutes(30).toMillis(), startAsync(request).getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void otherRequests_KeepTheContainerDefault() throws Exception {
+        long timeout = startAsync(new MockHttpServletRequest()).getAsyncContext().getTimeout();
+
+        assertNotEquals(Duration.ofMinutes(30).toMillis(), timeout);
+    }
+}
@@ -0,0 +1,98 @@
+package com.moviebookingapp.config;
+
+import com.moviebookingapp.config.WorkloadExecutors.Workload;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadExecutorsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final WorkloadExecutors executors = new WorkloadExecutors(new WorkloadProperties(
+            new WorkloadProperties.Pool(2, 4, Duration.ofSeconds(5)),
+            new WorkloadProperties.Pool(2, 4, Duration.ofSeconds(5)),
+            new WorkloadProperties.Pool(1, 1, Duration.ofMillis(200))), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executors.destroy();
+        ReplicaRoutingContext.clear();
+    }
+
+    private String blockAuthWorker() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+
+    @Test
+    void supply_RunsOnTheWorkloadsOwnThreads() throws Exception {
+        String thread = executors.supply(Workload.CATALOGUE, () -> Thread.currentThread().getName()).get();
+
+        assertTrue(thread.startsWith("catalogue-worker-"));
+    }
+
+    @Test
+    void supply_SaturatedPoolRefusesAndLeavesOtherWorkloadsServing() throws Exception {
+        executors.supply(Workload.AUTH, this::blockAuthWorker);
+        executors.supply(Workload.AUTH, this::blockAuthWorker);
+
+        CompletableFuture<String> refused = executors.supply(Workload.AUTH, () -> "never");
+        String catalogue = executors.supply(Workload.CATALOGUE, () -> "movies").get(1, TimeUnit.SECONDS);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, refused::get);
+        assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+        assertEquals("movies", catalogue);
+        assertEquals(1.0, meterRegistry.get("moviebooking.workload.rejected").tag("workload", "auth").counter().count());
+    }
+
+    @Test
+    void supply_TimesOutSlowTasks() {
+        CompletableFuture<String> slow = executors.supply(Workload.AUTH, this::blockAuthWorker);
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> slow.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        assertEquals(1.0, meterRegistry.get("moviebooking.workload.timeouts").tag("workload", "auth").counter().count());
+    }
+
+    @Test
+    void supply_CarriesReadYourWritesStateToTheWorker() throws Exception {
+        AtomicBoolean cookieSet = new AtomicBoolean();
+        ReplicaRoutingContext.begin(false, () -> cookieSet.set(true));
+
+        executors.supply(Workload.BOOKING, () -> {
+            ReplicaRoutingContext.recordWrite();
+            return null;
+        }).get();
+
+        assertTrue(cookieSet.get());
+        assertTrue(ReplicaRoutingContext.isPrimaryPinned());
+    }
+
+    @Test
+    void properties_FillMissingSettingsWithDefaults() {
+        WorkloadProperties properties = new WorkloadProperties(null,
+                new WorkloadProperties.Pool(3, null, null), null);
+
+        assertEquals(16, properties.booking().threads());
+        assertEquals(3, properties.catalogue().threads());
+        assertEquals(512, properties.catalogue().queueCapacity());
+        assertEquals(Duration.ofSeconds(5), properties.auth().timeout());
+    }
+}
@@ -1,16 +1,31 @@
 package com.moviebookingapp.controller;
 
-import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.RollupGranularity;
 import com.moviebookingapp.dto.BookedInfoDTO;
-import com.moviebookingapp.service.MovieService;
+import com.moviebookingapp.dto.SalesBucketDTO;
+import com.moviebookingapp.dto.SalesReportDTO;
+import com.moviebookingapp.service.LedgerReplayService;
+import com.moviebookingapp.service.SalesAnalyticsService;
+import com.moviebookingapp.service.ShowAvailabilityService;
+import com.moviebookingapp.service.TicketExportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,7 +33,16 @@ import static org.mockito.Mockito.*;
 class AdminControllerTest {
 
     @Mock
-    private MovieService movieService;
+    private ShowAvailabilityService showAvailabilityService;
+
+    @Mock
+    private TicketExportService ticketExportService;
+
+    @Mock
+    private LedgerReplayService ledgerReplayService;
+
+    @Mock
+    private SalesAnalyticsService salesAnalyticsService;
 
     @InjectMocks
     private AdminController adminController;
@@ -28,18 +52,10 @@ class AdminControllerTest {
         MockitoAnnotations.openMocks(this);
     }
 
-    private Movie createMovie(String movieName, String theatreName, int totalTickets) {
-        Movie movie = new Movie();
-        movie.setMovieName(movieName);
-        movie.setTheatreName(theatreName);
-        movie.setTotalTickets(totalTickets);
-        return movie;
-    }
-
     @Test
     void testBooked_BookAsap() {
-        when(movieService.bookedCount("Inception", "PVR")).thenReturn(5);
-        when(movieService.searchMovies("Inception")).thenReturn(List.of(createMovie("Inception", "PVR", 10)));
+        when(showAvailabilityService.getAvailability("Inception", "PVR"))
+                .thenReturn(new BookedInfoDTO(5, 5, "BOOK ASAP"));
 
         ResponseEntity<BookedInfoDTO> response = adminController.booked("Inception", "PVR");
 
@@ -50,9 +66,9 @@ class AdminControllerTest {
     }
 
     @Test
-    void testBooked_SoldOut_ExactMatch() {
-        when(movieService.bookedCount("Inception", "PVR")).thenReturn(10);
-        when(movieService.searchMovies("Inception")).thenReturn(List.of(createMovie("Inception", "PVR", 10)));
+    void testBooked_SoldOut() {
+        when(showAvailabilityService.getAvailability("Inception", "PVR"))
+                .thenReturn(new BookedInfoDTO(10, 0, "SOLD OUT"));
 
         ResponseEntity<BookedInfoDTO> response = adminController.booked("Inception", "PVR");
 
@@ -61,60 +77,127 @@ class AdminControllerTest {
     }
 
     @Test
-    void testBooked_SoldOut_Overbooked() {
-        when(movieService.bookedCount("Inception", "PVR")).thenReturn(15);
-        when(movieService.searchMovies("Inception")).thenReturn(List.of(createMovie("Inception", "PVR", 10)));
+    void testBooked_NoMovieFound() {
+        when(showAvailabilityService.getAvailability("Inception", "PVR"))
+                .thenThrow(new IllegalArgumentException("Movie not found"));
 
-        ResponseEntity<BookedInfoDTO> response = adminController.booked("Inception", "PVR");
+        assertThrows(IllegalArgumentException.class,
+                () -> adminController.booked("Inception", "PVR"));
+    }
 
-        assertEquals(0, response.getBody().getRemaining()); // Safeguard
-        assertEquals("SOLD OUT", response.getBody().getStatus());
+    @Test
+    void testBooked_ServiceThrowsException() {
+        when(showAvailabilityService.getAvailability(anyString(), anyString()))
+                .thenThrow(new RuntimeException("DB error"));
+
+        assertThrows(RuntimeException.class,
+                () -> adminController.booked("Inception", "PVR"));
     }
 
     @Test
-    void testBooked_CaseInsensitiveTheatreMatch() {
-        when(movieService.bookedCount("Inception", "pvr")).thenReturn(3);
-        when(movieService.searchMovies("Inception")).thenReturn(List.of(createMovie("Inception", "PVR", 5)));
+    void testBookedAllTheatres_ReturnsEveryTheatre() {
+        Map<String, BookedInfoDTO> info = new LinkedHashMap<>();
+        info.put("PVR", new BookedInfoDTO(5, 5, "BOOK ASAP"));
+        info.put("IMAX", new BookedInfoDTO(8, 0, "SOLD OUT"));
+        when(showAvailabilityService.getAvailabilityByTheatre("Inception")).thenReturn(info);
 
-        ResponseEntity<BookedInfoDTO> response = adminController.booked("Inception", "pvr");
+        ResponseEntity<Map<String, BookedInfoDTO>> response = adminController.bookedAllTheatres("Inception");
 
-        assertEquals("BOOK ASAP", response.getBody().getStatus());
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2, response.getBody().size());
+        assertEquals("SOLD OUT", response.getBody().get("IMAX").getStatus());
     }
 
     @Test
-    void testBooked_NoMovieFound() {
-        when(movieService.bookedCount("Inception", "PVR")).thenReturn(2);
-        when(movieService.searchMovies("Inception")).thenReturn(List.of());
+    void testBookedAllTheatres_NoMovieFound() {
+        when(showAvailabilityService.getAvailabilityByTheatre("Inception")).thenReturn(Map.of());
 
         assertThrows(IllegalArgumentException.class,
-                () -> adminController.booked("Inception", "PVR"));
+                () -> adminController.bookedAllTheatres("Inception"));
     }
 
     @Test
-    void testBooked_TheatreNotMatching() {
-        when(movieService.bookedCount("Inception", "PVR")).thenReturn(2);
-        when(movieService.searchMovies("Inception")).thenReturn(List.of(createMovie("Inception", "IMAX", 5)));
+    void testExportTickets_Plain() throws Exception {
+        doAnswer(inv -> {
+            inv.getArgument(4, OutputStream.class).write("{\"id\":1}\n".getBytes());
+            return 1L;
+        }).when(ticketExportService).exportNdjson(eq("Inception"), eq("PVR"), isNull(), isNull(), any());
+
+        ResponseEntity<StreamingResponseBody> response =
+                adminController.exportTickets("Inception", "PVR", null, null, false, new MockHttpServletRequest());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"id\":1}\n", out.toString());
+    }
+
+    @Test
+    void testExportTickets_Gzip() throws Exception {
+        doAnswer(inv -> {
+            inv.getArgument(4, OutputStream.class).write("{\"id\":2}\n".getBytes());
+            return 1L;
+        }).when(ticketExportService).exportNdjson(any(), any(), any(), any(), any());
+
+        ResponseEntity<StreamingResponseBody> response =
+                adminController.exportTickets(null, null, null, null, true, new MockHttpServletRequest());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("{\"id\":2}\n", new String(in.readAllBytes()));
+        }
+    }
+
+    @Test
+    void testExportTickets_InvalidRange() {
+        Instant now = Instant.now();
 
         assertThrows(IllegalArgumentException.class,
-                () -> adminController.booked("Inception", "PVR"));
+                () -> adminController.exportTickets(null, null, now, now, false, new MockHttpServletRequest()));
+        verifyNoInteractions(ticketExportService);
     }
 
     @Test
-    void testBooked_BookedCountThrowsException() {
-        when(movieService.bookedCount(anyString(), anyString()))
-                .thenThrow(new RuntimeException("DB error"));
+    void auditLedger_ReturnsMismatchesByShow() {
+        when(ledgerReplayService.audit()).thenReturn(Map.of(
+                new LedgerReplayService.Show("Inception", "PVR"), "current a but replayed b"));
 
-        assertThrows(RuntimeException.class,
-                () -> adminController.booked("Inception", "PVR"));
+        ResponseEntity<Map<String, String>> response = adminController.auditLedger();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("current a but replayed b", response.getBody().get("Inception|PVR"));
     }
 
     @Test
-    void testBooked_SearchMoviesThrowsException() {
-        when(movieService.bookedCount("Inception", "PVR")).thenReturn(2);
-        when(movieService.searchMovies(anyString()))
-                .thenThrow(new RuntimeException("Service down"));
+    void rebuildLedgerSnapshots_ReturnsWrittenCount() {
+        when(ledgerReplayService.rebuildSnapshots()).thenReturn(3);
 
-        assertThrows(RuntimeException.class,
-                () -> adminController.booked("Inception", "PVR"));
+        ResponseEntity<Map<String, Integer>> response = adminController.rebuildLedgerSnapshots();
+
+        assertEquals(3, response.getBody().get("written"));
+    }
+
+    @Test
+    void sales_ParsesGranularityAndReturnsReport() {
+        Instant from = Instant.parse("2026-03-14T09:00:00Z");
+        Instant to = Instant.parse("2026-03-14T11:00:00Z");
+        SalesReportDTO report = new SalesReportDTO("Avatar", "PVR", RollupGranularity.HOUR, from, to, 5, 2,
+                List.of(new SalesBucketDTO(from, 5, 2), new SalesBucketDTO(from.plusSeconds(3600), 0, 0)));
+        when(salesAnalyticsService.report("Avatar", "PVR", RollupGranularity.HOUR, from, to)).thenReturn(report);
+
+        ResponseEntity<SalesReportDTO> response = adminController.sales("Avatar", "PVR", "Hour", from, to);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(report, response.getBody());
+    }
+
+    @Test
+    void sales_UnknownGranularity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> adminController.sales("Avatar", null, "week", null, null));
+        verifyNoInteractions(salesAnalyticsService);
     }
 }
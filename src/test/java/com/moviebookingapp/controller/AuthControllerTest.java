@@ -1,9 +1,15 @@
 package com.moviebookingapp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.moviebookingapp.config.WorkloadExecutors;
+import com.moviebookingapp.config.WorkloadExecutors.Workload;
 import com.moviebookingapp.domain.User;
 import com.moviebookingapp.dto.LoginRequestDTO;
 import com.moviebookingapp.dto.PasswordResetDTO;
+import com.moviebookingapp.dto.UserDTO;
 import com.moviebookingapp.dto.UserRegistrationDTO;
+import com.moviebookingapp.exception.LoginThrottledException;
+import com.moviebookingapp.service.LoginThrottle;
 import com.moviebookingapp.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,11 +18,18 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +38,14 @@ class AuthControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    private final MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+
+    @Mock
+    private WorkloadExecutors workloadExecutors;
+
     @InjectMocks
     private AuthController authController;
 
@@ -58,10 +79,24 @@ class AuthControllerTest {
         when(userService.register(any(User.class), eq("pass123"), eq("pass123")))
                 .thenReturn(testUser);
 
-        ResponseEntity<User> response = authController.register(registrationDTO);
+        ResponseEntity<UserDTO> response = authController.register(registrationDTO);
 
         assertEquals(200, response.getStatusCodeValue());
-        assertEquals(testUser.getLoginId(), response.getBody().getLoginId());
+        assertEquals(testUser.getLoginId(), response.getBody().loginId());
+    }
+
+    @Test
+    void registerResponseNeverCarriesPasswordHash() throws Exception {
+        testUser.setPasswordHash("$2a$10$secrethash");
+        when(userService.register(any(User.class), eq("pass123"), eq("pass123")))
+                .thenReturn(testUser);
+
+        ResponseEntity<UserDTO> response = authController.register(registrationDTO);
+        String json = new ObjectMapper().findAndRegisterModules().writeValueAsString(response.getBody());
+
+        assertFalse(json.contains("passwordHash"));
+        assertFalse(json.contains("secrethash"));
+        assertTrue(json.contains("\"loginId\":\"john123\""));
     }
 
     @Test
@@ -80,10 +115,22 @@ class AuthControllerTest {
         LoginRequestDTO loginDTO = new LoginRequestDTO("john123", "pass123");
         when(userService.login("john123", "pass123")).thenReturn(true);
 
-        ResponseEntity<Map<String, String>> response = authController.login(loginDTO);
+        ResponseEntity<Map<String, String>> response = authController.login(loginDTO, servletRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("dummy-token-john123", response.getBody().get("token"));
+        verify(loginThrottle).acquire("john123", "127.0.0.1");
+        verify(loginThrottle).onSuccess("john123");
+    }
+
+    @Test
+    void loginThrottled_SkipsCredentialCheck() {
+        LoginRequestDTO loginDTO = new LoginRequestDTO("john123", "pass123");
+        doThrow(new LoginThrottledException("Too many login attempts", Duration.ofSeconds(30)))
+                .when(loginThrottle).acquire("john123", "127.0.0.1");
+
+        assertThrows(LoginThrottledException.class, () -> authController.login(loginDTO, servletRequest));
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -91,10 +138,11 @@ class AuthControllerTest {
         LoginRequestDTO loginDTO = new LoginRequestDTO("john123", "wrongpass");
         when(userService.login("john123", "wrongpass")).thenReturn(false);
 
-        ResponseEntity<Map<String, String>> response = authController.login(loginDTO);
+        ResponseEntity<Map<String, String>> response = authController.login(loginDTO, servletRequest);
 
         assertEquals(400, response.getStatusCodeValue());
         assertEquals("Invalid credentials", response.getBody().get("error"));
+        verify(loginThrottle, never()).onSuccess(anyString());
     }
 
     @Test
@@ -104,7 +152,7 @@ class AuthControllerTest {
                 .thenThrow(new RuntimeException("Login failed"));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                authController.login(loginDTO));
+                authController.login(loginDTO, servletRequest));
 
         assertEquals("Login failed", exception.getMessage());
     }
@@ -113,10 +161,22 @@ class AuthControllerTest {
     void resetPasswordSuccess() {
         PasswordResetDTO resetDTO = new PasswordResetDTO("john123", "newpass", "newpass");
 
-        ResponseEntity<Void> response = authController.resetPassword(resetDTO);
+        ResponseEntity<Void> response = authController.resetPassword(resetDTO, servletRequest);
 
         assertEquals(200, response.getStatusCodeValue());
         verify(userService).resetPassword("john123", "newpass", "newpass", "newpass");
+        verify(loginThrottle).acquire("john123", "127.0.0.1");
+        verify(loginThrottle).onSuccess("john123");
+    }
+
+    @Test
+    void resetPasswordThrottled_SkipsPasswordCheck() {
+        PasswordResetDTO resetDTO = new PasswordResetDTO("john123", "newpass", "newpass");
+        doThrow(new LoginThrottledException("Too many login attempts", Duration.ofSeconds(30)))
+                .when(loginThrottle).acquire("john123", "127.0.0.1");
+
+        assertThrows(LoginThrottledException.class, () -> authController.resetPassword(resetDTO, servletRequest));
+        verifyNoInteractions(userService);
     }
 
     @Test
@@ -128,8 +188,34 @@ class AuthControllerTest {
                 .resetPassword("john123", "newpass", "newpass", "newpass");
 
         RuntimeException exception = assertThrows(RuntimeException.class, () ->
-                authController.resetPassword(resetDTO));
+                authController.resetPassword(resetDTO, servletRequest));
 
         assertEquals("Reset failed", exception.getMessage());
+        verify(loginThrottle, never()).onSuccess(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void loginAsync_ChecksPasswordOnAuthExecutor() {
+        LoginRequestDTO loginDTO = new LoginRequestDTO("john123", "pass123");
+        when(userService.login("john123", "pass123")).thenReturn(true);
+        when(workloadExecutors.supply(eq(Workload.AUTH), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()));
+
+        ResponseEntity<Map<String, String>> response = authController.loginAsync(loginDTO, servletRequest).join();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("dummy-token-john123", response.getBody().get("token"));
+        verify(loginThrottle).onSuccess("john123");
+    }
+
+    @Test
+    void loginAsync_ThrottledBeforeReachingExecutor() {
+        LoginRequestDTO loginDTO = new LoginRequestDTO("john123", "pass123");
+        doThrow(new LoginThrottledException("Too many login attempts", Duration.ofSeconds(30)))
+                .when(loginThrottle).acquire("john123", "127.0.0.1");
+
+        assertThrows(LoginThrottledException.class, () -> authController.loginAsync(loginDTO, servletRequest));
+        verifyNoInteractions(workloadExecutors, userService);
     }
 }
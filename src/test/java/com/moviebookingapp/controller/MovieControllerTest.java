@@ -1,18 +1,31 @@
 package com.moviebookingapp.controller;
 
+import com.moviebookingapp.config.WorkloadExecutors;
+import com.moviebookingapp.config.WorkloadExecutors.Workload;
 import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.dto.MovieDTO;
+import com.moviebookingapp.service.CatalogueVersion;
 import com.moviebookingapp.service.MovieService;
+import com.moviebookingapp.service.ShowChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -24,6 +37,12 @@ class MovieControllerTest{
     @Mock
     private MovieService movieService;
 
+    @Mock
+    private WorkloadExecutors workloadExecutors;
+
+    @Spy
+    private CatalogueVersion catalogueVersion = new CatalogueVersion();
+
     @InjectMocks
     private MovieController movieController;
 
@@ -39,6 +58,14 @@ class MovieControllerTest{
                 .build();
     }
 
+    private ServletWebRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1.0/moviebooking/all");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
     @Test
     void getAllMovies_ReturnsAllMovies() {
         // Arrange
@@ -46,11 +73,11 @@ class MovieControllerTest{
         when(movieService.getAllMovies()).thenReturn(movies);
 
         // Act
-        ResponseEntity<List<Movie>> response = movieController.getAllMovies();
+        ResponseEntity<List<MovieDTO>> response = movieController.getAllMovies(get(null));
 
         // Assert
         assertTrue(response.getStatusCode().is2xxSuccessful());
-        assertEquals(movies, response.getBody());
+        assertEquals(List.of(MovieDTO.from(testMovie)), response.getBody());
     }
 
     @Test
@@ -59,7 +86,7 @@ class MovieControllerTest{
         when(movieService.getAllMovies()).thenReturn(Collections.emptyList());
 
         // Act
-        ResponseEntity<List<Movie>> response = movieController.getAllMovies();
+        ResponseEntity<List<MovieDTO>> response = movieController.getAllMovies(get(null));
 
         // Assert
         assertTrue(response.getStatusCode().is2xxSuccessful());
@@ -73,11 +100,11 @@ class MovieControllerTest{
         when(movieService.searchMovies(anyString())).thenReturn(movies);
 
         // Act
-        ResponseEntity<List<Movie>> response = movieController.searchMovies("Test Movie");
+        ResponseEntity<List<MovieDTO>> response = movieController.searchMovies("Test Movie", get(null));
 
         // Assert
         assertTrue(response.getStatusCode().is2xxSuccessful());
-        assertEquals(movies, response.getBody());
+        assertEquals(List.of(MovieDTO.from(testMovie)), response.getBody());
         verify(movieService).searchMovies("Test Movie");
     }
 
@@ -87,7 +114,7 @@ class MovieControllerTest{
         when(movieService.searchMovies(anyString())).thenReturn(Collections.emptyList());
 
         // Act
-        ResponseEntity<List<Movie>> response = movieController.searchMovies("Nonexistent");
+        ResponseEntity<List<MovieDTO>> response = movieController.searchMovies("Nonexistent", get(null));
 
         // Assert
         assertTrue(response.getStatusCode().is2xxSuccessful());
@@ -107,14 +134,14 @@ class MovieControllerTest{
                 .thenReturn(updatedMovie);
 
         // Act
-        ResponseEntity<Movie> response = movieController.updateTickets(
+        ResponseEntity<MovieDTO> response = movieController.updateTickets(
                 testMovie.getMovieName(),
                 testMovie.getTheatreName(),
                 50);
 
         // Assert
         assertTrue(response.getStatusCode().is2xxSuccessful());
-        assertEquals(50, response.getBody().getTotalTickets());
+        assertEquals(50, response.getBody().totalTickets());
     }
 
     @Test
@@ -128,4 +155,87 @@ class MovieControllerTest{
                 movieController.updateTickets("Nonexistent", "Nonexistent", 50));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAllMoviesAsync_ServesFromCatalogueExecutor() {
+        List<Movie> movies = Arrays.asList(testMovie);
+        when(movieService.getAllMovies()).thenReturn(movies);
+        when(workloadExecutors.supply(eq(Workload.CATALOGUE), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()));
+
+        ResponseEntity<List<MovieDTO>> response = movieController.getAllMoviesAsync().join();
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertEquals(List.of(MovieDTO.from(testMovie)), response.getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAllMoviesAsync_FallsBackToLastCatalogueWhenTooSlow() {
+        List<Movie> movies = Arrays.asList(testMovie);
+        when(movieService.getAllMovies()).thenReturn(movies);
+        when(workloadExecutors.supply(eq(Workload.CATALOGUE), any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+        movieController.getAllMoviesAsync().join();
+
+        ResponseEntity<List<MovieDTO>> response = movieController.getAllMoviesAsync().join();
+
+        assertEquals(List.of(MovieDTO.from(testMovie)), response.getBody());
+        assertNotNull(response.getHeaders().getFirst("Warning"));
+    }
+
+    @Test
+    void getAllMoviesAsync_FailsWhenNothingServedYet() {
+        when(workloadExecutors.supply(eq(Workload.CATALOGUE), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException()));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> movieController.getAllMoviesAsync().join());
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+    }
+
+    @Test
+    void getAllMovies_SetsCatalogueETag() {
+        when(movieService.getAllMovies()).thenReturn(List.of(testMovie));
+        ServletWebRequest request = get(null);
+
+        movieController.getAllMovies(request);
+
+        assertEquals(catalogueVersion.current().etag(), request.getResponse().getHeader("ETag"));
+        assertNull(request.getResponse().getHeader("Last-Modified"));
+    }
+
+    @Test
+    void getAllMovies_IfModifiedSinceAloneNeverAnswers304() {
+        when(movieService.getAllMovies()).thenReturn(List.of(testMovie));
+        ServletWebRequest request = get(null);
+        ((MockHttpServletRequest) request.getRequest()).addHeader("If-Modified-Since", System.currentTimeMillis() + 60_000);
+
+        ResponseEntity<List<MovieDTO>> response = movieController.getAllMovies(request);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(MovieDTO.from(testMovie)), response.getBody());
+    }
+
+    @Test
+    void getAllMovies_UnchangedCatalogueAnswers304WithoutLoading() {
+        ResponseEntity<List<MovieDTO>> response = movieController.getAllMovies(get(catalogueVersion.current().etag()));
+
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        verifyNoInteractions(movieService);
+    }
+
+    @Test
+    void searchMovies_ChangedCatalogueReturnsFullResponse() {
+        String etag = catalogueVersion.current().etag();
+        catalogueVersion.onShowChanged(ShowChangedEvent.invalidated("Test Movie", "Test Theatre"));
+        when(movieService.searchMovies("Test")).thenReturn(List.of(testMovie));
+
+        ResponseEntity<List<MovieDTO>> response = movieController.searchMovies("Test", get(etag));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(MovieDTO.from(testMovie)), response.getBody());
+    }
 }
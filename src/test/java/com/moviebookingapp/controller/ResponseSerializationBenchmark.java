@@ -0,0 +1,100 @@
+package com.moviebookingapp.controller;
+
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.MovieDTO;
+import com.moviebookingapp.dto.TicketDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Before/after cost of writing the catalogue and booking responses: entities through a
+ * reflective ObjectMapper (before) against record DTOs through the Blackbird mapper the
+ * application now uses (after). The gc profiler's gc.alloc.rate.norm is the bytes allocated
+ * per response.
+ *
+ * Not part of the test suite; run after test-compile with e.g.
+ * {@code mvn -q dependency:build-classpath -Dmdep.outputFile=target/cp.txt} and
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.moviebookingapp.controller.ResponseSerializationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private static final int CATALOGUE_SIZE = 500;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private ObjectMapper reflective;
+    private ObjectMapper blackbird;
+    private List<Movie> movies;
+    private Ticket ticket;
+
+    @Setup
+    public void setUp() {
+        reflective = JsonMapper.builder().addModule(new JavaTimeModule())
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+        blackbird = JsonMapper.builder().addModule(new JavaTimeModule()).addModule(new BlackbirdModule())
+                .disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+        movies = new ArrayList<>(CATALOGUE_SIZE);
+        for (int i = 0; i < CATALOGUE_SIZE; i++) {
+            movies.add(Movie.builder().id((long) i).movieName("Movie " + i).theatreName("Theatre " + (i % 20))
+                    .totalTickets(120).status("BOOK ASAP").build());
+        }
+        ticket = Ticket.builder().id(42L).movieName("Movie 1").theatreName("Theatre 1").numberOfTickets(4)
+                .seatNumbers(List.of("C7", "C8", "C9", "C10")).userLoginId("john123").bookedAt(Instant.now()).build();
+    }
+
+    @Benchmark
+    public void catalogueEntities() throws IOException {
+        reflective.writeValue(sink, movies);
+    }
+
+    @Benchmark
+    public void catalogueDTOs() throws IOException {
+        blackbird.writeValue(sink, movies.stream().map(MovieDTO::from).toList());
+    }
+
+    @Benchmark
+    public void ticketEntity() throws IOException {
+        reflective.writeValue(sink, ticket);
+    }
+
+    @Benchmark
+    public void ticketDTO() throws IOException {
+        blackbird.writeValue(sink, TicketDTO.from(ticket));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
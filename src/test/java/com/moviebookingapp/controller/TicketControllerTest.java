@@ -1,7 +1,14 @@
 package com.moviebookingapp.controller;
 
+import com.moviebookingapp.config.WorkloadExecutors;
+import com.moviebookingapp.config.WorkloadExecutors.Workload;
 import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.BestSeatsRequestDTO;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.dto.CancelRequestDTO;
+import com.moviebookingapp.dto.TicketDTO;
 import com.moviebookingapp.dto.TicketRequestDTO;
+import com.moviebookingapp.service.BookingPipeline;
 import com.moviebookingapp.service.MovieService;
 import com.moviebookingapp.service.TicketService;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +22,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -29,6 +40,12 @@ class TicketControllerTest {
     @Mock
     private MovieService movieService;
 
+    @Mock
+    private BookingPipeline bookingPipeline;
+
+    @Mock
+    private WorkloadExecutors workloadExecutors;
+
     @InjectMocks
     private TicketController ticketController;
 
@@ -58,26 +75,26 @@ class TicketControllerTest {
     @Test
     @DisplayName("✅ Book ticket successfully")
     void shouldBookTicketSuccessfully() {
-        when(ticketService.bookTicket(any(Ticket.class))).thenReturn(savedTicket);
+        when(bookingPipeline.book(any(Ticket.class))).thenReturn(savedTicket);
 
-        ResponseEntity<Ticket> response = ticketController.add("Avatar", requestDTO);
+        ResponseEntity<TicketDTO> response = ticketController.add("Avatar", requestDTO);
 
         assertThat(response.getStatusCodeValue()).isEqualTo(200);
-        assertThat(response.getBody()).isEqualTo(savedTicket);
+        assertThat(response.getBody()).isEqualTo(TicketDTO.from(savedTicket));
 
-        verify(ticketService, times(1)).bookTicket(any(Ticket.class));
+        verify(bookingPipeline, times(1)).book(any(Ticket.class));
     }
 
     @Test
     @DisplayName("❌ Fail to book ticket due to service error")
     void shouldThrowExceptionWhenBookingFails() {
-        when(ticketService.bookTicket(any(Ticket.class))).thenThrow(new RuntimeException("Booking failed"));
+        when(bookingPipeline.book(any(Ticket.class))).thenThrow(new RuntimeException("Booking failed"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> ticketController.add("Avatar", requestDTO));
 
         assertThat(ex.getMessage()).isEqualTo("Booking failed");
-        verify(ticketService, times(1)).bookTicket(any(Ticket.class));
+        verify(bookingPipeline, times(1)).book(any(Ticket.class));
     }
 
     @Test
@@ -94,6 +111,31 @@ class TicketControllerTest {
         });
     }
 
+    @Test
+    @DisplayName("✅ Book best available seats")
+    void shouldBookBestSeats() {
+        when(ticketService.bookBestSeats("Avatar", "PVR", 2, "user123")).thenReturn(savedTicket);
+
+        ResponseEntity<TicketDTO> response = ticketController.addBest("Avatar",
+                new BestSeatsRequestDTO("PVR", 2, "user123"));
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(TicketDTO.from(savedTicket));
+    }
+
+    @Test
+    @DisplayName("✅ Cancel seats of a ticket")
+    void shouldCancelTicket() {
+        BookedInfoDTO availability = new BookedInfoDTO(8, 2, "BOOK ASAP");
+        when(ticketService.cancelTicket(123L, "user123", Arrays.asList("A2"))).thenReturn(availability);
+
+        ResponseEntity<BookedInfoDTO> response = ticketController.cancel(123L,
+                new CancelRequestDTO("user123", Arrays.asList("A2")));
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(availability);
+    }
+
     @Test
     @DisplayName("✅ Update movie status successfully")
     void shouldUpdateStatusSuccessfully() {
@@ -119,4 +161,31 @@ class TicketControllerTest {
         assertThat(ex.getMessage()).isEqualTo("Update failed");
         verify(movieService, times(1)).computeAndUpdateStatus("Avatar", "PVR");
     }
+
+    @Test
+    @DisplayName("✅ Book ticket on the booking executor")
+    @SuppressWarnings("unchecked")
+    void shouldBookTicketAsync() {
+        when(bookingPipeline.book(any(Ticket.class))).thenReturn(savedTicket);
+        when(workloadExecutors.supply(eq(Workload.BOOKING), any())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(((Supplier<Object>) invocation.getArgument(1)).get()));
+
+        ResponseEntity<TicketDTO> response = ticketController.addAsync("Avatar", requestDTO).join();
+
+        assertThat(response.getBody()).isEqualTo(TicketDTO.from(savedTicket));
+        verify(bookingPipeline).book(any(Ticket.class));
+    }
+
+    @Test
+    @DisplayName("❌ Async booking refused when the booking executor is saturated")
+    void shouldRefuseAsyncBookingWhenSaturated() {
+        when(workloadExecutors.supply(eq(Workload.BOOKING), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("Too many booking requests, try again")));
+
+        CompletionException ex = assertThrows(CompletionException.class,
+                () -> ticketController.addAsync("Avatar", requestDTO).join());
+
+        assertThat(ex.getCause()).isInstanceOf(RejectedExecutionException.class);
+        verifyNoInteractions(bookingPipeline);
+    }
 }
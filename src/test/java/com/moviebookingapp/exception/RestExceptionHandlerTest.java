@@ -244,4 +244,36 @@ class RestExceptionHandlerTest {
         assertEquals(500, response.getBody().getStatus());
         assertEquals("Internal Server Error", response.getBody().getError());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void handleThrottled_ReturnsTooManyRequestsWithRetryAfter() {
+        LoginThrottledException ex = new LoginThrottledException("Too many login attempts", java.time.Duration.ofSeconds(42));
+
+        ResponseEntity<ApiError> response = exceptionHandler.handleThrottled(ex, request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("42", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Too many login attempts", response.getBody().getMessage());
+    }
+
+    @Test
+    void handleOverloaded_ReturnsServiceUnavailableWithRetryAfter() {
+        java.util.concurrent.RejectedExecutionException ex =
+                new java.util.concurrent.RejectedExecutionException("Too many bookings for this show, try again");
+
+        ResponseEntity<ApiError> response = exceptionHandler.handleOverloaded(ex, request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Too many bookings for this show, try again", response.getBody().getMessage());
+    }
+
+    @Test
+    void handleTimeout_ReturnsServiceUnavailableWithRetryAfter() {
+        ResponseEntity<ApiError> response = exceptionHandler.handleTimeout(new java.util.concurrent.TimeoutException(), request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Request did not complete in time", response.getBody().getMessage());
+    }
+}
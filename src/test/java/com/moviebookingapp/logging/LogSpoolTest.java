@@ -0,0 +1,84 @@
+package com.moviebookingapp.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_ReturnsUnshippedRecordsUntilCommitted() throws Exception {
+        try (LogSpool spool = LogSpool.open(directory.resolve("app.spool"), 1024)) {
+            assertTrue(spool.append(1000, bytes("booked")));
+            assertTrue(spool.append(2000, bytes("cancelled")));
+
+            LogSpool.Batch batch = spool.read(10);
+            assertEquals(List.of("booked", "cancelled"), strings(batch));
+            assertEquals(1000, spool.oldestTimestamp());
+            assertEquals(List.of("booked", "cancelled"), strings(spool.read(10)));
+
+            spool.commit(batch);
+            assertTrue(spool.read(10).isEmpty());
+            assertEquals(0, spool.usedBytes());
+            assertEquals(-1, spool.oldestTimestamp());
+        }
+    }
+
+    @Test
+    void append_WhenShipperIsBehind_RefusesInsteadOfOverwriting() throws Exception {
+        try (LogSpool spool = LogSpool.open(directory.resolve("app.spool"), 64)) {
+            assertTrue(spool.append(1, new byte[20]));
+            assertTrue(spool.append(2, new byte[20]));
+            assertFalse(spool.append(3, new byte[20]));
+
+            spool.commit(spool.read(1));
+            assertTrue(spool.append(3, new byte[20]));
+        }
+    }
+
+    @Test
+    void append_NearTheEnd_WrapsToTheStart() throws Exception {
+        try (LogSpool spool = LogSpool.open(directory.resolve("app.spool"), 64)) {
+            spool.append(1, bytes("aaaaaaaaaaaaaaaaaaaa"));
+            spool.append(2, bytes("bbbbbbbbbbbbbbbbbbbb"));
+            spool.commit(spool.read(2));
+
+            assertTrue(spool.append(3, bytes("cccccccccccccccccccc")));
+            assertEquals(List.of("cccccccccccccccccccc"), strings(spool.read(10)));
+            assertEquals(3, spool.oldestTimestamp());
+        }
+    }
+
+    @Test
+    void open_AfterRestart_KeepsUnshippedRecords() throws Exception {
+        Path file = directory.resolve("app.spool");
+        try (LogSpool spool = LogSpool.open(file, 1024)) {
+            spool.append(1, bytes("shipped"));
+            spool.commit(spool.read(1));
+            spool.append(2, bytes("pending"));
+        }
+
+        try (LogSpool spool = LogSpool.open(file, 1024)) {
+            assertEquals(List.of("pending"), strings(spool.read(10)));
+        }
+        try (LogSpool spool = LogSpool.open(file, 2048)) {
+            assertTrue(spool.read(10).isEmpty());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(LogSpool.Batch batch) {
+        return batch.payloads().stream().map(payload -> new String(payload, StandardCharsets.UTF_8)).toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.moviebookingapp.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.util.FileSize;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpoolingKafkaAppenderTest {
+
+    @TempDir
+    Path directory;
+
+    private final LoggerContext context = new LoggerContext();
+    private MockProducer<byte[], byte[]> producer;
+    private SpoolingKafkaAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%msg");
+        encoder.start();
+        appender = new SpoolingKafkaAppender() {
+            @Override
+            protected Producer<byte[], byte[]> createProducer() {
+                return producer;
+            }
+        };
+        appender.setContext(context);
+        appender.setName("KAFKA");
+        appender.setEncoder(encoder);
+        appender.setTopic("app-logs");
+        appender.setSpoolFile(directory.resolve("app.spool").toString());
+        appender.setShipInterval(ch.qos.logback.core.util.Duration.buildByMilliseconds(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        appender.stop();
+    }
+
+    @Test
+    void append_ShipsEventsThroughTheSpool() throws Exception {
+        producer = new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer());
+        appender.start();
+
+        appender.doAppend(event("Ticket booked"));
+        appender.doAppend(event("Ticket cancelled"));
+
+        await(() -> appender.shipped() == 2);
+        assertEquals("Ticket booked", new String(producer.history().get(0).value(), StandardCharsets.UTF_8));
+        assertEquals("app-logs", producer.history().get(1).topic());
+        assertEquals(0, appender.spoolUsedBytes());
+        assertEquals(0, appender.shippingLagMillis());
+    }
+
+    @Test
+    void append_WhileBrokerIsDown_KeepsEventsSpooledAndRetries() throws Exception {
+        producer = new MockProducer<>(false, new ByteArraySerializer(), new ByteArraySerializer());
+        appender.start();
+
+        appender.doAppend(event("Ticket booked"));
+
+        await(() -> producer.history().size() == 1);
+        assertTrue(producer.errorNext(new TimeoutException("broker down")));
+        assertEquals(0, appender.shipped());
+        assertTrue(appender.spoolUsedBytes() > 0);
+
+        await(() -> producer.history().size() == 2);
+        assertTrue(producer.completeNext());
+        await(() -> appender.shipped() == 1);
+        assertEquals(0, appender.spoolUsedBytes());
+    }
+
+    @Test
+    void append_WhenSpoolIsFull_DropsAndCounts() throws Exception {
+        producer = new MockProducer<>(false, new ByteArraySerializer(), new ByteArraySerializer());
+        appender.setSpoolSize(FileSize.valueOf("64"));
+        appender.start();
+
+        appender.doAppend(event("x".repeat(40)));
+        appender.doAppend(event("y".repeat(40)));
+
+        await(() -> appender.spoolDropped() == 1);
+        assertEquals(0, appender.ringDropped());
+    }
+
+    private LoggingEvent event(String message) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerContext(context);
+        event.setLoggerName("com.moviebookingapp.service.TicketService");
+        event.setLevel(Level.INFO);
+        event.setMessage(message);
+        event.setThreadName("http-nio-1");
+        event.setInstant(Instant.now());
+        return event;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+}
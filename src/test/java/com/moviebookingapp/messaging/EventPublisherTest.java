@@ -0,0 +1,149 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.store.SpillBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @TempDir
+    Path directory;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CompletableFuture<SendResult<String, String>> inFlight = new CompletableFuture<>();
+    private SpillBuffer spillBuffer;
+    private EventPublisher publisher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        spillBuffer = SpillBuffer.open(directory, 1024 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (publisher != null) {
+            publisher.destroy();
+        }
+        spillBuffer.close();
+    }
+
+    @Test
+    void publish_AcknowledgedSend_RecordsLatencyAndFreesPermit() {
+        when(kafkaTemplate.send(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|2")).thenReturn(inFlight);
+        publisher = new EventPublisher(kafkaTemplate, meterRegistry, 2, Duration.ofMillis(10), null, Duration.ofHours(1));
+
+        publisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|2");
+        assertEquals(1, publisher.pending());
+
+        inFlight.complete(null);
+        assertEquals(0, publisher.pending());
+        assertEquals(1, meterRegistry.get("moviebooking.kafka.send").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void publish_WithoutSpill_DropsAfterMaxBlockWhenProducerIsFull() {
+        when(kafkaTemplate.send(anyString(), any(), anyString())).thenReturn(inFlight);
+        publisher = new EventPublisher(kafkaTemplate, meterRegistry, 1, Duration.ofMillis(10), null, Duration.ofHours(1));
+
+        publisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|2");
+        publisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|3");
+
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), anyString());
+        assertEquals(1, meterRegistry.get("moviebooking.kafka.dropped").counter().count());
+    }
+
+    @Test
+    void publish_WhenProducerIsFull_SpillsAndKeepsLaterEventsBehindTheBacklog() {
+        when(kafkaTemplate.send(anyString(), any(), anyString())).thenReturn(inFlight);
+        publisher = new EventPublisher(kafkaTemplate, meterRegistry, 1, Duration.ofMillis(10), spillBuffer, Duration.ofHours(1));
+
+        publisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|2");
+        publisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|3");
+        inFlight.complete(null);
+        publisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|4");
+
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), anyString());
+        assertEquals(2, spillBuffer.pending());
+        assertEquals(2, meterRegistry.get("moviebooking.kafka.spilled").tag("reason", "backlog").counter().count());
+    }
+
+    @Test
+    void publish_FailedSend_IsSpilledAndReplayedByTheDrain() {
+        when(kafkaTemplate.send(AppConstants.KAFKA_TOPIC_STATUS, "avatar|pvr", "Avatar|PVR|SOLD OUT|0"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        publisher = new EventPublisher(kafkaTemplate, meterRegistry, 4, Duration.ofMillis(10), spillBuffer, Duration.ofHours(1));
+
+        publisher.publish(AppConstants.KAFKA_TOPIC_STATUS, "avatar|pvr", "Avatar|PVR|SOLD OUT|0");
+        await().atMost(Duration.ofSeconds(5)).until(() -> spillBuffer.pending() == 1);
+        assertEquals(1, meterRegistry.get("moviebooking.kafka.send").tag("outcome", "failure").timer().count());
+
+        publisher.drain();
+
+        verify(kafkaTemplate, times(2)).send(AppConstants.KAFKA_TOPIC_STATUS, "avatar|pvr", "Avatar|PVR|SOLD OUT|0");
+        assertEquals(0, spillBuffer.pending());
+        assertEquals(1, meterRegistry.get("moviebooking.kafka.spill.replayed").counter().count());
+        assertEquals(0, publisher.pending());
+    }
+
+    @Test
+    void drain_FailedReplay_KeepsTheSegmentInOrderForTheNextDrain() throws Exception {
+        spillBuffer.append(new SpillBuffer.SpilledEvent(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|2"));
+        spillBuffer.append(new SpillBuffer.SpilledEvent(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|3"));
+        when(kafkaTemplate.send(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|2"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|3"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        publisher = new EventPublisher(kafkaTemplate, meterRegistry, 4, Duration.ofMillis(10), spillBuffer, Duration.ofHours(1));
+
+        publisher.drain();
+
+        assertEquals(2, spillBuffer.pending());
+        assertTrue(meterRegistry.find("moviebooking.kafka.spilled").counters().isEmpty());
+
+        publisher.drain();
+
+        InOrder order = inOrder(kafkaTemplate);
+        order.verify(kafkaTemplate).send(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|2");
+        order.verify(kafkaTemplate).send(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|3");
+        order.verify(kafkaTemplate).send(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|2");
+        order.verify(kafkaTemplate).send(AppConstants.KAFKA_TOPIC_TICKETS, null, "Avatar|PVR|3");
+        assertEquals(0, spillBuffer.pending());
+        assertEquals(2, meterRegistry.get("moviebooking.kafka.spill.replayed").counter().count());
+    }
+
+    @Test
+    void publish_WhenTemplateThrows_DoesNotPropagate() {
+        when(kafkaTemplate.send(anyString(), any(), anyString())).thenThrow(new IllegalStateException("producer closed"));
+        publisher = new EventPublisher(kafkaTemplate, meterRegistry, 1, Duration.ofMillis(10), null, Duration.ofHours(1));
+
+        assertDoesNotThrow(() -> publisher.publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|2"));
+        assertEquals(0, publisher.pending());
+    }
+}
@@ -0,0 +1,220 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.service.MovieService;
+import com.moviebookingapp.service.SalesAnalyticsService;
+import com.moviebookingapp.service.SalesAnalyticsService.TicketSale;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.actuate.autoconfigure.metrics.KafkaMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@EmbeddedKafka(partitions = 1, topics = AppConstants.KAFKA_TOPIC_TICKETS)
+class MessagingServiceIntegrationTest {
+    private static final String DEAD_LETTER_TOPIC = AppConstants.KAFKA_TOPIC_TICKETS + "-dlt";
+
+    private ConfigurableApplicationContext context;
+    private MovieService movieService;
+    private MeterRegistry meterRegistry;
+
+    @Configuration
+    @ImportAutoConfiguration({KafkaAutoConfiguration.class, KafkaMetricsAutoConfiguration.class})
+    @Import({MessagingService.class, EventPublisher.class})
+    static class ListenerNode {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        MovieService movieService() {
+            return mock(MovieService.class);
+        }
+
+        @Bean
+        ShowStatusBroadcaster showStatusBroadcaster() {
+            return mock(ShowStatusBroadcaster.class);
+        }
+
+        @Bean
+        SalesAnalyticsService salesAnalyticsService() {
+            return mock(SalesAnalyticsService.class);
+        }
+    }
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        context = new SpringApplicationBuilder(ListenerNode.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--spring.kafka.consumer.auto-offset-reset=earliest",
+                        "--moviebooking.kafka.retry.initial-delay=10",
+                        "--moviebooking.kafka.retry.max-delay=50");
+        movieService = context.getBean(MovieService.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+        when(movieService.computeAndUpdateAvailability(anyString(), anyString()))
+                .thenReturn(new BookedInfoDTO(2, 98, "BOOK ASAP"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void failingShowIsRetriedWithBackoffThenDeadLetteredWithoutBlockingOthers() {
+        when(movieService.computeAndUpdateAvailability("Gone", "PVR"))
+                .thenThrow(new IllegalArgumentException("Movie not found"));
+
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, "Gone|PVR|2"));
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|IMAX|2"));
+
+        await().atMost(Duration.ofSeconds(60)).untilAsserted(() -> {
+            verify(movieService).computeAndUpdateAvailability("Avatar", "IMAX");
+            verify(movieService, times(4)).computeAndUpdateAvailability("Gone", "PVR");
+            assertEquals(3.0, sum("moviebooking.kafka.retries"));
+            assertTrue(sum("moviebooking.kafka.dead-letters") >= 1.0);
+        });
+    }
+
+    @Test
+    void poisonPillGoesStraightToDeadLetterTopicWithOriginalHeaders(EmbeddedKafkaBroker broker) {
+        ProducerRecord<String, String> poison = new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, "Poison|PVR|many");
+        poison.headers().add("trace-id", "abc123".getBytes(StandardCharsets.UTF_8));
+        send(poison);
+
+        ConsumerRecord<String, String> parked = readDeadLetter(broker, "Poison|PVR|many");
+
+        assertEquals("abc123", header(parked, "trace-id"));
+        assertEquals(AppConstants.KAFKA_TOPIC_TICKETS, header(parked, KafkaHeaders.ORIGINAL_TOPIC));
+        assertTrue(header(parked, KafkaHeaders.EXCEPTION_MESSAGE).contains("Bad ticket count"));
+        verify(movieService, never()).computeAndUpdateAvailability(eq("Poison"), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ticketEventsAreFoldedIntoSalesRollupsWithTheirBookingTime() {
+        SalesAnalyticsService salesAnalyticsService = context.getBean(SalesAnalyticsService.class);
+        Instant bookedAt = Instant.parse("2026-03-14T09:30:00Z");
+        Instant replayedAt = Instant.parse("2026-03-14T11:05:00Z");
+        Instant legacyPublishedAt = Instant.parse("2026-03-14T10:15:00Z");
+        // A spilled event is re-sent, and timestamped, long after the booking it describes.
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, null, replayedAt.toEpochMilli(), null,
+                "Rollup|PVR|3|" + bookedAt.toEpochMilli()));
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, null, legacyPublishedAt.toEpochMilli(), null,
+                "Rollup|IMAX|2"));
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, "Rollup|PVR|lots"));
+
+        ArgumentCaptor<List<TicketSale>> batches = ArgumentCaptor.forClass(List.class);
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            verify(salesAnalyticsService, atLeastOnce()).record(batches.capture());
+            List<TicketSale> sales = batches.getAllValues().stream().flatMap(List::stream)
+                    .filter(sale -> sale.movieName().equals("Rollup")).toList();
+            assertEquals(2, sales.size());
+            TicketSale pvr = sales.stream().filter(sale -> sale.theatreName().equals("PVR")).findFirst().orElseThrow();
+            TicketSale imax = sales.stream().filter(sale -> sale.theatreName().equals("IMAX")).findFirst().orElseThrow();
+            assertEquals(3, pvr.tickets());
+            assertEquals(bookedAt, pvr.bookedAt());
+            assertEquals(legacyPublishedAt, imax.bookedAt());
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cancellationsTakeTheirSeatsBackOutOfTheSalesRollups() {
+        SalesAnalyticsService salesAnalyticsService = context.getBean(SalesAnalyticsService.class);
+        Instant bookedAt = Instant.parse("2026-03-14T09:30:00Z");
+        Instant cancelledAt = Instant.parse("2026-03-14T12:00:00Z");
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS,
+                "Refund|PVR|2|" + bookedAt.toEpochMilli() + "|CANCELLED"));
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, null, cancelledAt.toEpochMilli(), null,
+                "Refund|IMAX|1||SEATS_RELEASED"));
+
+        ArgumentCaptor<List<TicketSale>> batches = ArgumentCaptor.forClass(List.class);
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            verify(salesAnalyticsService, atLeastOnce()).record(batches.capture());
+            List<TicketSale> sales = batches.getAllValues().stream().flatMap(List::stream)
+                    .filter(sale -> sale.movieName().equals("Refund")).toList();
+            assertEquals(2, sales.size());
+            TicketSale pvr = sales.stream().filter(sale -> sale.theatreName().equals("PVR")).findFirst().orElseThrow();
+            TicketSale imax = sales.stream().filter(sale -> sale.theatreName().equals("IMAX")).findFirst().orElseThrow();
+            assertEquals(-2, pvr.tickets());
+            assertEquals(-1, pvr.bookings());
+            assertEquals(bookedAt, pvr.bookedAt());
+            assertEquals(-1, imax.tickets());
+            assertEquals(0, imax.bookings());
+            assertEquals(cancelledAt, imax.bookedAt());
+        });
+        verify(movieService, never()).computeAndUpdateAvailability(eq("Refund"), anyString());
+    }
+
+    @Test
+    void consumerLagIsPublishedAsAGauge() {
+        send(new ProducerRecord<>(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|1"));
+
+        await().atMost(Duration.ofSeconds(30)).until(() ->
+                !meterRegistry.find("kafka.consumer.fetch.manager.records.lag.max").gauges().isEmpty());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void send(ProducerRecord<String, String> record) {
+        context.getBean(KafkaTemplate.class).send(record);
+    }
+
+    private ConsumerRecord<String, String> readDeadLetter(EmbeddedKafkaBroker broker, String payload) {
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(
+                KafkaTestUtils.consumerProps("dlt-reader", "false", broker),
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            consumer.subscribe(List.of(DEAD_LETTER_TOPIC));
+            List<ConsumerRecord<String, String>> seen = new ArrayList<>();
+            await().atMost(Duration.ofSeconds(30)).until(() -> {
+                consumer.poll(Duration.ofMillis(200)).forEach(seen::add);
+                return seen.stream().anyMatch(r -> payload.equals(r.value()));
+            });
+            return seen.stream().filter(r -> payload.equals(r.value())).findFirst().orElseThrow();
+        }
+    }
+
+    private double sum(String counter) {
+        return meterRegistry.find(counter).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,115 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.service.ShowCache;
+import com.moviebookingapp.service.ShowChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@EmbeddedKafka(partitions = 1, topics = AppConstants.KAFKA_TOPIC_INVALIDATION)
+class ShowInvalidationBusIntegrationTest {
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @Configuration
+    @ImportAutoConfiguration(KafkaAutoConfiguration.class)
+    @Import({ShowInvalidationBus.class, EventPublisher.class})
+    static class BusNode {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        RecordingCache recordingCache() {
+            return new RecordingCache();
+        }
+    }
+
+    static class RecordingCache implements ShowCache {
+        final List<String> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void invalidate(String movieName, String theatreName) {
+            calls.add("invalidate:" + movieName + "|" + theatreName);
+        }
+
+        @Override
+        public void refresh(String movieName, String theatreName, int totalTickets, int booked) {
+            calls.add("refresh:" + movieName + "|" + theatreName + "|" + totalTickets + "|" + booked);
+        }
+    }
+
+    private ConfigurableApplicationContext startNode(EmbeddedKafkaBroker broker) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BusNode.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "--spring.kafka.consumer.auto-offset-reset=latest",
+                        "--moviebooking.invalidation.offset-reset=latest");
+        for (MessageListenerContainer container : context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, 1);
+        }
+        return context;
+    }
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        nodeA = startNode(broker);
+        nodeB = startNode(broker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void changeOnOneNodeIsAppliedOnTheOtherOnly() {
+        nodeA.publishEvent(new ShowChangedEvent("Avatar", "PVR", 100, 40));
+        nodeA.publishEvent(ShowChangedEvent.invalidated("Avatar", "IMAX"));
+
+        RecordingCache cacheA = nodeA.getBean(RecordingCache.class);
+        RecordingCache cacheB = nodeB.getBean(RecordingCache.class);
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> assertEquals(
+                List.of("refresh:Avatar|PVR|100|40", "invalidate:Avatar|IMAX"), cacheB.calls));
+        assertTrue(cacheA.calls.isEmpty());
+    }
+
+    @Test
+    void newerLocalChangeWinsOverOlderRemoteMessage() {
+        ShowInvalidationBus busB = nodeB.getBean(ShowInvalidationBus.class);
+        nodeA.publishEvent(new ShowChangedEvent("Avatar", "PVR", 100, 40));
+        RecordingCache cacheB = nodeB.getBean(RecordingCache.class);
+        await().atMost(Duration.ofSeconds(30)).until(() -> cacheB.calls.size() == 1);
+
+        // An older message from another node arriving late must not resurrect stale data.
+        busB.onRemoteChange("1|node-c|Avatar|PVR|100|10");
+
+        assertEquals(List.of("refresh:Avatar|PVR|100|40"), cacheB.calls);
+    }
+}
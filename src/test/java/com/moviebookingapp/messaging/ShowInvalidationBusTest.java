@@ -0,0 +1,118 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.service.ShowCache;
+import com.moviebookingapp.service.ShowChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShowInvalidationBusTest {
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<ShowCache> caches;
+
+    @Mock
+    private ShowCache cache;
+
+    private ShowInvalidationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<ShowCache>>getArgument(0).accept(cache);
+            return null;
+        }).when(caches).forEach(any());
+        bus = new ShowInvalidationBus(eventPublisher, caches, new SimpleMeterRegistry(), Duration.ZERO);
+    }
+
+    @Test
+    void onShowChanged_PublishesKeyedVersionedPayload() {
+        bus.onShowChanged(new ShowChangedEvent("Avatar", "PVR", 100, 40));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(eventPublisher).publish(eq(AppConstants.KAFKA_TOPIC_INVALIDATION), eq("avatar|pvr"), payload.capture());
+        String[] parts = payload.getValue().split("\\|");
+        assertEquals(6, parts.length);
+        assertTrue(Long.parseLong(parts[0]) > 0);
+        assertEquals("Avatar", parts[2]);
+        assertEquals("100", parts[4]);
+        assertEquals("40", parts[5]);
+    }
+
+    @Test
+    void onShowChanged_CoalescesInvalidationsPerShowUntilFlushed() {
+        ShowInvalidationBus coalescing = new ShowInvalidationBus(eventPublisher, caches, new SimpleMeterRegistry(),
+                Duration.ofHours(1));
+        coalescing.onShowChanged(ShowChangedEvent.invalidated("Avatar", "PVR"));
+        coalescing.onShowChanged(ShowChangedEvent.invalidated("Avatar", "PVR"));
+        coalescing.onShowChanged(ShowChangedEvent.invalidated("Avatar", "IMAX"));
+        coalescing.onShowChanged(new ShowChangedEvent("Avatar", "INOX", 100, 40));
+
+        verify(eventPublisher).publish(eq(AppConstants.KAFKA_TOPIC_INVALIDATION), eq("avatar|inox"), anyString());
+        verifyNoMoreInteractions(eventPublisher);
+
+        coalescing.flush();
+        coalescing.flush();
+
+        verify(eventPublisher).publish(eq(AppConstants.KAFKA_TOPIC_INVALIDATION), eq("avatar|pvr"), endsWith("|-|-"));
+        verify(eventPublisher).publish(eq(AppConstants.KAFKA_TOPIC_INVALIDATION), eq("avatar|imax"), endsWith("|-|-"));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    void onRemoteChange_AppliesValuesAndInvalidations() {
+        bus.onRemoteChange("10|other-node|Avatar|PVR|100|40");
+        bus.onRemoteChange("11|other-node|Avatar|PVR|-|-");
+
+        verify(cache).refresh("Avatar", "PVR", 100, 40);
+        verify(cache).invalidate("Avatar", "PVR");
+    }
+
+    @Test
+    void onRemoteChange_IgnoresReorderedOlderVersion() {
+        bus.onRemoteChange("20|node-b|Avatar|PVR|100|41");
+        bus.onRemoteChange("19|node-a|Avatar|PVR|100|40");
+
+        verify(cache).refresh("Avatar", "PVR", 100, 41);
+        verify(cache, never()).refresh("Avatar", "PVR", 100, 40);
+    }
+
+    @Test
+    void onRemoteChange_IgnoresOlderThanLocalChange() {
+        bus.onShowChanged(new ShowChangedEvent("Avatar", "PVR", 100, 50));
+
+        bus.onRemoteChange("5|node-a|Avatar|PVR|100|40");
+
+        verifyNoInteractions(cache);
+    }
+
+    @Test
+    void onRemoteChange_IgnoresOwnAndMalformedMessages() {
+        bus.onShowChanged(ShowChangedEvent.invalidated("Avatar", "PVR"));
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(eventPublisher).publish(anyString(), anyString(), payload.capture());
+
+        bus.onRemoteChange(payload.getValue());
+        bus.onRemoteChange("garbage");
+        bus.onRemoteChange("x|node-a|Avatar|PVR|-|-");
+
+        verifyNoInteractions(cache);
+    }
+}
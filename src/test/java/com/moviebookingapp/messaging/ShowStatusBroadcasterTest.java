@@ -0,0 +1,102 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.dto.ShowStatusDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowStatusBroadcasterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static class CapturingEmitter extends SseEmitter {
+        private final List<SseEventBuilder> sent = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(builder);
+        }
+    }
+
+    private ShowStatusBroadcaster broadcaster(int bufferSize, Executor executor) {
+        return new ShowStatusBroadcaster(meterRegistry, bufferSize, Duration.ofMinutes(1), executor, 100, Duration.ofHours(1));
+    }
+
+    @Test
+    void publish_DeliversOnlyToSubscribersOfTheShow() {
+        ShowStatusBroadcaster broadcaster = broadcaster(4, Runnable::run);
+        CapturingEmitter pvr = new CapturingEmitter();
+        CapturingEmitter imax = new CapturingEmitter();
+        broadcaster.subscribe("Avatar", "PVR", pvr);
+        broadcaster.subscribe("Avatar", "IMAX", imax);
+
+        broadcaster.publish(new ShowStatusDTO("avatar", "pvr", "SOLD OUT", 0));
+
+        assertEquals(1, pvr.sent.size());
+        assertTrue(imax.sent.isEmpty());
+        assertEquals(2, broadcaster.subscriberCount());
+    }
+
+    @Test
+    void publish_KeepsLastKnownStatusForABoundedNumberOfShows() {
+        ShowStatusBroadcaster broadcaster = new ShowStatusBroadcaster(meterRegistry, 4, Duration.ofMinutes(1),
+                Runnable::run, 2, Duration.ofHours(1));
+
+        for (int i = 0; i < 50; i++) {
+            broadcaster.publish(new ShowStatusDTO("Avatar", "Theatre " + i, "BOOK ASAP", i));
+        }
+
+        assertTrue(broadcaster.lastKnownShows() <= 2);
+    }
+
+    @Test
+    void subscribe_ReceivesLastKnownStatusImmediately() {
+        ShowStatusBroadcaster broadcaster = broadcaster(4, Runnable::run);
+        broadcaster.publish(new ShowStatusDTO("Avatar", "PVR", "BOOK ASAP", 12));
+
+        CapturingEmitter late = new CapturingEmitter();
+        broadcaster.subscribe("Avatar", "PVR", late);
+
+        assertEquals(1, late.sent.size());
+    }
+
+    @Test
+    void publish_DropsSlowSubscriberWhenBufferOverflows() {
+        List<Runnable> pending = new ArrayList<>();
+        ShowStatusBroadcaster broadcaster = broadcaster(2, pending::add);
+        CapturingEmitter slow = new CapturingEmitter();
+        broadcaster.subscribe("Avatar", "PVR", slow);
+
+        broadcaster.publish(new ShowStatusDTO("Avatar", "PVR", "BOOK ASAP", 3));
+        broadcaster.publish(new ShowStatusDTO("Avatar", "PVR", "BOOK ASAP", 2));
+        broadcaster.publish(new ShowStatusDTO("Avatar", "PVR", "BOOK ASAP", 1));
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1.0, meterRegistry.counter("moviebooking.sse.dropped").count());
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void publish_RemovesSubscriberWhenSendFails() {
+        ShowStatusBroadcaster broadcaster = broadcaster(4, Runnable::run);
+        CapturingEmitter broken = new CapturingEmitter();
+        broken.failing = true;
+        broadcaster.subscribe("Avatar", "PVR", broken);
+
+        broadcaster.publish(new ShowStatusDTO("Avatar", "PVR", "SOLD OUT", 0));
+
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+}
@@ -0,0 +1,55 @@
+package com.moviebookingapp.messaging;
+
+import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.service.UserIdentityFilter;
+import com.moviebookingapp.service.UserRegisteredEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRegistrationBusTest {
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private UserIdentityFilter userIdentityFilter;
+    private UserRegistrationBus bus;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityFilter = new UserIdentityFilter(new SimpleMeterRegistry(), 1000, 0.01);
+        userIdentityFilter.markWarm();
+        bus = new UserRegistrationBus(eventPublisher, userIdentityFilter);
+    }
+
+    @Test
+    void onUserRegistered_PublishesKeyedByLoginId() {
+        bus.onUserRegistered(new UserRegisteredEvent("john", "john@example.com"));
+
+        verify(eventPublisher).publish(AppConstants.KAFKA_TOPIC_USERS, "john", "john@example.com");
+    }
+
+    @Test
+    void onRemoteRegistration_AddsToFilter() {
+        assertFalse(userIdentityFilter.mightBeRegistered("jane"));
+
+        bus.onRemoteRegistration("jane", "jane@example.com");
+
+        assertTrue(userIdentityFilter.mightBeRegistered("jane"));
+        assertTrue(userIdentityFilter.mightHaveEmail("jane@example.com"));
+    }
+
+    @Test
+    void onRemoteRegistration_MissingKey_Ignored() {
+        bus.onRemoteRegistration(null, "jane@example.com");
+
+        assertFalse(userIdentityFilter.mightHaveEmail("jane@example.com"));
+    }
+}
@@ -0,0 +1,145 @@
+package com.moviebookingapp.repository;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.orm.jpa.HibernateMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(MovieEntityCache.class)
+@ImportAutoConfiguration({MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
+        SimpleMetricsExportAutoConfiguration.class, HibernateMetricsAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NaturalIdCacheIntegrationTest {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MovieEntityCache movieEntityCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        movieRepository.save(Movie.builder().movieName("Inception").theatreName("PVR")
+                .totalTickets(100).status("BOOK ASAP").build());
+        userRepository.save(User.builder().firstName("John").lastName("Doe").email("john@example.com")
+                .loginId("john").passwordHash("$2a$10$abcdefghijklmnopqrstuv").contactNumber("9999999999").build());
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        movieRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void movieLookup_SecondCallIsServedFromCache() {
+        assertTrue(movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").isPresent());
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+
+        Movie movie = movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").orElseThrow();
+
+        assertEquals(100, movie.getTotalTickets());
+        assertEquals(statementsAfterFirst, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", "movies", "result", "hit").functionCounter().count() > 0);
+    }
+
+    @Test
+    void movieLookup_UnknownShowIsEmpty() {
+        assertTrue(movieRepository.findByMovieNameAndTheatreName("Inception", "IMAX").isEmpty());
+    }
+
+    @Test
+    void movieUpdate_IsVisibleThroughCache() {
+        Movie movie = movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").orElseThrow();
+        movie.setTotalTickets(150);
+        movieRepository.save(movie);
+
+        assertEquals(150, movieRepository.findByMovieNameAndTheatreName("Inception", "PVR")
+                .orElseThrow().getTotalTickets());
+    }
+
+    @Test
+    void remoteInvalidation_EvictsCachedMovie() {
+        Movie movie = movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").orElseThrow();
+        assertTrue(entityManagerFactory.getCache().contains(Movie.class, movie.getId()));
+
+        movieEntityCache.invalidate("inception", "pvr");
+
+        assertFalse(entityManagerFactory.getCache().contains(Movie.class, movie.getId()));
+    }
+
+    @Test
+    void remoteInvalidation_EvictsMovieCachedByAnyQuery() {
+        Movie movie = movieRepository.findAll().get(0);
+        assertTrue(entityManagerFactory.getCache().contains(Movie.class, movie.getId()));
+
+        movieEntityCache.invalidate("Inception", "PVR");
+
+        assertFalse(entityManagerFactory.getCache().contains(Movie.class, movie.getId()));
+    }
+
+    @Test
+    void staleCachedMovie_CannotOverwriteANewerRow() {
+        Movie cached = movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").orElseThrow();
+        // Another node changes the row; this node's cached copy is not told.
+        jdbcTemplate.update("UPDATE movies SET total_tickets = 150, version = version + 1 WHERE id = ?", cached.getId());
+
+        cached.setStatus("SOLD OUT");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> movieRepository.save(cached));
+
+        movieEntityCache.invalidate("Inception", "PVR");
+        assertEquals(150, movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").orElseThrow().getTotalTickets());
+    }
+
+    @Test
+    void userLookup_PasswordResetElsewhereIsSeenOnTheNextLookup() {
+        User user = userRepository.findByLoginId("john").orElseThrow();
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+
+        jdbcTemplate.update("UPDATE users SET password_hash = ? WHERE login_id = ?", "$2a$10$zyxwvutsrqponmlkjihgfe", "john");
+
+        assertEquals("$2a$10$zyxwvutsrqponmlkjihgfe", userRepository.findByLoginId("john").orElseThrow().getPasswordHash());
+    }
+}
@@ -0,0 +1,166 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.LedgerEvent;
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.repository.InventorySnapshotRepository;
+import com.moviebookingapp.repository.LedgerEventRepository;
+import com.moviebookingapp.repository.MovieEntityCache;
+import com.moviebookingapp.repository.MovieRepository;
+import com.moviebookingapp.repository.TicketRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({MovieEntityCache.class, BookingLedger.class, LedgerReplayService.class})
+@TestPropertySource(properties = "moviebooking.ledger.snapshot-interval=5")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingLedgerIntegrationTest {
+
+    @Autowired
+    private BookingLedger bookingLedger;
+
+    @Autowired
+    private LedgerReplayService ledgerReplayService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private LedgerEventRepository ledgerEventRepository;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository.save(Movie.builder().movieName("Inception").theatreName("PVR")
+                .totalTickets(100).status("BOOK ASAP").build());
+        movieRepository.save(Movie.builder().movieName("Inception").theatreName("IMAX")
+                .totalTickets(50).status("BOOK ASAP").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEventRepository.deleteAll();
+        snapshotRepository.deleteAll();
+        ticketRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void inventory_WithoutLedger_FallsBackToTickets() {
+        ticketRepository.save(ticket("PVR", 3));
+
+        ShowInventory inventory = bookingLedger.inventory("Inception", "PVR");
+
+        assertEquals(3, inventory.booked());
+        assertEquals(0, inventory.sequence());
+    }
+
+    @Test
+    void append_StartsFromTicketBaselineAndSnapshotsEveryInterval() {
+        ticketRepository.save(ticket("PVR", 3));
+
+        bookingLedger.recordCapacityChanged("Inception", "PVR", 120);
+        for (int i = 0; i < 6; i++) {
+            bookingLedger.recordBooked("Inception", "PVR", 2, "john");
+        }
+        bookingLedger.recordCancelled("Inception", "PVR", 1, "john");
+
+        ShowInventory inventory = bookingLedger.inventory("Inception", "PVR");
+        assertEquals(new ShowInventory(8, 120, 3 + 12 - 1), inventory);
+        // Baseline at 0 and a periodic snapshot at 5, so reads replay at most four events.
+        assertEquals(List.of(0L, 5L), snapshotRepository.findAll().stream()
+                .map(s -> s.getSequence()).sorted().toList());
+        assertEquals(inventory, ledgerReplayService.replay("Inception", "PVR"));
+    }
+
+    @Test
+    void recordBookings_AppendsOneEventPerTicketAndSnapshotsAcrossTheInterval() {
+        bookingLedger.recordBooked("Inception", "PVR", 1, "john");
+        List<Ticket> batch = List.of(ticket("PVR", 2), ticket("PVR", 3), ticket("PVR", 1),
+                ticket("PVR", 2), ticket("PVR", 4));
+
+        LedgerEvent last = bookingLedger.recordBookings("Inception", "PVR", batch);
+
+        assertEquals(6, last.getSequence());
+        ShowInventory inventory = bookingLedger.inventory("Inception", "PVR");
+        assertEquals(new ShowInventory(6, null, 13), inventory);
+        // The batch crossed sequence 5, so it ends with a snapshot at its last event.
+        assertEquals(List.of(0L, 6L), snapshotRepository.findAll().stream()
+                .map(s -> s.getSequence()).sorted().toList());
+        assertEquals(inventory, ledgerReplayService.replay("Inception", "PVR"));
+    }
+
+    @Test
+    void replayAll_ReplaysEveryShowAndAuditFindsNoMismatch() {
+        for (int i = 0; i < 7; i++) {
+            bookingLedger.recordBooked("Inception", "PVR", 1, "john");
+            bookingLedger.recordBooked("Inception", "IMAX", 2, "jane");
+        }
+
+        Map<LedgerReplayService.Show, ShowInventory> replayed = ledgerReplayService.replayAll();
+
+        assertEquals(7, replayed.get(new LedgerReplayService.Show("Inception", "PVR")).booked());
+        assertEquals(14, replayed.get(new LedgerReplayService.Show("Inception", "IMAX")).booked());
+        assertTrue(ledgerReplayService.audit().isEmpty());
+    }
+
+    @Test
+    void audit_ReportsSnapshotThatDisagreesWithLedger() {
+        for (int i = 0; i < 5; i++) {
+            bookingLedger.recordBooked("Inception", "PVR", 1, "john");
+        }
+        snapshotRepository.findAll().stream()
+                .filter(s -> s.getSequence() == 5)
+                .forEach(snapshotRepository::delete);
+        snapshotRepository.save(bookingLedger.snapshot("Inception", "PVR", new ShowInventory(5, null, 42)));
+
+        Map<LedgerReplayService.Show, String> mismatches = ledgerReplayService.audit();
+
+        assertEquals(1, mismatches.size());
+        assertTrue(mismatches.containsKey(new LedgerReplayService.Show("Inception", "PVR")));
+    }
+
+    @Test
+    void rebuildSnapshots_WritesSnapshotAtEndOfEachLedger() {
+        for (int i = 0; i < 3; i++) {
+            bookingLedger.recordBooked("Inception", "PVR", 1, "john");
+        }
+
+        assertEquals(1, ledgerReplayService.rebuildSnapshots());
+        assertEquals(0, ledgerReplayService.rebuildSnapshots());
+        assertEquals(3, snapshotRepository.findFirstByMovieNameAndTheatreNameOrderBySequenceDesc("Inception", "PVR")
+                .orElseThrow().getSequence());
+    }
+
+    @Test
+    void append_UnknownShow_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingLedger.recordBooked("Unknown", "PVR", 1, "john"));
+    }
+
+    private static Ticket ticket(String theatre, int count) {
+        List<String> seats = java.util.stream.IntStream.range(0, count).mapToObj(i -> "A" + i).toList();
+        return Ticket.builder().movieName("Inception").theatreName(theatre).numberOfTickets(count)
+                .seatNumbers(seats).userLoginId("legacy").build();
+    }
+}
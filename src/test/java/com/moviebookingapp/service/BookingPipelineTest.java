@@ -0,0 +1,178 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Ticket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingPipelineTest {
+
+    @Mock
+    private TicketService ticketService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final Executor manual = scheduled::add;
+
+    private BookingPipeline pipeline(boolean enabled, int queueCapacity, Executor executor) {
+        return new BookingPipeline(ticketService, meterRegistry, enabled, queueCapacity, 256,
+                Duration.ZERO, Duration.ofMillis(200), executor);
+    }
+
+    private Ticket ticket(String seat) {
+        return Ticket.builder()
+                .movieName("Avatar")
+                .theatreName("PVR")
+                .numberOfTickets(1)
+                .seatNumbers(new ArrayList<>(List.of(seat)))
+                .userLoginId("user1")
+                .build();
+    }
+
+    private void runScheduled() {
+        while (!scheduled.isEmpty()) {
+            scheduled.remove(0).run();
+        }
+    }
+
+    @Test
+    void disabled_BooksOnCallerThread() {
+        Ticket ticket = ticket("A1");
+        when(ticketService.bookTicket(ticket)).thenReturn(ticket);
+        BookingPipeline pipeline = pipeline(false, 4, manual);
+
+        assertSame(ticket, pipeline.book(ticket));
+        assertTrue(scheduled.isEmpty());
+        verify(ticketService, never()).bookBatch(any(), any(), anyList());
+    }
+
+    @Test
+    void disabled_PropagatesBookingErrors() {
+        Ticket ticket = ticket("A1");
+        when(ticketService.bookTicket(ticket)).thenThrow(new IllegalArgumentException("Seat A1 is already booked"));
+        BookingPipeline pipeline = pipeline(false, 4, manual);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> pipeline.book(ticket));
+        assertEquals("Seat A1 is already booked", ex.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enabled_CommitsQueuedBookingsOfAShowAsOneBatch() throws Exception {
+        when(ticketService.bookBatch(eq("Avatar"), eq("PVR"), anyList())).thenAnswer(invocation -> {
+            List<Ticket> tickets = invocation.getArgument(2);
+            return tickets.stream().map(BookingOutcome::booked).toList();
+        });
+        BookingPipeline pipeline = pipeline(true, 8, manual);
+
+        CompletableFuture<Ticket> first = pipeline.submit(ticket("A1"));
+        CompletableFuture<Ticket> second = pipeline.submit(ticket("A2"));
+        CompletableFuture<Ticket> third = pipeline.submit(ticket("A3"));
+        assertEquals(1, scheduled.size());
+        runScheduled();
+
+        ArgumentCaptor<List<Ticket>> batch = ArgumentCaptor.forClass(List.class);
+        verify(ticketService, times(1)).bookBatch(eq("Avatar"), eq("PVR"), batch.capture());
+        assertEquals(List.of("A1", "A2", "A3"),
+                batch.getValue().stream().map(t -> t.getSeatNumbers().get(0)).toList());
+        assertEquals("A1", first.get().getSeatNumbers().get(0));
+        assertEquals("A2", second.get().getSeatNumbers().get(0));
+        assertEquals("A3", third.get().getSeatNumbers().get(0));
+        assertEquals(3.0, meterRegistry.get("moviebooking.booking.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void enabled_RefusedBookingFailsOnlyItsOwnRequest() {
+        Ticket good = ticket("A1");
+        Ticket clash = ticket("A1");
+        when(ticketService.bookBatch(eq("Avatar"), eq("PVR"), anyList())).thenReturn(List.of(
+                BookingOutcome.booked(good),
+                BookingOutcome.refused(new IllegalArgumentException("Seat A1 is already booked"))));
+        BookingPipeline pipeline = pipeline(true, 8, manual);
+
+        CompletableFuture<Ticket> accepted = pipeline.submit(good);
+        CompletableFuture<Ticket> refused = pipeline.submit(clash);
+        runScheduled();
+
+        assertSame(good, accepted.join());
+        ExecutionException ex = assertThrows(ExecutionException.class, refused::get);
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+    }
+
+    @Test
+    void enabled_FailedBatchFailsEveryRequest() {
+        when(ticketService.bookBatch(eq("Avatar"), eq("PVR"), anyList()))
+                .thenThrow(new IllegalStateException("Movie not found"));
+        BookingPipeline pipeline = pipeline(true, 8, manual);
+
+        CompletableFuture<Ticket> first = pipeline.submit(ticket("A1"));
+        CompletableFuture<Ticket> second = pipeline.submit(ticket("A2"));
+        runScheduled();
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+    }
+
+    @Test
+    void enabled_FullQueueRejectsWithoutWaiting() {
+        BookingPipeline pipeline = pipeline(true, 1, manual);
+
+        pipeline.submit(ticket("A1"));
+        CompletableFuture<Ticket> overflow = pipeline.submit(ticket("A2"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, overflow::get);
+        assertInstanceOf(RejectedExecutionException.class, ex.getCause());
+        assertEquals(1.0, meterRegistry.get("moviebooking.booking.rejected").counter().count());
+    }
+
+    @Test
+    void enabled_BookingStillQueuedAtTimeoutIsWithdrawn() {
+        BookingPipeline pipeline = pipeline(true, 4, manual);
+
+        assertThrows(RejectedExecutionException.class, () -> pipeline.book(ticket("A1")));
+        runScheduled();
+
+        verify(ticketService, never()).bookBatch(any(), any(), anyList());
+    }
+
+    @Test
+    void enabled_WriterThreadsDrainConcurrentSubmissions() {
+        when(ticketService.bookBatch(eq("Avatar"), eq("PVR"), anyList())).thenAnswer(invocation -> {
+            List<Ticket> tickets = invocation.getArgument(2);
+            return tickets.stream().map(BookingOutcome::booked).toList();
+        });
+        java.util.concurrent.ExecutorService writers = java.util.concurrent.Executors.newFixedThreadPool(2);
+        BookingPipeline pipeline = new BookingPipeline(ticketService, meterRegistry, true, 256, 16,
+                Duration.ofMillis(1), Duration.ofSeconds(5), writers);
+        try {
+            List<CompletableFuture<Ticket>> futures = new ArrayList<>();
+            for (int i = 1; i <= 100; i++) {
+                futures.add(pipeline.submit(ticket("A" + i)));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+            assertEquals(100.0, meterRegistry.get("moviebooking.booking.batch.size").summary().totalAmount());
+            assertTrue(meterRegistry.get("moviebooking.booking.batch.size").summary().count() < 100);
+        } finally {
+            pipeline.destroy();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.moviebookingapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogueVersionTest {
+
+    private final CatalogueVersion version = new CatalogueVersion();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void localChange_AdvancesVersionAndETag() {
+        CatalogueVersion.Stamp before = version.current();
+
+        version.onShowChanged(ShowChangedEvent.invalidated("Avatar", "PVR"));
+
+        assertEquals(before.version() + 1, version.current().version());
+        assertNotEquals(before.etag(), version.current().etag());
+    }
+
+    @Test
+    void remoteChange_AdvancesVersion() {
+        version.refresh("Avatar", "PVR", 100, 10);
+        version.invalidate("Avatar", "IMAX");
+
+        assertEquals(2, version.current().version());
+    }
+
+    @Test
+    void changeInsideTransaction_AdvancesAgainOnCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        version.onShowChanged(ShowChangedEvent.invalidated("Avatar", "PVR"));
+        long duringTransaction = version.current().version();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(1, duringTransaction);
+        assertEquals(2, version.current().version());
+    }
+
+    @Test
+    void etag_DiffersBetweenInstancesAtTheSameVersion() {
+        CatalogueVersion other = new CatalogueVersion();
+
+        assertEquals(version.current().version(), other.current().version());
+        assertNotEquals(version.current().etag(), other.current().etag());
+        assertTrue(version.current().etag().startsWith("\""));
+    }
+}
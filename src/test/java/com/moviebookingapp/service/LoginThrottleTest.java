@@ -0,0 +1,131 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+        throttle = new LoginThrottle(meterRegistry, Duration.ofMinutes(1), 5, 3, 1000, clock);
+    }
+
+    @Test
+    void acquire_LoginIdLimitExceeded_Throws() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("john", "10.0.0." + i);
+        }
+
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> throttle.acquire("JOHN", "10.0.0.9"));
+        assertEquals(Duration.ofMinutes(1), ex.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("moviebooking.login.throttled").tag("limit", "login-id").counter().count());
+    }
+
+    @Test
+    void acquire_AddressLimitExceeded_Throws() {
+        for (int i = 0; i < 5; i++) {
+            throttle.acquire("user" + i, "10.0.0.1");
+        }
+
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire("other", "10.0.0.1"));
+        assertDoesNotThrow(() -> throttle.acquire("other", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("moviebooking.login.throttled").tag("limit", "address").counter().count());
+    }
+
+    @Test
+    void onSuccess_ClearsLoginIdWindow() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("john", "10.0.0.1");
+        }
+        throttle.onSuccess("john");
+
+        assertDoesNotThrow(() -> throttle.acquire("john", "10.0.0.1"));
+    }
+
+    @Test
+    void acquire_PreviousWindowDecaysAsWindowSlides() {
+        for (int i = 0; i < 3; i++) {
+            throttle.acquire("john", "10.0.0.1");
+        }
+
+        // Half-way into the next window, half of the previous three still count.
+        clock.advance(Duration.ofSeconds(90));
+        throttle.acquire("john", "10.0.0.1");
+        assertThrows(LoginThrottledException.class, () -> throttle.acquire("john", "10.0.0.1"));
+
+        // Two windows later nothing from the first burst counts any more.
+        clock.advance(Duration.ofSeconds(90));
+        for (int i = 0; i < 2; i++) {
+            throttle.acquire("john", "10.0.0.1");
+        }
+    }
+
+    @Test
+    void acquire_ConcurrentAttempts_NeverExceedLimit() throws InterruptedException {
+        LoginThrottle wide = new LoginThrottle(meterRegistry, Duration.ofMinutes(1), 10_000, 50, 1000, clock);
+        java.util.concurrent.atomic.AtomicInteger allowed = new java.util.concurrent.atomic.AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    try {
+                        wide.acquire("john", "10.0.0.1");
+                        allowed.incrementAndGet();
+                    } catch (LoginThrottledException ignored) {
+                        // expected once the limit is reached
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(50, allowed.get());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
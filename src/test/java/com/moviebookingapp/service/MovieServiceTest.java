@@ -1,19 +1,31 @@
 package com.moviebookingapp.service;
 
+import com.moviebookingapp.config.ReplicaRoutingContext;
 import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.repository.MovieEntityCache;
 import com.moviebookingapp.repository.MovieRepository;
-import com.moviebookingapp.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,7 +40,18 @@ class MovieServiceTest{
     private MovieRepository movieRepository;
 
     @Mock
-    private TicketRepository ticketRepository;
+    private BookingLedger bookingLedger;
+
+    @Mock
+    private ShowAvailabilityService showAvailabilityService;
+
+    @Mock
+    private MovieEntityCache movieEntityCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ShowComputationCoalescer coalescer = new ShowComputationCoalescer(meterRegistry);
 
     @InjectMocks
     private MovieService movieService;
@@ -97,6 +120,8 @@ class MovieServiceTest{
         // Assert
         assertEquals(testMovie, result);
         verify(movieRepository).save(testMovie);
+        verify(bookingLedger).recordCapacityChanged("Test Movie", "Test Theatre", 100);
+        verify(showAvailabilityService).evict("Test Movie", "Test Theatre");
     }
 
     @Test
@@ -112,19 +137,70 @@ class MovieServiceTest{
         verify(movieRepository).deleteById(movieId);
     }
 
+    @Test
+    void deleteMovieById_EvictsAvailabilitySnapshotAfterDeleting() {
+        Long movieId = 1L;
+        when(movieRepository.findById(movieId)).thenReturn(Optional.of(testMovie));
+
+        movieService.deleteMovieById(movieId);
+
+        InOrder order = inOrder(movieRepository, showAvailabilityService);
+        order.verify(movieRepository).deleteById(movieId);
+        order.verify(showAvailabilityService).evict("Test Movie", "Test Theatre");
+    }
+
     @Test
     void bookedCount_WithBookings() {
         // Arrange
         String movieName = "Test Movie";
         String theatreName = "Test Theatre";
-        when(ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName)).thenReturn(50L);
+        when(bookingLedger.inventory(movieName, theatreName)).thenReturn(booked(50));
 
         // Act
         int result = movieService.bookedCount(movieName, theatreName);
 
         // Assert
         assertEquals(50, result);
-        verify(ticketRepository).totalBookedForMovieAndTheatre(movieName, theatreName);
+        verify(bookingLedger).inventory(movieName, theatreName);
+    }
+
+    @Test
+    void bookedCount_PrimaryPinnedCaller_DoesNotJoinAReplicaRun() throws Exception {
+        String movieName = "Test Movie";
+        String theatreName = "Test Theatre";
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingLedger.inventory(movieName, theatreName)).thenAnswer(invocation -> {
+            if (!ReplicaRoutingContext.isPrimaryPinned()) {
+                release.await(5, TimeUnit.SECONDS);
+                return booked(40);
+            }
+            return booked(41);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> replicaRead = pool.submit(() -> movieService.bookedCount(movieName, theatreName));
+            while (calls("booked-count", "executed") < 1) {
+                Thread.sleep(5);
+            }
+
+            // Runs at once instead of queueing behind, or sharing, the replica-routed run.
+            Future<Integer> primaryRead = pool.submit(() -> {
+                ReplicaRoutingContext.begin(true, () -> {});
+                try {
+                    return movieService.bookedCount(movieName, theatreName);
+                } finally {
+                    ReplicaRoutingContext.clear();
+                }
+            });
+            assertEquals(41, primaryRead.get(1, TimeUnit.SECONDS));
+            release.countDown();
+
+            assertEquals(40, replicaRead.get(5, TimeUnit.SECONDS));
+            assertEquals(1.0, calls("booked-count-primary", "executed"));
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     @Test
@@ -132,14 +208,14 @@ class MovieServiceTest{
         // Arrange
         String movieName = "Test Movie";
         String theatreName = "Test Theatre";
-        when(ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName)).thenReturn(null);
+        when(bookingLedger.inventory(movieName, theatreName)).thenReturn(ShowInventory.EMPTY);
 
         // Act
         int result = movieService.bookedCount(movieName, theatreName);
 
         // Assert
         assertEquals(0, result);
-        verify(ticketRepository).totalBookedForMovieAndTheatre(movieName, theatreName);
+        verify(bookingLedger).inventory(movieName, theatreName);
     }
 
     @Test
@@ -151,7 +227,7 @@ class MovieServiceTest{
         
         when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
                 .thenReturn(Optional.of(testMovie));
-        when(ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName)).thenReturn(50L);
+        when(bookingLedger.currentInventory(movieName, theatreName)).thenReturn(booked(50));
         when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
 
         // Act
@@ -161,6 +237,7 @@ class MovieServiceTest{
         assertEquals("BOOK ASAP", result);
         assertEquals("BOOK ASAP", testMovie.getStatus());
         verify(movieRepository).save(testMovie);
+        verify(bookingLedger, never()).inventory(anyString(), anyString());
     }
 
     @Test
@@ -172,7 +249,7 @@ class MovieServiceTest{
         
         when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
                 .thenReturn(Optional.of(testMovie));
-        when(ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName)).thenReturn(100L);
+        when(bookingLedger.currentInventory(movieName, theatreName)).thenReturn(booked(100));
         when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
 
         // Act
@@ -184,6 +261,100 @@ class MovieServiceTest{
         verify(movieRepository).save(testMovie);
     }
 
+    @Test
+    void computeAndUpdateStatus_StaleCachedMovie_ReloadsAndRecomputes() {
+        String movieName = "Test Movie";
+        String theatreName = "Test Theatre";
+        Movie stale = Movie.builder().movieName(movieName).theatreName(theatreName).totalTickets(100).build();
+        Movie current = Movie.builder().movieName(movieName).theatreName(theatreName).totalTickets(40).version(1).build();
+
+        when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
+                .thenReturn(Optional.of(stale), Optional.of(current));
+        when(bookingLedger.currentInventory(movieName, theatreName)).thenReturn(booked(50));
+        when(movieRepository.save(stale)).thenThrow(new ObjectOptimisticLockingFailureException(Movie.class, 1L));
+        when(movieRepository.save(current)).thenReturn(current);
+
+        String result = movieService.computeAndUpdateStatus(movieName, theatreName);
+
+        assertEquals("SOLD OUT", result);
+        verify(movieEntityCache).invalidate(movieName, theatreName);
+        verify(showAvailabilityService).update(current, 50);
+        verify(showAvailabilityService, never()).update(eq(stale), anyInt());
+    }
+
+    @Test
+    void computeAndUpdateAvailability_ReturnsRemainingAndStatus() {
+        // Arrange
+        String movieName = "Test Movie";
+        String theatreName = "Test Theatre";
+        testMovie.setTotalTickets(100);
+
+        when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
+                .thenReturn(Optional.of(testMovie));
+        when(bookingLedger.currentInventory(movieName, theatreName)).thenReturn(booked(120));
+        when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
+
+        // Act
+        BookedInfoDTO result = movieService.computeAndUpdateAvailability(movieName, theatreName);
+
+        // Assert
+        assertEquals(120, result.getBooked());
+        assertEquals(0, result.getRemaining());
+        assertEquals("SOLD OUT", result.getStatus());
+        verify(showAvailabilityService).update(testMovie, 120);
+    }
+
+    @Test
+    void computeAndUpdateStatus_BurstDuringARun_HitsDatabaseOnceMore() throws Exception {
+        // Arrange
+        int callers = 8;
+        String movieName = "Test Movie";
+        String theatreName = "Test Theatre";
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
+                .thenReturn(Optional.of(testMovie));
+        when(bookingLedger.currentInventory(movieName, theatreName)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return booked(40);
+        });
+        when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
+
+        // Act - one call is running when the rest arrive, so they share a single follow-up run
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> movieService.computeAndUpdateStatus(movieName, theatreName)));
+            while (calls("availability", "executed") < 1) {
+                Thread.sleep(5);
+            }
+            for (int i = 1; i < callers; i++) {
+                results.add(pool.submit(() -> movieService.computeAndUpdateStatus(movieName, theatreName)));
+            }
+            while (calls("availability", "coalesced") < callers - 2) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<String> result : results) {
+                assertEquals("BOOK ASAP", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(movieRepository, times(2)).findByMovieNameAndTheatreName(movieName, theatreName);
+        verify(bookingLedger, times(2)).currentInventory(movieName, theatreName);
+        verify(movieRepository, times(2)).save(testMovie);
+        assertEquals(2.0, calls("availability", "executed"));
+    }
+
+    private double calls(String operation, String result) {
+        var counter = meterRegistry.find("moviebooking.show.computations")
+                .tags("operation", operation, "result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
     @Test
     void computeAndUpdateStatus_MovieNotFound() {
         // Arrange
@@ -205,9 +376,9 @@ class MovieServiceTest{
         int newTotal = 150;
         testMovie.setTotalTickets(100);
         
-        when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
+        when(movieRepository.lockByMovieNameAndTheatreName(movieName, theatreName))
                 .thenReturn(Optional.of(testMovie));
-        when(ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName)).thenReturn(50L);
+        when(bookingLedger.currentInventory(movieName, theatreName)).thenReturn(booked(50));
         when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
 
         // Act
@@ -218,6 +389,8 @@ class MovieServiceTest{
         assertEquals(newTotal, testMovie.getTotalTickets());
         assertEquals("BOOK ASAP", testMovie.getStatus());
         verify(movieRepository).save(testMovie);
+        verify(bookingLedger).recordCapacityChanged(movieName, theatreName, newTotal);
+        verify(showAvailabilityService).update(testMovie, 50);
     }
 
     @Test
@@ -232,7 +405,7 @@ class MovieServiceTest{
         // Arrange
         String movieName = "Non Existent Movie";
         String theatreName = "Test Theatre";
-        when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
+        when(movieRepository.lockByMovieNameAndTheatreName(movieName, theatreName))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -248,9 +421,9 @@ class MovieServiceTest{
         int newTotal = 50;
         testMovie.setTotalTickets(100);
         
-        when(movieRepository.findByMovieNameAndTheatreName(movieName, theatreName))
+        when(movieRepository.lockByMovieNameAndTheatreName(movieName, theatreName))
                 .thenReturn(Optional.of(testMovie));
-        when(ticketRepository.totalBookedForMovieAndTheatre(movieName, theatreName)).thenReturn(50L);
+        when(bookingLedger.currentInventory(movieName, theatreName)).thenReturn(booked(50));
         when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
 
         // Act
@@ -288,4 +461,8 @@ class MovieServiceTest{
         assertThrows(IllegalArgumentException.class, () -> 
             movieService.deleteMovie(movieName, theatreName));
     }
+
+    private static ShowInventory booked(int booked) {
+        return new ShowInventory(1, null, booked);
+    }
 }
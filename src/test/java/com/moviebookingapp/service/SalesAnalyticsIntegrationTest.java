@@ -0,0 +1,178 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.RollupGranularity;
+import com.moviebookingapp.domain.RollupScope;
+import com.moviebookingapp.domain.SalesRollup;
+import com.moviebookingapp.dto.SalesBucketDTO;
+import com.moviebookingapp.dto.SalesReportDTO;
+import com.moviebookingapp.repository.MovieEntityCache;
+import com.moviebookingapp.repository.MovieRepository;
+import com.moviebookingapp.repository.SalesRollupCheckpointRepository;
+import com.moviebookingapp.repository.SalesRollupRepository;
+import com.moviebookingapp.service.SalesAnalyticsService.TicketSale;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The rollup upsert is MySQL syntax, so this runs on the test profile's H2 in MySQL mode.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({MovieEntityCache.class, SalesAnalyticsService.class})
+class SalesAnalyticsIntegrationTest {
+    // Yesterday 09:00 UTC, well inside the default retention.
+    private static final Instant NINE = Instant.now().truncatedTo(ChronoUnit.DAYS).minus(Duration.ofHours(15));
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private SalesRollupRepository rollupRepository;
+
+    @Autowired
+    private SalesRollupCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void record_FoldsSalesIntoShowTheatreAndMovieBuckets() {
+        salesAnalyticsService.record(List.of(
+                sale(0, "Avatar", "PVR", 2, NINE.plusSeconds(60)),
+                sale(1, "Avatar", "PVR", 3, NINE.plusSeconds(1800)),
+                sale(2, "Avatar", "IMAX", 4, NINE.plusSeconds(3700)),
+                sale(3, "Inception", "PVR", 1, NINE.plusSeconds(120))));
+
+        SalesReportDTO show = report("Avatar", "PVR", RollupGranularity.HOUR);
+        assertEquals(List.of(new SalesBucketDTO(NINE, 5, 2), new SalesBucketDTO(NINE.plusSeconds(3600), 0, 0)),
+                show.buckets());
+
+        SalesReportDTO movie = report("avatar", null, RollupGranularity.HOUR);
+        assertEquals(9, movie.totalTickets());
+        assertEquals(4, movie.buckets().get(1).tickets());
+
+        SalesReportDTO theatre = report(null, "PVR", RollupGranularity.MINUTE);
+        assertEquals(6, theatre.totalTickets());
+        assertEquals(120, theatre.buckets().size());
+        assertEquals(new SalesBucketDTO(NINE.plusSeconds(120), 1, 1), theatre.buckets().get(2));
+
+        Instant midnight = NINE.truncatedTo(ChronoUnit.DAYS);
+        SalesReportDTO day = salesAnalyticsService.report("Avatar", null, RollupGranularity.DAY,
+                NINE, midnight.plus(Duration.ofDays(1)));
+        assertEquals(List.of(new SalesBucketDTO(midnight, 9, 3)), day.buckets());
+    }
+
+    @Test
+    void record_RedeliveredEvents_AreNotCountedTwice() {
+        assertEquals(2, salesAnalyticsService.record(List.of(
+                sale(10, "Avatar", "PVR", 2, NINE), sale(11, "Avatar", "PVR", 3, NINE))));
+
+        assertEquals(1, salesAnalyticsService.record(List.of(
+                sale(11, "Avatar", "PVR", 3, NINE), sale(12, "Avatar", "PVR", 1, NINE))));
+
+        assertEquals(6, report("Avatar", "PVR", RollupGranularity.HOUR).totalTickets());
+        assertEquals(12, checkpointRepository.findByPartition(0).orElseThrow().getLastOffset());
+    }
+
+    @Test
+    void record_CancellationsTakeSeatsBackOutOfTheirBookingBucket() {
+        salesAnalyticsService.record(List.of(
+                sale(0, "Avatar", "PVR", 3, NINE),
+                sale(1, "Avatar", "PVR", 2, NINE.plusSeconds(60)),
+                new TicketSale(0, 2, "Avatar", "PVR", -3, -1, NINE),
+                new TicketSale(0, 3, "Avatar", "PVR", -1, 0, NINE.plusSeconds(60))));
+
+        assertEquals(new SalesBucketDTO(NINE, 1, 1), report("Avatar", "PVR", RollupGranularity.HOUR).buckets().get(0));
+        assertEquals(1, report(null, "PVR", RollupGranularity.HOUR).totalTickets());
+        assertEquals(1, report("Avatar", null, RollupGranularity.HOUR).totalTickets());
+    }
+
+    @Test
+    void record_BucketAnotherConsumerCreated_IsAddedTo() {
+        rollupRepository.save(SalesRollup.builder().scope(RollupScope.THEATRE).granularity(RollupGranularity.HOUR)
+                .movieKey(SalesRollup.ANY).theatreKey("pvr").bucketStart(NINE).tickets(4).bookings(1).build());
+
+        salesAnalyticsService.record(List.of(sale(0, "Avatar", "PVR", 2, NINE)));
+
+        assertEquals(new SalesBucketDTO(NINE, 6, 2), report(null, "PVR", RollupGranularity.HOUR).buckets().get(0));
+        assertEquals(2, report("Avatar", "PVR", RollupGranularity.HOUR).totalTickets());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void record_LeavesCachedMoviesAlone() {
+        Movie movie = movieRepository.save(Movie.builder().movieName("Avatar").theatreName("PVR")
+                .totalTickets(100).status("BOOK ASAP").build());
+        try {
+            movieRepository.findByMovieNameAndTheatreName("Avatar", "PVR").orElseThrow();
+            assertTrue(entityManagerFactory.getCache().contains(Movie.class, movie.getId()));
+
+            salesAnalyticsService.record(List.of(sale(0, "Avatar", "PVR", 2, NINE)));
+
+            assertTrue(entityManagerFactory.getCache().contains(Movie.class, movie.getId()));
+        } finally {
+            movieRepository.delete(movie);
+            rollupRepository.deleteAll();
+            checkpointRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void record_PurgesExpiredMinuteBuckets() {
+        SalesAnalyticsService purging = new SalesAnalyticsService(rollupRepository, checkpointRepository, 1500,
+                Map.of(RollupGranularity.MINUTE, Duration.ofDays(7)), Duration.ofHours(1),
+                Clock.fixed(NINE.plus(Duration.ofDays(8)), ZoneOffset.UTC));
+
+        salesAnalyticsService.record(List.of(sale(0, "Avatar", "PVR", 2, NINE)));
+        purging.record(List.of(sale(1, "Avatar", "PVR", 1, NINE.plus(Duration.ofDays(8)))));
+
+        assertEquals(0, report("Avatar", "PVR", RollupGranularity.MINUTE).totalTickets());
+        assertEquals(2, report("Avatar", "PVR", RollupGranularity.HOUR).totalTickets());
+    }
+
+    @Test
+    void report_RequiresMovieOrTheatre() {
+        assertThrows(IllegalArgumentException.class, () -> report(" ", null, RollupGranularity.HOUR));
+    }
+
+    @Test
+    void report_RejectsTooManyBuckets() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                salesAnalyticsService.report("Avatar", null, RollupGranularity.MINUTE, NINE, NINE.plus(Duration.ofDays(2))));
+        assertTrue(error.getMessage().contains("at most 1500"));
+    }
+
+    @Test
+    void report_RejectsEmptyRange() {
+        assertThrows(IllegalArgumentException.class, () ->
+                salesAnalyticsService.report("Avatar", null, RollupGranularity.HOUR, NINE, NINE));
+    }
+
+    private SalesReportDTO report(String movieName, String theatreName, RollupGranularity granularity) {
+        return salesAnalyticsService.report(movieName, theatreName, granularity, NINE, NINE.plus(Duration.ofHours(2)));
+    }
+
+    private static TicketSale sale(long offset, String movieName, String theatreName, int tickets, Instant at) {
+        return new TicketSale(0, offset, movieName, theatreName, tickets, 1, at);
+    }
+}
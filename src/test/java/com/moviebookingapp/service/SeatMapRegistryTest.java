@@ -0,0 +1,95 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.SeatId;
+import com.moviebookingapp.repository.TicketRepository;
+import com.moviebookingapp.store.SeatMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatMapRegistryTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private SeatMapRegistry registry;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SeatMapRegistry(ticketRepository, new SimpleMeterRegistry(), 10, 100, Duration.ofHours(1));
+        movie = Movie.builder().movieName("Inception").theatreName("PVR").totalTickets(25).build();
+    }
+
+    @Test
+    void seatMap_LoadsBookedSeatsOnceAndReusesWhileLedgerUnchanged() {
+        when(ticketRepository.streamSeatNumbers("Inception", "PVR")).thenAnswer(i -> Stream.of("A1", "C5"));
+
+        SeatMap first = registry.seatMap(movie, new ShowInventory(4, 25, 2));
+        SeatMap second = registry.seatMap(movie, new ShowInventory(4, 25, 2));
+
+        assertSame(first, second);
+        assertEquals(3, first.rows());
+        assertTrue(first.isTaken(SeatId.parse("A1")));
+        assertTrue(first.isTaken(SeatId.parse("C5")));
+        assertEquals(4, first.version());
+        verify(ticketRepository, times(1)).streamSeatNumbers("Inception", "PVR");
+    }
+
+    @Test
+    void seatMap_RebuildsWhenLedgerMovedOn() {
+        when(ticketRepository.streamSeatNumbers("Inception", "PVR"))
+                .thenAnswer(i -> Stream.of("A1"))
+                .thenAnswer(i -> Stream.of("A1", "A2"));
+
+        SeatMap first = registry.seatMap(movie, new ShowInventory(4, 25, 1));
+        SeatMap second = registry.seatMap(movie, new ShowInventory(5, 25, 2));
+
+        assertNotSame(first, second);
+        assertTrue(second.isTaken(SeatId.parse("A2")));
+        assertEquals(5, second.version());
+    }
+
+    @Test
+    void seatMap_RebuildsWhenCapacityOutgrowsLayout() {
+        when(ticketRepository.streamSeatNumbers("Inception", "PVR")).thenAnswer(i -> Stream.empty());
+        SeatMap first = registry.seatMap(movie, new ShowInventory(4, 25, 0));
+
+        movie.setTotalTickets(45);
+        SeatMap second = registry.seatMap(movie, new ShowInventory(4, 45, 0));
+
+        assertNotSame(first, second);
+        assertEquals(5, second.rows());
+    }
+
+    @Test
+    void seatMap_KeepsLegacySeatsOutsideLayoutAndSkipsUnreadableOnes() {
+        when(ticketRepository.streamSeatNumbers("Inception", "PVR")).thenAnswer(i -> Stream.of("A1", "Z99", "seat-7"));
+
+        SeatMap seatMap = registry.seatMap(movie, new ShowInventory(1, 25, 3));
+
+        assertEquals(2, seatMap.takenCount());
+        assertTrue(seatMap.isTaken(SeatId.parse("Z99")));
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        when(ticketRepository.streamSeatNumbers("Inception", "PVR")).thenAnswer(i -> Stream.empty());
+        SeatMap first = registry.seatMap(movie, new ShowInventory(1, 25, 0));
+
+        registry.evict("inception", "pvr");
+
+        assertNotSame(first, registry.seatMap(movie, new ShowInventory(1, 25, 0)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.config.ShardDataSources;
+import com.moviebookingapp.config.ShardingConfig;
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.messaging.EventPublisher;
+import com.moviebookingapp.repository.MovieEntityCache;
+import com.moviebookingapp.repository.MovieRepository;
+import com.moviebookingapp.repository.TicketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "moviebooking.sharding.enabled=true",
+        "moviebooking.sharding.urls[0]=jdbc:h2:mem:cancel0;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "moviebooking.sharding.urls[1]=jdbc:h2:mem:cancel1;DB_CLOSE_DELAY=-1;MODE=MySQL",
+        "moviebooking.sharding.theatres[PVR]=0",
+        "moviebooking.sharding.theatres[IMAX]=1",
+        "moviebooking.seats.seats-per-row=10"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(AopAutoConfiguration.class)
+@Import({ShardingConfig.class, MovieEntityCache.class, BookingLedger.class, SeatMapRegistry.class, TicketService.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShardedTicketCancellationIntegrationTest {
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private ShowAvailabilityService showAvailabilityService;
+
+    @MockBean
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private BookingLedger bookingLedger;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository.save(Movie.builder().movieName("Inception").theatreName("PVR")
+                .totalTickets(20).status("BOOK ASAP").build());
+        movieRepository.save(Movie.builder().movieName("Inception").theatreName("IMAX")
+                .totalTickets(20).status("BOOK ASAP").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        for (int shard = 0; shard < shardDataSources.size(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shardDataSources.get(shard));
+            jdbc.execute("DELETE FROM ticket_seats");
+            jdbc.execute("DELETE FROM tickets");
+            jdbc.execute("DELETE FROM ledger_events");
+            jdbc.execute("DELETE FROM inventory_snapshots");
+            jdbc.execute("DELETE FROM movies");
+        }
+    }
+
+    @Test
+    void cancelSomeSeats_TicketOnAnotherShard_UpdatesItInPlace() {
+        Ticket booked = ticketService.bookBestSeats("Inception", "IMAX", 3, "alice");
+
+        BookedInfoDTO result = ticketService.cancelTicket(booked.getId(), "alice", List.of(booked.getSeatNumbers().get(0)));
+
+        assertEquals(2, result.getBooked());
+        assertEquals(2, bookingLedger.inventory("Inception", "IMAX").booked());
+        List<String> remaining = new TransactionTemplate(transactionManager).execute(status ->
+                List.copyOf(ticketRepository.findByIdAndTheatreName(booked.getId(), "IMAX").orElseThrow().getSeatNumbers()));
+        assertEquals(List.copyOf(booked.getSeatNumbers().subList(1, 3)), remaining);
+    }
+
+    @Test
+    void cancel_IdReusedOnAnotherShard_CancelsTheCallersTicket() {
+        Ticket alices = ticketService.bookBestSeats("Inception", "IMAX", 2, "alice");
+        // Each shard numbers its own tickets, so the same id can belong to someone else elsewhere.
+        JdbcTemplate pvr = new JdbcTemplate(shardDataSources.get(0));
+        pvr.update("INSERT INTO tickets (id, movie_name, theatre_name, num_tickets, user_login_id) VALUES (?, ?, ?, ?, ?)",
+                alices.getId(), "Inception", "PVR", 1, "bob");
+        pvr.update("INSERT INTO ticket_seats (ticket_id, seat_number) VALUES (?, ?)", alices.getId(), "A1");
+
+        ticketService.cancelTicket(alices.getId(), "alice", null);
+
+        assertEquals(0, bookingLedger.inventory("Inception", "IMAX").booked());
+        assertEquals(0, new JdbcTemplate(shardDataSources.get(1)).queryForObject("SELECT COUNT(*) FROM tickets", Integer.class));
+        assertEquals(List.of("PVR"), ticketRepository.findTheatreNamesById(alices.getId()));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ticketService.cancelTicket(alices.getId(), "carol", null));
+        assertEquals("Ticket does not belong to user", e.getMessage());
+    }
+}
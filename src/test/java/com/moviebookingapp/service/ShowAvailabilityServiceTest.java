@@ -0,0 +1,156 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.repository.MovieRepository;
+import com.moviebookingapp.store.ShowStateStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ShowAvailabilityServiceTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private BookingLedger bookingLedger;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<ShowStateStore> stateStores;
+
+    @InjectMocks
+    private ShowAvailabilityService showAvailabilityService;
+
+    private Movie movie(String name, String theatre, int total) {
+        return Movie.builder().movieName(name).theatreName(theatre).totalTickets(total).build();
+    }
+
+    @Test
+    void getAvailability_LoadsOnceThenServesFromSnapshot() {
+        when(movieRepository.findByMovieNameAndTheatreName("Inception", "PVR"))
+                .thenReturn(Optional.of(movie("Inception", "PVR", 10)));
+        when(bookingLedger.currentInventory("Inception", "PVR")).thenReturn(new ShowInventory(1, 10, 4));
+
+        BookedInfoDTO first = showAvailabilityService.getAvailability("Inception", "PVR");
+        BookedInfoDTO second = showAvailabilityService.getAvailability("inception", "pvr");
+
+        assertEquals(4, first.getBooked());
+        assertEquals(6, second.getRemaining());
+        assertEquals("BOOK ASAP", second.getStatus());
+        verify(movieRepository, times(1)).findByMovieNameAndTheatreName(anyString(), anyString());
+        verify(bookingLedger, times(1)).currentInventory(anyString(), anyString());
+    }
+
+    @Test
+    void getAvailability_MovieNotFound() {
+        when(movieRepository.findByMovieNameAndTheatreName("Inception", "PVR")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> showAvailabilityService.getAvailability("Inception", "PVR"));
+    }
+
+    @Test
+    void recordBooking_UpdatesSnapshotIncrementally() {
+        showAvailabilityService.update(movie("Inception", "PVR", 10), 8);
+
+        showAvailabilityService.recordBooking("Inception", "PVR", 2);
+        BookedInfoDTO info = showAvailabilityService.getAvailability("Inception", "PVR");
+
+        assertEquals(10, info.getBooked());
+        assertEquals(0, info.getRemaining());
+        assertEquals("SOLD OUT", info.getStatus());
+        verifyNoInteractions(movieRepository, bookingLedger);
+    }
+
+    @Test
+    void recordBooking_WithoutSnapshot_DoesNothing() {
+        showAvailabilityService.recordBooking("Inception", "PVR", 2);
+
+        verifyNoInteractions(movieRepository, bookingLedger);
+        verify(eventPublisher).publishEvent(ShowChangedEvent.invalidated("Inception", "PVR"));
+    }
+
+    @Test
+    void refresh_FromRemoteNode_DoesNotRepublish() {
+        showAvailabilityService.refresh("Inception", "PVR", 10, 3);
+
+        BookedInfoDTO info = showAvailabilityService.getAvailability("Inception", "PVR");
+
+        assertEquals(7, info.getRemaining());
+        verifyNoInteractions(movieRepository, bookingLedger, eventPublisher);
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        showAvailabilityService.update(movie("Inception", "PVR", 10), 1);
+        showAvailabilityService.evict("Inception", "PVR");
+        when(movieRepository.findByMovieNameAndTheatreName("Inception", "PVR"))
+                .thenReturn(Optional.of(movie("Inception", "PVR", 20)));
+        when(bookingLedger.currentInventory("Inception", "PVR")).thenReturn(new ShowInventory(1, 20, 1));
+
+        BookedInfoDTO info = showAvailabilityService.getAvailability("Inception", "PVR");
+
+        assertEquals(19, info.getRemaining());
+    }
+
+    @Test
+    void getAvailabilityByTheatre_LoadsAllTheatresOnceThenCaches() {
+        when(movieRepository.findByMovieNameIgnoreCase("Inception"))
+                .thenReturn(List.of(movie("Inception", "PVR", 10), movie("Inception", "IMAX", 5)));
+        when(bookingLedger.currentInventory("Inception", "PVR")).thenReturn(ShowInventory.EMPTY);
+        when(bookingLedger.currentInventory("Inception", "IMAX")).thenReturn(new ShowInventory(3, 5, 5));
+
+        Map<String, BookedInfoDTO> first = showAvailabilityService.getAvailabilityByTheatre("Inception");
+        Map<String, BookedInfoDTO> second = showAvailabilityService.getAvailabilityByTheatre("Inception");
+
+        assertEquals(2, first.size());
+        assertEquals("BOOK ASAP", first.get("PVR").getStatus());
+        assertEquals("SOLD OUT", first.get("IMAX").getStatus());
+        assertEquals(first.keySet(), second.keySet());
+        verify(movieRepository, times(1)).findByMovieNameIgnoreCase("Inception");
+        verify(bookingLedger, times(2)).currentInventory(eq("Inception"), anyString());
+    }
+
+    @Test
+    void restore_ServesSnapshotsPersistedBeforeRestart(@TempDir Path directory) throws Exception {
+        try (ShowStateStore store = ShowStateStore.open(directory, 1000, 64)) {
+            when(stateStores.getIfAvailable()).thenReturn(store);
+            showAvailabilityService.restore();
+            showAvailabilityService.update(movie("Inception", "PVR", 10), 3);
+            showAvailabilityService.recordBooking("Inception", "PVR", 2);
+        }
+
+        try (ShowStateStore store = ShowStateStore.open(directory, 1000, 64)) {
+            ShowAvailabilityService restarted = new ShowAvailabilityService(movieRepository, bookingLedger,
+                    eventPublisher, stateStores);
+            when(stateStores.getIfAvailable()).thenReturn(store);
+            restarted.restore();
+
+            BookedInfoDTO info = restarted.getAvailability("Inception", "PVR");
+
+            assertEquals(5, info.getBooked());
+            assertEquals(5, info.getRemaining());
+            verifyNoInteractions(movieRepository, bookingLedger);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.moviebookingapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowComputationCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShowComputationCoalescer coalescer = new ShowComputationCoalescer(meterRegistry);
+
+    @Test
+    void execute_CallersArrivingDuringARunShareOneFollowUpRun() throws Exception {
+        int callers = 16;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = burst(callers, () -> {
+            int run = executions.incrementAndGet();
+            await(release);
+            return run;
+        }, release);
+
+        assertEquals(1, results.get(0).get(5, TimeUnit.SECONDS));
+        for (Future<Integer> result : results.subList(1, callers)) {
+            assertEquals(2, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, executions.get());
+        assertEquals(2.0, count("executed"));
+        assertEquals(callers - 2.0, count("coalesced"));
+    }
+
+    @Test
+    void execute_FailureIsSharedWithWaitingCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = burst(4, () -> {
+            await(release);
+            throw new IllegalArgumentException("Movie not found");
+        }, release);
+
+        for (Future<Integer> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void execute_SequentialCallsAreNotCached() {
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute("availability", "Avatar", "PVR", executions::incrementAndGet);
+        int second = coalescer.execute("availability", "avatar", "pvr", executions::incrementAndGet);
+
+        assertEquals(2, second);
+        assertEquals(0.0, count("coalesced"));
+    }
+
+    @Test
+    void execute_DifferentShowsDoNotCoalesce() {
+        AtomicInteger executions = new AtomicInteger();
+
+        coalescer.execute("availability", "Avatar", "PVR", () -> coalescer.execute("availability", "Avatar", "IMAX",
+                executions::incrementAndGet));
+
+        assertEquals(1, executions.get());
+        assertEquals(2.0, count("executed"));
+    }
+
+    // The first caller is running before the rest arrive; the rest queue for one follow-up run.
+    private List<Future<Integer>> burst(int callers, Supplier<Integer> work, CountDownLatch release)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        List<Future<Integer>> results = new ArrayList<>();
+        results.add(pool.submit(() -> coalescer.execute("availability", "Avatar", "PVR", work)));
+        while (count("executed") < 1) {
+            Thread.sleep(5);
+        }
+        for (int i = 1; i < callers; i++) {
+            results.add(pool.submit(() -> coalescer.execute("availability", "Avatar", "PVR", work)));
+        }
+        while (count("coalesced") < callers - 2) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        pool.shutdown();
+        return results;
+    }
+
+    private double count(String result) {
+        var counter = meterRegistry.find("moviebooking.show.computations")
+                .tags("operation", "availability", "result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.SeatId;
+import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.messaging.EventPublisher;
+import com.moviebookingapp.repository.InventorySnapshotRepository;
+import com.moviebookingapp.repository.LedgerEventRepository;
+import com.moviebookingapp.repository.MovieEntityCache;
+import com.moviebookingapp.repository.MovieRepository;
+import com.moviebookingapp.repository.TicketRepository;
+import com.moviebookingapp.store.SeatMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({MovieEntityCache.class, BookingLedger.class, SeatMapRegistry.class, TicketService.class})
+@TestPropertySource(properties = {"moviebooking.ledger.snapshot-interval=10", "moviebooking.seats.seats-per-row=10"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TicketCancellationIntegrationTest {
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockBean
+    private ShowAvailabilityService showAvailabilityService;
+
+    @MockBean
+    private EventPublisher eventPublisher;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private BookingLedger bookingLedger;
+
+    @Autowired
+    private SeatMapRegistry seatMapRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private LedgerEventRepository ledgerEventRepository;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @BeforeEach
+    void setUp() {
+        movieRepository.save(Movie.builder().movieName("Inception").theatreName("PVR")
+                .totalTickets(20).status("BOOK ASAP").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEventRepository.deleteAll();
+        snapshotRepository.deleteAll();
+        ticketRepository.deleteAll();
+        movieRepository.deleteAll();
+    }
+
+    @Test
+    void cancel_SoldOutShow_ReopensItAndFreesTheSeats() {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int row = 0; row < 2; row++) {
+            tickets.add(ticketService.bookBestSeats("Inception", "PVR", 10, "user" + row));
+        }
+        BookedInfoDTO afterSeat = ticketService.cancelTicket(tickets.get(0).getId(), "user0", List.of("B1"));
+        assertEquals(19, afterSeat.getBooked());
+        assertEquals("BOOK ASAP", afterSeat.getStatus());
+
+        BookedInfoDTO afterWhole = ticketService.cancelTicket(tickets.get(1).getId(), "user1", null);
+
+        assertEquals(9, afterWhole.getBooked());
+        assertEquals(11, afterWhole.getRemaining());
+        assertEquals("BOOK ASAP", movieRepository.findByMovieNameAndTheatreName("Inception", "PVR")
+                .orElseThrow().getStatus());
+        assertEquals(9, bookingLedger.inventory("Inception", "PVR").booked());
+        assertFalse(ticketRepository.existsById(tickets.get(1).getId()));
+
+        Ticket rebooked = ticketService.bookTicket(Ticket.builder().movieName("Inception").theatreName("PVR")
+                .numberOfTickets(1).seatNumbers(new ArrayList<>(List.of("B1"))).userLoginId("user2").build());
+        assertNotNull(rebooked.getId());
+    }
+
+    @Test
+    void cancelAndBook_Concurrently_NeverDoubleBookAndKeepCountsInStep() throws Exception {
+        List<Ticket> singles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            singles.add(ticketService.bookBestSeats("Inception", "PVR", 1, "user" + i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        AtomicInteger rebooked = new AtomicInteger();
+        List<Callable<Void>> work = new ArrayList<>();
+        for (Ticket single : singles) {
+            work.add(() -> {
+                ticketService.cancelTicket(single.getId(), single.getUserLoginId(), null);
+                return null;
+            });
+            work.add(() -> {
+                // Races the cancellations: only seats already given back can be booked.
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    try {
+                        ticketService.bookBestSeats("Inception", "PVR", 1, "late");
+                        rebooked.incrementAndGet();
+                        return null;
+                    } catch (IllegalArgumentException e) {
+                        Thread.sleep(5);
+                    }
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(work)) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<List<String>> remaining = new TransactionTemplate(transactionManager).execute(status ->
+                ticketRepository.findAll().stream()
+                        .filter(t -> t.getMovieName().equals("Inception"))
+                        .map(t -> List.copyOf(t.getSeatNumbers()))
+                        .toList());
+        Set<String> seats = new HashSet<>();
+        int seatCount = 0;
+        for (List<String> ticketSeats : remaining) {
+            seats.addAll(ticketSeats);
+            seatCount += ticketSeats.size();
+        }
+        assertEquals(seatCount, seats.size(), "a seat was booked twice: " + remaining);
+        assertEquals(rebooked.get(), remaining.size());
+        assertEquals(rebooked.get(), bookingLedger.inventory("Inception", "PVR").booked());
+
+        // The map updated in place agrees with one rebuilt from the database.
+        Movie movie = movieRepository.findByMovieNameAndTheatreName("Inception", "PVR").orElseThrow();
+        ShowInventory inventory = bookingLedger.inventory("Inception", "PVR");
+        SeatMap inPlace = seatMapRegistry.seatMap(movie, inventory);
+        seatMapRegistry.evict("Inception", "PVR");
+        SeatMap rebuilt = seatMapRegistry.seatMap(movie, inventory);
+        assertNotSame(inPlace, rebuilt);
+        assertEquals(rebooked.get(), inPlace.takenCount());
+        for (int row = 0; row < rebuilt.rows(); row++) {
+            for (int column = 0; column < rebuilt.seatsPerRow(); column++) {
+                int seat = SeatId.of(row, column);
+                assertEquals(rebuilt.isTaken(seat), inPlace.isTaken(seat), SeatId.label(seat));
+            }
+        }
+    }
+}
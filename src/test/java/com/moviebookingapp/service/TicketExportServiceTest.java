@@ -0,0 +1,96 @@
+package com.moviebookingapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.moviebookingapp.dto.TicketExportRow;
+import com.moviebookingapp.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TicketExportServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private TicketExportService exportService;
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @BeforeEach
+    void setUp() {
+        exportService = new TicketExportService(ticketRepository, objectMapper);
+    }
+
+    private record Row(Long id, String movieName, String theatreName, int numberOfTickets,
+                       String userLoginId, Instant bookedAt, String seatNumber) implements TicketExportRow {
+        public Long getId() { return id; }
+        public String getMovieName() { return movieName; }
+        public String getTheatreName() { return theatreName; }
+        public int getNumberOfTickets() { return numberOfTickets; }
+        public String getUserLoginId() { return userLoginId; }
+        public Instant getBookedAt() { return bookedAt; }
+        public String getSeatNumber() { return seatNumber; }
+    }
+
+    @Test
+    void exportNdjson_GroupsSeatRowsIntoOneLinePerTicket() throws Exception {
+        Instant bookedAt = Instant.parse("2024-01-01T10:00:00Z");
+        when(ticketRepository.streamForExport("Avatar", null, null, null)).thenReturn(Stream.of(
+                new Row(1L, "Avatar", "PVR", 2, "user1", bookedAt, "A1"),
+                new Row(1L, "Avatar", "PVR", 2, "user1", bookedAt, "A2"),
+                new Row(2L, "Avatar", "IMAX", 1, "user2", null, "B7")
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportNdjson("Avatar", null, null, null, out);
+
+        assertEquals(2, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("PVR", first.get("theatreName").asText());
+        assertEquals(2, first.get("seatNumbers").size());
+        assertEquals("A2", first.get("seatNumbers").get(1).asText());
+        assertEquals("2024-01-01T10:00:00Z", first.get("bookedAt").asText());
+
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals("IMAX", second.get("theatreName").asText());
+        assertTrue(second.get("bookedAt").isNull());
+    }
+
+    @Test
+    void exportNdjson_EmptyResult_WritesNothing() throws Exception {
+        when(ticketRepository.streamForExport(any(), any(), any(), any())).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = exportService.exportNdjson(null, null, null, null, out);
+
+        assertEquals(0, written);
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void exportNdjson_InvalidRange_ThrowsException() {
+        Instant now = Instant.now();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.exportNdjson(null, null, now, now.minusSeconds(60), out));
+        verifyNoInteractions(ticketRepository);
+    }
+}
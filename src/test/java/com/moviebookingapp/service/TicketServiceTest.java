@@ -1,17 +1,26 @@
 package com.moviebookingapp.service;
 
 import com.moviebookingapp.config.AppConstants;
+import com.moviebookingapp.domain.LedgerEvent;
 import com.moviebookingapp.domain.Movie;
+import com.moviebookingapp.domain.SeatId;
 import com.moviebookingapp.domain.Ticket;
+import com.moviebookingapp.dto.BookedInfoDTO;
+import com.moviebookingapp.messaging.EventPublisher;
 import com.moviebookingapp.repository.MovieRepository;
 import com.moviebookingapp.repository.TicketRepository;
+import com.moviebookingapp.store.SeatMap;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,13 +37,26 @@ class TicketServiceTest {
     private MovieRepository movieRepository;
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private EventPublisher eventPublisher;
+
+    @Mock
+    private ShowAvailabilityService showAvailabilityService;
+
+    @Mock
+    private BookingLedger bookingLedger;
+
+    @Mock
+    private SeatMapRegistry seatMapRegistry;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private TicketService ticketService;
 
     private Ticket ticket;
     private Movie movie;
+    private SeatMap seatMap;
 
     @BeforeEach
     void setUp() {
@@ -52,20 +74,79 @@ class TicketServiceTest {
         movie.setMovieName("Avatar");
         movie.setTheatreName("PVR");
         movie.setTotalTickets(10);
+
+        seatMap = new SeatMap(1, 10);
+        when(seatMapRegistry.seatMap(any(), any())).thenReturn(seatMap);
+        when(bookingLedger.recordBooked(anyString(), anyString(), anyInt(), anyString()))
+                .thenReturn(LedgerEvent.builder().sequence(2L).build());
     }
 
     @Test
     @DisplayName("✅ Should book ticket successfully")
     void shouldBookTicketSuccessfully() {
-        when(movieRepository.findByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
-        when(ticketRepository.totalBookedForMovieAndTheatre("Avatar", "PVR")).thenReturn(3L);
-        when(ticketRepository.save(ticket)).thenReturn(ticket);
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 3));
+        Instant bookedAt = Instant.parse("2026-10-19T09:00:00Z");
+        when(ticketRepository.save(ticket)).thenAnswer(invocation -> {
+            ticket.setBookedAt(bookedAt);
+            return ticket;
+        });
 
         Ticket result = ticketService.bookTicket(ticket);
 
         assertThat(result).isEqualTo(ticket);
         verify(ticketRepository).save(ticket);
-        verify(kafkaTemplate).send(eq(AppConstants.KAFKA_TOPIC_TICKETS), anyString());
+        verify(eventPublisher).publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|2|" + bookedAt.toEpochMilli());
+        verify(showAvailabilityService).recordBooking("Avatar", "PVR", 2);
+        verify(bookingLedger).recordBooked("Avatar", "PVR", 2, "user123");
+        assertThat(seatMap.isTaken(SeatId.parse("A1"))).isTrue();
+        assertThat(seatMap.isTaken(SeatId.parse("A2"))).isTrue();
+        assertThat(seatMap.version()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("❌ Should fail when a requested seat is already booked")
+    void shouldFailWhenSeatAlreadyBooked() {
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 1));
+        seatMap.tryTake(SeatId.parse("A2"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ticketService.bookTicket(ticket));
+
+        assertThat(ex.getMessage()).isEqualTo("Seat A2 is already booked");
+        assertThat(seatMap.isTaken(SeatId.parse("A1"))).isFalse();
+        verify(ticketRepository, never()).save(any());
+        verify(bookingLedger, never()).recordBooked(anyString(), anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("✅ Should book a seat outside the show's layout")
+    void shouldBookSeatOutsideLayout() {
+        ticket.setSeatNumbers(Arrays.asList("A1", "B1"));
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 0));
+        when(ticketRepository.save(ticket)).thenReturn(ticket);
+
+        ticketService.bookTicket(ticket);
+
+        assertThat(seatMap.isTaken(SeatId.parse("B1"))).isTrue();
+        assertThat(seatMap.takenCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("✅ Should accept seat labels in other shapes")
+    void shouldAcceptLegacySeatLabels() {
+        ticket.setSeatNumbers(Arrays.asList("1B", "Balcony"));
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 0));
+        when(ticketRepository.save(ticket)).thenReturn(ticket);
+
+        ticketService.bookTicket(ticket);
+
+        assertThat(seatMap.isTaken(SeatId.parse("A2"))).isTrue();
+        assertThat(seatMap.takenCount()).isEqualTo(1);
+        verify(ticketRepository).save(ticket);
     }
 
     @Test
@@ -77,7 +158,7 @@ class TicketServiceTest {
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("Number of tickets must be positive");
-        verifyNoInteractions(movieRepository, ticketRepository, kafkaTemplate);
+        verifyNoInteractions(movieRepository, ticketRepository, eventPublisher);
     }
 
     @Test
@@ -89,7 +170,7 @@ class TicketServiceTest {
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("Seat numbers must be provided");
-        verifyNoInteractions(movieRepository, ticketRepository, kafkaTemplate);
+        verifyNoInteractions(movieRepository, ticketRepository, eventPublisher);
     }
 
     @Test
@@ -101,7 +182,7 @@ class TicketServiceTest {
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("Seat numbers must be provided");
-        verifyNoInteractions(movieRepository, ticketRepository, kafkaTemplate);
+        verifyNoInteractions(movieRepository, ticketRepository, eventPublisher);
     }
 
     @Test
@@ -113,7 +194,7 @@ class TicketServiceTest {
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("Number of seat numbers must match number of tickets");
-        verifyNoInteractions(movieRepository, ticketRepository, kafkaTemplate);
+        verifyNoInteractions(movieRepository, ticketRepository, eventPublisher);
     }
 
     @Test
@@ -125,47 +206,271 @@ class TicketServiceTest {
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("Duplicate seat numbers are not allowed");
-        verifyNoInteractions(movieRepository, ticketRepository, kafkaTemplate);
+        verifyNoInteractions(movieRepository, ticketRepository, eventPublisher);
     }
 
     @Test
     @DisplayName("❌ Should fail when movie/theatre not found")
     void shouldFailWhenMovieNotFound() {
-        when(movieRepository.findByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.empty());
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.empty());
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("Movie/Theatre not found");
-        verify(movieRepository).findByMovieNameAndTheatreName("Avatar", "PVR");
-        verifyNoInteractions(ticketRepository, kafkaTemplate);
+        verify(movieRepository).lockByMovieNameAndTheatreName("Avatar", "PVR");
+        verifyNoInteractions(bookingLedger);
+        verifyNoInteractions(ticketRepository, eventPublisher);
     }
 
     @Test
     @DisplayName("❌ Should fail when not enough tickets available")
     void shouldFailWhenNotEnoughTicketsAvailable() {
-        when(movieRepository.findByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
-        when(ticketRepository.totalBookedForMovieAndTheatre("Avatar", "PVR")).thenReturn(9L);
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 9));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("Not enough tickets available");
         verify(ticketRepository, never()).save(any());
-        verify(kafkaTemplate, never()).send(any(), any());
+        verify(bookingLedger, never()).recordBooked(anyString(), anyString(), anyInt(), anyString());
+        verify(eventPublisher, never()).publish(any(), any());
     }
 
     @Test
     @DisplayName("❌ Should propagate exception from repository save")
     void shouldPropagateExceptionFromSave() {
-        when(movieRepository.findByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
-        when(ticketRepository.totalBookedForMovieAndTheatre("Avatar", "PVR")).thenReturn(0L);
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 0));
         when(ticketRepository.save(ticket)).thenThrow(new RuntimeException("DB error"));
 
         RuntimeException ex = assertThrows(RuntimeException.class,
                 () -> ticketService.bookTicket(ticket));
 
         assertThat(ex.getMessage()).isEqualTo("DB error");
-        verify(kafkaTemplate, never()).send(any(), any());
+        verify(eventPublisher, never()).publish(any(), any());
+    }
+
+    @Test
+    @DisplayName("✅ Should book the best adjacent seats")
+    void shouldBookBestSeats() {
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 2));
+        seatMap.tryTake(SeatId.parse("A1"));
+        seatMap.tryTake(SeatId.parse("A3"));
+        when(ticketRepository.save(any(Ticket.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Ticket result = ticketService.bookBestSeats("Avatar", "PVR", 3, "user123");
+
+        assertThat(result.getSeatNumbers()).containsExactly("A4", "A5", "A6");
+        assertThat(result.getNumberOfTickets()).isEqualTo(3);
+        assertThat(seatMap.takenCount()).isEqualTo(5);
+        verify(bookingLedger).recordBooked("Avatar", "PVR", 3, "user123");
+        verify(showAvailabilityService).recordBooking("Avatar", "PVR", 3);
+    }
+
+    @Test
+    @DisplayName("❌ Should fail when no row has enough adjacent seats")
+    void shouldFailWhenNoAdjacentSeats() {
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 2));
+        seatMap.tryTake(SeatId.parse("A4"));
+        seatMap.tryTake(SeatId.parse("A8"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ticketService.bookBestSeats("Avatar", "PVR", 4, "user123"));
+
+        assertThat(ex.getMessage()).isEqualTo("No 4 adjacent seats available");
+        assertThat(seatMap.takenCount()).isEqualTo(2);
+        verify(ticketRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("❌ Should fail best-seat booking for a non-positive count")
+    void shouldFailBestSeatsWhenCountNotPositive() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ticketService.bookBestSeats("Avatar", "PVR", 0, "user123"));
+
+        assertThat(ex.getMessage()).isEqualTo("Number of tickets must be positive");
+        verifyNoInteractions(movieRepository, ticketRepository);
+    }
+
+    private Ticket request(int count, String... seats) {
+        return Ticket.builder()
+                .movieName("Avatar")
+                .theatreName("PVR")
+                .numberOfTickets(count)
+                .seatNumbers(Arrays.asList(seats))
+                .userLoginId("user123")
+                .build();
+    }
+
+    @Test
+    @DisplayName("✅ Should book a batch in one ledger append and refuse only conflicting requests")
+    void shouldBookBatchAndRefuseConflicts() {
+        Ticket first = request(2, "A1", "A2");
+        Ticket clash = request(1, "A2");
+        Ticket third = request(1, "A3");
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 0));
+        when(bookingLedger.recordBookings("Avatar", "PVR", List.of(first, third)))
+                .thenReturn(LedgerEvent.builder().sequence(3L).build());
+
+        List<BookingOutcome> outcomes = ticketService.bookBatch("Avatar", "PVR", List.of(first, clash, third));
+
+        assertThat(outcomes).extracting(BookingOutcome::isBooked).containsExactly(true, false, true);
+        assertThat(outcomes.get(1).error()).hasMessage("Seat A2 is already booked");
+        verify(ticketRepository).saveAll(List.of(first, third));
+        verify(showAvailabilityService).recordBooking("Avatar", "PVR", 3);
+        verify(eventPublisher).publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|2");
+        verify(eventPublisher).publish(AppConstants.KAFKA_TOPIC_TICKETS, "Avatar|PVR|1");
+        verify(eventPublisher, times(2)).publish(eq(AppConstants.KAFKA_TOPIC_TICKETS), anyString());
+        assertThat(seatMap.takenCount()).isEqualTo(3);
+        assertThat(seatMap.version()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse batch requests past the show's remaining capacity")
+    void shouldRefuseBatchRequestsPastCapacity() {
+        Ticket first = request(2, "A1", "A2");
+        Ticket second = request(1, "A3");
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 8));
+        when(bookingLedger.recordBookings("Avatar", "PVR", List.of(first)))
+                .thenReturn(LedgerEvent.builder().sequence(2L).build());
+
+        List<BookingOutcome> outcomes = ticketService.bookBatch("Avatar", "PVR", List.of(first, second));
+
+        assertThat(outcomes).extracting(BookingOutcome::isBooked).containsExactly(true, false);
+        assertThat(outcomes.get(1).error()).hasMessage("Not enough tickets available");
+        assertThat(seatMap.isTaken(SeatId.parse("A3"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("❌ Should not write anything when every batch request is refused")
+    void shouldSkipWritesWhenWholeBatchRefused() {
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 1));
+        seatMap.tryTake(SeatId.parse("A1"));
+
+        List<BookingOutcome> outcomes = ticketService.bookBatch("Avatar", "PVR", List.of(request(1, "A1")));
+
+        assertThat(outcomes.get(0).isBooked()).isFalse();
+        verify(bookingLedger, never()).recordBookings(anyString(), anyString(), anyList());
+        verify(ticketRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher, showAvailabilityService);
+    }
+
+    private Ticket bookedTicket(String... seats) {
+        for (String seat : seats) {
+            seatMap.tryTake(SeatId.parse(seat));
+        }
+        Ticket booked = Ticket.builder()
+                .id(7L)
+                .movieName("Avatar")
+                .theatreName("PVR")
+                .numberOfTickets(seats.length)
+                .seatNumbers(new ArrayList<>(Arrays.asList(seats)))
+                .userLoginId("user123")
+                .bookedAt(Instant.parse("2026-03-14T09:30:00Z"))
+                .build();
+        when(ticketRepository.findTheatreNamesById(7L)).thenReturn(List.of("PVR"));
+        when(ticketRepository.findByIdAndTheatreName(7L, "PVR")).thenReturn(Optional.of(booked));
+        when(movieRepository.lockByMovieNameAndTheatreName("Avatar", "PVR")).thenReturn(Optional.of(movie));
+        when(bookingLedger.recordCancelled(anyString(), anyString(), anyInt(), anyString()))
+                .thenReturn(LedgerEvent.builder().sequence(9L).build());
+        return booked;
+    }
+
+    @Test
+    @DisplayName("✅ Should cancel a whole ticket and reopen a sold out show")
+    void shouldCancelWholeTicket() {
+        Ticket booked = bookedTicket("A1", "A2");
+        movie.setStatus("SOLD OUT");
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(8, 10, 10));
+
+        BookedInfoDTO result = ticketService.cancelTicket(7L, "user123", null);
+
+        assertThat(result.getBooked()).isEqualTo(8);
+        assertThat(result.getRemaining()).isEqualTo(2);
+        assertThat(result.getStatus()).isEqualTo("BOOK ASAP");
+        assertThat(movie.getStatus()).isEqualTo("BOOK ASAP");
+        assertThat(seatMap.takenCount()).isZero();
+        assertThat(seatMap.version()).isEqualTo(9);
+        verify(ticketRepository).delete(booked);
+        verify(bookingLedger).recordCancelled("Avatar", "PVR", 2, "user123");
+        verify(showAvailabilityService).recordCancellation("Avatar", "PVR", 2);
+        verify(eventPublisher).publish(AppConstants.KAFKA_TOPIC_STATUS, "Avatar|PVR|BOOK ASAP|2");
+        verify(eventPublisher).publish(AppConstants.KAFKA_TOPIC_TICKETS,
+                "Avatar|PVR|2|" + booked.getBookedAt().toEpochMilli() + "|CANCELLED");
+    }
+
+    @Test
+    @DisplayName("✅ Should cancel individual seats and keep the rest of the ticket")
+    void shouldCancelSomeSeats() {
+        Ticket booked = bookedTicket("A1", "A2", "A3");
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(3, 10, 5));
+
+        BookedInfoDTO result = ticketService.cancelTicket(7L, "user123", List.of("a2"));
+
+        assertThat(result.getBooked()).isEqualTo(4);
+        assertThat(booked.getSeatNumbers()).containsExactly("A1", "A3");
+        assertThat(booked.getNumberOfTickets()).isEqualTo(2);
+        assertThat(seatMap.isTaken(SeatId.parse("A2"))).isFalse();
+        assertThat(seatMap.isTaken(SeatId.parse("A1"))).isTrue();
+        verify(ticketRepository).save(booked);
+        verify(ticketRepository, never()).delete(any());
+        verify(bookingLedger).recordCancelled("Avatar", "PVR", 1, "user123");
+        verify(eventPublisher).publish(AppConstants.KAFKA_TOPIC_TICKETS,
+                "Avatar|PVR|1|" + booked.getBookedAt().toEpochMilli() + "|SEATS_RELEASED");
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse to cancel a seat that is not on the ticket")
+    void shouldFailCancellingSeatNotOnTicket() {
+        bookedTicket("A1", "A2");
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(3, 10, 2));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ticketService.cancelTicket(7L, "user123", List.of("A2", "A5")));
+
+        assertThat(ex.getMessage()).isEqualTo("Seat A5 is not on this ticket");
+        assertThat(seatMap.takenCount()).isEqualTo(2);
+        verify(bookingLedger, never()).recordCancelled(anyString(), anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    @DisplayName("❌ Should refuse to cancel another user's ticket")
+    void shouldFailCancellingOtherUsersTicket() {
+        bookedTicket("A1");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> ticketService.cancelTicket(7L, "someone-else", null));
+
+        assertThat(ex.getMessage()).isEqualTo("Ticket does not belong to user");
+        verify(movieRepository, never()).lockByMovieNameAndTheatreName(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("❌ Should fail cancelling an unknown ticket")
+    void shouldFailCancellingUnknownTicket() {
+        when(ticketRepository.findTheatreNamesById(99L)).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class, () -> ticketService.cancelTicket(99L, "user123", null));
+        verifyNoInteractions(bookingLedger);
+    }
+
+    @Test
+    @DisplayName("✅ Should pick the caller's ticket when shards reuse an id")
+    void shouldResolveTicketIdSharedAcrossShardsByOwner() {
+        Ticket booked = bookedTicket("A1");
+        when(ticketRepository.findTheatreNamesById(7L)).thenReturn(List.of("IMAX", "PVR"));
+        when(ticketRepository.findTheatreNamesByIdAndUserLoginId(7L, "user123")).thenReturn(List.of("PVR"));
+        when(bookingLedger.inventory("Avatar", "PVR")).thenReturn(new ShowInventory(1, 10, 1));
+
+        ticketService.cancelTicket(7L, "user123", null);
+
+        verify(ticketRepository).delete(booked);
     }
 }
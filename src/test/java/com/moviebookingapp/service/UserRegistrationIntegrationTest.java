@@ -0,0 +1,106 @@
+package com.moviebookingapp.service;
+
+import com.moviebookingapp.bootstrap.UserIdentityFilterWarmer;
+import com.moviebookingapp.domain.User;
+import com.moviebookingapp.repository.MovieEntityCache;
+import com.moviebookingapp.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({MovieEntityCache.class, UserService.class, UserIdentityFilter.class, UserIdentityFilterWarmer.class,
+        UserRegistrationIntegrationTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRegistrationIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserIdentityFilter userIdentityFilter;
+
+    @Autowired
+    private UserIdentityFilterWarmer warmer;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void register_DuplicateMissedByFilter_IsMappedFromUniqueConstraint() {
+        // Inserted behind the service's back, so the filter still says "definitely new".
+        userRepository.save(user("john", "john@example.com"));
+
+        IllegalArgumentException loginTaken = assertThrows(IllegalArgumentException.class,
+                () -> userService.register(user("john", "other@example.com"), "password123", "password123"));
+        IllegalArgumentException emailTaken = assertThrows(IllegalArgumentException.class,
+                () -> userService.register(user("jane", "john@example.com"), "password123", "password123"));
+
+        assertEquals("Login Id must be unique", loginTaken.getMessage());
+        assertEquals("Email must be unique", emailTaken.getMessage());
+        assertTrue(userIdentityFilter.mightHaveLoginId("john"));
+        assertTrue(userIdentityFilter.mightHaveEmail("john@example.com"));
+    }
+
+    @Test
+    void warmUp_LoadsExistingUsersIntoFilter() {
+        userRepository.save(user("mary", "mary@example.com"));
+        assertFalse(userIdentityFilter.mightHaveLoginId("mary"));
+
+        warmer.warmUp();
+
+        assertTrue(userIdentityFilter.mightHaveLoginId("MARY"));
+        assertTrue(userIdentityFilter.mightHaveEmail("mary@example.com"));
+    }
+
+    @Test
+    void register_AddsNewUserToFilter() {
+        userService.register(user("jane", "jane@example.com"), "password123", "password123");
+
+        assertTrue(userIdentityFilter.mightHaveLoginId("jane"));
+        assertTrue(userIdentityFilter.mightHaveEmail("jane@example.com"));
+        assertTrue(userRepository.findByLoginId("jane").isPresent());
+    }
+
+    private static User user(String loginId, String email) {
+        return User.builder().firstName("John").lastName("Doe").email(email).loginId(loginId)
+                .passwordHash("$2a$10$abcdefghijklmnopqrstuv").contactNumber("9999999999").build();
+    }
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+}
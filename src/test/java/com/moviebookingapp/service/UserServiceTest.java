@@ -5,11 +5,15 @@ import com.moviebookingapp.repository.UserRepository;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Collections;
@@ -31,6 +35,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private UserIdentityFilter userIdentityFilter = new UserIdentityFilter(new SimpleMeterRegistry(), 1000, 0.01);
+
     @InjectMocks
     private UserService userService;
 
@@ -55,8 +65,6 @@ class UserServiceTest {
     void register_Success() {
         when(passwordEncoder.encode("password")).thenReturn("encodedPass");
         when(validator.validate(any(User.class))).thenReturn(Collections.emptySet());
-        when(userRepository.findByLoginId("john123")).thenReturn(Optional.empty());
-        when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         User saved = userService.register(testUser, "password", "password");
@@ -64,6 +72,21 @@ class UserServiceTest {
         assertNotNull(saved);
         assertEquals("john123", saved.getLoginId());
         verify(userRepository).save(any(User.class));
+        assertTrue(userIdentityFilter.mightHaveLoginId("john123"));
+        assertTrue(userIdentityFilter.mightHaveEmail("john@example.com"));
+        verify(eventPublisher).publishEvent(new UserRegisteredEvent("john123", "john@example.com"));
+    }
+
+    @Test
+    void register_DefinitelyNew_SkipsUniquenessLookups() {
+        when(passwordEncoder.encode("password")).thenReturn("encodedPass");
+        when(validator.validate(any(User.class))).thenReturn(Collections.emptySet());
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        userService.register(testUser, "password", "password");
+
+        verify(userRepository, never()).findByLoginId(anyString());
+        verify(userRepository, never()).findByEmail(anyString());
     }
 
     @Test
@@ -81,26 +104,70 @@ class UserServiceTest {
 
         assertThrows(ConstraintViolationException.class,
                 () -> userService.register(testUser, "password", "password"));
+        verify(passwordEncoder, never()).encode(anyString());
     }
 
     @Test
     void register_LoginIdExists_ThrowsException() {
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPass");
+        userIdentityFilter.add("john123", "someone@example.com");
         when(validator.validate(any(User.class))).thenReturn(Collections.emptySet());
         when(userRepository.findByLoginId("john123")).thenReturn(Optional.of(testUser));
 
-        assertThrows(IllegalArgumentException.class,
+        Exception ex = assertThrows(IllegalArgumentException.class,
                 () -> userService.register(testUser, "password", "password"));
+        assertEquals("Login Id must be unique", ex.getMessage());
+        verify(passwordEncoder, never()).encode(anyString());
     }
 
     @Test
     void register_EmailExists_ThrowsException() {
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPass");
+        userIdentityFilter.add("someone", "john@example.com");
         when(validator.validate(any(User.class))).thenReturn(Collections.emptySet());
-        when(userRepository.findByLoginId("john123")).thenReturn(Optional.empty());
         when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
 
-        assertThrows(IllegalArgumentException.class,
+        Exception ex = assertThrows(IllegalArgumentException.class,
+                () -> userService.register(testUser, "password", "password"));
+        assertEquals("Email must be unique", ex.getMessage());
+        verify(userRepository, never()).findByLoginId(anyString());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    void register_UniqueConstraintViolation_MapsToDuplicateError() {
+        when(passwordEncoder.encode("password")).thenReturn("encodedPass");
+        when(validator.validate(any(User.class))).thenReturn(Collections.emptySet());
+        when(userRepository.save(any(User.class))).thenThrow(
+                new DataIntegrityViolationException("Duplicate entry 'john123' for key 'users.UK_USER_LOGIN'"));
+
+        Exception ex = assertThrows(IllegalArgumentException.class,
+                () -> userService.register(testUser, "password", "password"));
+        assertEquals("Login Id must be unique", ex.getMessage());
+        assertFalse(userIdentityFilter.mightHaveEmail("john@example.com"));
+        userIdentityFilter.markWarm();
+        assertTrue(userIdentityFilter.mightBeRegistered("john123"));
+    }
+
+    @Test
+    void register_EmailConstraintViolation_TeachesFilterTheEmail() {
+        when(passwordEncoder.encode("password")).thenReturn("encodedPass");
+        when(validator.validate(any(User.class))).thenReturn(Collections.emptySet());
+        when(userRepository.save(any(User.class))).thenThrow(
+                new DataIntegrityViolationException("Duplicate entry 'john@example.com' for key 'users.UK_USER_EMAIL'"));
+
+        Exception ex = assertThrows(IllegalArgumentException.class,
+                () -> userService.register(testUser, "password", "password"));
+        assertEquals("Email must be unique", ex.getMessage());
+        assertTrue(userIdentityFilter.mightHaveEmail("john@example.com"));
+        assertFalse(userIdentityFilter.mightHaveLoginId("john123"));
+    }
+
+    @Test
+    void register_OtherIntegrityViolation_IsRethrown() {
+        when(passwordEncoder.encode("password")).thenReturn("encodedPass");
+        when(validator.validate(any(User.class))).thenReturn(Collections.emptySet());
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("value too long"));
+
+        assertThrows(DataIntegrityViolationException.class,
                 () -> userService.register(testUser, "password", "password"));
     }
 
@@ -121,6 +188,25 @@ class UserServiceTest {
         assertFalse(userService.login("john123", "password"));
     }
 
+    @Test
+    void login_UnknownUserOnceFilterIsWarm_SkipsDatabaseAndHashing() {
+        userIdentityFilter.markWarm();
+
+        assertFalse(userService.login("john123", "password"));
+        verify(userRepository, never()).findByLoginId(anyString());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void login_KnownUserOnceFilterIsWarm_ChecksPassword() {
+        userIdentityFilter.add("john123", "john@example.com");
+        userIdentityFilter.markWarm();
+        when(userRepository.findByLoginId("john123")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password", "encodedPass")).thenReturn(true);
+
+        assertTrue(userService.login("john123", "password"));
+    }
+
     @Test
     void login_WrongPassword_ReturnsFalse() {
         when(userRepository.findByLoginId("john123")).thenReturn(Optional.of(testUser));
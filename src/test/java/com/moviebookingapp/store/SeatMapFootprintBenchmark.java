@@ -0,0 +1,96 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.domain.SeatId;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Compares a million booked seats held as label strings in heap sets with the same seats in
+ * off-heap {@link SeatMap}s: live heap after a full collection, and the collector's pause time
+ * while the application churns short-lived garbage with the seats live.
+ *
+ * Not part of the test suite; run with e.g.
+ * {@code java -Xmx2g -cp target/test-classes:target/classes com.moviebookingapp.store.SeatMapFootprintBenchmark}.
+ */
+public final class SeatMapFootprintBenchmark {
+    private static final int SHOWS = 1_000;
+    private static final int SEATS_PER_SHOW = 1_000;
+    private static final int SEATS_PER_ROW = 50;
+    private static final int CHURN_ROUNDS = 2_000;
+
+    private SeatMapFootprintBenchmark() {}
+
+    public static void main(String[] args) {
+        System.out.printf("%d shows x %d seats, all booked%n", SHOWS, SEATS_PER_SHOW);
+        report("heap strings", SeatMapFootprintBenchmark::heapSets);
+        report("off-heap bitmaps", SeatMapFootprintBenchmark::seatMaps);
+    }
+
+    private static List<Set<String>> heapSets() {
+        List<Set<String>> shows = new ArrayList<>(SHOWS);
+        for (int show = 0; show < SHOWS; show++) {
+            Set<String> seats = new HashSet<>();
+            for (int seat = 0; seat < SEATS_PER_SHOW; seat++) {
+                seats.add(SeatId.label(SeatId.of(seat / SEATS_PER_ROW, seat % SEATS_PER_ROW)));
+            }
+            shows.add(seats);
+        }
+        return shows;
+    }
+
+    private static List<SeatMap> seatMaps() {
+        List<SeatMap> shows = new ArrayList<>(SHOWS);
+        for (int show = 0; show < SHOWS; show++) {
+            SeatMap seatMap = SeatMap.forCapacity(SEATS_PER_SHOW, SEATS_PER_ROW);
+            for (int seat = 0; seat < SEATS_PER_SHOW; seat++) {
+                seatMap.tryTake(SeatId.of(seat / SEATS_PER_ROW, seat % SEATS_PER_ROW));
+            }
+            shows.add(seatMap);
+        }
+        return shows;
+    }
+
+    private static void report(String name, Supplier<List<?>> build) {
+        long baseline = usedHeapAfterGc();
+        List<?> live = build.get();
+        long footprint = usedHeapAfterGc() - baseline;
+
+        long[] before = gcTotals();
+        long checksum = 0;
+        for (int round = 0; round < CHURN_ROUNDS; round++) {
+            byte[][] garbage = new byte[256][];
+            for (int i = 0; i < garbage.length; i++) {
+                garbage[i] = new byte[ThreadLocalRandom.current().nextInt(256, 4096)];
+            }
+            checksum += garbage[round % garbage.length].length;
+        }
+        long[] after = gcTotals();
+
+        System.out.printf("%-18s heap %8.1f MB, %4d collections, %6d ms paused (shows: %d, checksum %d)%n",
+                name, footprint / 1048576.0, after[0] - before[0], after[1] - before[1], live.size(), checksum);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[] {count, time};
+    }
+}
@@ -0,0 +1,216 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.domain.SeatId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapTest {
+
+    @Test
+    void seatId_RoundTripsLabels() {
+        assertEquals(SeatId.of(0, 0), SeatId.parse("A1"));
+        assertEquals(SeatId.of(25, 9), SeatId.parse("Z10"));
+        assertEquals(SeatId.of(26, 0), SeatId.parse("AA1"));
+        assertEquals(SeatId.of(27, 11), SeatId.parse("ab12"));
+        for (String label : List.of("A1", "Z10", "AA1", "AZ300", "ZZ65536")) {
+            assertEquals(label, SeatId.label(SeatId.parse(label)));
+        }
+        int seat = SeatId.parse("C7");
+        assertEquals(2, SeatId.row(seat));
+        assertEquals(6, SeatId.column(seat));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "A", "7", "A0", "1A", "A-1", "A1B", "A65537", "ZZZZ1"})
+    void seatId_RejectsMalformedLabels(String label) {
+        assertThrows(IllegalArgumentException.class, () -> SeatId.parse(label));
+    }
+
+    @Test
+    void takeAndRelease_TrackOccupancy() {
+        SeatMap seatMap = new SeatMap(3, 100);
+        int seat = SeatId.parse("B64");
+
+        assertTrue(seatMap.tryTake(seat));
+        assertFalse(seatMap.tryTake(seat));
+        assertTrue(seatMap.isTaken(seat));
+        assertFalse(seatMap.isTaken(SeatId.parse("B65")));
+        assertEquals(1, seatMap.takenCount());
+
+        assertTrue(seatMap.release(seat));
+        assertFalse(seatMap.release(seat));
+        assertEquals(0, seatMap.takenCount());
+    }
+
+    @Test
+    void tryTakeAll_OnConflictTakesNothing() {
+        SeatMap seatMap = new SeatMap(1, 10);
+        seatMap.tryTake(SeatId.parse("A3"));
+        int[] seats = {SeatId.parse("A1"), SeatId.parse("A2"), SeatId.parse("A3"), SeatId.parse("A4")};
+
+        assertEquals(SeatId.parse("A3"), seatMap.tryTakeAll(seats));
+        assertEquals(1, seatMap.takenCount());
+
+        seatMap.release(SeatId.parse("A3"));
+        assertEquals(-1, seatMap.tryTakeAll(seats));
+        assertEquals(4, seatMap.takenCount());
+    }
+
+    @Test
+    void layout_SeatsOutsideItAreTrackedSeparately() {
+        SeatMap seatMap = SeatMap.forCapacity(45, 20);
+
+        assertEquals(3, seatMap.rows());
+        assertTrue(seatMap.contains(SeatId.parse("C20")));
+        assertFalse(seatMap.contains(SeatId.parse("D1")));
+        assertFalse(seatMap.contains(SeatId.parse("A21")));
+        assertTrue(seatMap.tryTake(SeatId.parse("D1")));
+        assertFalse(seatMap.tryTake(SeatId.parse("D1")));
+        assertEquals(1, seatMap.takenCount());
+        assertTrue(seatMap.release(SeatId.parse("D1")));
+        assertFalse(seatMap.isTaken(SeatId.parse("D1")));
+    }
+
+    @Test
+    void seatId_MapsOtherLabelShapesWithoutThrowing() {
+        assertEquals(SeatId.parse("L2"), SeatId.map("12B"));
+        assertEquals(SeatId.parse("B12"), SeatId.map("b12"));
+        assertEquals(SeatId.UNMAPPED, SeatId.map("Balcony"));
+        assertEquals(SeatId.UNMAPPED, SeatId.map("seat-7"));
+        assertEquals(SeatId.UNMAPPED, SeatId.map("0A"));
+        assertEquals(SeatId.UNMAPPED, SeatId.map(null));
+    }
+
+    @Test
+    void tryTake_ConcurrentCallersGetEachSeatOnce() throws Exception {
+        SeatMap seatMap = new SeatMap(10, 64);
+        int threads = 8;
+        AtomicInteger won = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int row = 0; row < 10; row++) {
+                    for (int column = 0; column < 64; column++) {
+                        if (seatMap.tryTake(SeatId.of(row, column))) {
+                            won.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(640, won.get());
+        assertEquals(640, seatMap.takenCount());
+    }
+
+    @Test
+    void millionSeatShow_StaysUnderAMegabyteOffHeap() {
+        SeatMap seatMap = SeatMap.forCapacity(1_000_000, 1000);
+
+        assertTrue(seatMap.offHeapBytes() < 1 << 20, "off-heap bytes: " + seatMap.offHeapBytes());
+        assertTrue(seatMap.tryTake(SeatId.parse(SeatId.label(SeatId.of(999, 999)))));
+    }
+
+    @Test
+    void takeBest_PrefersMiddleRowsThenBackAndTakesAdjacentSeats() {
+        SeatMap seatMap = new SeatMap(4, 10);
+
+        assertArrayEquals(seats("C1", "C2", "C3"), seatMap.takeBest(3));
+        assertArrayEquals(seats("C4", "C5", "C6", "C7", "C8", "C9", "C10"), seatMap.takeBest(7));
+        assertArrayEquals(seats("B1", "B2"), seatMap.takeBest(2));
+        assertArrayEquals(seats("D1", "D2", "D3", "D4", "D5", "D6", "D7", "D8", "D9"), seatMap.takeBest(9));
+        assertArrayEquals(seats("B3", "B4", "B5", "B6", "B7", "B8", "B9", "B10"), seatMap.takeBest(8));
+        assertArrayEquals(seats("A1", "A2", "A3", "A4", "A5", "A6", "A7", "A8", "A9", "A10"), seatMap.takeBest(10));
+        assertEquals(0, seatMap.takeBest(2).length);
+        assertArrayEquals(seats("D10"), seatMap.takeBest(1));
+    }
+
+    @Test
+    void takeBest_FindsRunsAcrossWordBoundaries() {
+        SeatMap seatMap = new SeatMap(1, 200);
+        seatMap.tryTake(SeatId.of(0, 60));
+        seatMap.tryTake(SeatId.of(0, 150));
+
+        assertEquals(89, seatMap.longestFreeRun(0));
+        int[] taken = seatMap.takeBest(80);
+        assertEquals(80, taken.length);
+        assertEquals(SeatId.of(0, 61), taken[0]);
+        assertEquals(SeatId.of(0, 140), taken[79]);
+        assertEquals(60, seatMap.longestFreeRun(0));
+        assertEquals(0, seatMap.takeBest(61).length);
+    }
+
+    @Test
+    void takeBest_KeepsIndexInStepWithSingleSeatChanges() {
+        SeatMap seatMap = new SeatMap(1, 130);
+        for (int column = 0; column < 130; column += 2) {
+            seatMap.tryTake(SeatId.of(0, column));
+        }
+        assertEquals(1, seatMap.longestFreeRun(0));
+
+        for (int column = 60; column <= 70; column += 2) {
+            seatMap.release(SeatId.of(0, column));
+        }
+
+        assertEquals(13, seatMap.longestFreeRun(0));
+        int[] taken = seatMap.takeBest(12);
+        assertEquals(SeatId.of(0, 59), taken[0]);
+        assertEquals(0, seatMap.takeBest(12).length);
+        assertEquals(0, seatMap.takeBest(131).length);
+    }
+
+    @Test
+    void takeBest_RandomisedAgainstLinearScan() {
+        Random random = new Random(42);
+        SeatMap seatMap = new SeatMap(1, 300);
+        boolean[] taken = new boolean[300];
+        for (int round = 0; round < 2000; round++) {
+            int column = random.nextInt(300);
+            int seat = SeatId.of(0, column);
+            if (taken[column]) {
+                seatMap.release(seat);
+            } else {
+                seatMap.tryTake(seat);
+            }
+            taken[column] = !taken[column];
+
+            int longest = 0;
+            int run = 0;
+            for (boolean occupied : taken) {
+                run = occupied ? 0 : run + 1;
+                longest = Math.max(longest, run);
+            }
+            assertEquals(longest, seatMap.longestFreeRun(0), "round " + round);
+        }
+    }
+
+    private static int[] seats(String... labels) {
+        int[] seatIds = new int[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            seatIds[i] = SeatId.parse(labels[i]);
+        }
+        return seatIds;
+    }
+}
@@ -0,0 +1,193 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.domain.ShowKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowStateStoreTest {
+
+    private static final ShowKey INCEPTION_PVR = ShowKey.of("Inception", "PVR");
+    private static final ShowKey INCEPTION_IMAX = ShowKey.of("Inception", "IMAX");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopen_AfterCleanClose_RestoresStateFromSnapshot() throws Exception {
+        try (ShowStateStore store = ShowStateStore.open(directory, 1000, 64)) {
+            store.put(INCEPTION_PVR, new ShowState("PVR", 100, 10));
+            store.put(INCEPTION_IMAX, new ShowState("IMAX", 50, 5));
+            store.put(INCEPTION_PVR, new ShowState("PVR", 100, 12)).get(5, TimeUnit.SECONDS);
+        }
+
+        try (ShowStateStore store = ShowStateStore.open(directory, 1000, 64)) {
+            assertEquals(new ShowState("PVR", 100, 12), store.recoveredState().get(INCEPTION_PVR));
+            assertEquals(new ShowState("IMAX", 50, 5), store.recoveredState().get(INCEPTION_IMAX));
+            assertEquals(0, Files.size(onlySegment()));
+        }
+    }
+
+    @Test
+    void reopen_AfterCrash_ReplaysAcknowledgedLogRecords() throws Exception {
+        ShowStateStore store = ShowStateStore.open(directory, 1000, 64);
+        store.put(INCEPTION_PVR, new ShowState("PVR", 100, 10));
+        store.put(INCEPTION_IMAX, new ShowState("IMAX", 50, 5));
+        store.remove(INCEPTION_IMAX).get(5, TimeUnit.SECONDS);
+        store.halt();
+
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 1000, 64)) {
+            assertEquals(new ShowState("PVR", 100, 10), reopened.recoveredState().get(INCEPTION_PVR));
+            assertFalse(reopened.recoveredState().containsKey(INCEPTION_IMAX));
+        }
+    }
+
+    @Test
+    void reopen_WithTornTail_KeepsCompleteRecordsAndDropsTheRest() throws Exception {
+        ShowStateStore store = ShowStateStore.open(directory, 1000, 64);
+        store.put(INCEPTION_PVR, new ShowState("PVR", 100, 10)).get(5, TimeUnit.SECONDS);
+        store.halt();
+        Path segment = onlySegment();
+        long intact = Files.size(segment);
+
+        // Half of a second record, as if the process died mid-write.
+        byte[] partial = new WalRecord(2, INCEPTION_PVR, new ShowState("PVR", 100, 11)).encode();
+        appendBytes(segment, Arrays.copyOf(partial, partial.length / 2));
+        assertTrue(Files.size(segment) > intact);
+
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 1000, 64)) {
+            assertEquals(new ShowState("PVR", 100, 10), reopened.recoveredState().get(INCEPTION_PVR));
+            reopened.put(INCEPTION_PVR, new ShowState("PVR", 100, 13)).get(5, TimeUnit.SECONDS);
+        }
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 1000, 64)) {
+            assertEquals(13, reopened.recoveredState().get(INCEPTION_PVR).booked());
+        }
+    }
+
+    @Test
+    void reopen_WithCorruptRecord_StopsReplayAtIt() throws Exception {
+        ShowStateStore store = ShowStateStore.open(directory, 1000, 64);
+        store.put(INCEPTION_PVR, new ShowState("PVR", 100, 10)).get(5, TimeUnit.SECONDS);
+        store.put(INCEPTION_PVR, new ShowState("PVR", 100, 11)).get(5, TimeUnit.SECONDS);
+        store.put(INCEPTION_PVR, new ShowState("PVR", 100, 12)).get(5, TimeUnit.SECONDS);
+        store.halt();
+
+        // Flip a byte in the second record's payload.
+        Path segment = onlySegment();
+        int recordLength = (int) Files.size(segment) / 3;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long position = recordLength + WalRecord.HEADER_BYTES + 3;
+            channel.read(one, position);
+            one.put(0, (byte) (one.get(0) ^ 0x7f)).rewind();
+            channel.write(one, position);
+        }
+
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 1000, 64)) {
+            assertEquals(10, reopened.recoveredState().get(INCEPTION_PVR).booked());
+        }
+    }
+
+    @Test
+    void reopen_WithCorruptSnapshot_FallsBackToLog() throws Exception {
+        try (ShowStateStore store = ShowStateStore.open(directory, 1000, 64)) {
+            store.put(INCEPTION_PVR, new ShowState("PVR", 100, 10)).get(5, TimeUnit.SECONDS);
+        }
+        Path snapshot = directory.resolve(ShowStateStore.SNAPSHOT);
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length - 1] ^= 0x7f;
+        Files.write(snapshot, bytes);
+
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 1000, 64)) {
+            assertTrue(reopened.recoveredState().isEmpty());
+            reopened.put(INCEPTION_IMAX, new ShowState("IMAX", 50, 1)).get(5, TimeUnit.SECONDS);
+        }
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 1000, 64)) {
+            assertEquals(1, reopened.recoveredState().get(INCEPTION_IMAX).booked());
+        }
+    }
+
+    @Test
+    void checkpoint_RollsLogSoRecoveryReplaysOnlyTheTail() throws Exception {
+        ShowStateStore store = ShowStateStore.open(directory, 10, 1);
+        for (int booked = 1; booked <= 25; booked++) {
+            store.put(INCEPTION_PVR, new ShowState("PVR", 100, booked)).get(5, TimeUnit.SECONDS);
+        }
+        store.halt();
+
+        Path segment = onlySegment();
+        assertTrue(segment.getFileName().toString().endsWith("00000000000000000021.log"));
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 10, 1)) {
+            assertEquals(25, reopened.recoveredState().get(INCEPTION_PVR).booked());
+        }
+    }
+
+    @Test
+    void put_ConcurrentWriters_ShareFsyncs() throws Exception {
+        int writers = 8;
+        int perWriter = 200;
+        try (ShowStateStore store = ShowStateStore.open(directory, 100_000, 512)) {
+            List<Thread> threads = new ArrayList<>();
+            List<CompletableFuture<Long>> futures = Collections.synchronizedList(new ArrayList<>());
+            for (int w = 0; w < writers; w++) {
+                ShowKey key = ShowKey.of("Movie" + w, "PVR");
+                Thread thread = new Thread(() -> {
+                    for (int i = 1; i <= perWriter; i++) {
+                        futures.add(store.put(key, new ShowState("PVR", 1000, i)));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+
+            assertTrue(store.syncCount() < writers * perWriter,
+                    "expected batched fsyncs but got " + store.syncCount());
+        }
+        try (ShowStateStore reopened = ShowStateStore.open(directory, 100_000, 512)) {
+            for (int w = 0; w < writers; w++) {
+                assertEquals(perWriter, reopened.recoveredState().get(ShowKey.of("Movie" + w, "PVR")).booked());
+            }
+        }
+    }
+
+    @Test
+    void put_AfterClose_FailsFuture() throws Exception {
+        ShowStateStore store = ShowStateStore.open(directory, 1000, 64);
+        store.close();
+
+        CompletableFuture<Long> future = store.put(INCEPTION_PVR, new ShowState("PVR", 100, 1));
+
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.filter(p -> p.getFileName().toString().endsWith(".log")).toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static void appendBytes(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,91 @@
+package com.moviebookingapp.store;
+
+import com.moviebookingapp.store.SpillBuffer.SpilledEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpillBufferTest {
+
+    private static final SpilledEvent BOOKED = new SpilledEvent("moviebooking.tickets", null, "Avatar|PVR|2");
+    private static final SpilledEvent STATUS = new SpilledEvent("moviebooking.status", "avatar|pvr", "Avatar|PVR|BOOK ASAP|98");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void oldest_SealsActiveSegmentAndCompleteForgetsIt() throws Exception {
+        try (SpillBuffer buffer = SpillBuffer.open(directory, 1024)) {
+            buffer.append(BOOKED);
+            buffer.append(STATUS);
+            assertEquals(2, buffer.pending());
+
+            SpillBuffer.Segment segment = buffer.oldest();
+            assertEquals(List.of(BOOKED, STATUS), segment.events());
+
+            buffer.append(BOOKED);
+            buffer.complete(segment);
+            assertEquals(1, buffer.pending());
+            assertEquals(List.of(BOOKED), buffer.oldest().events());
+        }
+    }
+
+    @Test
+    void oldest_WhenNothingSpilled_ReturnsNull() throws Exception {
+        try (SpillBuffer buffer = SpillBuffer.open(directory, 1024)) {
+            assertNull(buffer.oldest());
+        }
+    }
+
+    @Test
+    void append_PastSegmentSize_RollsToNewSegment() throws Exception {
+        try (SpillBuffer buffer = SpillBuffer.open(directory, 40)) {
+            buffer.append(BOOKED);
+            buffer.append(STATUS);
+
+            assertEquals(List.of(BOOKED), buffer.oldest().events());
+        }
+    }
+
+    @Test
+    void reopen_KeepsUndrainedEventsAndDropsTornTail() throws Exception {
+        SpillBuffer buffer = SpillBuffer.open(directory, 1024);
+        buffer.append(BOOKED);
+        buffer.append(STATUS);
+        buffer.close();
+
+        Path segment;
+        try (SpillBuffer reopened = SpillBuffer.open(directory, 1024)) {
+            segment = reopened.oldest().path();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (SpillBuffer reopened = SpillBuffer.open(directory, 1024)) {
+            assertEquals(1, reopened.pending());
+            assertEquals(List.of(BOOKED), reopened.oldest().events());
+        }
+    }
+
+    @Test
+    void read_StopsAtCorruptRecord() throws Exception {
+        Path segment = directory.resolve("spill-00000000000000000000.log");
+        ByteBuffer first = SpillBuffer.encode(BOOKED);
+        ByteBuffer second = SpillBuffer.encode(STATUS);
+        second.put(second.limit() - 1, (byte) 'X');
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(first);
+            channel.write(second);
+        }
+
+        assertEquals(List.of(BOOKED), SpillBuffer.read(segment));
+    }
+}